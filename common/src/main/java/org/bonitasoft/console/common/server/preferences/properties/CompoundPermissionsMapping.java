@@ -38,14 +38,32 @@ public class CompoundPermissionsMapping extends SimpleProperties {
      */
     protected static CompoundPermissionsMapping getInstance(final long tenantId) {
         CompoundPermissionsMapping tenancyProperties = INSTANCES.get(tenantId);
-        if (tenancyProperties == null || SecurityProperties.getInstance(tenantId).isAPIAuthorizationsCheckInDebugMode()) {
-            final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
-            tenancyProperties = new CompoundPermissionsMapping(fileName);
-            INSTANCES.put(tenantId, tenancyProperties);
+        if (tenancyProperties == null || isReloadedOnEachAccess(tenantId, PROPERTIES_FILENAME)) {
+            tenancyProperties = loadInstance(tenantId);
         }
         return tenancyProperties;
     }
 
+    /**
+     * Load the properties of the tenant from the file and reload them in place each time the file changes
+     */
+    private static CompoundPermissionsMapping loadInstance(final long tenantId) {
+        final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
+        final CompoundPermissionsMapping tenancyProperties = new CompoundPermissionsMapping(fileName);
+        INSTANCES.put(tenantId, tenancyProperties);
+        PropertiesFileWatcher.getInstance().watch(fileName, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                final CompoundPermissionsMapping currentProperties = INSTANCES.get(tenantId);
+                if (currentProperties != null) {
+                    currentProperties.reload();
+                }
+            }
+        });
+        return tenancyProperties;
+    }
+
     CompoundPermissionsMapping(final File fileName) {
         super(fileName);
     }
@@ -51,6 +51,51 @@ public class ConsoleProperties {
      */
     public static final String CUSTOM_PAGE_DEBUG = "custom.page.debug";
 
+    /**
+     * Maximum time in milliseconds to compute the counters of a page of REST API search results
+     */
+    public static final String REST_API_COUNTERS_TIME_BUDGET = "rest.api.counters.time.budget";
+
+    /**
+     * Default counters time budget
+     */
+    public static final long DEFAULT_REST_API_COUNTERS_TIME_BUDGET = 10000L;
+
+    /**
+     * Time to live in milliseconds of the cached totals of REST API count only searches. 0 disables the cache
+     */
+    public static final String REST_API_TOTAL_CACHE_TTL = "rest.api.total.cache.ttl";
+
+    /**
+     * Number of threads deleting the items of REST API bulk deletes of a tenant
+     */
+    public static final String REST_API_BULK_DELETE_THREADS = "rest.api.bulk.delete.threads";
+
+    /**
+     * Default number of bulk delete threads
+     */
+    public static final int DEFAULT_REST_API_BULK_DELETE_THREADS = 4;
+
+    /**
+     * Interval in milliseconds between two checks of the version of a custom page against the engine. 0 checks it on each call
+     */
+    public static final String CUSTOM_PAGE_VERSION_CHECK_INTERVAL = "custom.page.version.check.interval";
+
+    /**
+     * Default custom page version check interval
+     */
+    public static final long DEFAULT_CUSTOM_PAGE_VERSION_CHECK_INTERVAL = 30000L;
+
+    /**
+     * Maximum number of custom page classloaders kept in memory. 0 for no limit
+     */
+    public static final String CUSTOM_PAGE_CLASSLOADERS_MAX = "custom.page.classloaders.max";
+
+    /**
+     * Default maximum number of custom page classloaders
+     */
+    public static final int DEFAULT_CUSTOM_PAGE_CLASSLOADERS_MAX = 100;
+
     /**
      * Instances attribute
      */
@@ -62,9 +107,9 @@ public class ConsoleProperties {
     private static final Logger LOGGER = Logger.getLogger(ConsoleProperties.class.getName());
 
     /**
-     * The loaded properties
+     * The loaded properties. Never modified once published: modifications and reloads replace them under the lock of this instance
      */
-    protected Properties properties = new Properties();
+    protected volatile Properties properties = new Properties();
 
     /**
      * The properties file
@@ -77,12 +122,31 @@ public class ConsoleProperties {
     protected static ConsoleProperties getInstance(final long tenantId) {
         ConsoleProperties tenancyProperties = INSTANCES.get(tenantId);
         if (tenancyProperties == null) {
-            tenancyProperties = new ConsoleProperties(new File(WebBonitaConstantsUtils.getInstance(tenantId).getConfFolder(), PROPERTIES_FILENAME));
-            INSTANCES.put(tenantId, tenancyProperties);
+            tenancyProperties = loadInstance(tenantId);
         }
         return tenancyProperties;
     }
 
+    /**
+     * Load the properties of the tenant from the file and reload them in place each time the file changes
+     */
+    private static ConsoleProperties loadInstance(final long tenantId) {
+        final File propertiesFile = new File(WebBonitaConstantsUtils.getInstance(tenantId).getConfFolder(), PROPERTIES_FILENAME);
+        final ConsoleProperties tenancyProperties = new ConsoleProperties(propertiesFile);
+        INSTANCES.put(tenantId, tenancyProperties);
+        PropertiesFileWatcher.getInstance().watch(propertiesFile, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                final ConsoleProperties currentProperties = INSTANCES.get(tenantId);
+                if (currentProperties != null) {
+                    currentProperties.reload();
+                }
+            }
+        });
+        return tenancyProperties;
+    }
+
     ConsoleProperties(final File propertiesFile) {
         // Read properties file.
         this.propertiesFile = propertiesFile;
@@ -97,6 +161,31 @@ public class ConsoleProperties {
         }
     }
 
+    /**
+     * Load the properties again from the file, in place. Nothing is done if the file content is the one of the loaded properties, e.g. when
+     * the change of the file was written by {@link #setProperty(String, String)}.
+     *
+     * @return true if the properties changed
+     */
+    public synchronized boolean reload() {
+        final Properties reloadedProperties = new Properties();
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(propertiesFile);
+            reloadedProperties.load(inputStream);
+        } catch (final IOException e) {
+            logSevere(e, "Bonita console properties file " + propertiesFile.getPath() + " could not be reloaded.");
+            return false;
+        } finally {
+            closeInputStream(inputStream);
+        }
+        if (reloadedProperties.equals(properties)) {
+            return false;
+        }
+        properties = reloadedProperties;
+        return true;
+    }
+
     public String getProperty(final String propertyName) {
         if (properties == null) {
             return null;
@@ -111,9 +200,11 @@ public class ConsoleProperties {
         return properties.getProperty(propertyName, defaultValue);
     }
 
-    public void removeProperty(final String propertyName) throws IOException {
+    public synchronized void removeProperty(final String propertyName) throws IOException {
         if (properties != null) {
-            properties.remove(propertyName);
+            final Properties modifiedProperties = copyProperties();
+            modifiedProperties.remove(propertyName);
+            properties = modifiedProperties;
             OutputStream outputStream = null;
             try {
                 outputStream = new FileOutputStream(propertiesFile);
@@ -126,9 +217,11 @@ public class ConsoleProperties {
         }
     }
 
-    public void setProperty(final String propertyName, final String propertyValue) throws IOException {
+    public synchronized void setProperty(final String propertyName, final String propertyValue) throws IOException {
         if (properties != null) {
-            properties.setProperty(propertyName, propertyValue);
+            final Properties modifiedProperties = copyProperties();
+            modifiedProperties.setProperty(propertyName, propertyValue);
+            properties = modifiedProperties;
             OutputStream outputStream = null;
             try {
                 outputStream = new FileOutputStream(propertiesFile);
@@ -141,6 +234,12 @@ public class ConsoleProperties {
         }
     }
 
+    private Properties copyProperties() {
+        final Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
     public long getMaxSize() {
         final String maxSize = this.getProperty(ATTACHMENT_MAX_SIZE);
         if (maxSize != null) {
@@ -154,6 +253,46 @@ public class ConsoleProperties {
         return Boolean.parseBoolean(debugMode);
     }
 
+    public long getRestApiCountersTimeBudget() {
+        final String timeBudget = this.getProperty(REST_API_COUNTERS_TIME_BUDGET);
+        if (timeBudget != null) {
+            return Long.valueOf(timeBudget);
+        }
+        return DEFAULT_REST_API_COUNTERS_TIME_BUDGET;
+    }
+
+    public long getRestApiTotalCacheTimeToLive() {
+        final String timeToLive = this.getProperty(REST_API_TOTAL_CACHE_TTL);
+        if (timeToLive != null) {
+            return Long.valueOf(timeToLive);
+        }
+        return 0L;
+    }
+
+    public int getRestApiBulkDeleteThreads() {
+        final String threads = this.getProperty(REST_API_BULK_DELETE_THREADS);
+        if (threads != null) {
+            return Integer.valueOf(threads);
+        }
+        return DEFAULT_REST_API_BULK_DELETE_THREADS;
+    }
+
+    public long getCustomPageVersionCheckInterval() {
+        final String interval = this.getProperty(CUSTOM_PAGE_VERSION_CHECK_INTERVAL);
+        if (interval != null) {
+            return Long.valueOf(interval);
+        }
+        return DEFAULT_CUSTOM_PAGE_VERSION_CHECK_INTERVAL;
+    }
+
+    public int getCustomPageClassloadersMax() {
+        final String max = this.getProperty(CUSTOM_PAGE_CLASSLOADERS_MAX);
+        if (max != null) {
+            return Integer.valueOf(max);
+        }
+        return DEFAULT_CUSTOM_PAGE_CLASSLOADERS_MAX;
+    }
+
     private void closeInputStream(final InputStream inputStream) {
         if (inputStream != null) {
             try {
@@ -18,6 +18,9 @@ import java.io.File;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
+import org.bonitasoft.console.common.server.utils.ProfilePermissionsCache;
+
 /**
  * @author Anthony Birembaut
  */
@@ -38,14 +41,34 @@ public class CustomPermissionsMapping extends SimpleProperties {
      */
     protected static CustomPermissionsMapping getInstance(final long tenantId) {
         CustomPermissionsMapping tenancyProperties = INSTANCES.get(tenantId);
-        if (tenancyProperties == null || SecurityProperties.getInstance(tenantId).isAPIAuthorizationsCheckInDebugMode()) {
-            final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
-            tenancyProperties = new CustomPermissionsMapping(fileName);
-            INSTANCES.put(tenantId, tenancyProperties);
+        if (tenancyProperties == null || isReloadedOnEachAccess(tenantId, PROPERTIES_FILENAME)) {
+            tenancyProperties = loadInstance(tenantId);
         }
         return tenancyProperties;
     }
 
+    /**
+     * Load the properties of the tenant from the file and reload them in place each time the file changes
+     */
+    private static CustomPermissionsMapping loadInstance(final long tenantId) {
+        final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
+        final CustomPermissionsMapping tenancyProperties = new CustomPermissionsMapping(fileName);
+        INSTANCES.put(tenantId, tenancyProperties);
+        PropertiesFileWatcher.getInstance().watch(fileName, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                final CustomPermissionsMapping currentProperties = INSTANCES.get(tenantId);
+                if (currentProperties != null && currentProperties.reload()) {
+                    // the decisions taken with the former mapping must not be used anymore
+                    PermissionDecisionCache.invalidateAll(tenantId);
+                    ProfilePermissionsCache.invalidateAll(tenantId);
+                }
+            }
+        });
+        return tenancyProperties;
+    }
+
     CustomPermissionsMapping(final File fileName) {
         super(fileName);
     }
@@ -18,6 +18,8 @@ import java.io.File;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
+
 /**
  * @author Anthony Birembaut
  */
@@ -38,14 +40,33 @@ public class DynamicPermissionsChecks extends ResourcesPermissionsMapping {
      */
     protected static DynamicPermissionsChecks getInstance(final long tenantId) {
         DynamicPermissionsChecks tenancyProperties = INSTANCES.get(tenantId);
-        if (tenancyProperties == null || SecurityProperties.getInstance(tenantId).isAPIAuthorizationsCheckInDebugMode()) {
-            final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
-            tenancyProperties = new DynamicPermissionsChecks(fileName);
-            INSTANCES.put(tenantId, tenancyProperties);
+        if (tenancyProperties == null || isReloadedOnEachAccess(tenantId, PROPERTIES_FILENAME)) {
+            tenancyProperties = loadInstance(tenantId);
         }
         return tenancyProperties;
     }
 
+    /**
+     * Load the properties of the tenant from the file and reload them in place each time the file changes
+     */
+    private static DynamicPermissionsChecks loadInstance(final long tenantId) {
+        final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
+        final DynamicPermissionsChecks tenancyProperties = new DynamicPermissionsChecks(fileName);
+        INSTANCES.put(tenantId, tenancyProperties);
+        PropertiesFileWatcher.getInstance().watch(fileName, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                final DynamicPermissionsChecks currentProperties = INSTANCES.get(tenantId);
+                if (currentProperties != null && currentProperties.reload()) {
+                    // the decisions taken with the former mapping must not be used anymore
+                    PermissionDecisionCache.invalidateAll(tenantId);
+                }
+            }
+        });
+        return tenancyProperties;
+    }
+
     DynamicPermissionsChecks(final File fileName) {
         super(fileName);
     }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.preferences.properties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the permissions declared in a {@link ResourcesPermissionsMapping}, compiled once when the mapping is loaded.<br>
+ * The keys of the mapping (<code>METHOD|api/resource/qualifier/...</code>) are stored in a tree of segments: method, API, resource then
+ * qualifiers, a {@link ResourcesPermissionsMapping#WILDCARD} qualifier being an ordinary child. Permission sets are unmodifiable and
+ * shared between the keys declaring the same permissions, so lookups don't allocate anything.
+ */
+class PermissionIndex {
+
+    private final Node root = new Node();
+
+    PermissionIndex(final SimpleProperties properties) {
+        final Map<Set<String>, Set<String>> internedPermissions = new HashMap<Set<String>, Set<String>>();
+        for (final String key : properties.getPropertiesNames()) {
+            final int methodSeparator = key.indexOf(ResourcesPermissionsMapping.API_METHOD_SEPARATOR);
+            if (methodSeparator < 0) {
+                continue;
+            }
+            Node node = root.getOrAddChild(key.substring(0, methodSeparator));
+            for (final String segment : key.substring(methodSeparator + 1).split("/", -1)) {
+                node = node.getOrAddChild(segment);
+            }
+            node.permissions = intern(properties.getPropertyAsSet(key), internedPermissions);
+        }
+    }
+
+    private static Set<String> intern(final Set<String> permissions, final Map<Set<String>, Set<String>> internedPermissions) {
+        if (permissions.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> interned = internedPermissions.get(permissions);
+        if (interned == null) {
+            interned = Collections.unmodifiableSet(permissions);
+            internedPermissions.put(permissions, interned);
+        }
+        return interned;
+    }
+
+    /**
+     * Get the permissions declared for a resource and its exact qualifiers
+     */
+    Set<String> getPermissions(final String method, final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+        return getPermissions(getResourceNode(method, apiName, resourceName), resourceQualifiers, -1);
+    }
+
+    /**
+     * Get the permissions declared for a resource with one of its qualifiers replaced by a wildcard. The wildcard is tried on the last qualifier
+     * first, then on the previous ones.
+     */
+    Set<String> getPermissionsWithWildCard(final String method, final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+        final Node resourceNode = getResourceNode(method, apiName, resourceName);
+        if (resourceNode != null && resourceQualifiers != null) {
+            for (int i = resourceQualifiers.size() - 1; i >= 0; i--) {
+                final Set<String> permissions = getPermissions(resourceNode, resourceQualifiers, i);
+                if (!permissions.isEmpty()) {
+                    return permissions;
+                }
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    private Node getResourceNode(final String method, final String apiName, final String resourceName) {
+        final Node methodNode = root.getChild(method);
+        final Node apiNode = methodNode != null ? methodNode.getChild(apiName) : null;
+        return apiNode != null ? apiNode.getChild(resourceName) : null;
+    }
+
+    private Set<String> getPermissions(final Node resourceNode, final List<String> resourceQualifiers, final int wildCardPosition) {
+        Node node = resourceNode;
+        if (node != null && resourceQualifiers != null) {
+            for (int i = 0; i < resourceQualifiers.size() && node != null; i++) {
+                node = node.getChild(i == wildCardPosition ? ResourcesPermissionsMapping.WILDCARD : resourceQualifiers.get(i));
+            }
+        }
+        return node != null ? node.permissions : Collections.<String> emptySet();
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<String, Node>();
+
+        private Set<String> permissions = Collections.emptySet();
+
+        private Node getChild(final String segment) {
+            return children.get(segment);
+        }
+
+        private Node getOrAddChild(final String segment) {
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node();
+                children.put(segment, child);
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.preferences.properties;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watch the properties files of the platform and of the tenants so that they are reloaded as soon as they are modified on disk, without any
+ * file access when they are read.<br>
+ * Files are watched by folder with a single {@link WatchService} and a single daemon thread. The changes of a folder are collected until no
+ * other change occurs during {@link #SETTLE_DELAY} milliseconds, so that a file is reloaded once when it is written in several steps.<br>
+ * If the file system can't be watched, or once the watcher is shut down, {@link #watch(File, Listener)} returns false and properties are loaded
+ * as before.
+ */
+public class PropertiesFileWatcher {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOGGER = Logger.getLogger(PropertiesFileWatcher.class.getName());
+
+    /**
+     * Time in milliseconds without change to wait for before notifying the listeners of a change
+     */
+    static final long SETTLE_DELAY = 100L;
+
+    private static volatile PropertiesFileWatcher INSTANCE;
+
+    /**
+     * Listener notified when a watched file is created or modified
+     */
+    public interface Listener {
+
+        void onChange(File file);
+    }
+
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> watchedFolders = new ConcurrentHashMap<WatchKey, Path>();
+
+    private final Map<Path, Listener> listeners = new ConcurrentHashMap<Path, Listener>();
+
+    private final Thread watcherThread;
+
+    /**
+     * @return the watcher, started the first time it is requested. Once shut down, a watcher watching nothing is returned.
+     */
+    public static PropertiesFileWatcher getInstance() {
+        PropertiesFileWatcher watcher = INSTANCE;
+        if (watcher == null) {
+            synchronized (PropertiesFileWatcher.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new PropertiesFileWatcher();
+                }
+                watcher = INSTANCE;
+            }
+        }
+        return watcher;
+    }
+
+    /**
+     * Stop watching the files (when the web application is stopped). The watcher is not started again afterwards.
+     */
+    public static synchronized void shutdown() {
+        if (INSTANCE != null) {
+            INSTANCE.close();
+        }
+        INSTANCE = new PropertiesFileWatcher(null);
+    }
+
+    PropertiesFileWatcher() {
+        this(newWatchService());
+    }
+
+    /**
+     * @param watchService
+     *            the service notifying the changes of the files, null to watch nothing
+     */
+    PropertiesFileWatcher(final WatchService watchService) {
+        this.watchService = watchService;
+        if (watchService != null) {
+            watcherThread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    watchFiles();
+                }
+            }, "Bonita properties files watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        } else {
+            watcherThread = null;
+        }
+    }
+
+    private static WatchService newWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (final IOException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Properties files can't be watched. They will only be reloaded in debug mode.", e);
+            }
+        } catch (final UnsupportedOperationException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Properties files can't be watched. They will only be reloaded in debug mode.", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Notify the listener each time the file is created or modified. A file has a single listener, the last one registered.
+     *
+     * @return true if the file is watched
+     */
+    public boolean watch(final File file, final Listener listener) {
+        if (watchService == null) {
+            return false;
+        }
+        final Path path = toPath(file);
+        try {
+            watchFolder(path.getParent());
+        } catch (final IOException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Properties file " + file.getPath() + " can't be watched. It will only be reloaded in debug mode.", e);
+            }
+            return false;
+        } catch (final ClosedWatchServiceException e) {
+            return false;
+        }
+        listeners.put(path, listener);
+        return true;
+    }
+
+    /**
+     * @return true if the changes of the file are watched
+     */
+    public boolean isWatching(final File file) {
+        return listeners.containsKey(toPath(file));
+    }
+
+    private synchronized void watchFolder(final Path folder) throws IOException {
+        if (!watchedFolders.containsValue(folder)) {
+            watchedFolders.put(folder.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), folder);
+        }
+    }
+
+    private Path toPath(final File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private void watchFiles() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey watchKey = watchService.take();
+                final Set<Path> changedFiles = new LinkedHashSet<Path>();
+                while (watchKey != null) {
+                    collectChangedFiles(watchKey, changedFiles);
+                    watchKey = watchService.poll(SETTLE_DELAY, TimeUnit.MILLISECONDS);
+                }
+                notifyListeners(changedFiles);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException e) {
+            // the watcher was shut down
+        }
+    }
+
+    private void collectChangedFiles(final WatchKey watchKey, final Set<Path> changedFiles) {
+        final Path folder = watchedFolders.get(watchKey);
+        for (final WatchEvent<?> event : watchKey.pollEvents()) {
+            if (folder == null) {
+                continue;
+            }
+            if (event.kind() == OVERFLOW) {
+                // some events were lost: consider that all the files of the folder changed
+                for (final Path path : listeners.keySet()) {
+                    if (folder.equals(path.getParent())) {
+                        changedFiles.add(path);
+                    }
+                }
+            } else {
+                changedFiles.add(folder.resolve((Path) event.context()));
+            }
+        }
+        if (!watchKey.reset()) {
+            watchedFolders.remove(watchKey);
+        }
+    }
+
+    private void notifyListeners(final Set<Path> changedFiles) {
+        for (final Path path : changedFiles) {
+            final Listener listener = listeners.get(path);
+            if (listener != null) {
+                try {
+                    listener.onChange(path.toFile());
+                } catch (final RuntimeException e) {
+                    if (LOGGER.isLoggable(Level.WARNING)) {
+                        LOGGER.log(Level.WARNING, "Properties file " + path + " could not be reloaded.", e);
+                    }
+                }
+            }
+        }
+    }
+
+    void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (final IOException e) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Properties files watch service could not be closed.", e);
+                }
+            }
+            watcherThread.interrupt();
+        }
+        listeners.clear();
+        watchedFolders.clear();
+    }
+}
@@ -15,8 +15,6 @@
 package org.bonitasoft.console.common.server.preferences.properties;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,52 +46,76 @@ public class ResourcesPermissionsMapping extends SimpleProperties {
      */
     protected static ResourcesPermissionsMapping getInstance(final long tenantId) {
         ResourcesPermissionsMapping tenancyProperties = INSTANCES.get(tenantId);
-        if (tenancyProperties == null || SecurityProperties.getInstance(tenantId).isAPIAuthorizationsCheckInDebugMode()) {
-            final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
-            tenancyProperties = new ResourcesPermissionsMapping(fileName);
-            INSTANCES.put(tenantId, tenancyProperties);
+        if (tenancyProperties == null || isReloadedOnEachAccess(tenantId, PROPERTIES_FILENAME)) {
+            tenancyProperties = loadInstance(tenantId);
         }
         return tenancyProperties;
     }
 
+    /**
+     * Load the properties of the tenant from the file and reload them in place each time the file changes
+     */
+    private static ResourcesPermissionsMapping loadInstance(final long tenantId) {
+        final File fileName = getTenantPropertiesFile(tenantId, PROPERTIES_FILENAME);
+        final ResourcesPermissionsMapping tenancyProperties = new ResourcesPermissionsMapping(fileName);
+        INSTANCES.put(tenantId, tenancyProperties);
+        PropertiesFileWatcher.getInstance().watch(fileName, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                final ResourcesPermissionsMapping currentProperties = INSTANCES.get(tenantId);
+                if (currentProperties != null) {
+                    currentProperties.reload();
+                }
+            }
+        });
+        return tenancyProperties;
+    }
+
+    /**
+     * Index of the mapping used for the lookups, rebuilt each time the mapping is modified
+     */
+    private volatile PermissionIndex permissionIndex;
+
     ResourcesPermissionsMapping(final File fileName) {
         super(fileName);
+        permissionIndex = new PermissionIndex(this);
     }
 
-    public Set<String> getResourcePermissions(final String method, final String apiName, final String resourceName, final List<String> resourceQualifiers) {
-        final String key = buildResourceKey(method, apiName, resourceName, resourceQualifiers);
-        return getPropertyAsSet(key);
+    @Override
+    public synchronized void setProperty(final String propertyName, final String propertyValue) {
+        super.setProperty(propertyName, propertyValue);
+        permissionIndex = new PermissionIndex(this);
     }
 
-    public Set<String> getResourcePermissionsWithWildCard(final String method, final String apiName, final String resourceName,
-            final List<String> resourceQualifiers) {
-        if (resourceQualifiers != null) {
-            for (int i = resourceQualifiers.size() - 1; i >= 0; i--) {
-                final List<String> resourceQualifiersWithWildCard = getResourceQualifiersWithWildCard(resourceQualifiers, i);
-                final String key = buildResourceKey(method, apiName, resourceName, resourceQualifiersWithWildCard);
-                final Set<String> permissions = getPropertyAsSet(key);
-                if (!permissions.isEmpty()) {
-                    return permissions;
-                }
-            }
+    @Override
+    public synchronized void removeProperty(final String propertyName) {
+        super.removeProperty(propertyName);
+        permissionIndex = new PermissionIndex(this);
+    }
+
+    @Override
+    public synchronized boolean reload() {
+        final boolean changed = super.reload();
+        if (changed) {
+            permissionIndex = new PermissionIndex(this);
         }
-        return Collections.emptySet();
+        return changed;
     }
 
-    protected List<String> getResourceQualifiersWithWildCard(final List<String> resourceQualifiers, final int wildCardPosition) {
-        final List<String> resourceQualifiersWithWildCard = new ArrayList<String>(resourceQualifiers);
-        resourceQualifiersWithWildCard.set(wildCardPosition, WILDCARD);
-        return resourceQualifiersWithWildCard;
+    /**
+     * @return the permissions declared for the resource, as an unmodifiable set
+     */
+    public Set<String> getResourcePermissions(final String method, final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+        return permissionIndex.getPermissions(method, apiName, resourceName, resourceQualifiers);
     }
 
-    protected String buildResourceKey(final String method, final String apiName, final String resourceName, final List<String> resourceQualifiers) {
-        String key = method + API_METHOD_SEPARATOR + apiName + "/" + resourceName;
-        if (resourceQualifiers != null) {
-            for (final String resourceQualifier : resourceQualifiers) {
-                key += "/" + resourceQualifier;
-            }
-        }
-        return key;
+    /**
+     * @return the permissions declared for the resource with one of its qualifiers replaced by a wildcard (the last one first), as an unmodifiable set
+     */
+    public Set<String> getResourcePermissionsWithWildCard(final String method, final String apiName, final String resourceName,
+            final List<String> resourceQualifiers) {
+        return permissionIndex.getPermissionsWithWildCard(method, apiName, resourceName, resourceQualifiers);
     }
 
     public Set<String> getResourcePermissions(final String method, final String apiName, final String resourceName) {
@@ -21,8 +21,13 @@ import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -62,6 +67,44 @@ public class SecurityProperties {
      */
     public static final String API_AUTHORIZATIONS_CHECK_DEBUG = "security.rest.api.authorizations.check.debug";
 
+    /**
+     * property for the activation of the cache of the dynamic permissions scripts decisions
+     */
+    public static final String API_AUTHORIZATIONS_CACHE = "security.rest.api.authorizations.cache.enabled";
+
+    /**
+     * property for the time to live in seconds of the dynamic permissions scripts decisions
+     */
+    public static final String API_AUTHORIZATIONS_CACHE_TTL = "security.rest.api.authorizations.cache.ttl";
+
+    /**
+     * property for the maximum number of dynamic permissions scripts decisions cached
+     */
+    public static final String API_AUTHORIZATIONS_CACHE_SIZE = "security.rest.api.authorizations.cache.size";
+
+    /**
+     * property for the HTTP methods of the calls whose dynamic permissions scripts decisions are cached
+     */
+    public static final String API_AUTHORIZATIONS_CACHE_METHODS = "security.rest.api.authorizations.cache.methods";
+
+    /**
+     * property for the time to live in seconds of the permissions computed for each profile at login
+     */
+    public static final String PROFILE_PERMISSIONS_CACHE_TTL = "security.profile.permissions.cache.ttl";
+
+    /**
+     * property for the class names of the bundled dynamic permissions rules executed by the web application instead of the engine
+     */
+    public static final String API_AUTHORIZATIONS_LOCAL_RULES = "security.rest.api.authorizations.local.rules";
+
+    private static final long DEFAULT_API_AUTHORIZATIONS_CACHE_TTL = 60;
+
+    private static final int DEFAULT_API_AUTHORIZATIONS_CACHE_SIZE = 10000;
+
+    private static final String DEFAULT_API_AUTHORIZATIONS_CACHE_METHODS = "GET";
+
+    private static final long DEFAULT_PROFILE_PERMISSIONS_CACHE_TTL = 0;
+
     /**
      * property for the auto login mechanism activation
      */
@@ -90,7 +133,17 @@ public class SecurityProperties {
     /**
      * default properties
      */
-    protected Properties defaultProperties = new Properties();
+    protected volatile Properties defaultProperties = new Properties();
+
+    /**
+     * HTTP methods whose dynamic permissions decisions are cached, parsed once per load of the properties as they are read on each REST API call
+     */
+    private volatile List<String> apiAuthorizationsCacheMethods = Collections.emptyList();
+
+    /**
+     * Class names of the bundled dynamic permissions rules executed locally, parsed once per load of the properties
+     */
+    private volatile Set<String> apiAuthorizationsLocalRules = Collections.emptySet();
 
     /**
      * Separator for the key of the instances map
@@ -107,8 +160,7 @@ public class SecurityProperties {
     public static SecurityProperties getInstance() {
         SecurityProperties securityProperties = INSTANCES.get(PLATFORM_SCOPE_CONFIG_ID);
         if (securityProperties == null) {
-            securityProperties = new SecurityProperties(WebBonitaConstantsUtils.getInstance(), PLATFORM_SCOPE_CONFIG_ID);
-            INSTANCES.put(PLATFORM_SCOPE_CONFIG_ID, securityProperties);
+            securityProperties = loadInstance(WebBonitaConstantsUtils.getInstance(), PLATFORM_SCOPE_CONFIG_ID, PLATFORM_SCOPE_CONFIG_ID);
         }
         return securityProperties;
     }
@@ -120,12 +172,30 @@ public class SecurityProperties {
         final String instanceKey = generateInstanceKey(tenantId, TENANT_SCOPE_CONFIG_ID);
         SecurityProperties securityProperties = INSTANCES.get(instanceKey);
         if (securityProperties == null) {
-            securityProperties = new SecurityProperties(WebBonitaConstantsUtils.getInstance(tenantId), TENANT_SCOPE_CONFIG_ID);
-            INSTANCES.put(instanceKey, securityProperties);
+            securityProperties = loadInstance(WebBonitaConstantsUtils.getInstance(tenantId), instanceKey, TENANT_SCOPE_CONFIG_ID);
         }
         return securityProperties;
     }
 
+    /**
+     * Load the platform or tenant properties from the file and reload them in place each time the file changes
+     */
+    private static SecurityProperties loadInstance(final WebBonitaConstantsUtils webBonitaConstantsUtils, final String instanceKey, final String configId) {
+        final SecurityProperties securityProperties = new SecurityProperties(webBonitaConstantsUtils, configId);
+        INSTANCES.put(instanceKey, securityProperties);
+        PropertiesFileWatcher.getInstance().watch(securityProperties.getSecurityPropertyFile(webBonitaConstantsUtils), new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                final SecurityProperties currentProperties = INSTANCES.get(instanceKey);
+                if (currentProperties != null) {
+                    currentProperties.reload(file);
+                }
+            }
+        });
+        return securityProperties;
+    }
+
     /**
      * @param tenantID
      * @param id
@@ -188,6 +258,62 @@ public class SecurityProperties {
                 }
             }
         }
+        parseProperties();
+    }
+
+    /**
+     * Load the properties again from the file, in place. Nothing is done if the file content is the one of the loaded properties.
+     *
+     * @return true if the properties changed
+     */
+    synchronized boolean reload(final File securityPropertiesFile) {
+        final Properties reloadedProperties = new Properties();
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(securityPropertiesFile);
+            reloadedProperties.load(inputStream);
+        } catch (final IOException e) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE, "security config file " + securityPropertiesFile.getPath() + " could not be reloaded.", e);
+            }
+            return false;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (final IOException e) {
+                    if (LOGGER.isLoggable(Level.SEVERE)) {
+                        LOGGER.log(Level.SEVERE, "security config file " + securityPropertiesFile.getPath() + " stream could not be closed.", e);
+                    }
+                }
+            }
+        }
+        if (reloadedProperties.equals(defaultProperties)) {
+            return false;
+        }
+        defaultProperties = reloadedProperties;
+        parseProperties();
+        return true;
+    }
+
+    /**
+     * Parse the properties read on each REST API call, once per load of the properties
+     */
+    private void parseProperties() {
+        final List<String> methods = new ArrayList<String>();
+        for (final String method : defaultProperties.getProperty(API_AUTHORIZATIONS_CACHE_METHODS, DEFAULT_API_AUTHORIZATIONS_CACHE_METHODS).split(",")) {
+            if (!method.trim().isEmpty()) {
+                methods.add(method.trim().toUpperCase());
+            }
+        }
+        apiAuthorizationsCacheMethods = Collections.unmodifiableList(methods);
+        final Set<String> rules = new HashSet<String>();
+        for (final String rule : defaultProperties.getProperty(API_AUTHORIZATIONS_LOCAL_RULES, "").split(",")) {
+            if (!rule.trim().isEmpty()) {
+                rules.add(rule.trim());
+            }
+        }
+        apiAuthorizationsLocalRules = Collections.unmodifiableSet(rules);
     }
 
     private File getSecurityPropertyFile(final WebBonitaConstantsUtils webBonitaConstantsUtils, final String processDefinitionId) {
@@ -325,4 +451,61 @@ public class SecurityProperties {
     public String getAutoLoginPassword() {
         return defaultProperties.getProperty(AUTO_LOGIN_PASSWORD_PROPERTY);
     }
+
+    /**
+     * @return the value to allow or not the cache of the dynamic permissions scripts decisions
+     */
+    public boolean isAPIAuthorizationsCacheEnabled() {
+        return Boolean.parseBoolean(defaultProperties.getProperty(API_AUTHORIZATIONS_CACHE));
+    }
+
+    /**
+     * @return the time to live in milliseconds of the dynamic permissions scripts decisions
+     */
+    public long getAPIAuthorizationsCacheTimeToLive() {
+        final String timeToLive = defaultProperties.getProperty(API_AUTHORIZATIONS_CACHE_TTL, String.valueOf(DEFAULT_API_AUTHORIZATIONS_CACHE_TTL));
+        try {
+            return Long.parseLong(timeToLive.trim()) * 1000;
+        } catch (final NumberFormatException e) {
+            return DEFAULT_API_AUTHORIZATIONS_CACHE_TTL * 1000;
+        }
+    }
+
+    /**
+     * @return the maximum number of dynamic permissions scripts decisions cached
+     */
+    public int getAPIAuthorizationsCacheSize() {
+        final String size = defaultProperties.getProperty(API_AUTHORIZATIONS_CACHE_SIZE, String.valueOf(DEFAULT_API_AUTHORIZATIONS_CACHE_SIZE));
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (final NumberFormatException e) {
+            return DEFAULT_API_AUTHORIZATIONS_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * @return the HTTP methods of the calls whose dynamic permissions scripts decisions are cached
+     */
+    public List<String> getAPIAuthorizationsCacheMethods() {
+        return apiAuthorizationsCacheMethods;
+    }
+
+    /**
+     * @return the time to live in milliseconds of the permissions computed for each profile at login, 0 to compute them at each login
+     */
+    public long getProfilePermissionsCacheTimeToLive() {
+        final String timeToLive = defaultProperties.getProperty(PROFILE_PERMISSIONS_CACHE_TTL, String.valueOf(DEFAULT_PROFILE_PERMISSIONS_CACHE_TTL));
+        try {
+            return Long.parseLong(timeToLive.trim()) * 1000;
+        } catch (final NumberFormatException e) {
+            return DEFAULT_PROFILE_PERMISSIONS_CACHE_TTL * 1000;
+        }
+    }
+
+    /**
+     * @return the class names of the bundled dynamic permissions rules executed by the web application instead of the engine
+     */
+    public Set<String> getAPIAuthorizationsLocalRules() {
+        return apiAuthorizationsLocalRules;
+    }
 }
@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,15 +43,21 @@ public class SimpleProperties {
     private static final Logger LOGGER = Logger.getLogger(SimpleProperties.class.getName());
 
     /**
-     * The loaded properties
+     * The loaded properties. Never modified once published: modifications and reloads replace them under the lock of this instance, so that a
+     * reload can't lose a modification made meanwhile.
      */
-    protected Properties properties = new Properties();
+    protected volatile Properties properties = new Properties();
 
     /**
      * The properties file
      */
     protected File propertiesFile;
 
+    /**
+     * Number of modifications since the properties were loaded
+     */
+    private final AtomicLong modificationCount = new AtomicLong();
+
     public SimpleProperties(final File propertiesFile) {
         this.propertiesFile = propertiesFile;
         InputStream inputStream = null;
@@ -89,6 +96,51 @@ public class SimpleProperties {
         return new File(WebBonitaConstantsUtils.getInstance().getConfFolder(), propertiesFileName);
     }
 
+    /**
+     * @return true if the properties of the tenant are loaded again from the file each time they are accessed: in API authorizations debug
+     *         mode, when the changes of the file are not watched
+     */
+    protected static boolean isReloadedOnEachAccess(final long tenantId, final String propertiesFileName) {
+        return SecurityProperties.getInstance(tenantId).isAPIAuthorizationsCheckInDebugMode()
+                && !PropertiesFileWatcher.getInstance().isWatching(getTenantPropertiesFile(tenantId, propertiesFileName));
+    }
+
+    /**
+     * Load the properties again from the file, in place, so that the instance already handed out sees the changes. Nothing is done if the file
+     * content is the one of the loaded properties, e.g. when the change of the file was written by {@link #persistProperties()}.
+     *
+     * @return true if the properties changed
+     */
+    public synchronized boolean reload() {
+        final Properties reloadedProperties = new Properties();
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(propertiesFile);
+            reloadedProperties.load(inputStream);
+        } catch (final IOException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Bonita web preferences file " + propertiesFile.getPath() + " could not be reloaded.", e);
+            }
+            return false;
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (final IOException e) {
+                    if (LOGGER.isLoggable(Level.WARNING)) {
+                        LOGGER.log(Level.WARNING, "Bonita web preferences file stream " + propertiesFile.getPath() + " could not be closed.", e);
+                    }
+                }
+            }
+        }
+        if (reloadedProperties.equals(properties)) {
+            return false;
+        }
+        properties = reloadedProperties;
+        modificationCount.incrementAndGet();
+        return true;
+    }
+
     protected void initProperties(final File aPropertiesFile) throws IOException {
         // Create the file.
         aPropertiesFile.createNewFile();
@@ -108,20 +160,39 @@ public class SimpleProperties {
         return properties.stringPropertyNames();
     }
 
-    public void removeProperty(final String propertyName) {
+    public synchronized void removeProperty(final String propertyName) {
         if (properties != null) {
-            properties.remove(propertyName);
+            final Properties modifiedProperties = copyProperties();
+            modifiedProperties.remove(propertyName);
+            properties = modifiedProperties;
+            modificationCount.incrementAndGet();
             persistProperties();
         }
     }
 
-    public void setProperty(final String propertyName, final String propertyValue) {
+    public synchronized void setProperty(final String propertyName, final String propertyValue) {
         if (properties != null) {
-            properties.setProperty(propertyName, propertyValue);
+            final Properties modifiedProperties = copyProperties();
+            modifiedProperties.setProperty(propertyName, propertyValue);
+            properties = modifiedProperties;
+            modificationCount.incrementAndGet();
             persistProperties();
         }
     }
 
+    private Properties copyProperties() {
+        final Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    /**
+     * @return the number of times the properties were modified since they were loaded, so that values computed from them can be checked
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
     protected void persistProperties() {
         if (propertiesFile != null) {
             OutputStream outputStream = null;
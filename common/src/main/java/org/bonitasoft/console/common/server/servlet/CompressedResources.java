@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.servlet;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Precompressed variants of the static files of custom pages and themes, stored next to the original file with the extension of their
+ * encoding (style.css.gz).<br>
+ * The gzip variants are built once, when the folder of a page or of a theme is extracted, so that sending a compressed file costs no CPU.
+ * Brotli variants are not built (there is no brotli encoder available) but the ones shipped in a page archive are used.<br>
+ * A variant is only used while it is not older than its original file.
+ */
+public class CompressedResources {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOGGER = Logger.getLogger(CompressedResources.class.getName());
+
+    public static final String BROTLI = "br";
+
+    public static final String GZIP = "gzip";
+
+    /**
+     * Encodings of the variants by order of preference
+     */
+    private static final String[] ENCODINGS = { BROTLI, GZIP };
+
+    /**
+     * Files smaller than this size in bytes are not worth compressing
+     */
+    static final int MIN_COMPRESSED_FILE_SIZE = 1024;
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = new HashSet<String>(Arrays.asList("css", "less", "js", "json", "map", "html", "htm",
+            "xml", "svg", "txt", "htc", "eot", "ttf", "otf"));
+
+    /**
+     * Build the gzip variant of the compressible files of a folder and of its sub folders. A file that cannot be compressed is logged and
+     * sent uncompressed.
+     */
+    public static void compress(final File folder) {
+        final File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                compress(file);
+            } else if (isCompressible(file) && !isUpToDate(getVariant(file, GZIP), file)) {
+                try {
+                    gzip(file);
+                } catch (final IOException e) {
+                    if (LOGGER.isLoggable(Level.WARNING)) {
+                        LOGGER.log(Level.WARNING, "Unable to compress the file " + file.getPath() + ", it will be sent uncompressed", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the file has a variant that can be used, in which case its response depends on the Accept-Encoding header of the request
+     */
+    public static boolean hasVariant(final File file) {
+        for (final String encoding : ENCODINGS) {
+            if (isUpToDate(getVariant(file, encoding), file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the preferred encoding accepted by the client among the ones of the variants of the file, or null if the original file must be
+     *         sent
+     */
+    public static String getAcceptedEncoding(final HttpServletRequest request, final File file) {
+        final String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return null;
+        }
+        for (final String encoding : ENCODINGS) {
+            if (isAccepted(acceptEncoding, encoding) && isUpToDate(getVariant(file, encoding), file)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    public static File getVariant(final File file, final String encoding) {
+        return new File(file.getPath() + (GZIP.equals(encoding) ? ".gz" : "." + encoding));
+    }
+
+    static boolean isAccepted(final String acceptEncoding, final String encoding) {
+        boolean accepted = false;
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] codingAndParameters = coding.trim().split(";");
+            final String codingName = codingAndParameters[0].trim();
+            if (codingName.equalsIgnoreCase(encoding)) {
+                return getQuality(codingAndParameters) > 0;
+            }
+            if ("*".equals(codingName)) {
+                accepted = getQuality(codingAndParameters) > 0;
+            }
+        }
+        return accepted;
+    }
+
+    private static float getQuality(final String[] codingAndParameters) {
+        for (int i = 1; i < codingAndParameters.length; i++) {
+            final String parameter = codingAndParameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (final NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean isCompressible(final File file) {
+        final String name = file.getName();
+        final int extensionIndex = name.lastIndexOf('.');
+        return extensionIndex != -1 && file.length() >= MIN_COMPRESSED_FILE_SIZE
+                && COMPRESSIBLE_EXTENSIONS.contains(name.substring(extensionIndex + 1).toLowerCase());
+    }
+
+    private static boolean isUpToDate(final File variant, final File file) {
+        return variant.isFile() && variant.lastModified() >= file.lastModified();
+    }
+
+    private static void gzip(final File file) throws IOException {
+        final File variant = getVariant(file, GZIP);
+        final File tempVariant = new File(variant.getPath() + ".tmp");
+        final InputStream in = new FileInputStream(file);
+        try {
+            final OutputStream out = new GZIPOutputStream(new FileOutputStream(tempVariant)) {
+
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            };
+            try {
+                IOUtils.copy(in, out);
+            } finally {
+                out.close();
+            }
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        if (!tempVariant.setLastModified(file.lastModified())) {
+            FileUtils.deleteQuietly(tempVariant);
+            throw new IOException("Unable to set the modification date of " + tempVariant.getPath());
+        }
+        // a variant is only visible once complete
+        FileUtils.deleteQuietly(variant);
+        if (!tempVariant.renameTo(variant)) {
+            FileUtils.deleteQuietly(tempVariant);
+            throw new IOException("Unable to rename " + tempVariant.getPath() + " to " + variant.getPath());
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.servlet;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Send the static files of custom pages, living application layouts and themes.<br>
+ * Files are sent with a strong ETag and their Last-Modified date, so that a conditional request (If-None-Match or If-Modified-Since) for an
+ * unchanged file is answered with a 304. The ETag is derived from the file path and from its last modification date: a page folder is
+ * extracted again for each new version of the page, so this date identifies the version of the page the file belongs to.<br>
+ * Single byte-range requests are answered with a 206.<br>
+ * Small files are kept in a bounded in-memory cache. Larger files are streamed from a file channel, through the sendfile support of the
+ * container (Tomcat) when it is available.<br>
+ * When a file has {@link CompressedResources precompressed variants}, the variant matching the Accept-Encoding header of the request is sent
+ * instead of the file.
+ */
+public class ResourceSender {
+
+    /**
+     * Files up to this size in bytes are kept in the in-memory cache
+     */
+    static final int MAX_CACHED_FILE_SIZE = 64 * 1024;
+
+    /**
+     * Total size in bytes of the files kept in the in-memory cache
+     */
+    static final long MAX_CACHE_SIZE = 16 * 1024 * 1024;
+
+    static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final String BYTES_RANGE_PREFIX = "bytes=";
+
+    private static final ResourceSender INSTANCE = new ResourceSender(MAX_CACHED_FILE_SIZE, MAX_CACHE_SIZE);
+
+    private final int maxCachedFileSize;
+
+    private final long maxCacheSize;
+
+    /**
+     * Cached file contents indexed by path, in access order. Guarded by itself
+     */
+    private final LinkedHashMap<String, CachedFile> cache = new LinkedHashMap<String, CachedFile>(16, 0.75f, true);
+
+    private long cacheSize = 0L;
+
+    ResourceSender(final int maxCachedFileSize, final long maxCacheSize) {
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    public static ResourceSender getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Send a file, or a 304 if the client already has it
+     *
+     * @param cacheControl
+     *            the Cache-Control header of the response, null for none
+     * @throws FileNotFoundException
+     *             if the file doesn't exist
+     */
+    public void send(final HttpServletRequest request, final HttpServletResponse response, final File resourceFile, final String contentType,
+            final String cacheControl) throws IOException {
+        if (!resourceFile.isFile()) {
+            throw new FileNotFoundException("Cannot find the resource file " + resourceFile.getName());
+        }
+        File file = resourceFile;
+        String encoding = null;
+        if (CompressedResources.hasVariant(resourceFile)) {
+            response.setHeader("Vary", "Accept-Encoding");
+            encoding = CompressedResources.getAcceptedEncoding(request, resourceFile);
+            if (encoding != null) {
+                file = CompressedResources.getVariant(resourceFile, encoding);
+            }
+        }
+        final long length = file.length();
+        // HTTP dates have a one second precision
+        final long lastModified = file.lastModified() / 1000 * 1000;
+        final String eTag = getETag(file, lastModified, length);
+
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+        if (cacheControl != null) {
+            response.setHeader("Cache-Control", cacheControl);
+        }
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(contentType);
+
+        long start = 0L;
+        long end = length - 1;
+        final String range = getRange(request, eTag, lastModified);
+        if (range != null) {
+            final long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+        if (encoding != null) {
+            // only set when the bytes of the variant are sent, not on the 304 and 416 answers
+            response.setHeader("Content-Encoding", encoding);
+        }
+        final long contentLength = end - start + 1;
+        response.setContentLength((int) contentLength);
+
+        if (length <= maxCachedFileSize) {
+            final byte[] content = getContent(file, lastModified, length);
+            try (OutputStream out = response.getOutputStream()) {
+                out.write(content, (int) start, (int) contentLength);
+            }
+            response.flushBuffer();
+        } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            // the container sends the file itself once the servlet returns
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+        } else {
+            transfer(file, start, contentLength, response);
+        }
+    }
+
+    String getETag(final File file, final long lastModified, final long length) {
+        return "\"" + Integer.toHexString(file.getAbsolutePath().hashCode()) + "-" + Long.toHexString(lastModified) + "-" + Long.toHexString(length)
+                + "\"";
+    }
+
+    private boolean isNotModified(final HttpServletRequest request, final String eTag, final long lastModified) {
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-Modified-Since is ignored when If-None-Match is present
+            return matches(ifNoneMatch, eTag);
+        }
+        final long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    private boolean matches(final String ifNoneMatch, final String eTag) {
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String trimmedCandidate = candidate.trim();
+            if ("*".equals(trimmedCandidate) || eTag.equals(trimmedCandidate) || ("W/" + eTag).equals(trimmedCandidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the Range header of the request, or null if there is none or if If-Range tells that the client has another version of the file
+     */
+    private String getRange(final HttpServletRequest request, final String eTag, final long lastModified) {
+        final String range = request.getHeader("Range");
+        if (range == null) {
+            return null;
+        }
+        final String ifRange = request.getHeader("If-Range");
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"")) {
+                return eTag.equals(ifRange) ? range : null;
+            }
+            final long ifRangeDate = getDateHeader(request, "If-Range");
+            return ifRangeDate == lastModified ? range : null;
+        }
+        return range;
+    }
+
+    /**
+     * @return the first and last byte of a single byte range, null if it cannot be satisfied
+     */
+    long[] parseRange(final String range, final long length) {
+        if (!range.startsWith(BYTES_RANGE_PREFIX) || range.indexOf(',') != -1) {
+            // only single byte ranges are supported: the whole file is sent for the others
+            return new long[] { 0L, length - 1 };
+        }
+        final String bounds = range.substring(BYTES_RANGE_PREFIX.length()).trim();
+        final int separatorIndex = bounds.indexOf('-');
+        if (separatorIndex == -1) {
+            return null;
+        }
+        try {
+            final long start;
+            final long end;
+            if (separatorIndex == 0) {
+                // suffix range: the last n bytes
+                final long suffixLength = Long.parseLong(bounds.substring(1));
+                if (suffixLength == 0) {
+                    return null;
+                }
+                start = Math.max(0L, length - suffixLength);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(bounds.substring(0, separatorIndex));
+                end = separatorIndex == bounds.length() - 1 ? length - 1 : Math.min(Long.parseLong(bounds.substring(separatorIndex + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private long getDateHeader(final HttpServletRequest request, final String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (final IllegalArgumentException e) {
+            // not a date
+            return -1;
+        }
+    }
+
+    private byte[] getContent(final File file, final long lastModified, final long length) throws IOException {
+        final String path = file.getAbsolutePath();
+        synchronized (cache) {
+            final CachedFile cachedFile = cache.get(path);
+            if (cachedFile != null && cachedFile.lastModified == lastModified && cachedFile.content.length == length) {
+                return cachedFile.content;
+            }
+        }
+        final byte[] content = FileUtils.readFileToByteArray(file);
+        synchronized (cache) {
+            final CachedFile replacedFile = cache.put(path, new CachedFile(lastModified, content));
+            if (replacedFile != null) {
+                cacheSize -= replacedFile.content.length;
+            }
+            cacheSize += content.length;
+            evictLeastRecentlyUsed();
+        }
+        return content;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        final Iterator<Map.Entry<String, CachedFile>> cachedFiles = cache.entrySet().iterator();
+        while (cacheSize > maxCacheSize && cachedFiles.hasNext()) {
+            cacheSize -= cachedFiles.next().getValue().content.length;
+            cachedFiles.remove();
+        }
+    }
+
+    long getCacheSize() {
+        synchronized (cache) {
+            return cacheSize;
+        }
+    }
+
+    private void transfer(final File file, final long start, final long contentLength, final HttpServletResponse response) throws IOException {
+        try (FileInputStream in = new FileInputStream(file);
+                FileChannel fileChannel = in.getChannel();
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = start;
+            final long end = start + contentLength;
+            while (position < end) {
+                final long transferred = fileChannel.transferTo(position, end - position, out);
+                if (transferred <= 0) {
+                    throw new IOException("Unable to send the file " + file.getName() + " after " + (position - start) + " bytes");
+                }
+                position += transferred;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    private static class CachedFile {
+
+        private final long lastModified;
+
+        private final byte[] content;
+
+        private CachedFile(final long lastModified, final byte[] content) {
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+    }
+}
@@ -18,7 +18,6 @@ package org.bonitasoft.console.common.server.servlet;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.logging.Level;
@@ -32,7 +31,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
-import org.apache.commons.io.FileUtils;
 import org.bonitasoft.console.common.server.utils.BonitaHomeFolderAccessor;
 import org.bonitasoft.console.common.server.utils.SessionUtil;
 import org.bonitasoft.engine.session.APISession;
@@ -108,7 +106,6 @@ public abstract class ResourceServlet extends HttpServlet {
      */
     protected void getResourceFile(final HttpServletRequest request, final HttpServletResponse response, String resourceName, String fileName)
             throws ServletException, UnsupportedEncodingException {
-        byte[] content = null;
         String contentType = null;
         if (resourceName == null) {
             final String errorMessage = "Error while using the servlet to get a resource: the parameter " + getResourceParameterName() + " is null.";
@@ -181,14 +178,7 @@ public abstract class ResourceServlet extends HttpServlet {
             if (contentType == null) {
                 contentType = "application/octet-stream";
             }
-            content = FileUtils.readFileToByteArray(file);
-            response.setContentType(contentType);
-            response.setContentLength(content.length);
-            response.setBufferSize(content.length);
-            final OutputStream out = response.getOutputStream();
-            out.write(content, 0, content.length);
-            response.flushBuffer();
-            out.close();
+            ResourceSender.getInstance().send(request, response, file, contentType, "no-cache");
         } catch (final IOException e) {
             if (LOGGER.isLoggable(Level.SEVERE)) {
                 LOGGER.log(Level.SEVERE, "Error while generating the response.", e);
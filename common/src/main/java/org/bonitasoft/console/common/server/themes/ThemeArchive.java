@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 
 import org.apache.commons.io.FileUtils;
+import org.bonitasoft.console.common.server.servlet.CompressedResources;
 import org.bonitasoft.console.common.server.utils.UnzipUtil;
 
 public class ThemeArchive {
@@ -55,6 +56,14 @@ public class ThemeArchive {
             }
             return this;
         }
+
+        /**
+         * Build the compressed variants of the theme files. Must be called once all the files are added.
+         */
+        public ThemeModifier compress() {
+            CompressedResources.compress(themeDirectory);
+            return this;
+        }
     }
 
     public ThemeArchive(byte[] zippedTheme) {
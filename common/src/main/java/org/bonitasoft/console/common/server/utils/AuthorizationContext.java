@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+
+import org.bonitasoft.engine.session.APISession;
+
+/**
+ * What the REST API authorization checks need to know about the user of a session, created at login and stored in a single session attribute so
+ * that a call is authorized with one session read.
+ */
+public class AuthorizationContext implements Serializable {
+
+    private static final long serialVersionUID = -5120786394125781034L;
+
+    private final APISession apiSession;
+
+    private final Set<String> permissions;
+
+    /**
+     * @param permissions
+     *        the permissions of the user, not copied: the set must not be modified afterwards
+     */
+    public AuthorizationContext(final APISession apiSession, final Set<String> permissions) {
+        this.apiSession = apiSession;
+        if (permissions != null) {
+            this.permissions = permissions;
+        } else {
+            this.permissions = Collections.emptySet();
+        }
+    }
+
+    public APISession getApiSession() {
+        return apiSession;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    public long getTenantId() {
+        return apiSession.getTenantId();
+    }
+
+    public boolean isTechnicalUser() {
+        return apiSession.isTechnicalUser();
+    }
+}
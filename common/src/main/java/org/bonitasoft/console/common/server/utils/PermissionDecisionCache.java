@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bonitasoft.engine.api.permission.APICallContext;
+
+/**
+ * Short-lived cache of the decisions of the dynamic permissions scripts of a tenant, indexed by user then by script and REST API call.<br>
+ * Decisions expire after the time to live of the cache. The decisions of a user are dropped on logout, and all the decisions of the tenant
+ * when profile members, actor members or memberships change, or when the dynamic checks or custom permissions mapping files are modified.
+ */
+public class PermissionDecisionCache {
+
+    private static final ConcurrentMap<Long, PermissionDecisionCache> INSTANCES = new ConcurrentHashMap<Long, PermissionDecisionCache>();
+
+    private final long timeToLive;
+
+    private final int maxSize;
+
+    private final Set<String> cachedMethods;
+
+    private final ConcurrentMap<Long, ConcurrentMap<String, Decision>> decisions = new ConcurrentHashMap<Long, ConcurrentMap<String, Decision>>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    PermissionDecisionCache(final long timeToLive, final int maxSize, final Collection<String> cachedMethods) {
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize;
+        this.cachedMethods = new HashSet<String>(cachedMethods);
+    }
+
+    /**
+     * @param timeToLive
+     *            the time to live in milliseconds of the decisions
+     * @param maxSize
+     *            the maximum number of decisions kept for the tenant
+     * @param cachedMethods
+     *            the HTTP methods of the calls whose decisions are cached
+     * @return the cache of the tenant, replaced by an empty one if it was created with other settings (after a change of the security
+     *         properties)
+     */
+    public static PermissionDecisionCache getInstance(final long tenantId, final long timeToLive, final int maxSize, final Collection<String> cachedMethods) {
+        while (true) {
+            final PermissionDecisionCache decisionCache = INSTANCES.get(tenantId);
+            if (decisionCache != null && decisionCache.hasSettings(timeToLive, maxSize, cachedMethods)) {
+                return decisionCache;
+            }
+            final PermissionDecisionCache newDecisionCache = new PermissionDecisionCache(timeToLive, maxSize, cachedMethods);
+            if (decisionCache == null ? INSTANCES.putIfAbsent(tenantId, newDecisionCache) == null
+                    : INSTANCES.replace(tenantId, decisionCache, newDecisionCache)) {
+                return newDecisionCache;
+            }
+        }
+    }
+
+    private boolean hasSettings(final long timeToLive, final int maxSize, final Collection<String> cachedMethods) {
+        return this.timeToLive == timeToLive && this.maxSize == maxSize && this.cachedMethods.containsAll(cachedMethods)
+                && cachedMethods.containsAll(this.cachedMethods);
+    }
+
+    /**
+     * @return the cache of the tenant or null if it was never used
+     */
+    public static PermissionDecisionCache get(final long tenantId) {
+        return INSTANCES.get(tenantId);
+    }
+
+    /**
+     * Drop the decisions taken for a user of a tenant (on logout)
+     */
+    public static void invalidateUser(final long tenantId, final long userId) {
+        final PermissionDecisionCache decisionCache = INSTANCES.get(tenantId);
+        if (decisionCache != null) {
+            decisionCache.invalidateUser(userId);
+        }
+    }
+
+    /**
+     * Drop all the decisions taken for a tenant (when permissions change)
+     */
+    public static void invalidateAll(final long tenantId) {
+        final PermissionDecisionCache decisionCache = INSTANCES.get(tenantId);
+        if (decisionCache != null) {
+            decisionCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Build the key of the decision of a script for a REST API call. The query string and the body are part of the key as scripts may check them
+     * (the filters of a search for instance).
+     */
+    public static String buildKey(final String resourceClassname, final APICallContext apiCallContext) {
+        final StringBuilder key = new StringBuilder(resourceClassname).append("|").append(apiCallContext.getMethod()).append("|")
+                .append(apiCallContext.getApiName()).append("/").append(apiCallContext.getResourceName());
+        if (apiCallContext.getResourceId() != null) {
+            key.append("/").append(apiCallContext.getResourceId());
+        }
+        if (apiCallContext.getQueryString() != null && !apiCallContext.getQueryString().isEmpty()) {
+            key.append("?").append(apiCallContext.getQueryString());
+        }
+        if (apiCallContext.getBody() != null && !apiCallContext.getBody().isEmpty()) {
+            key.append("|").append(apiCallContext.getBody());
+        }
+        return key.toString();
+    }
+
+    public boolean isCacheable(final String method) {
+        return cachedMethods.contains(method);
+    }
+
+    /**
+     * @return the cached decision or null if there is none or if it expired
+     */
+    public Boolean get(final long userId, final String key) {
+        final Map<String, Decision> userDecisions = decisions.get(userId);
+        final Decision decision = userDecisions != null ? userDecisions.get(key) : null;
+        if (decision == null || decision.isExpired(System.currentTimeMillis())) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return decision.authorized;
+    }
+
+    public void put(final long userId, final String key, final boolean authorized) {
+        final long now = System.currentTimeMillis();
+        if (size.get() >= maxSize) {
+            purge(now);
+        }
+        ConcurrentMap<String, Decision> userDecisions = decisions.get(userId);
+        if (userDecisions == null) {
+            decisions.putIfAbsent(userId, new ConcurrentHashMap<String, Decision>());
+            userDecisions = decisions.get(userId);
+        }
+        if (userDecisions.put(key, new Decision(authorized, now + timeToLive)) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    public void invalidateUser(final long userId) {
+        final Map<String, Decision> userDecisions = decisions.remove(userId);
+        if (userDecisions != null) {
+            size.addAndGet(-userDecisions.size());
+        }
+    }
+
+    public void invalidateAll() {
+        decisions.clear();
+        size.set(0);
+    }
+
+    /**
+     * Drop the expired decisions, and all decisions if the cache is still full afterwards
+     */
+    private void purge(final long now) {
+        for (final Map<String, Decision> userDecisions : decisions.values()) {
+            for (final Map.Entry<String, Decision> decision : userDecisions.entrySet()) {
+                if (decision.getValue().isExpired(now) && userDecisions.remove(decision.getKey()) != null) {
+                    size.decrementAndGet();
+                }
+            }
+        }
+        if (size.get() >= maxSize) {
+            invalidateAll();
+        }
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of the lookups answered by the cache, between 0 and 1
+     */
+    public double getHitRatio() {
+        final long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+
+    public Map<String, Object> getStatistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<String, Object>();
+        statistics.put("size", getSize());
+        statistics.put("maxSize", maxSize);
+        statistics.put("timeToLive", timeToLive);
+        statistics.put("hits", getHits());
+        statistics.put("misses", getMisses());
+        statistics.put("hitRatio", getHitRatio());
+        return statistics;
+    }
+
+    private static class Decision {
+
+        private final boolean authorized;
+
+        private final long expirationTime;
+
+        private Decision(final boolean authorized, final long expirationTime) {
+            this.authorized = authorized;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired(final long now) {
+            return now >= expirationTime;
+        }
+    }
+}
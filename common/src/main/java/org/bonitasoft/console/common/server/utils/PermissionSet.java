@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of permissions stored as a bit set. Each permission name gets an index in a dictionary shared by all the sets of the JVM, so that
+ * the permissions of a session only cost a few words and a lookup is a hash map read and a bit test.<br>
+ * Indexes are local to the JVM: a serialized set contains the permission names and gets new indexes when it is read.
+ */
+public class PermissionSet extends AbstractSet<String> implements Serializable {
+
+    private static final long serialVersionUID = 2381694719257327616L;
+
+    private static final Map<String, Integer> INDEXES = new ConcurrentHashMap<String, Integer>();
+
+    private static final List<String> NAMES = new ArrayList<String>();
+
+    private transient BitSet bits;
+
+    private transient int size;
+
+    public PermissionSet(final Collection<String> permissions) {
+        init(permissions);
+    }
+
+    private void init(final Collection<String> permissions) {
+        bits = new BitSet();
+        if (permissions != null) {
+            for (final String permission : permissions) {
+                if (permission != null) {
+                    bits.set(getOrAddIndex(permission));
+                }
+            }
+        }
+        size = bits.cardinality();
+    }
+
+    private static int getOrAddIndex(final String permission) {
+        final Integer index = INDEXES.get(permission);
+        if (index != null) {
+            return index;
+        }
+        synchronized (NAMES) {
+            Integer newIndex = INDEXES.get(permission);
+            if (newIndex == null) {
+                newIndex = NAMES.size();
+                NAMES.add(permission);
+                INDEXES.put(permission, newIndex);
+            }
+            return newIndex;
+        }
+    }
+
+    private static String getName(final int index) {
+        synchronized (NAMES) {
+            return NAMES.get(index);
+        }
+    }
+
+    @Override
+    public boolean contains(final Object permission) {
+        if (permission == null) {
+            return false;
+        }
+        final Integer index = INDEXES.get(permission);
+        return index != null && bits.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private int nextIndex = bits.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (nextIndex < 0) {
+                    throw new NoSuchElementException();
+                }
+                final String permission = getName(nextIndex);
+                nextIndex = bits.nextSetBit(nextIndex + 1);
+                return permission;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Permission sets are immutable");
+            }
+        };
+    }
+
+    @Override
+    public boolean add(final String permission) {
+        throw new UnsupportedOperationException("Permission sets are immutable");
+    }
+
+    @Override
+    public boolean remove(final Object permission) {
+        throw new UnsupportedOperationException("Permission sets are immutable");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Permission sets are immutable");
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(new ArrayList<String>(this));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init((List<String>) in.readObject());
+    }
+}
@@ -35,14 +35,26 @@ public class PermissionsBuilder {
     private final CustomPermissionsMapping customPermissionsMapping;
     private final CompoundPermissionsMapping compoundPermissionsMapping;
     private final boolean apiAuthorizationsCheckEnabled;
+    private final ProfilePermissionsCache profilePermissionsCache;
 
     protected PermissionsBuilder(final APISession session, final ProfileAPI profileAPI,final ApplicationAPI applicationAPI, final CustomPermissionsMapping customPermissionsMapping,
             final CompoundPermissionsMapping compoundPermissionsMapping, final SecurityProperties securityProperties) {
+        this(session, profileAPI, applicationAPI, customPermissionsMapping, compoundPermissionsMapping, securityProperties, null);
+    }
+
+    /**
+     * @param profilePermissionsCache
+     *        the cache of the permissions of the profiles of the tenant, null to compute them at each login
+     */
+    protected PermissionsBuilder(final APISession session, final ProfileAPI profileAPI, final ApplicationAPI applicationAPI,
+            final CustomPermissionsMapping customPermissionsMapping, final CompoundPermissionsMapping compoundPermissionsMapping,
+            final SecurityProperties securityProperties, final ProfilePermissionsCache profilePermissionsCache) {
         this.session = session;
         this.profileAPI = profileAPI;
         this.applicationAPI = applicationAPI;
         this.customPermissionsMapping = customPermissionsMapping;
         this.compoundPermissionsMapping = compoundPermissionsMapping;
+        this.profilePermissionsCache = profilePermissionsCache;
         apiAuthorizationsCheckEnabled = securityProperties.isAPIAuthorizationsCheckEnabled();
     }
 
@@ -61,6 +73,10 @@ public class PermissionsBuilder {
     }
 
     void addProfilesPermissions(final Set<String> permissions) throws LoginFailedException {
+        if (profilePermissionsCache != null) {
+            addCachedProfilesPermissions(permissions);
+            return;
+        }
         final Set<String> pageTokens;
         try {
             pageTokens = getAllPagesForUser(permissions);
@@ -72,6 +88,55 @@ public class PermissionsBuilder {
         }
     }
 
+    /**
+     * add the permissions of each profile of the user in the permissions set, using the permissions cached for the profiles when there are some
+     *
+     * @param permissions
+     *        the set to complete
+     * @throws LoginFailedException
+     */
+    void addCachedProfilesPermissions(final Set<String> permissions) throws LoginFailedException {
+        profilePermissionsCache.checkMappings(compoundPermissionsMapping, customPermissionsMapping);
+        try {
+            int profilesIndex = 0;
+            int nbOfProfilesRetrieved = MAX_ELEMENTS_RETRIEVED;
+            while (nbOfProfilesRetrieved == MAX_ELEMENTS_RETRIEVED) {
+                final List<Profile> profiles = profileAPI.getProfilesForUser(session.getUserId(), profilesIndex, MAX_ELEMENTS_RETRIEVED,
+                        ProfileCriterion.ID_ASC);
+                nbOfProfilesRetrieved = profiles.size();
+                for (final Profile profile : profiles) {
+                    permissions.addAll(getProfilePermissions(profile));
+                }
+                profilesIndex = profilesIndex + nbOfProfilesRetrieved;
+            }
+        } catch (final SearchException e) {
+            throw new LoginFailedException(e);
+        }
+    }
+
+    /**
+     * return the permissions granted by a profile: the profile itself, its custom permissions and the permissions of the pages it gives access to
+     *
+     * @param profile
+     *        the profile
+     * @return
+     *         the permissions of the profile
+     * @throws SearchException
+     */
+    Set<String> getProfilePermissions(final Profile profile) throws SearchException {
+        final Set<String> cachedPermissions = profilePermissionsCache.get(profile.getId());
+        if (cachedPermissions != null) {
+            return cachedPermissions;
+        }
+        final Set<String> permissions = new HashSet<String>();
+        final Set<String> pageTokens = new HashSet<String>();
+        addPageAndCustomPermissionsOfProfile(permissions, pageTokens, profile);
+        for (final String pageToken : pageTokens) {
+            permissions.addAll(getCompoundPermissions(pageToken));
+        }
+        return profilePermissionsCache.put(profile.getId(), permissions);
+    }
+
     /**
      * return the page names the user can access and add custom permissions of the profile in the permissions set
      *
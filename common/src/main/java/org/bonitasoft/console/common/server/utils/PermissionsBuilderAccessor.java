@@ -26,6 +26,10 @@ public class PermissionsBuilderAccessor {
         final SecurityProperties securityProperties = PropertiesFactory.getSecurityProperties(session.getTenantId());
         final CustomPermissionsMapping customPermissionsMapping = PropertiesFactory.getCustomPermissionsMapping(session.getTenantId());
         final CompoundPermissionsMapping compoundPermissionsMapping = PropertiesFactory.getCompoundPermissionsMapping(session.getTenantId());
-        return new PermissionsBuilder(session, profileAPI, applicationAPI, customPermissionsMapping, compoundPermissionsMapping, securityProperties);
+        final long profilePermissionsCacheTimeToLive = securityProperties.getProfilePermissionsCacheTimeToLive();
+        final ProfilePermissionsCache profilePermissionsCache = profilePermissionsCacheTimeToLive > 0
+                ? ProfilePermissionsCache.getInstance(session.getTenantId(), profilePermissionsCacheTimeToLive) : null;
+        return new PermissionsBuilder(session, profileAPI, applicationAPI, customPermissionsMapping, compoundPermissionsMapping, securityProperties,
+                profilePermissionsCache);
     }
 }
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bonitasoft.console.common.server.preferences.properties.SimpleProperties;
+
+/**
+ * Cache of the permissions granted by each profile of a tenant (the profile itself, the permissions of the pages of its entries and of its
+ * applications, and its custom permissions), so that users having the same profiles don't compute them again at login.<br>
+ * Permissions expire after the time to live of the cache. All permissions are dropped when the compound or custom permissions mappings they were
+ * computed from change, and when applications change.
+ */
+public class ProfilePermissionsCache {
+
+    private static final Map<Long, ProfilePermissionsCache> INSTANCES = new ConcurrentHashMap<Long, ProfilePermissionsCache>();
+
+    private final long timeToLive;
+
+    private final Map<Long, ProfilePermissions> profilePermissions = new ConcurrentHashMap<Long, ProfilePermissions>();
+
+    private MappingsState mappingsState;
+
+    ProfilePermissionsCache(final long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param timeToLive
+     *            the time to live in milliseconds of the permissions, used when the cache of the tenant is created
+     */
+    public static ProfilePermissionsCache getInstance(final long tenantId, final long timeToLive) {
+        ProfilePermissionsCache profilePermissionsCache = INSTANCES.get(tenantId);
+        if (profilePermissionsCache == null) {
+            profilePermissionsCache = new ProfilePermissionsCache(timeToLive);
+            INSTANCES.put(tenantId, profilePermissionsCache);
+        }
+        return profilePermissionsCache;
+    }
+
+    /**
+     * Drop all the permissions cached for a tenant (when profiles, profile entries or applications change)
+     */
+    public static void invalidateAll(final long tenantId) {
+        final ProfilePermissionsCache profilePermissionsCache = INSTANCES.get(tenantId);
+        if (profilePermissionsCache != null) {
+            profilePermissionsCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Drop all the permissions if the mappings they were computed from are not the given ones anymore, or were modified since
+     */
+    public synchronized void checkMappings(final SimpleProperties compoundPermissionsMapping, final SimpleProperties customPermissionsMapping) {
+        final MappingsState currentMappingsState = new MappingsState(compoundPermissionsMapping, customPermissionsMapping);
+        if (!currentMappingsState.equals(mappingsState)) {
+            profilePermissions.clear();
+            mappingsState = currentMappingsState;
+        }
+    }
+
+    /**
+     * @return the cached permissions of the profile (unmodifiable) or null if there are none or if they expired
+     */
+    public Set<String> get(final long profileId) {
+        final ProfilePermissions permissions = profilePermissions.get(profileId);
+        if (permissions == null || permissions.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return permissions.permissions;
+    }
+
+    /**
+     * @return the permissions as cached (unmodifiable)
+     */
+    public Set<String> put(final long profileId, final Set<String> permissions) {
+        final Set<String> cachedPermissions = Collections.unmodifiableSet(permissions);
+        profilePermissions.put(profileId, new ProfilePermissions(cachedPermissions, System.currentTimeMillis() + timeToLive));
+        return cachedPermissions;
+    }
+
+    public void invalidateAll() {
+        profilePermissions.clear();
+    }
+
+    private static class ProfilePermissions {
+
+        private final Set<String> permissions;
+
+        private final long expirationTime;
+
+        private ProfilePermissions(final Set<String> permissions, final long expirationTime) {
+            this.permissions = permissions;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired(final long now) {
+            return now >= expirationTime;
+        }
+    }
+
+    /**
+     * Identity and modification count of the mappings the permissions are computed from. Mappings are new instances when they are reloaded.
+     */
+    private static class MappingsState {
+
+        private final SimpleProperties compoundPermissionsMapping;
+
+        private final long compoundPermissionsModificationCount;
+
+        private final SimpleProperties customPermissionsMapping;
+
+        private final long customPermissionsModificationCount;
+
+        private MappingsState(final SimpleProperties compoundPermissionsMapping, final SimpleProperties customPermissionsMapping) {
+            this.compoundPermissionsMapping = compoundPermissionsMapping;
+            compoundPermissionsModificationCount = compoundPermissionsMapping.getModificationCount();
+            this.customPermissionsMapping = customPermissionsMapping;
+            customPermissionsModificationCount = customPermissionsMapping.getModificationCount();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof MappingsState)) {
+                return false;
+            }
+            final MappingsState other = (MappingsState) obj;
+            return compoundPermissionsMapping == other.compoundPermissionsMapping
+                    && compoundPermissionsModificationCount == other.compoundPermissionsModificationCount
+                    && customPermissionsMapping == other.customPermissionsMapping
+                    && customPermissionsModificationCount == other.customPermissionsModificationCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(compoundPermissionsMapping) + System.identityHashCode(customPermissionsMapping);
+        }
+    }
+}
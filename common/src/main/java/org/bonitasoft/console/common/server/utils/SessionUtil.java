@@ -49,18 +49,38 @@ public class SessionUtil {
      */
     public static final String PERMISSIONS_SESSION_PARAM_KEY = "permissions";
 
+    /**
+     * the session param for the {@link AuthorizationContext}
+     */
+    public static final String AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY = "authorizationContext";
+
     public static void sessionLogin(final User user, final APISession apiSession, final Set<String> permissions, final HttpSession session) {
+        final PermissionSet permissionSet = new PermissionSet(permissions);
         session.setAttribute(USERNAME_SESSION_PARAM, user.getUsername());
         session.setAttribute(USER_SESSION_PARAM_KEY, user);
         session.setAttribute(API_SESSION_PARAM_KEY, apiSession);
-        session.setAttribute(PERMISSIONS_SESSION_PARAM_KEY, permissions);
+        session.setAttribute(PERMISSIONS_SESSION_PARAM_KEY, permissionSet);
+        session.setAttribute(AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY, new AuthorizationContext(apiSession, permissionSet));
+    }
+
+    /**
+     * @return the authorization context stored in the session by {@link #sessionLogin(User, APISession, Set, HttpSession)}, or null if the session
+     *         was not opened by a login or was logged out
+     */
+    public static AuthorizationContext getAuthorizationContext(final HttpSession session) {
+        return (AuthorizationContext) session.getAttribute(AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
     }
 
     public static void sessionLogout(final HttpSession session) {
+        final APISession apiSession = (APISession) session.getAttribute(API_SESSION_PARAM_KEY);
+        if (apiSession != null) {
+            PermissionDecisionCache.invalidateUser(apiSession.getTenantId(), apiSession.getUserId());
+        }
         session.removeAttribute(API_SESSION_PARAM_KEY);
         session.removeAttribute(USERNAME_SESSION_PARAM);
         session.removeAttribute(USER_SESSION_PARAM_KEY);
         session.removeAttribute(PERMISSIONS_SESSION_PARAM_KEY);
+        session.removeAttribute(AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
         session.invalidate();
     }
 }
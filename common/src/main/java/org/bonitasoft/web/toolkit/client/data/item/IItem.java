@@ -163,6 +163,14 @@ public interface IItem extends JsonSerializable {
      */
     public abstract void removeDeploy(final String attributeName);
 
+    /**
+     * Remove an attribute and its deployed version if any
+     *
+     * @param attributeName
+     *        The name of the attribute to remove
+     */
+    public abstract void removeAttribute(final String attributeName);
+
     /**
      * Indicate if there are no attribute defined.
      *
@@ -349,6 +349,18 @@ public abstract class Item implements IItem {
         deploys.remove(attributeName);
     }
 
+    /**
+     * Remove an attribute and its deployed version if any
+     *
+     * @param attributeName
+     *        The name of the attribute to remove
+     */
+    @Override
+    public final void removeAttribute(final String attributeName) {
+        attributes.remove(attributeName);
+        deploys.remove(attributeName);
+    }
+
     /**
      * Set a counter value.
      *
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.preferences.properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PropertiesFileWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final PropertiesFileWatcher propertiesFileWatcher = new PropertiesFileWatcher();
+
+    @After
+    public void closeWatcher() {
+        propertiesFileWatcher.close();
+    }
+
+    @Test
+    public void should_notify_the_listener_of_a_modified_file() throws Exception {
+        final File propertiesFile = temporaryFolder.newFile("console-config.properties");
+        final CountDownLatch changed = new CountDownLatch(1);
+        final boolean watched = propertiesFileWatcher.watch(propertiesFile, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                changed.countDown();
+            }
+        });
+
+        FileUtils.writeStringToFile(propertiesFile, "custom.page.debug true");
+
+        assertThat(watched).isTrue();
+        assertThat(propertiesFileWatcher.isWatching(propertiesFile)).isTrue();
+        assertThat(changed.await(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void should_only_notify_the_listener_of_the_modified_file() throws Exception {
+        final File modifiedFile = temporaryFolder.newFile("security-config.properties");
+        final File otherFile = temporaryFolder.newFile("compound-permissions-mapping.properties");
+        final CountDownLatch modifiedFileChanged = new CountDownLatch(1);
+        final AtomicInteger otherFileChanges = new AtomicInteger();
+        propertiesFileWatcher.watch(modifiedFile, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                modifiedFileChanged.countDown();
+            }
+        });
+        propertiesFileWatcher.watch(otherFile, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+                otherFileChanges.incrementAndGet();
+            }
+        });
+
+        FileUtils.writeStringToFile(modifiedFile, "security.rest.api.authorizations.check.debug true");
+
+        assertThat(modifiedFileChanged.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(otherFileChanges.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_not_watch_a_file_without_listener() throws Exception {
+        assertThat(propertiesFileWatcher.isWatching(temporaryFolder.newFile("custom-permissions-mapping.properties"))).isFalse();
+    }
+
+    @Test
+    public void should_not_watch_any_file_without_watch_service() throws Exception {
+        final PropertiesFileWatcher disabledWatcher = new PropertiesFileWatcher(null);
+        final File propertiesFile = temporaryFolder.newFile("dynamic-permissions-checks.properties");
+
+        final boolean watched = disabledWatcher.watch(propertiesFile, new PropertiesFileWatcher.Listener() {
+
+            @Override
+            public void onChange(final File file) {
+            }
+        });
+
+        assertThat(watched).isFalse();
+        assertThat(disabledWatcher.isWatching(propertiesFile)).isFalse();
+    }
+}
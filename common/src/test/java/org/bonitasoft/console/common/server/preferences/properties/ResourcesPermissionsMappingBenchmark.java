@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.preferences.properties;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Micro benchmark comparing the indexed lookups of {@link ResourcesPermissionsMapping} with the former ones, which built a key string for each
+ * tried combination and parsed the matching property value.<br>
+ * Not run with the tests: launch its main method with the default mapping file as argument (or without argument to use a generated mapping).
+ */
+public class ResourcesPermissionsMappingBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 200000;
+
+    private static final int ITERATIONS = 2000000;
+
+    private static final List<String> QUALIFIERS = Arrays.asList("123", "contract");
+
+    public static void main(final String[] args) throws IOException {
+        final ResourcesPermissionsMapping mapping = args.length > 0 ? new ResourcesPermissionsMapping(new File(args[0])) : generateMapping();
+
+        run(mapping, WARM_UP_ITERATIONS);
+        final long legacyDuration = run(new LegacyLookup(mapping), ITERATIONS);
+        final long indexedDuration = run(new IndexedLookup(mapping), ITERATIONS);
+
+        System.out.println("legacy lookups:  " + legacyDuration / ITERATIONS + " ns/op");
+        System.out.println("indexed lookups: " + indexedDuration / ITERATIONS + " ns/op");
+    }
+
+    private static ResourcesPermissionsMapping generateMapping() throws IOException {
+        final StringBuilder fileContent = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            fileContent.append("GET|bpm/resource").append(i).append("=[permission").append(i % 20).append(", visualization]\n");
+            fileContent.append("GET|bpm/resource").append(i).append("/*/contract=[contract").append(i % 20).append("]\n");
+        }
+        final File mappingFile = File.createTempFile("resourceMapping", ".tmp");
+        mappingFile.deleteOnExit();
+        final FileOutputStream outputStream = new FileOutputStream(mappingFile);
+        try {
+            IOUtils.write(fileContent.toString(), outputStream);
+        } finally {
+            outputStream.close();
+        }
+        return new ResourcesPermissionsMapping(mappingFile);
+    }
+
+    private static void run(final ResourcesPermissionsMapping mapping, final int iterations) {
+        run(new LegacyLookup(mapping), iterations);
+        run(new IndexedLookup(mapping), iterations);
+    }
+
+    private static long run(final Lookup lookup, final int iterations) {
+        int found = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            found += lookup.getDeclaredPermissions("bpm", "resource" + i % 300, QUALIFIERS).size();
+        }
+        final long duration = System.nanoTime() - start;
+        if (found == 0) {
+            System.out.println("no permission found");
+        }
+        return duration;
+    }
+
+    private interface Lookup {
+
+        Set<String> getDeclaredPermissions(String apiName, String resourceName, List<String> resourceQualifiers);
+    }
+
+    /**
+     * Same sequence of lookups as the REST API authorization filter
+     */
+    private static class IndexedLookup implements Lookup {
+
+        private final ResourcesPermissionsMapping mapping;
+
+        IndexedLookup(final ResourcesPermissionsMapping mapping) {
+            this.mapping = mapping;
+        }
+
+        @Override
+        public Set<String> getDeclaredPermissions(final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+            Set<String> permissions = mapping.getResourcePermissions("GET", apiName, resourceName, resourceQualifiers);
+            if (permissions.isEmpty()) {
+                permissions = mapping.getResourcePermissionsWithWildCard("GET", apiName, resourceName, resourceQualifiers);
+            }
+            if (permissions.isEmpty()) {
+                permissions = mapping.getResourcePermissions("GET", apiName, resourceName);
+            }
+            return permissions;
+        }
+    }
+
+    private static class LegacyLookup implements Lookup {
+
+        private final ResourcesPermissionsMapping mapping;
+
+        LegacyLookup(final ResourcesPermissionsMapping mapping) {
+            this.mapping = mapping;
+        }
+
+        @Override
+        public Set<String> getDeclaredPermissions(final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+            Set<String> permissions = mapping.getPropertyAsSet(buildResourceKey("GET", apiName, resourceName, resourceQualifiers));
+            if (permissions.isEmpty()) {
+                permissions = getPermissionsWithWildCard(apiName, resourceName, resourceQualifiers);
+            }
+            if (permissions.isEmpty()) {
+                permissions = mapping.getPropertyAsSet(buildResourceKey("GET", apiName, resourceName, null));
+            }
+            return permissions;
+        }
+
+        private Set<String> getPermissionsWithWildCard(final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+            for (int i = resourceQualifiers.size() - 1; i >= 0; i--) {
+                final List<String> resourceQualifiersWithWildCard = new ArrayList<String>(resourceQualifiers);
+                resourceQualifiersWithWildCard.set(i, ResourcesPermissionsMapping.WILDCARD);
+                final Set<String> permissions = mapping.getPropertyAsSet(buildResourceKey("GET", apiName, resourceName,
+                        resourceQualifiersWithWildCard));
+                if (!permissions.isEmpty()) {
+                    return permissions;
+                }
+            }
+            return Collections.emptySet();
+        }
+
+        /**
+         * Key built by the former lookups, kept here as the mapping now uses its index
+         */
+        private String buildResourceKey(final String method, final String apiName, final String resourceName, final List<String> resourceQualifiers) {
+            String key = method + ResourcesPermissionsMapping.API_METHOD_SEPARATOR + apiName + "/" + resourceName;
+            if (resourceQualifiers != null) {
+                for (final String resourceQualifier : resourceQualifiers) {
+                    key += "/" + resourceQualifier;
+                }
+            }
+            return key;
+        }
+    }
+}
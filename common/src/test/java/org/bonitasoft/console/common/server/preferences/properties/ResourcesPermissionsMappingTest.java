@@ -69,6 +69,61 @@ public class ResourcesPermissionsMappingTest {
         Assertions.assertThat(postWithResourcesQualifiers).containsOnly("Custom permission");
     }
 
+    @Test
+    public void testGetResourcePermissionWithWildCardOnFirstQualifier() throws Exception {
+        //given
+        final String fileContent = "GET|bpm/case/*/context [Case context]\n" +
+                "GET|bpm/case/*/* [Case sub resources]";
+        final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping(fileContent);
+
+        //when
+        final Set<String> context = resourcesPermissionsMapping.getResourcePermissionsWithWildCard("GET", "bpm", "case", Arrays.asList("1", "context"));
+        final Set<String> other = resourcesPermissionsMapping.getResourcePermissionsWithWildCard("GET", "bpm", "case", Arrays.asList("1", "variable"));
+        final Set<String> noQualifiers = resourcesPermissionsMapping.getResourcePermissionsWithWildCard("GET", "bpm", "case", null);
+
+        //then
+        Assertions.assertThat(context).containsOnly("Case context");
+        Assertions.assertThat(other).isEmpty();
+        Assertions.assertThat(noQualifiers).isEmpty();
+    }
+
+    @Test
+    public void testSamePermissionsAreShared() throws Exception {
+        //given
+        final String fileContent = "GET|bpm/process [Process visualization, Connector visualization]\n" +
+                "GET|bpm/processConnector [Connector visualization, Process visualization]";
+        final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping(fileContent);
+
+        //when
+        final Set<String> process = resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "process");
+        final Set<String> processConnector = resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "processConnector");
+
+        //then
+        Assertions.assertThat(process).isSameAs(processConnector);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testResourcePermissionsCannotBeModified() throws Exception {
+        final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping("GET|bpm/process [Process visualization]");
+
+        resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "process").add("Process Deploy");
+    }
+
+    @Test
+    public void testResourcePermissionsAreUpdatedWhenMappingIsModified() throws Exception {
+        //given
+        final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping("GET|bpm/process [Process visualization]");
+
+        //when
+        resourcesPermissionsMapping.setProperty("GET|bpm/process/*/contract", "[Process contract]");
+        resourcesPermissionsMapping.removeProperty("GET|bpm/process");
+
+        //then
+        Assertions.assertThat(resourcesPermissionsMapping.getResourcePermissions("GET", "bpm", "process")).isEmpty();
+        Assertions.assertThat(resourcesPermissionsMapping.getResourcePermissionsWithWildCard("GET", "bpm", "process", Arrays.asList("1", "contract")))
+                .containsOnly("Process contract");
+    }
+
     public static ResourcesPermissionsMapping getResourcesPermissionsMapping(final String fileContent) throws IOException {
         final File resourceMappingFile = File.createTempFile("resourceMapping", ".tmp");
         IOUtils.write(fileContent.getBytes(), new FileOutputStream(resourceMappingFile));
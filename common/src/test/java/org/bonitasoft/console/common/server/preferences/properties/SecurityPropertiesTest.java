@@ -17,15 +17,21 @@
 package org.bonitasoft.console.common.server.preferences.properties;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 
+import org.apache.commons.io.FileUtils;
+
 import org.bonitasoft.console.common.server.preferences.constants.WebBonitaConstantsUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -39,6 +45,9 @@ public class SecurityPropertiesTest {
     private static final File TENANT_CONF_FOLDER = new File("src/test/resources/bonita/client/tenants/1/conf");
     private static final File FORMS_WOR_FOLDER = new File("src/test/resources/bonita/client/tenants/1/work/forms");
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Mock
     private WebBonitaConstantsUtils webConstants;
 
@@ -73,4 +82,19 @@ public class SecurityPropertiesTest {
         assertThat(processProperties.getAutoLoginUserName(), is("aUserNameForSecondDeployement"));
         assertThat(processProperties.getAutoLoginPassword(), is("aPasswordForSecondDeployement"));
     }
+
+    @Test
+    public void should_parse_the_cached_methods_and_local_rules_again_when_reloaded() throws Exception {
+        final SecurityProperties tenantProperties = new SecurityProperties(webConstants, SecurityProperties.TENANT_SCOPE_CONFIG_ID);
+        assertThat(tenantProperties.getAPIAuthorizationsCacheMethods(), contains("GET"));
+        assertThat(tenantProperties.getAPIAuthorizationsLocalRules().isEmpty(), is(true));
+        final File securityPropertiesFile = temporaryFolder.newFile("security-config.properties");
+        FileUtils.writeStringToFile(securityPropertiesFile, SecurityProperties.API_AUTHORIZATIONS_CACHE_METHODS + "=get, put\n"
+                + SecurityProperties.API_AUTHORIZATIONS_LOCAL_RULES + "=CasePermissionRule, TaskPermissionRule");
+
+        tenantProperties.reload(securityPropertiesFile);
+
+        assertThat(tenantProperties.getAPIAuthorizationsCacheMethods(), contains("GET", "PUT"));
+        assertThat(tenantProperties.getAPIAuthorizationsLocalRules(), containsInAnyOrder("CasePermissionRule", "TaskPermissionRule"));
+    }
 }
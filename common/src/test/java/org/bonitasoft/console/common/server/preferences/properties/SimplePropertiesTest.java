@@ -136,4 +136,65 @@ public class SimplePropertiesTest {
         Assert.assertNull(tenantProperties.getProperty("customPage1"));
 
     }
+
+    @Test
+    public void should_reload_ignore_the_changes_written_by_the_instance() throws Exception {
+        final File compoundPermissionMappingWorkFile = File.createTempFile("compound-permissions-mapping", ".properties");
+        compoundPermissionMappingWorkFile.deleteOnExit();
+        FileUtils.copyFile(COMPOUND_PERMISSIONS_MAPPING_FILE, compoundPermissionMappingWorkFile);
+        final SimpleProperties tenantProperties = new SimpleProperties(compoundPermissionMappingWorkFile);
+        tenantProperties.setProperty("caseListingPage", "[CaseVisualization]");
+        final long modificationCount = tenantProperties.getModificationCount();
+
+        final boolean changed = tenantProperties.reload();
+
+        assertThat(changed).isFalse();
+        assertThat(tenantProperties.getModificationCount()).isEqualTo(modificationCount);
+    }
+
+    @Test
+    public void should_reload_the_changes_of_the_file_in_place() throws Exception {
+        final File compoundPermissionMappingWorkFile = File.createTempFile("compound-permissions-mapping", ".properties");
+        compoundPermissionMappingWorkFile.deleteOnExit();
+        FileUtils.copyFile(COMPOUND_PERMISSIONS_MAPPING_FILE, compoundPermissionMappingWorkFile);
+        final SimpleProperties tenantProperties = new SimpleProperties(compoundPermissionMappingWorkFile);
+        final long modificationCount = tenantProperties.getModificationCount();
+        FileUtils.writeStringToFile(compoundPermissionMappingWorkFile, "caseListingPage=[CaseVisualization]\n", true);
+
+        final boolean changed = tenantProperties.reload();
+
+        assertThat(changed).isTrue();
+        assertThat(tenantProperties.getProperty("caseListingPage")).isEqualTo("[CaseVisualization]");
+        assertThat(tenantProperties.getModificationCount()).isGreaterThan(modificationCount);
+    }
+
+    @Test
+    public void should_not_lose_the_changes_made_during_a_reload() throws Exception {
+        final File compoundPermissionMappingWorkFile = File.createTempFile("compound-permissions-mapping", ".properties");
+        compoundPermissionMappingWorkFile.deleteOnExit();
+        FileUtils.copyFile(COMPOUND_PERMISSIONS_MAPPING_FILE, compoundPermissionMappingWorkFile);
+        final SimpleProperties tenantProperties = new SimpleProperties(compoundPermissionMappingWorkFile);
+        final Thread reloader = new Thread() {
+
+            @Override
+            public void run() {
+                while (!isInterrupted()) {
+                    tenantProperties.reload();
+                }
+            }
+        };
+        reloader.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                tenantProperties.setProperty("customPage" + i, "[CaseVisualization]");
+            }
+        } finally {
+            reloader.interrupt();
+            reloader.join();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(tenantProperties.getProperty("customPage" + i)).isEqualTo("[CaseVisualization]");
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.servlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompressedResourcesTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Test
+    public void should_build_the_gzip_variant_of_the_compressible_files_of_a_folder() throws Exception {
+        final File css = aFile("resources/css/style.css", StringUtils.repeat("body {}", 200));
+        final File image = aFile("resources/img/logo.png", StringUtils.repeat("png", 500));
+        final File smallScript = aFile("resources/app.js", "var a;");
+
+        CompressedResources.compress(tmpFolder.getRoot());
+
+        final File variant = CompressedResources.getVariant(css, CompressedResources.GZIP);
+        assertThat(variant.getName()).isEqualTo("style.css.gz");
+        assertThat(IOUtils.toString(new GZIPInputStream(new FileInputStream(variant)))).isEqualTo(StringUtils.repeat("body {}", 200));
+        assertThat(variant.length()).isLessThan(css.length());
+        assertThat(CompressedResources.hasVariant(css)).isTrue();
+        assertThat(CompressedResources.hasVariant(image)).isFalse();
+        assertThat(CompressedResources.hasVariant(smallScript)).isFalse();
+    }
+
+    @Test
+    public void should_not_use_a_variant_older_than_its_file() throws Exception {
+        final File css = aFile("style.css", StringUtils.repeat("body {}", 200));
+        CompressedResources.compress(tmpFolder.getRoot());
+
+        css.setLastModified(css.lastModified() + 10000);
+
+        assertThat(CompressedResources.hasVariant(css)).isFalse();
+    }
+
+    @Test
+    public void should_select_the_preferred_variant_accepted_by_the_client() throws Exception {
+        final File css = aFile("style.css", StringUtils.repeat("body {}", 200));
+        CompressedResources.compress(tmpFolder.getRoot());
+        final File brotliVariant = aFile("style.css.br", "brotli");
+        brotliVariant.setLastModified(css.lastModified());
+
+        assertThat(getAcceptedEncoding("gzip, deflate, br", css)).isEqualTo(CompressedResources.BROTLI);
+        assertThat(getAcceptedEncoding("gzip, deflate", css)).isEqualTo(CompressedResources.GZIP);
+        assertThat(getAcceptedEncoding("gzip;q=0.5, br;q=0", css)).isEqualTo(CompressedResources.GZIP);
+        assertThat(getAcceptedEncoding("identity", css)).isNull();
+        assertThat(getAcceptedEncoding(null, css)).isNull();
+    }
+
+    @Test
+    public void should_tell_if_an_encoding_is_accepted() throws Exception {
+        assertThat(CompressedResources.isAccepted("gzip, deflate", "gzip")).isTrue();
+        assertThat(CompressedResources.isAccepted("GZIP;q=0.8", "gzip")).isTrue();
+        assertThat(CompressedResources.isAccepted("gzip;q=0", "gzip")).isFalse();
+        assertThat(CompressedResources.isAccepted("*", "br")).isTrue();
+        assertThat(CompressedResources.isAccepted("*, br;q=0", "br")).isFalse();
+        assertThat(CompressedResources.isAccepted("deflate", "gzip")).isFalse();
+    }
+
+    private String getAcceptedEncoding(final String acceptEncoding, final File file) {
+        doReturn(acceptEncoding).when(request).getHeader("Accept-Encoding");
+        return CompressedResources.getAcceptedEncoding(request, file);
+    }
+
+    private File aFile(final String path, final String content) throws Exception {
+        final File file = new File(tmpFolder.getRoot(), path);
+        FileUtils.writeStringToFile(file, content);
+        return file;
+    }
+}
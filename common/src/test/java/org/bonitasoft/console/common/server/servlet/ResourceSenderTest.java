@@ -0,0 +1,263 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.servlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceSenderTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final ByteArrayOutputStream sentContent = new ByteArrayOutputStream();
+
+    private final ResourceSender resourceSender = new ResourceSender(16, 32);
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = tmpFolder.newFile("file.css");
+        FileUtils.writeStringToFile(file, "0123456789");
+        doReturn(-1L).when(request).getDateHeader(anyString());
+        doReturn(new ServletOutputStream() {
+
+            @Override
+            public void write(final int b) throws IOException {
+                sentContent.write(b);
+            }
+        }).when(response).getOutputStream();
+    }
+
+    @Test
+    public void should_send_the_file_with_its_etag_and_last_modification_date() throws Exception {
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("0123456789");
+        verify(response).setContentType("text/css");
+        verify(response).setContentLength(10);
+        verify(response).setHeader("ETag", eTag(file));
+        verify(response).setDateHeader("Last-Modified", file.lastModified() / 1000 * 1000);
+        verify(response).setHeader("Cache-Control", "no-cache");
+    }
+
+    @Test
+    public void should_answer_not_modified_when_the_etag_matches() throws Exception {
+        doReturn("\"other\", " + eTag(file)).when(request).getHeader("If-None-Match");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void should_send_the_file_when_the_etag_does_not_match() throws Exception {
+        doReturn("\"other\"").when(request).getHeader("If-None-Match");
+        doReturn(file.lastModified()).when(request).getDateHeader("If-Modified-Since");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void should_answer_not_modified_when_the_file_was_not_modified_since_the_given_date() throws Exception {
+        doReturn(file.lastModified()).when(request).getDateHeader("If-Modified-Since");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void should_send_the_requested_byte_range() throws Exception {
+        doReturn("bytes=2-5").when(request).getHeader("Range");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("2345");
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        verify(response).setContentLength(4);
+    }
+
+    @Test
+    public void should_send_the_whole_file_when_if_range_does_not_match() throws Exception {
+        doReturn("bytes=2-5").when(request).getHeader("Range");
+        doReturn("\"other\"").when(request).getHeader("If-Range");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("0123456789");
+        verify(response, never()).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    }
+
+    @Test
+    public void should_reject_a_range_outside_of_the_file() throws Exception {
+        doReturn("bytes=20-").when(request).getHeader("Range");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        verify(response).setHeader("Content-Range", "bytes */10");
+        verify(response).sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    @Test
+    public void should_parse_byte_ranges() throws Exception {
+        assertThat(resourceSender.parseRange("bytes=0-", 10)).containsExactly(0L, 9L);
+        assertThat(resourceSender.parseRange("bytes=-3", 10)).containsExactly(7L, 9L);
+        assertThat(resourceSender.parseRange("bytes=5-100", 10)).containsExactly(5L, 9L);
+        assertThat(resourceSender.parseRange("bytes=0-1,5-6", 10)).containsExactly(0L, 9L);
+        assertThat(resourceSender.parseRange("bytes=6-5", 10)).isNull();
+        assertThat(resourceSender.parseRange("bytes=a-b", 10)).isNull();
+    }
+
+    @Test
+    public void should_stream_a_file_too_large_to_be_cached() throws Exception {
+        final File largeFile = tmpFolder.newFile("large.js");
+        FileUtils.writeStringToFile(largeFile, "0123456789abcdefghij");
+
+        resourceSender.send(request, response, largeFile, "application/javascript", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("0123456789abcdefghij");
+        assertThat(resourceSender.getCacheSize()).isEqualTo(0L);
+    }
+
+    @Test
+    public void should_let_the_container_send_a_large_file_when_it_supports_sendfile() throws Exception {
+        final File largeFile = tmpFolder.newFile("large.js");
+        FileUtils.writeStringToFile(largeFile, "0123456789abcdefghij");
+        doReturn(Boolean.TRUE).when(request).getAttribute(ResourceSender.SENDFILE_SUPPORT_ATTRIBUTE);
+
+        resourceSender.send(request, response, largeFile, "application/javascript", "no-cache");
+
+        verify(request).setAttribute(ResourceSender.SENDFILE_FILENAME_ATTRIBUTE, largeFile.getCanonicalPath());
+        verify(request).setAttribute(ResourceSender.SENDFILE_START_ATTRIBUTE, 0L);
+        verify(request).setAttribute(ResourceSender.SENDFILE_END_ATTRIBUTE, 20L);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void should_keep_the_cache_under_its_maximum_size() throws Exception {
+        final File otherFile = tmpFolder.newFile("other.css");
+        FileUtils.writeStringToFile(otherFile, "abcdefghijklmno");
+        final File thirdFile = tmpFolder.newFile("third.css");
+        FileUtils.writeStringToFile(thirdFile, "ABCDEFGHIJ");
+
+        resourceSender.send(request, response, file, "text/css", null);
+        resourceSender.send(request, response, otherFile, "text/css", null);
+        resourceSender.send(request, response, thirdFile, "text/css", null);
+
+        assertThat(resourceSender.getCacheSize()).isEqualTo(25L);
+    }
+
+    @Test
+    public void should_send_the_compressed_variant_accepted_by_the_client() throws Exception {
+        final File gzipVariant = CompressedResources.getVariant(file, CompressedResources.GZIP);
+        FileUtils.writeStringToFile(gzipVariant, "gzipped");
+        gzipVariant.setLastModified(file.lastModified());
+        doReturn("gzip, deflate").when(request).getHeader("Accept-Encoding");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("gzipped");
+        verify(response).setContentType("text/css");
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).setHeader("Vary", "Accept-Encoding");
+        verify(response).setHeader("ETag", eTag(gzipVariant));
+    }
+
+    @Test
+    public void should_send_the_original_file_when_the_client_does_not_accept_its_variants() throws Exception {
+        final File gzipVariant = CompressedResources.getVariant(file, CompressedResources.GZIP);
+        FileUtils.writeStringToFile(gzipVariant, "gzipped");
+        gzipVariant.setLastModified(file.lastModified());
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        assertThat(sentContent.toString()).isEqualTo("0123456789");
+        verify(response).setHeader("Vary", "Accept-Encoding");
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+    }
+
+    @Test
+    public void should_not_set_the_content_encoding_of_a_not_modified_variant() throws Exception {
+        final File gzipVariant = CompressedResources.getVariant(file, CompressedResources.GZIP);
+        FileUtils.writeStringToFile(gzipVariant, "gzipped");
+        gzipVariant.setLastModified(file.lastModified());
+        doReturn("gzip").when(request).getHeader("Accept-Encoding");
+        doReturn(eTag(gzipVariant)).when(request).getHeader("If-None-Match");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("Vary", "Accept-Encoding");
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+    }
+
+    @Test
+    public void should_not_set_the_content_encoding_when_the_range_of_a_variant_is_rejected() throws Exception {
+        final File gzipVariant = CompressedResources.getVariant(file, CompressedResources.GZIP);
+        FileUtils.writeStringToFile(gzipVariant, "gzipped");
+        gzipVariant.setLastModified(file.lastModified());
+        doReturn("gzip").when(request).getHeader("Accept-Encoding");
+        doReturn("bytes=20-").when(request).getHeader("Range");
+
+        resourceSender.send(request, response, file, "text/css", "no-cache");
+
+        verify(response).sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void should_throw_FileNotFoundException_when_the_file_does_not_exist() throws Exception {
+        resourceSender.send(request, response, new File(tmpFolder.getRoot(), "missing.css"), "text/css", null);
+    }
+
+    private String eTag(final File file) {
+        return resourceSender.getETag(file, file.lastModified() / 1000 * 1000, file.length());
+    }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.bonitasoft.engine.commons.io.IOUtil;
 import org.junit.Before;
 import org.junit.Rule;
@@ -75,6 +76,15 @@ public class ThemeArchiveTest {
                 "style1.less", "style1.css", "style2.less", "style2.css", "style3.css");
     }
 
+    @Test
+    public void should_compress_the_theme_files() throws Exception {
+        final ThemeArchive themeArchive = new ThemeArchive(createStyleFiles("bonita.css"));
+
+        themeArchive.extract(themeDirectory).add("style.css", StringUtils.repeat("body {}", 200).getBytes()).compress();
+
+        assertThat(themeDirectory.list()).containsOnly("bonita.css", "style.css", "style.css.gz");
+    }
+
     @Test
     public void should_replace_old_directory_with_zip_content() throws Exception {
         themeDirectory.mkdirs();
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.bonitasoft.engine.api.permission.APICallContext;
+import org.junit.Test;
+
+public class PermissionDecisionCacheTest {
+
+    private final PermissionDecisionCache decisionCache = new PermissionDecisionCache(60000, 100, Arrays.asList("GET"));
+
+    @Test
+    public void should_return_the_cached_decision_of_a_user() throws Exception {
+        decisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+        decisionCache.put(2L, "CasePermissionRule|GET|bpm/case/1", false);
+
+        assertThat(decisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1")).isTrue();
+        assertThat(decisionCache.get(2L, "CasePermissionRule|GET|bpm/case/1")).isFalse();
+        assertThat(decisionCache.get(3L, "CasePermissionRule|GET|bpm/case/1")).isNull();
+    }
+
+    @Test
+    public void should_not_return_expired_decisions() throws Exception {
+        final PermissionDecisionCache expiredDecisionCache = new PermissionDecisionCache(0, 100, Arrays.asList("GET"));
+        expiredDecisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+
+        assertThat(expiredDecisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1")).isNull();
+    }
+
+    @Test
+    public void should_drop_the_decisions_of_a_user_when_invalidated() throws Exception {
+        decisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+        decisionCache.put(2L, "CasePermissionRule|GET|bpm/case/1", true);
+
+        decisionCache.invalidateUser(1L);
+
+        assertThat(decisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1")).isNull();
+        assertThat(decisionCache.get(2L, "CasePermissionRule|GET|bpm/case/1")).isTrue();
+        assertThat(decisionCache.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_share_a_single_cache_per_tenant_and_drop_all_its_decisions_when_invalidated() throws Exception {
+        final PermissionDecisionCache tenantDecisionCache = PermissionDecisionCache.getInstance(12L, 60000, 100, Arrays.asList("GET"));
+        tenantDecisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+
+        PermissionDecisionCache.invalidateAll(12L);
+
+        assertThat(PermissionDecisionCache.getInstance(12L, 60000, 100, Arrays.asList("GET"))).isSameAs(tenantDecisionCache);
+        assertThat(tenantDecisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1")).isNull();
+    }
+
+    @Test
+    public void should_rebuild_the_cache_of_a_tenant_when_its_settings_change() throws Exception {
+        final PermissionDecisionCache tenantDecisionCache = PermissionDecisionCache.getInstance(13L, 60000, 100, Arrays.asList("GET"));
+        tenantDecisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+
+        final PermissionDecisionCache rebuiltDecisionCache = PermissionDecisionCache.getInstance(13L, 1000, 10, Arrays.asList("GET", "PUT"));
+
+        assertThat(rebuiltDecisionCache).isNotSameAs(tenantDecisionCache);
+        assertThat(rebuiltDecisionCache.isCacheable("PUT")).isTrue();
+        assertThat(rebuiltDecisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1")).isNull();
+        assertThat(PermissionDecisionCache.get(13L)).isSameAs(rebuiltDecisionCache);
+    }
+
+    @Test
+    public void should_not_keep_more_decisions_than_its_maximum_size() throws Exception {
+        final PermissionDecisionCache smallDecisionCache = new PermissionDecisionCache(60000, 2, Arrays.asList("GET"));
+
+        smallDecisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+        smallDecisionCache.put(1L, "CasePermissionRule|GET|bpm/case/2", true);
+        smallDecisionCache.put(1L, "CasePermissionRule|GET|bpm/case/3", true);
+
+        assertThat(smallDecisionCache.getSize()).isLessThanOrEqualTo(2);
+        assertThat(smallDecisionCache.get(1L, "CasePermissionRule|GET|bpm/case/3")).isTrue();
+    }
+
+    @Test
+    public void should_count_hits_and_misses() throws Exception {
+        decisionCache.put(1L, "CasePermissionRule|GET|bpm/case/1", true);
+
+        decisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1");
+        decisionCache.get(1L, "CasePermissionRule|GET|bpm/case/1");
+        decisionCache.get(1L, "CasePermissionRule|GET|bpm/case/2");
+
+        assertThat(decisionCache.getHits()).isEqualTo(2);
+        assertThat(decisionCache.getMisses()).isEqualTo(1);
+        assertThat(decisionCache.getHitRatio()).isEqualTo(2d / 3);
+    }
+
+    @Test
+    public void should_only_cache_the_configured_methods() throws Exception {
+        assertThat(decisionCache.isCacheable("GET")).isTrue();
+        assertThat(decisionCache.isCacheable("PUT")).isFalse();
+    }
+
+    @Test
+    public void should_build_keys_depending_on_the_query_string() throws Exception {
+        final String searchKey = PermissionDecisionCache.buildKey("CasePermissionRule", new APICallContext("GET", "bpm", "case", null, "f=user_id=1", ""));
+        final String otherSearchKey = PermissionDecisionCache.buildKey("CasePermissionRule",
+                new APICallContext("GET", "bpm", "case", null, "f=user_id=2", ""));
+
+        assertThat(searchKey).isEqualTo("CasePermissionRule|GET|bpm/case?f=user_id=1");
+        assertThat(searchKey).isNotEqualTo(otherSearchKey);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PermissionSetTest {
+
+    @Test
+    public void should_contain_the_permissions_it_is_built_with() throws Exception {
+        final PermissionSet permissions = new PermissionSet(Arrays.asList("CaseVisualization", "TaskVisualization", "CaseVisualization"));
+
+        assertThat(permissions.contains("CaseVisualization")).isTrue();
+        assertThat(permissions.contains("ProcessManagement")).isFalse();
+        assertThat(permissions.contains(null)).isFalse();
+        assertThat(permissions.contains("unknownPermission" + System.nanoTime())).isFalse();
+        assertThat(permissions).hasSize(2).containsOnly("CaseVisualization", "TaskVisualization");
+    }
+
+    @Test
+    public void should_be_equal_to_a_set_with_the_same_permissions() throws Exception {
+        final Set<String> permissions = new HashSet<String>(Arrays.asList("CaseVisualization", "profile|User"));
+
+        assertThat(new PermissionSet(permissions)).isEqualTo(permissions);
+        assertThat(permissions).isEqualTo(new PermissionSet(permissions));
+    }
+
+    @Test
+    public void should_be_empty_when_built_without_permissions() throws Exception {
+        assertThat(new PermissionSet(null)).isEmpty();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void should_be_immutable() throws Exception {
+        new PermissionSet(Arrays.asList("CaseVisualization")).add("ProcessManagement");
+    }
+
+    @Test
+    public void should_keep_its_permissions_when_serialized() throws Exception {
+        final PermissionSet permissions = new PermissionSet(Arrays.asList("CaseVisualization", "TaskVisualization"));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(permissions);
+        out.close();
+
+        final Object deserializedPermissions = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertThat(deserializedPermissions).isInstanceOf(PermissionSet.class).isEqualTo(permissions);
+        assertThat(((PermissionSet) deserializedPermissions).contains("TaskVisualization")).isTrue();
+    }
+}
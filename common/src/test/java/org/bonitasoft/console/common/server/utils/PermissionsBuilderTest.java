@@ -13,6 +13,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -244,4 +245,24 @@ public class PermissionsBuilderTest {
         //then
         assertThat(permissions).containsOnly("Perm1", "Perm2", "Perm3", "Perm4");
     }
+
+    @Test
+    public void should_compute_the_permissions_of_a_profile_once_when_a_profile_permissions_cache_is_set() throws Exception {
+        final PermissionsBuilder cachedPermissionsBuilder = spy(new PermissionsBuilder(apiSession, profileAPI, applicationAPI, customPermissionsMapping,
+                compoundPermissionsMapping, securityProperties, new ProfilePermissionsCache(60000)));
+        final List<Profile> profiles = fillInProfilesList(0, 1);
+        doReturn(profiles).when(profileAPI).getProfilesForUser(anyLong(), anyInt(), anyInt(), any(ProfileCriterion.class));
+        doReturn(fillInProfileEntriesList(1)).when(cachedPermissionsBuilder).getProfileEntriesForProfile(profiles.get(0), 0);
+        doReturn(new HashSet<String>(Arrays.asList("Perm1", "Perm2"))).when(compoundPermissionsMapping).getPropertyAsSet("page0");
+
+        final Set<String> firstLoginPermissions = new HashSet<String>();
+        cachedPermissionsBuilder.addProfilesPermissions(firstLoginPermissions);
+        final Set<String> secondLoginPermissions = new HashSet<String>();
+        cachedPermissionsBuilder.addProfilesPermissions(secondLoginPermissions);
+
+        assertThat(firstLoginPermissions).containsOnly("Perm1", "Perm2", "profile|profile0");
+        assertThat(secondLoginPermissions).isEqualTo(firstLoginPermissions);
+        verify(cachedPermissionsBuilder, times(1)).getProfileEntriesForProfile(profiles.get(0), 0);
+        verify(applicationAPI, times(1)).getAllPagesForProfile(0L);
+    }
 }
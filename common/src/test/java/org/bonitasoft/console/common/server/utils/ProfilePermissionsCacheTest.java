@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bonitasoft.console.common.server.preferences.properties.CompoundPermissionsMapping;
+import org.bonitasoft.console.common.server.preferences.properties.CustomPermissionsMapping;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProfilePermissionsCacheTest {
+
+    @Mock
+    CompoundPermissionsMapping compoundPermissionsMapping;
+
+    @Mock
+    CustomPermissionsMapping customPermissionsMapping;
+
+    private final ProfilePermissionsCache profilePermissionsCache = new ProfilePermissionsCache(60000);
+
+    @Test
+    public void should_return_the_cached_permissions_of_a_profile() throws Exception {
+        profilePermissionsCache.put(1L, new HashSet<String>(Arrays.asList("Perm1", "Perm2")));
+
+        assertThat(profilePermissionsCache.get(1L)).containsOnly("Perm1", "Perm2");
+        assertThat(profilePermissionsCache.get(2L)).isNull();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void should_cache_unmodifiable_permissions() throws Exception {
+        final Set<String> permissions = profilePermissionsCache.put(1L, new HashSet<String>(Arrays.asList("Perm1")));
+
+        permissions.add("Perm2");
+    }
+
+    @Test
+    public void should_not_return_expired_permissions() throws Exception {
+        final ProfilePermissionsCache expiredProfilePermissionsCache = new ProfilePermissionsCache(0);
+        expiredProfilePermissionsCache.put(1L, new HashSet<String>(Arrays.asList("Perm1")));
+
+        assertThat(expiredProfilePermissionsCache.get(1L)).isNull();
+    }
+
+    @Test
+    public void should_keep_permissions_while_mappings_are_unchanged() throws Exception {
+        profilePermissionsCache.checkMappings(compoundPermissionsMapping, customPermissionsMapping);
+        profilePermissionsCache.put(1L, new HashSet<String>(Arrays.asList("Perm1")));
+
+        profilePermissionsCache.checkMappings(compoundPermissionsMapping, customPermissionsMapping);
+
+        assertThat(profilePermissionsCache.get(1L)).containsOnly("Perm1");
+    }
+
+    @Test
+    public void should_drop_permissions_when_a_mapping_is_modified() throws Exception {
+        profilePermissionsCache.checkMappings(compoundPermissionsMapping, customPermissionsMapping);
+        profilePermissionsCache.put(1L, new HashSet<String>(Arrays.asList("Perm1")));
+        doReturn(1L).when(customPermissionsMapping).getModificationCount();
+
+        profilePermissionsCache.checkMappings(compoundPermissionsMapping, customPermissionsMapping);
+
+        assertThat(profilePermissionsCache.get(1L)).isNull();
+    }
+
+    @Test
+    public void should_drop_permissions_when_invalidated() throws Exception {
+        profilePermissionsCache.put(1L, new HashSet<String>(Arrays.asList("Perm1")));
+
+        profilePermissionsCache.invalidateAll();
+
+        assertThat(profilePermissionsCache.get(1L)).isNull();
+    }
+}
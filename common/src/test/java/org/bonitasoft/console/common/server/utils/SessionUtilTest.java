@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.servlet.http.HttpSession;
+
+import org.bonitasoft.engine.session.APISession;
+import org.bonitasoft.web.rest.model.user.User;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SessionUtilTest {
+
+    @Mock
+    private HttpSession session;
+
+    @Mock
+    private APISession apiSession;
+
+    private final Set<String> permissions = new PermissionSet(Collections.singleton("case_visualization"));
+
+    @Test
+    public void should_store_the_authorization_context_at_login() throws Exception {
+        final User user = new User("john", "en");
+
+        SessionUtil.sessionLogin(user, apiSession, permissions, session);
+
+        final ArgumentCaptor<AuthorizationContext> authorizationContext = ArgumentCaptor.forClass(AuthorizationContext.class);
+        verify(session).setAttribute(eq(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY), authorizationContext.capture());
+        assertThat(authorizationContext.getValue().getApiSession()).isSameAs(apiSession);
+        assertThat(authorizationContext.getValue().getPermissions()).containsOnly("case_visualization");
+    }
+
+    @Test
+    public void should_read_the_authorization_context_with_a_single_session_read() throws Exception {
+        final AuthorizationContext authorizationContext = new AuthorizationContext(apiSession, permissions);
+        doReturn(authorizationContext).when(session).getAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
+
+        assertThat(SessionUtil.getAuthorizationContext(session)).isSameAs(authorizationContext);
+        verify(session).getAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
+        verifyNoMoreInteractions(session);
+    }
+
+    @Test
+    public void should_remove_the_authorization_context_at_logout() throws Exception {
+        SessionUtil.sessionLogout(session);
+
+        verify(session).removeAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
+        assertThat(SessionUtil.getAuthorizationContext(session)).isNull();
+    }
+}
@@ -952,6 +952,7 @@ public class FormsServlet extends RemoteServiceServlet implements FormsService {
         final HttpSession session = request.getSession();
         session.removeAttribute(SessionUtil.USER_SESSION_PARAM_KEY);
         session.removeAttribute(SessionUtil.API_SESSION_PARAM_KEY);
+        session.removeAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
     }
 
     /**
@@ -175,7 +175,8 @@ public class HomepageServlet extends ThemeResourceServlet {
         new ThemeArchive(theme.getContent())
                 .extract(portalThemeDirectory)
                 .compile(CompilableFile.ALWAYS_COMPILED_FILES)
-                .add("bonita.css", theme.getCssContent());
+                .add("bonita.css", theme.getCssContent())
+                .compress();
         FileUtils.writeStringToFile(timestampFile, String.valueOf(lastUpdateTimestamp), false);
     }
 
@@ -44,6 +44,7 @@ import org.bonitasoft.engine.session.APISession
  */
 class CasePermissionRule implements PermissionRule {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper()
 
     @Override
     public boolean isAllowed(APISession apiSession, APICallContext apiCallContext, APIAccessor apiAccessor, Logger logger) {
@@ -51,15 +52,13 @@ class CasePermissionRule implements PermissionRule {
         if (apiCallContext.isGET()) {
             return checkGetMethod(apiCallContext, apiAccessor, currentUserId, logger)
         } else if (apiCallContext.isPOST()) {
-            return checkPostMethod(apiCallContext, apiAccessor, currentUserId, logger)
+            return checkPostMethod(apiCallContext, apiAccessor, apiSession.getUserName(), logger)
         }
         return false
     }
 
-    private boolean checkPostMethod(APICallContext apiCallContext, APIAccessor apiAccessor, long currentUserId, Logger logger) {
-
-        ObjectMapper mapper = new ObjectMapper();
-        def map = mapper.readValue(apiCallContext.getBody(), Map.class)
+    private boolean checkPostMethod(APICallContext apiCallContext, APIAccessor apiAccessor, String userName, Logger logger) {
+        def map = MAPPER.readValue(apiCallContext.getBody(), Map.class)
 
         def string = map.get("processDefinitionId")
         if (string == null || string.toString().isEmpty()) {
@@ -70,10 +69,8 @@ class CasePermissionRule implements PermissionRule {
             return true;
         }
         def processAPI = apiAccessor.getProcessAPI()
-        def identityAPI = apiAccessor.getIdentityAPI()
-        User user = identityAPI.getUser(currentUserId);
         SearchOptionsBuilder searchOptionBuilder = new SearchOptionsBuilder(0, 10);
-        searchOptionBuilder.filter(UserSearchDescriptor.USER_NAME, user.getUserName());
+        searchOptionBuilder.filter(UserSearchDescriptor.USER_NAME, userName);
         SearchResult<User> listUsers = processAPI.searchUsersWhoCanStartProcessDefinition(processDefinitionId, searchOptionBuilder.done());
         logger.debug("RuleCase : nb Result [" + listUsers.getCount() + "] ?");
         def canStart = listUsers.getCount() == 1
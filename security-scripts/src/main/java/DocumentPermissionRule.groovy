@@ -41,6 +41,8 @@ import org.bonitasoft.engine.session.APISession
  */
 class DocumentPermissionRule implements PermissionRule {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+
     public static final String CASE_ID = "caseId"
     public static final String ARCHIVED_CASE_ID = "archivedCaseId"
 
@@ -76,9 +78,7 @@ class DocumentPermissionRule implements PermissionRule {
     }
     
     private boolean checkPostMethod(APICallContext apiCallContext, APIAccessor apiAccessor, long currentUserId) {
-
-        ObjectMapper mapper = new ObjectMapper();
-        def map = mapper.readValue(apiCallContext.getBody(), Map.class)
+        def map = MAPPER.readValue(apiCallContext.getBody(), Map.class)
 
         def processInstanceIdAsString = map.get(CASE_ID)
         if (processInstanceIdAsString == null || processInstanceIdAsString.toString().isEmpty()) {
@@ -46,17 +46,14 @@ class ProcessInstantiationPermissionRule implements PermissionRule {
 
     @Override
     public boolean isAllowed(APISession apiSession, APICallContext apiCallContext, APIAccessor apiAccessor, Logger logger) {
-        long currentUserId = apiSession.getUserId();
         def processDefinitionId = getProcessDefinitionId(apiCallContext)
         if (processDefinitionId <= 0) {
             return true
         }
         try {
             def processAPI = apiAccessor.getProcessAPI()
-            def identityAPI = apiAccessor.getIdentityAPI()
-            User user = identityAPI.getUser(currentUserId);
             SearchOptionsBuilder searchOptionBuilder = new SearchOptionsBuilder(0, 10);
-            searchOptionBuilder.filter(UserSearchDescriptor.USER_NAME, user.getUserName());
+            searchOptionBuilder.filter(UserSearchDescriptor.USER_NAME, apiSession.getUserName());
             SearchResult<User> listUsers = processAPI.searchUsersWhoCanStartProcessDefinition(processDefinitionId, searchOptionBuilder.done());
             logger.debug("RuleCase : nb Result [" + listUsers.getCount() + "] ?");
             def canStart = listUsers.getCount() == 1
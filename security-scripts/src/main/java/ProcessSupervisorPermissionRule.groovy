@@ -35,6 +35,8 @@ import org.bonitasoft.engine.session.APISession
  */
 class ProcessSupervisorPermissionRule implements PermissionRule {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+
     public static final String PROCESS_ID = "process_id"
 
     @Override
@@ -52,9 +54,7 @@ class ProcessSupervisorPermissionRule implements PermissionRule {
     }
 
     private boolean checkPostMethod(APICallContext apiCallContext, APIAccessor apiAccessor, long currentUserId, Logger logger) {
-
-        ObjectMapper mapper = new ObjectMapper();
-        def list = mapper.readValue(apiCallContext.getBody(), List.class)
+        def list = MAPPER.readValue(apiCallContext.getBody(), List.class)
 
         def processAPI = apiAccessor.getProcessAPI()
         for (int i = 0; i < list.size(); i++) {
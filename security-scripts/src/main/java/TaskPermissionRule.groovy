@@ -57,6 +57,8 @@ import org.bonitasoft.engine.session.APISession
  */
 class TaskPermissionRule implements PermissionRule {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+
     @Override
     public boolean isAllowed(APISession apiSession, APICallContext apiCallContext, APIAccessor apiAccessor, Logger logger) {
         long currentUserId = apiSession.getUserId()
@@ -104,8 +106,7 @@ class TaskPermissionRule implements PermissionRule {
 
     private boolean checkPostMethod(APICallContext apiCallContext, long currentUserId, ProcessAPI processAPI, String userName, Logger logger) {
         if ("manualTask".equals(apiCallContext.getResourceName())) {
-            ObjectMapper mapper = new ObjectMapper();
-            def map = mapper.readValue(apiCallContext.getBody(), Map.class)
+            def map = MAPPER.readValue(apiCallContext.getBody(), Map.class)
 
             def string = map.get("parentTaskId").toString()
             if (string == null || string.isEmpty()) {
@@ -63,7 +63,7 @@ public class CasePermissionRuleTest {
 
         doReturn(processAPI).when(apiAccessor).getProcessAPI()
         doReturn(identityAPI).when(apiAccessor).getIdentityAPI()
-        doReturn(user).when(identityAPI).getUser(currentUserId)
+        doReturn("john").when(apiSession).getUserName()
         doReturn(currentUserId).when(apiSession).getUserId()
     }
 
@@ -63,7 +63,7 @@ public class ProcessInstantiationPermissionRuleTest {
 
         doReturn(processAPI).when(apiAccessor).getProcessAPI()
         doReturn(identityAPI).when(apiAccessor).getIdentityAPI()
-        doReturn(user).when(identityAPI).getUser(currentUserId)
+        doReturn("john").when(apiSession).getUserName()
         doReturn(currentUserId).when(apiSession).getUserId()
     }
 
@@ -85,7 +85,7 @@ public class ProcessInstantiationPermissionRuleTest {
         def isAuthorized = rule.isAllowed(apiSession, apiCallContext, apiAccessor, logger)
         //then
         Assertions.assertThat(isAuthorized).isTrue();
-
+        verify(identityAPI, never()).getUser(anyLong())
     }
 
     @Test
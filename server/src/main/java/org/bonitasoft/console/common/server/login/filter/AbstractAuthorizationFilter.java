@@ -41,11 +41,33 @@ public abstract class AbstractAuthorizationFilter implements Filter {
      */
     protected static final Logger LOGGER = Logger.getLogger(AbstractAuthorizationFilter.class.getName());
 
+    /**
+     * Init parameter to send the time spent in the filter in a Server-Timing response header
+     */
+    protected static final String SERVER_TIMING_PARAM = "serverTiming";
+
+    /**
+     * Decision paths recorded in the {@link FilterTimings}
+     */
+    protected static final String EXCLUDED_DECISION_PATH = "excluded";
+
+    protected static final String ALLOW_DECISION_PATH = "allow";
+
+    protected static final String DENY_DECISION_PATH = "deny";
+
     private String excludePatterns = null;
 
+    private String filterName = getClass().getSimpleName();
+
+    private boolean serverTimingEnabled = false;
+
     @Override
     public void init(final FilterConfig filterConfig) throws ServletException {
         excludePatterns = filterConfig.getInitParameter("excludePatterns");
+        if (filterConfig.getFilterName() != null) {
+            filterName = filterConfig.getFilterName();
+        }
+        serverTimingEnabled = Boolean.parseBoolean(filterConfig.getInitParameter(SERVER_TIMING_PARAM));
     }
 
     @Override
@@ -53,11 +75,35 @@ public abstract class AbstractAuthorizationFilter implements Filter {
         final HttpServletRequest httpRequest = getRequest(request);
         final HttpServletResponse httpResponse = (HttpServletResponse) response;
         final String requestURL = httpRequest.getRequestURI();
+        final FilterTimer filterTimer = new FilterTimer(filterName, httpRequest, httpResponse, serverTimingEnabled);
+        final FilterChain timedChain = filterTimer.wrap(chain);
+
+        try {
+            if (sessionIsNotNeeded(requestURL, excludePatterns)) {
+                FilterTimings.setDecisionPath(httpRequest, EXCLUDED_DECISION_PATH);
+                timedChain.doFilter(httpRequest, httpResponse);
+            } else if (checkValidCondition(httpRequest, httpResponse)) {
+                setDefaultDecisionPath(httpRequest, ALLOW_DECISION_PATH);
+                timedChain.doFilter(httpRequest, httpResponse);
+            } else {
+                setDefaultDecisionPath(httpRequest, DENY_DECISION_PATH);
+            }
+        } finally {
+            filterTimer.stop();
+            releaseRequest(httpRequest);
+        }
+    }
+
+    /**
+     * @return the name of the filter in the web.xml, or the simple name of its class if it has none
+     */
+    protected String getFilterName() {
+        return filterName;
+    }
 
-        if (sessionIsNotNeeded(requestURL, excludePatterns)) {
-            chain.doFilter(httpRequest, httpResponse);
-        } else if (checkValidCondition(httpRequest, httpResponse)) {
-            chain.doFilter(httpRequest, httpResponse);
+    private void setDefaultDecisionPath(final HttpServletRequest request, final String decisionPath) {
+        if (request.getAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE) == null) {
+            FilterTimings.setDecisionPath(request, decisionPath);
         }
     }
 
@@ -71,6 +117,15 @@ public abstract class AbstractAuthorizationFilter implements Filter {
         return (HttpServletRequest) request;
     }
 
+    /**
+     * Override this to release the resources held by the wrapper returned by {@link #getRequest(ServletRequest)} once the request is processed
+     *
+     * @param request the request returned by {@link #getRequest(ServletRequest)}
+     */
+    protected void releaseRequest(final HttpServletRequest request) {
+
+    }
+
     @Override
     public void destroy() {
 
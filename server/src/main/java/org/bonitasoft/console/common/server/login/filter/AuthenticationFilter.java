@@ -58,11 +58,29 @@ public class AuthenticationFilter implements Filter {
 
     protected static final String MAINTENANCE_JSP = "/maintenance.jsp";
 
+    /**
+     * Init parameter to send the time spent in the filter in a Server-Timing response header
+     */
+    protected static final String SERVER_TIMING_PARAM = "serverTiming";
+
+    /**
+     * Decision paths recorded in the {@link FilterTimings} (when a rule authorizes the request, the decision path is the name of the rule)
+     */
+    protected static final String EXCLUDED_DECISION_PATH = "excluded";
+
+    protected static final String REDIRECT_TO_LOGIN_DECISION_PATH = "redirect_to_login";
+
+    protected static final String MAINTENANCE_DECISION_PATH = "maintenance";
+
     /** the Pattern of url not to filter */
     protected Pattern excludePattern = null;
 
     private final LinkedList<AuthenticationRule> rules = new LinkedList<AuthenticationRule>();
 
+    private String filterName = getClass().getSimpleName();
+
+    private boolean serverTimingEnabled = false;
+
     public AuthenticationFilter() {
         addRules();
     }
@@ -92,6 +110,10 @@ public class AuthenticationFilter implements Filter {
         excludePattern = compilePattern(StringUtils.isBlank(filterConfig.getInitParameter("excludePattern")) ? getDefaultExcludedPages()
                 .replace("bonita", webappName)
                 : filterConfig.getInitParameter("excludePattern"));
+        if (filterConfig.getFilterName() != null) {
+            filterName = filterConfig.getFilterName();
+        }
+        serverTimingEnabled = Boolean.parseBoolean(filterConfig.getInitParameter(SERVER_TIMING_PARAM));
     }
 
     protected String getDefaultExcludedPages() {
@@ -113,12 +135,19 @@ public class AuthenticationFilter implements Filter {
     public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain) throws IOException, ServletException {
         final HttpServletRequestAccessor requestAccessor = new HttpServletRequestAccessor((HttpServletRequest) request);
         final String url = ((HttpServletRequest) request).getRequestURL().toString();
-        if (matchExcludePatterns(url)) {
-            chain.doFilter(request, response);
-        } else {
-            doAuthenticationFiltering(requestAccessor,
-                new HttpServletResponseAccessor((HttpServletResponse) response),
-                createTenantAccessor(requestAccessor), chain);
+        final FilterTimer filterTimer = new FilterTimer(filterName, (HttpServletRequest) request, (HttpServletResponse) response, serverTimingEnabled);
+        final FilterChain timedChain = filterTimer.wrap(chain);
+        try {
+            if (matchExcludePatterns(url)) {
+                FilterTimings.setDecisionPath(request, EXCLUDED_DECISION_PATH);
+                timedChain.doFilter(request, response);
+            } else {
+                doAuthenticationFiltering(requestAccessor,
+                        new HttpServletResponseAccessor((HttpServletResponse) response),
+                        createTenantAccessor(requestAccessor), timedChain);
+            }
+        } finally {
+            filterTimer.stop();
         }
     }
 
@@ -132,7 +161,9 @@ public class AuthenticationFilter implements Filter {
             final FilterChain chain) throws ServletException, IOException {
 
         if (!isAuthorized(requestAccessor, responseAccessor, tenantIdAccessor, chain)) {
-
+            if (requestAccessor.asHttpServletRequest().getAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE) == null) {
+                FilterTimings.setDecisionPath(requestAccessor.asHttpServletRequest(), REDIRECT_TO_LOGIN_DECISION_PATH);
+            }
             cleanHttpSession(requestAccessor.getHttpSession());
             responseAccessor.redirect(createLoginUrl(requestAccessor, tenantIdAccessor));
         }
@@ -149,6 +180,7 @@ public class AuthenticationFilter implements Filter {
         for (final AuthenticationRule rule : getRules()) {
             try {
                 if (rule.doAuthorize(requestAccessor, tenantIdAccessor)) {
+                    FilterTimings.setDecisionPath(requestAccessor.asHttpServletRequest(), getDecisionPath(rule));
                     chain.doFilter(requestAccessor.asHttpServletRequest(), responseAccessor.asServletResponse());
                     return true;
                 }
@@ -163,12 +195,18 @@ public class AuthenticationFilter implements Filter {
         return false;
     }
 
+    private String getDecisionPath(final AuthenticationRule rule) {
+        final String ruleName = rule.getClass().getSimpleName();
+        return ruleName.isEmpty() ? rule.getClass().getName() : ruleName;
+    }
+
     protected boolean handleTenantPausedException(final HttpServletRequestAccessor requestAccessor, final HttpServletResponseAccessor responseAccessor,
             final ServletException e) throws ServletException {
         final TenantIsPausedRedirectionToMaintenancePageException tenantIsPausedException = (TenantIsPausedRedirectionToMaintenancePageException) e.getCause();
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.log(Level.FINE, "redirection to maintenance page : " + e.getMessage(), e);
         }
+        FilterTimings.setDecisionPath(requestAccessor.asHttpServletRequest(), MAINTENANCE_DECISION_PATH);
         redirectToMaintenance(requestAccessor, responseAccessor, tenantIsPausedException.getTenantId());
         return false;
     }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Request bodies buffered by a filter so that a dynamic permissions check can read them.<br>
+ * Registered in the platform MBean server as org.bonitasoft.web:type=BufferedRequestBodies,filter=&lt;filter name&gt;
+ */
+public class BufferedRequestBodies implements BufferedRequestBodiesMBean {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOGGER = Logger.getLogger(BufferedRequestBodies.class.getName());
+
+    private final AtomicLong bodies = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong spilledBodies = new AtomicLong();
+
+    public void record(final long bufferedBytes, final boolean spilledToFile) {
+        bodies.incrementAndGet();
+        bytes.addAndGet(bufferedBytes);
+        if (spilledToFile) {
+            spilledBodies.incrementAndGet();
+        }
+    }
+
+    @Override
+    public long getBodies() {
+        return bodies.get();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public long getSpilledBodies() {
+        return spilledBodies.get();
+    }
+
+    @Override
+    public void reset() {
+        bodies.set(0L);
+        bytes.set(0L);
+        spilledBodies.set(0L);
+    }
+
+    public void registerMBean(final String filterName) {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = getObjectName(filterName);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+        } catch (final JMException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Request bodies buffered by filter " + filterName + " could not be exposed through JMX", e);
+            }
+        }
+    }
+
+    /**
+     * Unregister from the MBean server (when the filter is destroyed)
+     */
+    public void unregisterMBean(final String filterName) {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = getObjectName(filterName);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (final JMException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Request bodies buffered by filter " + filterName + " could not be unregistered from JMX", e);
+            }
+        }
+    }
+
+    private ObjectName getObjectName(final String filterName) throws JMException {
+        return new ObjectName(FilterTimings.JMX_DOMAIN + ":type=BufferedRequestBodies,filter=" + ObjectName.quote(filterName));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Time the processing of a request by a filter, from its creation until the filter calls the rest of the chain (through the chain returned by
+ * {@link #wrap(FilterChain)}) or until {@link #stop()} is called if the request is rejected, and record it in the {@link FilterTimings}.<br>
+ * When server timing is enabled the duration is also sent to the client in a Server-Timing response header.
+ */
+class FilterTimer {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final String filterName;
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    private final boolean serverTimingEnabled;
+
+    private final long startTime = System.nanoTime();
+
+    private boolean stopped = false;
+
+    FilterTimer(final String filterName, final HttpServletRequest request, final HttpServletResponse response, final boolean serverTimingEnabled) {
+        this.filterName = filterName;
+        this.request = request;
+        this.response = response;
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    /**
+     * @return a chain stopping the timer before calling the given chain
+     */
+    FilterChain wrap(final FilterChain chain) {
+        return new FilterChain() {
+
+            @Override
+            public void doFilter(final ServletRequest request, final ServletResponse response) throws IOException, ServletException {
+                stop();
+                chain.doFilter(request, response);
+            }
+        };
+    }
+
+    /**
+     * Record the time elapsed since the timer was created, only the first time it is called
+     */
+    void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        final long duration = System.nanoTime() - startTime;
+        String decisionPath = (String) request.getAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE);
+        if (decisionPath == null) {
+            decisionPath = FilterTimings.UNKNOWN_DECISION_PATH;
+        } else {
+            request.removeAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE);
+        }
+        FilterTimings.getInstance().record(filterName, decisionPath, duration);
+        if (serverTimingEnabled && !response.isCommitted()) {
+            response.addHeader(SERVER_TIMING_HEADER, filterName + ";dur=" + String.format(Locale.ROOT, "%.3f", duration / 1000000d) + ";desc=\"" + decisionPath
+                    + "\"");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.ServletRequest;
+
+/**
+ * Time spent in the authentication and authorization filters before the request reaches the next filter or servlet, by filter and by decision
+ * path (the way the filter let the request through or rejected it).<br>
+ * Each histogram is registered in the platform MBean server as org.bonitasoft.web:type=FilterTimings,filter=&lt;filter name&gt;,path=&lt;decision path&gt;
+ */
+public class FilterTimings {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOGGER = Logger.getLogger(FilterTimings.class.getName());
+
+    /**
+     * Request attribute holding the decision path of the filter being timed
+     */
+    static final String DECISION_PATH_ATTRIBUTE = FilterTimings.class.getName() + ".decisionPath";
+
+    /**
+     * Decision path recorded when the filter didn't tell how it processed the request
+     */
+    public static final String UNKNOWN_DECISION_PATH = "unknown";
+
+    static final String JMX_DOMAIN = "org.bonitasoft.web";
+
+    private static final FilterTimings INSTANCE = new FilterTimings();
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    public static FilterTimings getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tell how the filter processing the request let it through or rejected it. Must be called before the filter calls the rest of the chain.
+     */
+    public static void setDecisionPath(final ServletRequest request, final String decisionPath) {
+        request.setAttribute(DECISION_PATH_ATTRIBUTE, decisionPath);
+    }
+
+    public void record(final String filterName, final String decisionPath, final long durationInNanos) {
+        getHistogram(filterName, decisionPath).record(durationInNanos);
+    }
+
+    public LatencyHistogram getHistogram(final String filterName, final String decisionPath) {
+        final String key = filterName + "|" + decisionPath;
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            final LatencyHistogram existingHistogram = histograms.putIfAbsent(key, histogram);
+            if (existingHistogram != null) {
+                return existingHistogram;
+            }
+            registerMBean(filterName, decisionPath, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * @return the histograms indexed by filter name and decision path separated by a |
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    private void registerMBean(final String filterName, final String decisionPath, final LatencyHistogram histogram) {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = getObjectName(filterName, decisionPath);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(histogram, objectName);
+            }
+        } catch (final JMException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Timings of filter " + filterName + " (" + decisionPath + ") could not be exposed through JMX", e);
+            }
+        }
+    }
+
+    /**
+     * Unregister the histograms from the MBean server (when the web application is stopped)
+     */
+    public void unregisterMBeans() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (final String key : histograms.keySet()) {
+            final int separatorIndex = key.lastIndexOf('|');
+            try {
+                final ObjectName objectName = getObjectName(key.substring(0, separatorIndex), key.substring(separatorIndex + 1));
+                if (mBeanServer.isRegistered(objectName)) {
+                    mBeanServer.unregisterMBean(objectName);
+                }
+            } catch (final JMException e) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Timings " + key + " could not be unregistered from JMX", e);
+                }
+            }
+        }
+    }
+
+    private ObjectName getObjectName(final String filterName, final String decisionPath) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=FilterTimings,filter=" + ObjectName.quote(filterName) + ",path=" + ObjectName.quote(decisionPath));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of durations, with power of two buckets of microseconds (bucket n counts the durations from 2^(n-1) included to 2^n
+ * excluded microseconds), so that recording a duration only costs a few atomic increments.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    /**
+     * The last bucket counts all the durations longer than 2^(BUCKETS - 2) microseconds (more than an hour)
+     */
+    static final int BUCKETS = 34;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(final long durationInNanos) {
+        final long nanos = Math.max(durationInNanos, 0L);
+        buckets.incrementAndGet(getBucket(nanos / 1000L));
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    private int getBucket(final long micros) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        final long count = getCount();
+        if (count == 0L) {
+            return 0d;
+        }
+        return totalNanos.get() / 1000d / count;
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return maxNanos.get() / 1000L;
+    }
+
+    @Override
+    public long getP50Micros() {
+        return getPercentileMicros(0.5d);
+    }
+
+    @Override
+    public long getP90Micros() {
+        return getPercentileMicros(0.9d);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return getPercentileMicros(0.99d);
+    }
+
+    /**
+     * @param percentile
+     *        between 0 and 1
+     * @return the upper bound in microseconds of the bucket of the percentile, never more than the maximum duration recorded
+     */
+    public long getPercentileMicros(final double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max((long) Math.ceil(count * percentile), 1L);
+        long cumulatedCount = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulatedCount += counts[i];
+            if (cumulatedCount >= rank) {
+                return Math.min(1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        totalNanos.set(0L);
+        maxNanos.set(0L);
+    }
+}
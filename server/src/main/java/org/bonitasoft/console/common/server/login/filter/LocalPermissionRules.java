@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import org.bonitasoft.engine.api.APIAccessor;
+import org.bonitasoft.engine.api.Logger;
+import org.bonitasoft.engine.api.TenantAPIAccessor;
+import org.bonitasoft.engine.api.permission.APICallContext;
+import org.bonitasoft.engine.api.permission.PermissionRule;
+import org.bonitasoft.engine.exception.ExecutionException;
+import org.bonitasoft.engine.session.APISession;
+
+/**
+ * Dynamic permissions rules bundled with the web application (the security-scripts module) and executed locally instead of being sent to the
+ * engine as scripts.<br>
+ * Each rule class is loaded and instantiated once, so the rules must not keep any state between calls (the bundled ones don't).<br>
+ * The {@link APIAccessor} given to a rule only lives for the current call: the engine APIs are retrieved once and the answers of their
+ * boolean <code>is...</code> methods (is the user involved in this case, is the user supervisor of this process...) are memoized, so that a rule
+ * asking the same question twice only costs one engine call.
+ */
+public class LocalPermissionRules {
+
+    private static final java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger(LocalPermissionRules.class.getName());
+
+    private static final LocalPermissionRules INSTANCE = new LocalPermissionRules(LocalPermissionRules.class.getClassLoader());
+
+    private final ClassLoader classLoader;
+
+    private final Map<String, PermissionRule> rules = new ConcurrentHashMap<String, PermissionRule>();
+
+    /**
+     * Class names of the rules which could not be loaded, so that they are not looked up on each call
+     */
+    private final Set<String> unavailableRules = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public static LocalPermissionRules getInstance() {
+        return INSTANCE;
+    }
+
+    LocalPermissionRules(final ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param className
+     *            the class name of the rule, as declared in dynamic-permissions-checks.properties
+     * @return the rule or null if it is not available in the web application
+     */
+    public PermissionRule getRule(final String className) {
+        final PermissionRule rule = rules.get(className);
+        if (rule != null || unavailableRules.contains(className)) {
+            return rule;
+        }
+        try {
+            final Class<?> ruleClass = Class.forName(className, true, classLoader);
+            if (PermissionRule.class.isAssignableFrom(ruleClass)) {
+                final PermissionRule newRule = (PermissionRule) ruleClass.newInstance();
+                rules.put(className, newRule);
+                return newRule;
+            }
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, className + " is not a permission rule, it will be executed by the engine");
+            }
+        } catch (final Exception | LinkageError e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Unable to load the permission rule " + className + " in the web application, it will be executed by the engine", e);
+            }
+        }
+        unavailableRules.add(className);
+        return null;
+    }
+
+    public boolean isAllowed(final PermissionRule rule, final APISession apiSession, final APICallContext apiCallContext) throws ExecutionException {
+        try {
+            return rule.isAllowed(apiSession, apiCallContext, createAPIAccessor(apiSession), createLogger(rule));
+        } catch (final Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    protected APIAccessor createAPIAccessor(final APISession apiSession) {
+        return (APIAccessor) Proxy.newProxyInstance(APIAccessor.class.getClassLoader(), new Class<?>[] { APIAccessor.class },
+                new CallAPIAccessorHandler(apiSession));
+    }
+
+    private Logger createLogger(final PermissionRule rule) {
+        return (Logger) Proxy.newProxyInstance(Logger.class.getClassLoader(), new Class<?>[] { Logger.class },
+                new RuleLoggerHandler(java.util.logging.Logger.getLogger(rule.getClass().getName())));
+    }
+
+    /**
+     * Wrap an engine API so that the answers of its boolean <code>is...</code> methods are memoized for the lifetime of the wrapper
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T memoize(final Class<T> apiInterface, final T api) {
+        return (T) Proxy.newProxyInstance(apiInterface.getClassLoader(), new Class<?>[] { apiInterface }, new MemoizingAPIHandler(api));
+    }
+
+    private static Object invokeAndUnwrap(final Method method, final Object target, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@link APIAccessor} of a single call, retrieving each engine API once with the session of the call
+     */
+    private static class CallAPIAccessorHandler implements InvocationHandler {
+
+        private final APISession apiSession;
+
+        private final Map<String, Object> apis = new HashMap<String, Object>();
+
+        CallAPIAccessorHandler(final APISession apiSession) {
+            this.apiSession = apiSession;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeAndUnwrap(method, this, args);
+            }
+            Object api = apis.get(method.getName());
+            if (api == null) {
+                final Method getter = TenantAPIAccessor.class.getMethod(method.getName(), APISession.class);
+                api = wrap(method.getReturnType(), invokeAndUnwrap(getter, null, new Object[] { apiSession }));
+                apis.put(method.getName(), api);
+            }
+            return api;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Object wrap(final Class apiInterface, final Object api) {
+            if (apiInterface.isInterface()) {
+                return memoize(apiInterface, api);
+            }
+            return api;
+        }
+    }
+
+    private static class MemoizingAPIHandler implements InvocationHandler {
+
+        private final Object api;
+
+        private final Map<List<Object>, Object> answers = new HashMap<List<Object>, Object>();
+
+        MemoizingAPIHandler(final Object api) {
+            this.api = api;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (!isMemoizable(method)) {
+                return invokeAndUnwrap(method, api, args);
+            }
+            final List<Object> question = Arrays.asList(method.getName(), Arrays.asList(method.getParameterTypes()),
+                    args == null ? Collections.emptyList() : Arrays.asList(args));
+            Object answer = answers.get(question);
+            if (answer == null) {
+                answer = invokeAndUnwrap(method, api, args);
+                answers.put(question, answer);
+            }
+            return answer;
+        }
+
+        private boolean isMemoizable(final Method method) {
+            return method.getName().startsWith("is") && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class);
+        }
+    }
+
+    /**
+     * Log the messages of a rule in the logger named after the rule class
+     */
+    private static class RuleLoggerHandler implements InvocationHandler {
+
+        private final java.util.logging.Logger logger;
+
+        RuleLoggerHandler(final java.util.logging.Logger logger) {
+            this.logger = logger;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeAndUnwrap(method, this, args);
+            }
+            final Level level = getLevel(method.getName());
+            if (level == null) {
+                return null;
+            }
+            if (method.getReturnType() == boolean.class) {
+                return logger.isLoggable(level);
+            }
+            if (args != null && args.length > 0 && logger.isLoggable(level)) {
+                final Throwable throwable = args.length > 1 && args[args.length - 1] instanceof Throwable ? (Throwable) args[args.length - 1] : null;
+                logger.log(level, String.valueOf(args[0]), throwable);
+            }
+            return null;
+        }
+
+        private Level getLevel(final String methodName) {
+            final String name = methodName.toLowerCase();
+            if (name.contains("trace")) {
+                return Level.FINEST;
+            } else if (name.contains("debug")) {
+                return Level.FINE;
+            } else if (name.contains("info")) {
+                return Level.INFO;
+            } else if (name.contains("warn")) {
+                return Level.WARNING;
+            } else if (name.contains("error")) {
+                return Level.SEVERE;
+            }
+            return null;
+        }
+    }
+}
@@ -14,32 +14,71 @@
  */
 package org.bonitasoft.console.common.server.login.filter;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
-import org.apache.commons.io.IOUtils;
-
+/**
+ * Request wrapper allowing the body to be read both by a filter and by the servlet.<br>
+ * The body is captured when {@link #captureBody()} is called, or on the first read if the wrapper was built without a memory threshold. As long
+ * as it is not captured, reads go straight to the wrapped request. A captured body is kept in memory up to the threshold and spilled to a
+ * temporary file above it, and every read replays the same captured content without copying it. {@link #release()} deletes the temporary file.
+ */
 public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
 
-    private ByteArrayOutputStream readBytes;
+    /**
+     * Default maximum size in bytes of a body kept in memory
+     */
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private static final String TEMP_FILE_PREFIX = "bonita-request-body";
+
+    private final int memoryThreshold;
+
+    private final boolean captureOnRead;
+
+    private CapturedBody capturedBody;
 
     public MultiReadHttpServletRequest(final HttpServletRequest request) {
+        this(request, DEFAULT_MEMORY_THRESHOLD, true);
+    }
+
+    /**
+     * @param memoryThreshold
+     *            maximum size in bytes of a body kept in memory, bigger bodies are spilled to a temporary file
+     */
+    public MultiReadHttpServletRequest(final HttpServletRequest request, final int memoryThreshold) {
+        this(request, memoryThreshold, false);
+    }
+
+    private MultiReadHttpServletRequest(final HttpServletRequest request, final int memoryThreshold, final boolean captureOnRead) {
         super(request);
+        this.memoryThreshold = memoryThreshold;
+        this.captureOnRead = captureOnRead;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        if (readBytes == null) {
-            readInputStream();
+        if (capturedBody == null) {
+            if (!captureOnRead) {
+                return super.getInputStream();
+            }
+            captureBody();
         }
-        return new CachedServletInputStream();
+        return new CachedServletInputStream(capturedBody.openStream());
     }
 
     @Override
@@ -51,17 +90,110 @@ public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
         return new BufferedReader(new InputStreamReader(getInputStream(), enc));
     }
 
-    private void readInputStream() throws IOException {
-        readBytes = new ByteArrayOutputStream();
-        IOUtils.copy(super.getInputStream(), readBytes);
+    /**
+     * Read the body of the wrapped request so that it can be read again afterwards. Does nothing if the body is already captured.
+     */
+    public void captureBody() throws IOException {
+        if (capturedBody == null) {
+            capturedBody = new CapturedBody(super.getInputStream(), getContentLength(), memoryThreshold);
+        }
+    }
+
+    public boolean isBodyCaptured() {
+        return capturedBody != null;
+    }
+
+    /**
+     * @return the size in bytes of the captured body, 0 if the body is not captured
+     */
+    public long getBufferedBytes() {
+        return capturedBody != null ? capturedBody.size : 0;
+    }
+
+    /**
+     * @return true if the captured body was spilled to a temporary file
+     */
+    public boolean isBodySpilledToFile() {
+        return capturedBody != null && capturedBody.file != null;
+    }
+
+    /**
+     * Delete the temporary file of the captured body if any. The body cannot be read anymore afterwards.
+     */
+    public void release() {
+        if (capturedBody != null && capturedBody.file != null) {
+            capturedBody.file.delete();
+        }
+    }
+
+    private static class CapturedBody {
+
+        private ExposedByteArrayOutputStream memory;
+
+        private File file;
+
+        private long size;
+
+        private CapturedBody(final InputStream input, final int contentLength, final int memoryThreshold) throws IOException {
+            memory = new ExposedByteArrayOutputStream(contentLength > 0 && contentLength <= memoryThreshold ? contentLength : 4096);
+            OutputStream fileOutput = null;
+            try {
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    if (fileOutput == null && size + read > memoryThreshold) {
+                        file = File.createTempFile(TEMP_FILE_PREFIX, ".tmp");
+                        fileOutput = new BufferedOutputStream(new FileOutputStream(file));
+                        memory.writeTo(fileOutput);
+                        memory = null;
+                    }
+                    if (fileOutput != null) {
+                        fileOutput.write(buffer, 0, read);
+                    } else {
+                        memory.write(buffer, 0, read);
+                    }
+                    size += read;
+                }
+            } catch (final IOException e) {
+                if (file != null) {
+                    file.delete();
+                }
+                throw e;
+            } finally {
+                if (fileOutput != null) {
+                    fileOutput.close();
+                }
+            }
+        }
+
+        private InputStream openStream() throws IOException {
+            if (file != null) {
+                return new BufferedInputStream(new FileInputStream(file));
+            }
+            return memory.toInputStream();
+        }
+    }
+
+    /**
+     * Byte array output stream whose content can be read without being copied
+     */
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private ExposedByteArrayOutputStream(final int size) {
+            super(size);
+        }
+
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
     }
 
     class CachedServletInputStream extends ServletInputStream {
 
-        private final ByteArrayInputStream input;
+        private final InputStream input;
 
-        public CachedServletInputStream() {
-            input = new ByteArrayInputStream(readBytes.toByteArray());
+        public CachedServletInputStream(final InputStream input) {
+            this.input = input;
         }
 
         @Override
@@ -85,4 +217,4 @@ public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
             super.close();
         }
     }
-}
\ No newline at end of file
+}
@@ -19,23 +19,28 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 
+import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 import org.apache.commons.io.IOUtils;
 import org.bonitasoft.console.common.server.preferences.properties.DynamicPermissionsChecks;
 import org.bonitasoft.console.common.server.preferences.properties.PropertiesFactory;
 import org.bonitasoft.console.common.server.preferences.properties.ResourcesPermissionsMapping;
+import org.bonitasoft.console.common.server.preferences.properties.SecurityProperties;
+import org.bonitasoft.console.common.server.utils.AuthorizationContext;
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
 import org.bonitasoft.console.common.server.utils.PermissionsBuilder;
 import org.bonitasoft.console.common.server.utils.SessionUtil;
 import org.bonitasoft.engine.api.PermissionAPI;
 import org.bonitasoft.engine.api.TenantAPIAccessor;
 import org.bonitasoft.engine.api.permission.APICallContext;
+import org.bonitasoft.engine.api.permission.PermissionRule;
 import org.bonitasoft.engine.exception.BonitaException;
 import org.bonitasoft.engine.exception.BonitaHomeNotSetException;
 import org.bonitasoft.engine.exception.ExecutionException;
@@ -58,9 +63,44 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
 
     private static final String PLATFORM_API_URI_REGEXP = ".*(API|APIToolkit)/platform/.*";
 
+    private static final Pattern PLATFORM_API_URI_PATTERN = Pattern.compile(PLATFORM_API_URI_REGEXP);
+
+    /**
+     * Request attribute holding the {@link AuthorizationContext} of the session once it is read
+     */
+    protected static final String AUTHORIZATION_CONTEXT_REQUEST_ATTRIBUTE = RestAPIAuthorizationFilter.class.getName() + ".authorizationContext";
+
     protected static final String PLATFORM_SESSION_PARAM_KEY = "platformSession";
+
+    /**
+     * Init parameter for the maximum size in bytes of a request body kept in memory when a dynamic check reads it
+     */
+    protected static final String BODY_MEMORY_THRESHOLD_PARAM = "bodyMemoryThreshold";
+
+    /**
+     * Decision paths recorded in the {@link FilterTimings}
+     */
+    protected static final String UNAUTHENTICATED_DECISION_PATH = "unauthenticated";
+
+    protected static final String PLATFORM_DECISION_PATH = "platform";
+
+    protected static final String UNCHECKED_DECISION_PATH = "unchecked";
+
+    protected static final String TECHNICAL_USER_DECISION_PATH = "technical_user";
+
+    protected static final String STATIC_ALLOW_DECISION_PATH = "static_allow";
+
+    protected static final String STATIC_DENY_DECISION_PATH = "static_deny";
+
+    protected static final String DYNAMIC_ALLOW_DECISION_PATH = "dynamic_allow";
+
+    protected static final String DYNAMIC_DENY_DECISION_PATH = "dynamic_deny";
+
     private final Boolean reload;
 
+    private int bodyMemoryThreshold = MultiReadHttpServletRequest.DEFAULT_MEMORY_THRESHOLD;
+
+    private final BufferedRequestBodies bufferedRequestBodies = new BufferedRequestBodies();
 
     public RestAPIAuthorizationFilter(final boolean reload) {
         this.reload = reload;
@@ -70,16 +110,61 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
         reload = null;//will be check every time
     }
 
+    @Override
+    public void init(final FilterConfig filterConfig) throws ServletException {
+        super.init(filterConfig);
+        final String bodyMemoryThresholdParam = filterConfig.getInitParameter(BODY_MEMORY_THRESHOLD_PARAM);
+        if (bodyMemoryThresholdParam != null) {
+            try {
+                bodyMemoryThreshold = Integer.parseInt(bodyMemoryThresholdParam.trim());
+            } catch (final NumberFormatException e) {
+                if (LOGGER.isLoggable(Level.WARNING)) {
+                    LOGGER.log(Level.WARNING, "Invalid value for the " + BODY_MEMORY_THRESHOLD_PARAM + " init parameter: " + bodyMemoryThresholdParam);
+                }
+            }
+        }
+        bufferedRequestBodies.registerMBean(getFilterName());
+    }
+
+    @Override
+    public void destroy() {
+        bufferedRequestBodies.unregisterMBean(getFilterName());
+        super.destroy();
+    }
+
     @Override
     protected HttpServletRequest getRequest(final ServletRequest request) {
         //we need to use a MultiReadHttpServletRequest wrapper in order to be able to get the inputstream twice (in the filter and in the API servlet)
-        return new MultiReadHttpServletRequest((HttpServletRequest) request);
+        //the body is only captured if a dynamic check reads it
+        return new MultiReadHttpServletRequest((HttpServletRequest) request, bodyMemoryThreshold);
+    }
+
+    @Override
+    protected void releaseRequest(final HttpServletRequest request) {
+        if (request instanceof MultiReadHttpServletRequest) {
+            final MultiReadHttpServletRequest multiReadRequest = (MultiReadHttpServletRequest) request;
+            if (multiReadRequest.isBodyCaptured()) {
+                bufferedRequestBodies.record(multiReadRequest.getBufferedBytes(), multiReadRequest.isBodySpilledToFile());
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Request body of " + request.getRequestURI() + " buffered for the dynamic check: "
+                            + multiReadRequest.getBufferedBytes() + " byte(s)" + (multiReadRequest.isBodySpilledToFile() ? " (in a temporary file)" : ""));
+                }
+            }
+            multiReadRequest.release();
+        }
+    }
+
+    /**
+     * @return the request bodies buffered by this filter for dynamic checks, also exposed through JMX
+     */
+    public BufferedRequestBodies getBufferedRequestBodies() {
+        return bufferedRequestBodies;
     }
 
     @Override
     protected boolean checkValidCondition(final HttpServletRequest httpRequest, final HttpServletResponse httpResponse) throws ServletException {
         try {
-            if (httpRequest.getRequestURI().matches(PLATFORM_API_URI_REGEXP)) {
+            if (PLATFORM_API_URI_PATTERN.matcher(httpRequest.getRequestURI()).matches()) {
                 return platformAPIsCheck(httpRequest, httpResponse);
             } else {
                 return tenantAPIsCheck(httpRequest, httpResponse);
@@ -93,8 +178,9 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
     }
 
     protected boolean tenantAPIsCheck(final HttpServletRequest httpRequest, final HttpServletResponse httpResponse) throws ServletException {
-        final APISession apiSession = (APISession) httpRequest.getSession().getAttribute(SessionUtil.API_SESSION_PARAM_KEY);
-        if (apiSession == null) {
+        final AuthorizationContext authorizationContext = getAuthorizationContext(httpRequest);
+        if (authorizationContext == null) {
+            FilterTimings.setDecisionPath(httpRequest, UNAUTHENTICATED_DECISION_PATH);
             httpResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return false;
         } else if (!checkPermissions(httpRequest)) {
@@ -108,8 +194,10 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
     protected boolean platformAPIsCheck(final HttpServletRequest httpRequest, final HttpServletResponse httpResponse) {
         final PlatformSession platformSession = (PlatformSession) httpRequest.getSession().getAttribute(PLATFORM_SESSION_PARAM_KEY);
         if (platformSession != null) {
+            FilterTimings.setDecisionPath(httpRequest, PLATFORM_DECISION_PATH);
             return true;
         } else {
+            FilterTimings.setDecisionPath(httpRequest, UNAUTHENTICATED_DECISION_PATH);
             httpResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return false;
         }
@@ -123,13 +211,17 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
     protected boolean checkPermissions(final HttpServletRequest request, final String apiName, final String resourceName, final APIID resourceQualifiers)
             throws ServletException {
         final String method = request.getMethod();
-        final HttpSession session = request.getSession();
-        @SuppressWarnings("unchecked")
-        final Set<String> userPermissions = (Set<String>) session.getAttribute(SessionUtil.PERMISSIONS_SESSION_PARAM_KEY);
-        final APISession apiSession = (APISession) session.getAttribute(SessionUtil.API_SESSION_PARAM_KEY);
+        final AuthorizationContext authorizationContext = getAuthorizationContext(request);
+        final Set<String> userPermissions = authorizationContext.getPermissions();
+        final APISession apiSession = authorizationContext.getApiSession();
         final Long tenantId = apiSession.getTenantId();
         final boolean apiAuthorizationsCheckEnabled = isApiAuthorizationsCheckEnabled(tenantId);
-        if (!apiAuthorizationsCheckEnabled || apiSession.isTechnicalUser()) {
+        if (!apiAuthorizationsCheckEnabled) {
+            FilterTimings.setDecisionPath(request, UNCHECKED_DECISION_PATH);
+            return true;
+        }
+        if (apiSession.isTechnicalUser()) {
+            FilterTimings.setDecisionPath(request, TECHNICAL_USER_DECISION_PATH);
             return true;
         }
         final String resourceQualifiersAsString = resourceQualifiers != null ? resourceQualifiers.toString() : null;
@@ -140,14 +232,32 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
             //if there is a dynamic rule, use it to check the permissions
             final String requestBody = getRequestBody(request);
             final APICallContext apiCallContext = new APICallContext(method, apiName, resourceName, resourceQualifiersAsString, request.getQueryString(), requestBody);
-            return dynamicCheck(apiCallContext, userPermissions, resourceAuthorizations, apiSession);
+            final boolean authorized = dynamicCheck(apiCallContext, userPermissions, resourceAuthorizations, apiSession);
+            FilterTimings.setDecisionPath(request, authorized ? DYNAMIC_ALLOW_DECISION_PATH : DYNAMIC_DENY_DECISION_PATH);
+            return authorized;
         } else {
             //if there is no dynamic rule, use the static permissions
             final ResourcesPermissionsMapping resourcesPermissionsMapping = getResourcesPermissionsMapping(tenantId);
             final Set<String> resourcePermissions = getDeclaredPermissions(apiName, resourceName, method, resourceQualifiers, resourcesPermissionsMapping);
             final APICallContext apiCallContext = new APICallContext(method, apiName, resourceName, resourceQualifiersAsString);
-            return staticCheck(apiCallContext, userPermissions, resourcePermissions, apiSession.getUserName());
+            final boolean authorized = staticCheck(apiCallContext, userPermissions, resourcePermissions, apiSession.getUserName());
+            FilterTimings.setDecisionPath(request, authorized ? STATIC_ALLOW_DECISION_PATH : STATIC_DENY_DECISION_PATH);
+            return authorized;
+        }
+    }
+
+    /**
+     * @return the authorization context of the session of the request (read once per request), or null if the session has no API session
+     */
+    protected AuthorizationContext getAuthorizationContext(final HttpServletRequest request) {
+        AuthorizationContext authorizationContext = (AuthorizationContext) request.getAttribute(AUTHORIZATION_CONTEXT_REQUEST_ATTRIBUTE);
+        if (authorizationContext == null) {
+            authorizationContext = SessionUtil.getAuthorizationContext(request.getSession());
+            if (authorizationContext != null) {
+                request.setAttribute(AUTHORIZATION_CONTEXT_REQUEST_ATTRIBUTE, authorizationContext);
+            }
         }
+        return authorizationContext;
     }
 
     protected Set<String> getDeclaredPermissions(final String apiName, final String resourceName, final String method, final APIID resourceQualifiers,
@@ -168,6 +278,9 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
 
     protected String getRequestBody(final HttpServletRequest request) throws ServletException {
         try {
+            if (request instanceof MultiReadHttpServletRequest) {
+                ((MultiReadHttpServletRequest) request).captureBody();
+            }
             final ServletInputStream inputStream = request.getInputStream();
             return IOUtils.toString(inputStream, request.getCharacterEncoding());
         } catch (final IOException e) {
@@ -220,7 +333,18 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
     protected boolean checkDynamicPermissionsWithScript(final APICallContext apiCallContext, final String resourceClassname,
             final APISession apiSession) throws ServletException {
         try {
-            return executeScript(apiSession, resourceClassname, apiCallContext);
+            final PermissionDecisionCache decisionCache = getPermissionDecisionCache(apiSession);
+            if (decisionCache == null || !decisionCache.isCacheable(apiCallContext.getMethod())) {
+                return executeScript(apiSession, resourceClassname, apiCallContext);
+            }
+            final String decisionKey = PermissionDecisionCache.buildKey(resourceClassname, apiCallContext);
+            final Boolean cachedDecision = decisionCache.get(apiSession.getUserId(), decisionKey);
+            if (cachedDecision != null) {
+                return cachedDecision;
+            }
+            final boolean authorized = executeScript(apiSession, resourceClassname, apiCallContext);
+            decisionCache.put(apiSession.getUserId(), decisionKey, authorized);
+            return authorized;
         } catch (final NotFoundException e) {
             if (LOGGER.isLoggable(Level.SEVERE)) {
                 LOGGER.log(Level.SEVERE, "Unable to find the dynamic permissions script: " + resourceClassname, e);
@@ -239,6 +363,22 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
         }
     }
 
+    /**
+     * @return the cache of the dynamic permissions scripts decisions of the tenant, or null if it is disabled or if the scripts are reloaded
+     *         every time
+     */
+    protected PermissionDecisionCache getPermissionDecisionCache(final APISession apiSession) {
+        if (shouldReload(apiSession)) {
+            return null;
+        }
+        final SecurityProperties securityProperties = PropertiesFactory.getSecurityProperties(apiSession.getTenantId());
+        if (!securityProperties.isAPIAuthorizationsCacheEnabled()) {
+            return null;
+        }
+        return PermissionDecisionCache.getInstance(apiSession.getTenantId(), securityProperties.getAPIAuthorizationsCacheTimeToLive(),
+                securityProperties.getAPIAuthorizationsCacheSize(), securityProperties.getAPIAuthorizationsCacheMethods());
+    }
+
     protected boolean checkDynamicPermissionsWithProfiles(final Set<String> resourceAuthorizations, final Set<String> userPermissions) {
         final Set<String> profileAuthorizations = getResourceProfileAuthorizations(resourceAuthorizations);
         for (final String profileAuthorization : profileAuthorizations) {
@@ -291,8 +431,15 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
     protected boolean executeScript(final APISession apiSession, final String resourceClassname, final APICallContext apiCallContext)
             throws BonitaHomeNotSetException, ServerAPIException, UnknownAPITypeException,
             ExecutionException, NotFoundException {
-        final PermissionAPI permissionAPI = TenantAPIAccessor.getPermissionAPI(apiSession);
-        final boolean authorized = permissionAPI.checkAPICallWithScript(resourceClassname, apiCallContext, shouldReload(apiSession));
+        final boolean reload = shouldReload(apiSession);
+        final PermissionRule localRule = reload ? null : getLocalPermissionRule(apiSession.getTenantId(), resourceClassname);
+        final boolean authorized;
+        if (localRule != null) {
+            authorized = LocalPermissionRules.getInstance().isAllowed(localRule, apiSession, apiCallContext);
+        } else {
+            final PermissionAPI permissionAPI = TenantAPIAccessor.getPermissionAPI(apiSession);
+            authorized = permissionAPI.checkAPICallWithScript(resourceClassname, apiCallContext, reload);
+        }
         if (!authorized) {
             if (LOGGER.isLoggable(Level.FINEST)) {
                 LOGGER.log(
@@ -305,6 +452,17 @@ public class RestAPIAuthorizationFilter extends AbstractAuthorizationFilter {
         return authorized;
     }
 
+    /**
+     * @return the rule to execute in the web application instead of sending the script to the engine, or null if the script is not one of the
+     *         bundled rules declared as local in security-config.properties
+     */
+    protected PermissionRule getLocalPermissionRule(final long tenantId, final String resourceClassname) {
+        if (!PropertiesFactory.getSecurityProperties(tenantId).getAPIAuthorizationsLocalRules().contains(resourceClassname)) {
+            return null;
+        }
+        return LocalPermissionRules.getInstance().getRule(resourceClassname);
+    }
+
     private boolean shouldReload(final APISession apiSession) {
         return reload == null ? PropertiesFactory.getSecurityProperties(apiSession.getTenantId()).isAPIAuthorizationsCheckInDebugMode():reload;
     }
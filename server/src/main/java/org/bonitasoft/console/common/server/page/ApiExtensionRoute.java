@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.bonitasoft.console.common.server.page.extension.PageResourceProviderImpl;
+
+/**
+ * Immutable description of a REST API extension endpoint: the page declaring it, its controller file and the permissions it requires, as
+ * declared in the page.properties of the page.
+ */
+public class ApiExtensionRoute {
+
+    private final String mappingKey;
+
+    private final long pageId;
+
+    private final String pageName;
+
+    private final Long processDefinitionId;
+
+    private final String fullPageName;
+
+    private final String classFileName;
+
+    private final Set<String> permissions;
+
+    public ApiExtensionRoute(final String mappingKey, final PageResourceProviderImpl pageResourceProvider, final String classFileName,
+            final Set<String> permissions) {
+        this.mappingKey = mappingKey;
+        pageId = pageResourceProvider.getPageId();
+        pageName = pageResourceProvider.getPageName();
+        processDefinitionId = pageResourceProvider.getProcessDefinitionId();
+        fullPageName = pageResourceProvider.getFullPageName();
+        this.classFileName = classFileName;
+        this.permissions = permissions;
+    }
+
+    public String getMappingKey() {
+        return mappingKey;
+    }
+
+    public long getPageId() {
+        return pageId;
+    }
+
+    public String getFullPageName() {
+        return fullPageName;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * @return a new resource provider for the page of the route (resource providers are not shared between calls)
+     */
+    public PageResourceProviderImpl createPageResourceProvider(final long tenantId) {
+        return new PageResourceProviderImpl(pageName, tenantId, pageId, processDefinitionId);
+    }
+
+    public File getControllerFile(final File pageDirectory) {
+        return resolveControllerFile(pageDirectory, classFileName);
+    }
+
+    /**
+     * @param classFileName
+     *            the path of the controller file relative to the page directory, as declared in page.properties
+     */
+    public static File resolveControllerFile(final File pageDirectory, final String classFileName) {
+        final String relativePath = classFileName.startsWith("/") ? classFileName.substring(1) : classFileName;
+        final String[] paths = relativePath.split("/");
+        final Path restApiControllerPath = paths.length == 1 ? Paths.get(paths[0]) : Paths.get(paths[0], Arrays.copyOfRange(paths, 1, paths.length));
+        return pageDirectory.toPath().resolve(restApiControllerPath).toFile();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bonitasoft.console.common.server.page.extension.PageResourceProviderImpl;
+import org.bonitasoft.console.common.server.preferences.properties.SimpleProperties;
+import org.bonitasoft.engine.page.ContentType;
+import org.bonitasoft.web.rest.server.api.extension.ResourceExtensionResolver;
+
+/**
+ * Route table of the REST API extensions of a tenant: the {@link ApiExtensionRoute} of each endpoint indexed by its mapping key, so that a call
+ * is routed with a single lookup instead of asking the engine which page handles it and parsing the page.properties of the page.<br>
+ * The routes of a page are added when the page is deployed or updated through the page datastore, or the first time one of its endpoints is
+ * called, and they are removed when the page is deleted or its folder is refreshed with a new version.<br>
+ * The table itself is immutable and replaced on each change, so lookups never lock.
+ */
+public class ApiExtensionRoutes {
+
+    private static final ConcurrentHashMap<Long, ApiExtensionRoutes> INSTANCES = new ConcurrentHashMap<>();
+
+    private volatile Map<String, ApiExtensionRoute> routes = Collections.emptyMap();
+
+    public static ApiExtensionRoutes getInstance(final long tenantId) {
+        ApiExtensionRoutes instance = INSTANCES.get(tenantId);
+        if (instance == null) {
+            instance = new ApiExtensionRoutes();
+            final ApiExtensionRoutes existingInstance = INSTANCES.putIfAbsent(tenantId, instance);
+            if (existingInstance != null) {
+                instance = existingInstance;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return the route of the endpoint or null if it is not known yet
+     */
+    public ApiExtensionRoute getRoute(final String mappingKey) {
+        return routes.get(mappingKey);
+    }
+
+    /**
+     * Replace the routes of a page by the endpoints declared in its page.properties
+     *
+     * @param pageResourceProvider
+     *            the resource provider of a page whose folder is up to date
+     */
+    public synchronized void addPage(final PageResourceProviderImpl pageResourceProvider) {
+        if (pageResourceProvider.getPageId() == null) {
+            return;
+        }
+        final Map<String, ApiExtensionRoute> newRoutes = copyWithoutPage(pageResourceProvider.getFullPageName());
+        final File pagePropertiesFile = pageResourceProvider.getResourceAsFile("page.properties");
+        if (pagePropertiesFile.exists()) {
+            final SimpleProperties pageProperties = new SimpleProperties(pagePropertiesFile);
+            if (ContentType.API_EXTENSION.equals(pageProperties.getProperty(CustomPageService.PROPERTY_CONTENT_TYPE))) {
+                for (final String apiExtension : pageProperties.getProperty(CustomPageService.PROPERTY_API_EXTENSIONS).split(
+                        CustomPageService.EXTENSION_SEPARATOR)) {
+                    final ApiExtensionRoute route = readRoute(pageProperties, apiExtension.trim(), pageResourceProvider);
+                    newRoutes.put(route.getMappingKey(), route);
+                }
+            }
+        }
+        routes = Collections.unmodifiableMap(newRoutes);
+    }
+
+    public synchronized void removePage(final String fullPageName) {
+        routes = Collections.unmodifiableMap(copyWithoutPage(fullPageName));
+    }
+
+    private ApiExtensionRoute readRoute(final SimpleProperties pageProperties, final String apiExtension, final PageResourceProviderImpl pageResourceProvider) {
+        final String method = pageProperties.getProperty(String.format(CustomPageService.PROPERTY_METHOD_MASK, apiExtension));
+        final String pathTemplate = pageProperties.getProperty(String.format(CustomPageService.PROPERTY_PATH_TEMPLATE_MASK, apiExtension));
+        final String classFileName = pageProperties.getProperty(String.format("%s.classFileName", apiExtension));
+        final String mappingKey = ResourceExtensionResolver.MAPPING_KEY_PREFIX + ResourceExtensionResolver.MAPPING_KEY_SEPARATOR + method
+                + ResourceExtensionResolver.MAPPING_KEY_SEPARATOR + pathTemplate;
+        final Set<String> permissions = new HashSet<>();
+        final String permissionList = pageProperties.getProperty(String.format(CustomPageService.PROPERTY_PERMISSIONS_MASK, apiExtension));
+        if (permissionList != null) {
+            for (final String permission : permissionList.split(CustomPageService.EXTENSION_SEPARATOR)) {
+                if (!permission.trim().isEmpty()) {
+                    permissions.add(permission.trim());
+                }
+            }
+        }
+        return new ApiExtensionRoute(mappingKey, pageResourceProvider, classFileName, Collections.unmodifiableSet(permissions));
+    }
+
+    private Map<String, ApiExtensionRoute> copyWithoutPage(final String fullPageName) {
+        final Map<String, ApiExtensionRoute> newRoutes = new HashMap<>(routes);
+        final Iterator<ApiExtensionRoute> iterator = newRoutes.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getFullPageName().equals(fullPageName)) {
+                iterator.remove();
+            }
+        }
+        return newRoutes;
+    }
+}
@@ -15,18 +15,21 @@ package org.bonitasoft.console.common.server.page;
 
 import static org.apache.commons.io.FileUtils.deleteQuietly;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.commons.io.FileUtils;
+import org.bonitasoft.console.common.server.page.SharedPageJars.SharedJar;
 
 
 /**
@@ -37,10 +40,14 @@ import org.apache.commons.io.FileUtils;
  * @author Romain Bioteau
  *         A Classloader adding given custom page resources and bdm resources in its classpath.
  *         This classloader is versioned with a runtime bdm version and should be discard when bdm is updated
+ *         The jars are read from their {@link SharedPageJars shared copy} and the other resources from the page lib folder, none of them is
+ *         kept in heap.
  */
 public class CustomPageChildFirstClassLoader extends MonoParentJarFileClassLoader implements VersionedClassloader{
 
-    protected Map<String, byte[]> nonJarResources = new HashMap<String, byte[]>();
+    protected Map<String, File> nonJarResources = new HashMap<String, File>();
+
+    private final List<SharedJar> sharedJars = new ArrayList<SharedJar>();
 
     private boolean isActive = true;
 
@@ -77,15 +84,13 @@ public class CustomPageChildFirstClassLoader extends MonoParentJarFileClassLoade
 
 
     private void addOtherDependencies() {
-        final Map<String, byte[]> customPageDependencies = customPageDependenciesResolver.resolveCustomPageDependencies();
-        for (final Map.Entry<String, byte[]> resource : customPageDependencies.entrySet()) {
+        final Map<String, File> customPageDependencies = customPageDependenciesResolver.resolveCustomPageDependencies();
+        for (final Map.Entry<String, File> resource : customPageDependencies.entrySet()) {
             if (resource.getKey().matches(".*\\.jar") && !bdmDependenciesResolver.isABDMDependency(resource.getKey())) {
-                final byte[] data = resource.getValue();
                 try {
-                    final File file = File.createTempFile(resource.getKey(), null, customPageDependenciesResolver.getTempFolder());
-                    file.deleteOnExit();
-                    FileUtils.writeByteArrayToFile(file, data);
-                    addURL(new File(file.getAbsolutePath()).toURI().toURL());
+                    final SharedJar sharedJar = customPageDependenciesResolver.getSharedJars().acquire(resource.getValue());
+                    sharedJars.add(sharedJar);
+                    addURL(sharedJar.getURL());
                 } catch (final IOException e) {
                     if (LOGGER.isLoggable(Level.WARNING)) {
                         LOGGER.log(Level.WARNING, String.format("Failed to add file %s in classpath", resource.getKey()), e);
@@ -113,19 +118,24 @@ public class CustomPageChildFirstClassLoader extends MonoParentJarFileClassLoade
     }
 
     private InputStream getInternalInputstream(final String name) {
-        final byte[] classData = loadProcessResource(name);
-        if (classData != null) {
-            return new ByteArrayInputStream(classData);
-        }
-        final InputStream is = super.getResourceAsStream(name);
-        if (is != null) {
-            return is;
+        final InputStream resource = loadProcessResource(name);
+        if (resource != null) {
+            return resource;
         }
-        return null;
+        return super.getResourceAsStream(name);
     }
 
-    private byte[] loadProcessResource(final String resourceName) {
-        return nonJarResources.containsKey(resourceName) ? nonJarResources.get(resourceName) : new byte[0];
+    private InputStream loadProcessResource(final String resourceName) {
+        final File resource = nonJarResources.get(resourceName);
+        if (resource == null) {
+            return null;
+        }
+        try {
+            return new FileInputStream(resource);
+        } catch (final FileNotFoundException e) {
+            // the page folder was removed
+            return null;
+        }
     }
 
     @Override
@@ -162,9 +172,39 @@ public class CustomPageChildFirstClassLoader extends MonoParentJarFileClassLoade
         return c;
     }
 
+    @Override
     public void release() {
-        deleteQuietly(customPageDependenciesResolver.getTempFolder());
+        if (!isActive) {
+            return;
+        }
         isActive = false;
+        // close the jars before their shared copy may be deleted
+        destroy();
+        if (!sharedJars.isEmpty()) {
+            final SharedPageJars sharedPageJars = customPageDependenciesResolver.getSharedJars();
+            for (final SharedJar sharedJar : sharedJars) {
+                sharedPageJars.release(sharedJar);
+            }
+            sharedJars.clear();
+        }
+        if (customPageDependenciesResolver.hasTempFolder()) {
+            deleteQuietly(customPageDependenciesResolver.getTempFolder());
+        }
+    }
+
+    /**
+     * @return the size in bytes of the jars and resources of the page lib folder served by this classloader. They are read from the disk, none
+     *         of them is kept in heap
+     */
+    public long getLibrariesSize() {
+        long size = 0L;
+        for (final SharedJar sharedJar : sharedJars) {
+            size += sharedJar.getSize();
+        }
+        for (final File resource : nonJarResources.values()) {
+            size += resource.length();
+        }
+        return size;
     }
 
     @Override
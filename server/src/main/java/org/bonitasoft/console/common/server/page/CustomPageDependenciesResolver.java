@@ -14,8 +14,6 @@
  */
 package org.bonitasoft.console.common.server.page;
 
-import static org.apache.commons.io.FileUtils.readFileToByteArray;
-
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
@@ -37,6 +35,8 @@ public class CustomPageDependenciesResolver {
 
     private static final String LIB_FOLDER_NAME = "lib";
 
+    private static final String SHARED_JARS_FOLDER_NAME = "page-jars";
+
     static final Map<String, File> PAGES_LIB_TMPDIR = new HashMap<>();
 
     private static final Logger LOGGER = Logger.getLogger(CustomPageDependenciesResolver.class.getName());
@@ -58,7 +58,10 @@ public class CustomPageDependenciesResolver {
         this.webBonitaConstantsUtils = webBonitaConstantsUtils;
     }
 
-    public Map<String, byte[]> resolveCustomPageDependencies() {
+    /**
+     * @return the files of the page lib folder indexed by file name. Their content is not read: the classloader serves them from the disk
+     */
+    public Map<String, File> resolveCustomPageDependencies() {
         final File customPageLibDirectory = new File(pageDirectory, LIB_FOLDER_NAME);
         if (customPageLibDirectory.exists()) {
             this.libTempFolder = new File(this.webBonitaConstantsUtils.getTempFolder(), pageName
@@ -73,15 +76,15 @@ public class CustomPageDependenciesResolver {
         return Collections.emptyMap();
     }
 
-    private Map<String, byte[]> loadLibraries(final File customPageLibDirectory) {
-        final Map<String, byte[]> result = new HashMap<String, byte[]>();
+    private Map<String, File> loadLibraries(final File customPageLibDirectory) {
+        final Map<String, File> result = new HashMap<String, File>();
         try {
             Files.walkFileTree(customPageLibDirectory.toPath(), new SimpleFileVisitor<Path>() {
 
                 @Override
                 public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
                     final File currentFile = file.toFile();
-                    result.put(currentFile.getName(), readFileToByteArray(currentFile));
+                    result.put(currentFile.getName(), currentFile);
                     return super.visitFile(file, attrs);
                 }
 
@@ -107,6 +110,20 @@ public class CustomPageDependenciesResolver {
         return libTempFolder;
     }
 
+    /**
+     * @return the jars shared by the pages of the tenant
+     */
+    public SharedPageJars getSharedJars() {
+        return SharedPageJars.getInstance(new File(webBonitaConstantsUtils.getTempFolder(), SHARED_JARS_FOLDER_NAME));
+    }
+
+    /**
+     * @return true if the dependencies were resolved from a page lib folder, so that there is a temporary folder
+     */
+    public boolean hasTempFolder() {
+        return libTempFolder != null;
+    }
+
     public File getTempFolder() {
         if (libTempFolder == null) {
             throw new IllegalStateException("Custom page dependencies must be resolved first.");
@@ -20,9 +20,12 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +37,7 @@ import org.bonitasoft.console.common.server.preferences.properties.ConsoleProper
 import org.bonitasoft.console.common.server.preferences.properties.PropertiesFactory;
 import org.bonitasoft.console.common.server.preferences.properties.ResourcesPermissionsMapping;
 import org.bonitasoft.console.common.server.preferences.properties.SimpleProperties;
+import org.bonitasoft.console.common.server.servlet.CompressedResources;
 import org.bonitasoft.console.common.server.utils.UnzipUtil;
 import org.bonitasoft.engine.api.PageAPI;
 import org.bonitasoft.engine.api.TenantAPIAccessor;
@@ -76,7 +80,24 @@ public class CustomPageService {
 
     private static final String LASTUPDATE_FILENAME = ".lastupdate";
 
-    private static final Map<String, GroovyClassLoader> PAGES_CLASSLOADERS = new HashMap<>();
+    /**
+     * Groovy classes of the page controllers and REST API extensions indexed by the path of their source file. A class is reused as long as the
+     * page classloader it was compiled with is the current one (it is replaced when the page is redeployed, when the BDM changes and on each
+     * call in debug mode) and its source file was not modified.
+     */
+    private static final Map<String, CompiledPageClass> PAGES_COMPILED_CLASSES = new ConcurrentHashMap<>();
+
+    private static final PageClassloaders PAGES_CLASSLOADERS = new PageClassloaders(new PageClassloaders.ReleaseListener() {
+
+        @Override
+        public void onRelease(final GroovyClassLoader classloader) {
+            removeCompiledClasses(classloader);
+        }
+    });
+
+    static {
+        PAGES_CLASSLOADERS.registerMBean();
+    }
 
     public static final String RESOURCES_PROPERTY = "resources";
     public static final String PROPERTY_CONTENT_TYPE = "contentType";
@@ -95,6 +116,13 @@ public class CustomPageService {
         return buildPageClassloader(apiSession, pageResourceProvider.getFullPageName(), pageResourceProvider.getPageDirectory());
     }
 
+    /**
+     * Give back a classloader got with {@link #getPageClassloader(APISession, PageResourceProvider)} once the call is done with it
+     */
+    public void releasePageClassloader(final GroovyClassLoader pageClassloader) {
+        PAGES_CLASSLOADERS.release(pageClassloader);
+    }
+
     public void ensurePageFolderIsPresent(final APISession apiSession, final PageResourceProvider pageResourceProvider) throws BonitaException, IOException {
         if (!pageResourceProvider.getPageDirectory().exists()) {
             retrievePageZipContent(apiSession, pageResourceProvider);
@@ -106,41 +134,118 @@ public class CustomPageService {
         if (!pageResourceProvider.getPageDirectory().exists()) {
             retrievePageZipContent(apiSession, pageResourceProvider);
         } else {
-            final File timestampFile = getPageFile(pageFolder, LASTUPDATE_FILENAME);
-            final long lastUpdateTimestamp = getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
-            if (timestampFile.exists()) {
-                final String timestampString = FileUtils.readFileToString(timestampFile);
-                final long timestamp = Long.parseLong(timestampString);
+            final long lastUpdateTimestamp;
+            try {
+                lastUpdateTimestamp = getPageLastUpdateDate(apiSession, pageResourceProvider);
+            } catch (final PageNotFoundException e) {
+                // the page was deleted, possibly from another node: its folder and routes are stale
+                removePage(apiSession, pageResourceProvider.getPageName());
+                throw e;
+            }
+            final Long timestamp = getDeployedPageLastUpdateDate(apiSession, pageResourceProvider);
+            if (timestamp != null) {
                 if (lastUpdateTimestamp != timestamp) {
                     removePage(apiSession, pageResourceProvider.getPageName());
                     retrievePageZipContent(apiSession, pageResourceProvider);
                 }
             } else {
-                FileUtils.writeStringToFile(timestampFile, String.valueOf(lastUpdateTimestamp), false);
+                FileUtils.writeStringToFile(getPageFile(pageFolder, LASTUPDATE_FILENAME), String.valueOf(lastUpdateTimestamp), false);
+                setDeployedPageLastUpdateDate(apiSession, pageResourceProvider, lastUpdateTimestamp);
+            }
+        }
+    }
+
+    /**
+     * @return the last update date of the page known by the engine, read from the {@link PageVersions} of the tenant unless the version check
+     *         interval is 0
+     */
+    protected long getPageLastUpdateDate(final APISession apiSession, final PageResourceProvider pageResourceProvider) throws BonitaException {
+        final long checkInterval = getConsoleProperties(apiSession).getCustomPageVersionCheckInterval();
+        if (checkInterval <= 0) {
+            return getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
+        }
+        final PageVersions pageVersions = getPageVersions(apiSession);
+        final String fullPageName = pageResourceProvider.getFullPageName();
+        final Long engineVersion = pageVersions.getEngineVersion(fullPageName);
+        if (engineVersion == null) {
+            final long lastUpdateTimestamp = getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
+            pageVersions.setEngineVersion(fullPageName, lastUpdateTimestamp);
+            return lastUpdateTimestamp;
+        }
+        pageVersions.verifyIfOlderThan(fullPageName, checkInterval, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                return getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
             }
+        });
+        return engineVersion;
+    }
+
+    /**
+     * @return the last update date of the page deployed in its folder or null if the folder has no timestamp file
+     */
+    private Long getDeployedPageLastUpdateDate(final APISession apiSession, final PageResourceProvider pageResourceProvider) throws IOException {
+        final boolean useRegistry = getConsoleProperties(apiSession).getCustomPageVersionCheckInterval() > 0;
+        if (useRegistry) {
+            final Long deployedVersion = getPageVersions(apiSession).getDeployedVersion(pageResourceProvider.getFullPageName());
+            if (deployedVersion != null) {
+                return deployedVersion;
+            }
+        }
+        final File timestampFile = getPageFile(pageResourceProvider.getPageDirectory(), LASTUPDATE_FILENAME);
+        if (!timestampFile.exists()) {
+            return null;
         }
+        final long timestamp = Long.parseLong(FileUtils.readFileToString(timestampFile));
+        if (useRegistry) {
+            setDeployedPageLastUpdateDate(apiSession, pageResourceProvider, timestamp);
+        }
+        return timestamp;
+    }
+
+    private void setDeployedPageLastUpdateDate(final APISession apiSession, final PageResourceProvider pageResourceProvider, final long timestamp) {
+        getPageVersions(apiSession).setDeployedVersion(pageResourceProvider.getFullPageName(), timestamp);
+    }
+
+    protected PageVersions getPageVersions(final APISession apiSession) {
+        return PageVersions.getInstance(apiSession.getTenantId());
     }
 
     @SuppressWarnings("unchecked")
     public Class<?> registerPage(final GroovyClassLoader pageClassLoader, final PageResourceProvider pageResourceProvider)
             throws CompilationFailedException, IOException {
         final File pageControllerFile = getGroovyPageFile(pageResourceProvider.getPageDirectory());
-        return pageClassLoader.parseClass(pageControllerFile);
+        return getCompiledClass(pageClassLoader, pageControllerFile);
     }
 
     public Class<?> registerRestApiPage(final GroovyClassLoader pageClassLoader, final File restApiControllerFile)
                     throws CompilationFailedException, IOException {
-        return pageClassLoader.parseClass(restApiControllerFile);
+        return getCompiledClass(pageClassLoader, restApiControllerFile);
+    }
+
+    protected Class<?> getCompiledClass(final GroovyClassLoader pageClassLoader, final File groovyFile) throws CompilationFailedException, IOException {
+        final String key = groovyFile.getAbsolutePath();
+        final CompiledPageClass compiledPageClass = PAGES_COMPILED_CLASSES.get(key);
+        if (compiledPageClass != null && compiledPageClass.isUpToDate(pageClassLoader, groovyFile)) {
+            return compiledPageClass.getCompiledClass();
+        }
+        final Class<?> compiledClass = pageClassLoader.parseClass(groovyFile);
+        PAGES_COMPILED_CLASSES.put(key, new CompiledPageClass(pageClassLoader, groovyFile.lastModified(), compiledClass));
+        return compiledClass;
     }
 
     public void verifyPageClass(final File tempPageDirectory, APISession session) throws IOException, CompilationFailedException {
         final File pageControllerFile = getPageFile(tempPageDirectory, PAGE_CONTROLLER_FILENAME);
         if (pageControllerFile.exists()) {
             final String classloaderName = String.valueOf(System.currentTimeMillis());
-            final GroovyClassLoader pageClassLoader = buildPageClassloader(session, classloaderName, tempPageDirectory);
-            pageClassLoader.parseClass(pageControllerFile);
-            final GroovyClassLoader classLoader = PAGES_CLASSLOADERS.remove(classloaderName);
-            classLoader.close();
+            final GroovyClassLoader pageClassLoader = createPageClassloader(session, classloaderName, tempPageDirectory,
+                    new BDMClientDependenciesResolver(session));
+            try {
+                pageClassLoader.parseClass(pageControllerFile);
+            } finally {
+                PAGES_CLASSLOADERS.close(pageClassLoader);
+            }
         }
     }
 
@@ -155,6 +260,8 @@ public class CustomPageService {
 
     public void removePage(final APISession apiSession, final String pageName) throws IOException {
         closeClassloader(pageName);
+        ApiExtensionRoutes.getInstance(apiSession.getTenantId()).removePage(pageName);
+        getPageVersions(apiSession).remove(pageName);
         final PageResourceProvider pageResourceProvider = new PageResourceProviderImpl(pageName, apiSession.getTenantId());
         removePageZipContent(apiSession, pageResourceProvider);
         CustomPageDependenciesResolver.removePageLibTempFolder(pageName);
@@ -164,15 +271,22 @@ public class CustomPageService {
         final PageResourceProvider pageResourceProvider = new PageResourceProviderImpl(page, apiSession.getTenantId());
         final String pageName = pageResourceProvider.getFullPageName();
         closeClassloader(pageName);
+        ApiExtensionRoutes.getInstance(apiSession.getTenantId()).removePage(pageName);
+        getPageVersions(apiSession).remove(pageName);
         removePageZipContent(apiSession, pageResourceProvider);
         CustomPageDependenciesResolver.removePageLibTempFolder(pageName);
     }
 
-    private static void closeClassloader(final String pageName) throws IOException {
-        final GroovyClassLoader classloader = PAGES_CLASSLOADERS.remove(pageName);
-        if (classloader != null) {
-            classloader.clearCache();
-            classloader.close();
+    private static void closeClassloader(final String pageName) {
+        PAGES_CLASSLOADERS.remove(pageName);
+    }
+
+    private static void removeCompiledClasses(final GroovyClassLoader classloader) {
+        final Iterator<CompiledPageClass> compiledPageClasses = PAGES_COMPILED_CLASSES.values().iterator();
+        while (compiledPageClasses.hasNext()) {
+            if (compiledPageClasses.next().classLoader == classloader) {
+                compiledPageClasses.remove();
+            }
         }
     }
 
@@ -183,17 +297,28 @@ public class CustomPageService {
 
     protected GroovyClassLoader buildPageClassloader(final APISession apiSession, final String pageName, final File pageDirectory)
             throws CompilationFailedException, IOException {
-        GroovyClassLoader pageClassLoader = PAGES_CLASSLOADERS.get(pageName);
         final BDMClientDependenciesResolver bdmDependenciesResolver = new BDMClientDependenciesResolver(apiSession);
-        if (pageClassLoader == null
-                || getConsoleProperties(apiSession).isPageInDebugMode()
-                || isOutdated(pageClassLoader, bdmDependenciesResolver)) {
-            pageClassLoader = new GroovyClassLoader(getParentClassloader(pageName,
-                    new CustomPageDependenciesResolver(pageName, pageDirectory, getWebBonitaConstantsUtils(apiSession)),
-                    bdmDependenciesResolver));
-            pageClassLoader.addClasspath(pageDirectory.getPath());
-            PAGES_CLASSLOADERS.put(pageName, pageClassLoader);
-        }
+        final ConsoleProperties consoleProperties = getConsoleProperties(apiSession);
+        return PAGES_CLASSLOADERS.acquire(pageName, new PageClassloaders.ClassloaderBuilder() {
+
+            @Override
+            public GroovyClassLoader build() throws IOException {
+                return createPageClassloader(apiSession, pageName, pageDirectory, bdmDependenciesResolver);
+            }
+
+            @Override
+            public boolean isOutdated(final GroovyClassLoader pageClassLoader) {
+                return consoleProperties.isPageInDebugMode() || CustomPageService.this.isOutdated(pageClassLoader, bdmDependenciesResolver);
+            }
+        }, consoleProperties.getCustomPageClassloadersMax());
+    }
+
+    private GroovyClassLoader createPageClassloader(final APISession apiSession, final String pageName, final File pageDirectory,
+            final BDMClientDependenciesResolver bdmDependenciesResolver) throws IOException {
+        final GroovyClassLoader pageClassLoader = new GroovyClassLoader(getParentClassloader(pageName,
+                new CustomPageDependenciesResolver(pageName, pageDirectory, getWebBonitaConstantsUtils(apiSession)),
+                bdmDependenciesResolver));
+        pageClassLoader.addClasspath(pageDirectory.getPath());
         return pageClassLoader;
     }
 
@@ -243,12 +368,16 @@ public class CustomPageService {
         final File tempPageFile = ((PageResourceProviderImpl) pageResourceProvider).getTempPageFile();
         FileUtils.writeByteArrayToFile(tempPageFile, pageContent);
         UnzipUtil.unzip(tempPageFile, pageResourceProvider.getPageDirectory().getPath(), true);
+        CompressedResources.compress(pageResourceProvider.getPageDirectory());
         final File timestampFile = getPageFile(pageResourceProvider.getPageDirectory(), LASTUPDATE_FILENAME);
         long lastUpdateTimestamp = 0L;
         if (page.getLastModificationDate() != null) {
             lastUpdateTimestamp = page.getLastModificationDate().getTime();
         }
         FileUtils.writeStringToFile(timestampFile, String.valueOf(lastUpdateTimestamp), false);
+        final PageVersions pageVersions = getPageVersions(apiSession);
+        pageVersions.setEngineVersion(pageResourceProvider.getFullPageName(), lastUpdateTimestamp);
+        pageVersions.setDeployedVersion(pageResourceProvider.getFullPageName(), lastUpdateTimestamp);
     }
 
     protected PageAPI getPageAPI(final APISession apiSession) throws BonitaException {
@@ -271,17 +400,15 @@ public class CustomPageService {
         return getPageFile(pageDirectory, PAGE_LIB_DIRECTORY);
     }
 
+    /**
+     * @throws PageNotFoundException
+     *             if the page no longer exists in the engine
+     */
     protected long getPageLastUpdateDateFromEngine(final APISession apiSession, final PageResourceProvider pageResourceProvider) throws BonitaException {
-        try {
-            final PageAPI pageAPI = getPageAPI(apiSession);
-            final Date lastUpdateDate = pageResourceProvider.getPage(pageAPI).getLastModificationDate();
-            if (lastUpdateDate != null) {
-                return lastUpdateDate.getTime();
-            }
-        } catch (final PageNotFoundException e) {
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, "Unable to find the page " + pageResourceProvider);
-            }
+        final PageAPI pageAPI = getPageAPI(apiSession);
+        final Date lastUpdateDate = pageResourceProvider.getPage(pageAPI).getLastModificationDate();
+        if (lastUpdateDate != null) {
+            return lastUpdateDate.getTime();
         }
         return 0L;
     }
@@ -372,6 +499,7 @@ public class CustomPageService {
         for (final String key : permissionsMapping.keySet()) {
             resourcesPermissionsMapping.removeProperty(key);
         }
+        ApiExtensionRoutes.getInstance(apiSession.getTenantId()).removePage(pageResourceProvider.getFullPageName());
 
     }
 
@@ -383,6 +511,9 @@ public class CustomPageService {
         for (final String key : permissionsMapping.keySet()) {
             resourcesPermissionsMapping.setProperty(key, permissionsMapping.get(key));
         }
+        if (pageResourceProvider instanceof PageResourceProviderImpl) {
+            ApiExtensionRoutes.getInstance(apiSession.getTenantId()).addPage((PageResourceProviderImpl) pageResourceProvider);
+        }
     }
 
     private Map<String, String> getPermissionMapping(final PageResourceProvider pageResourceProvider) {
@@ -413,9 +544,36 @@ public class CustomPageService {
     }
 
     public static void clearCachedClassloaders() throws IOException {
-        for (final String page : PAGES_CLASSLOADERS.keySet()) {
-            closeClassloader(page);
+        PAGES_CLASSLOADERS.clear();
+    }
+
+    /**
+     * @return the registry of the page classloaders, giving the number of live classloaders and of classes loaded by each page
+     */
+    public static PageClassloaders getPageClassloaders() {
+        return PAGES_CLASSLOADERS;
+    }
+
+    private static class CompiledPageClass {
+
+        private final GroovyClassLoader classLoader;
+
+        private final long sourceLastModified;
+
+        private final Class<?> compiledClass;
+
+        CompiledPageClass(final GroovyClassLoader classLoader, final long sourceLastModified, final Class<?> compiledClass) {
+            this.classLoader = classLoader;
+            this.sourceLastModified = sourceLastModified;
+            this.compiledClass = compiledClass;
+        }
+
+        boolean isUpToDate(final GroovyClassLoader currentClassLoader, final File sourceFile) {
+            return classLoader == currentClassLoader && sourceLastModified == sourceFile.lastModified();
         }
 
+        Class<?> getCompiledClass() {
+            return compiledClass;
+        }
     }
 }
@@ -0,0 +1,376 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import groovy.lang.GroovyClassLoader;
+
+/**
+ * Classloaders of the custom pages indexed by page name.<br>
+ * When several calls need the classloader of a page that is not built yet, only one of them builds it while the others wait for it. The number of
+ * classloaders is bounded: once it is reached, the least recently used classloaders are retired. A classloader replaced because it is
+ * outdated or removed with its page is retired as well.<br>
+ * Each classloader acquired must be released once the call is done with it: a retired classloader is only closed when it is no longer used,
+ * its compiled classes are then discarded and its parent {@link VersionedClassloader} is released.<br>
+ * The registry is registered in the platform MBean server as org.bonitasoft.web:type=PageClassloaders
+ */
+public class PageClassloaders implements PageClassloadersMXBean {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOGGER = Logger.getLogger(PageClassloaders.class.getName());
+
+    static final String OBJECT_NAME = "org.bonitasoft.web:type=PageClassloaders";
+
+    private final ConcurrentMap<String, PageClassloader> classloaders = new ConcurrentHashMap<String, PageClassloader>();
+
+    /**
+     * acquired classloaders (GroovyClassLoader does not override equals, they are compared by identity)
+     */
+    private final ConcurrentMap<GroovyClassLoader, PageClassloader> acquiredClassloaders = new ConcurrentHashMap<GroovyClassLoader, PageClassloader>();
+
+    private final AtomicLong accessCounter = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final ReleaseListener releaseListener;
+
+    public PageClassloaders(final ReleaseListener releaseListener) {
+        this.releaseListener = releaseListener;
+    }
+
+    /**
+     * Builds the classloader of a page and tells if a registered one can still be used
+     */
+    public interface ClassloaderBuilder {
+
+        GroovyClassLoader build() throws IOException;
+
+        boolean isOutdated(GroovyClassLoader classloader);
+    }
+
+    /**
+     * Notified of each classloader closed, before it is closed
+     */
+    public interface ReleaseListener {
+
+        void onRelease(GroovyClassLoader classloader);
+    }
+
+    /**
+     * Acquire the registered classloader of a page, building it if there is none or if it is outdated. The classloader must be given back with
+     * {@link #release(GroovyClassLoader)} once the call is done with it.
+     *
+     * @param maxClassloaders
+     *            number of classloaders above which the least recently used ones are retired, 0 or less for no limit
+     */
+    public GroovyClassLoader acquire(final String pageName, final ClassloaderBuilder builder, final int maxClassloaders) throws IOException {
+        while (true) {
+            PageClassloader pageClassloader = classloaders.get(pageName);
+            if (pageClassloader == null) {
+                final PageClassloader newPageClassloader = new PageClassloader(builder);
+                pageClassloader = classloaders.putIfAbsent(pageName, newPageClassloader);
+                if (pageClassloader == null) {
+                    pageClassloader = newPageClassloader;
+                    pageClassloader.lastAccess = accessCounter.incrementAndGet();
+                    pageClassloader.build();
+                    evictLeastRecentlyUsed(pageName, maxClassloaders);
+                }
+            }
+            final GroovyClassLoader classloader = awaitClassloader(pageName, pageClassloader);
+            pageClassloader.users.incrementAndGet();
+            if (pageClassloader.retired) {
+                // retired meanwhile: it is closed as soon as it is not used anymore
+                giveBack(pageClassloader);
+                continue;
+            }
+            // a classloader is never outdated for the call that built it, otherwise it would be rebuilt forever in debug mode
+            if (pageClassloader.builtBy != builder && builder.isOutdated(classloader)) {
+                if (classloaders.remove(pageName, pageClassloader)) {
+                    pageClassloader.retired = true;
+                }
+                giveBack(pageClassloader);
+                continue;
+            }
+            acquiredClassloaders.put(classloader, pageClassloader);
+            pageClassloader.lastAccess = accessCounter.incrementAndGet();
+            return classloader;
+        }
+    }
+
+    /**
+     * Give back a classloader acquired with {@link #acquire(String, ClassloaderBuilder, int)}. It is closed if it has been retired and no other call
+     * uses it.
+     */
+    public void release(final GroovyClassLoader classloader) {
+        final PageClassloader pageClassloader = acquiredClassloaders.get(classloader);
+        if (pageClassloader != null) {
+            giveBack(pageClassloader);
+        }
+    }
+
+    /**
+     * Retire the classloader of a page if there is one
+     */
+    public void remove(final String pageName) {
+        final PageClassloader pageClassloader = classloaders.remove(pageName);
+        if (pageClassloader != null) {
+            retire(pageClassloader);
+        }
+    }
+
+    public void clear() {
+        for (final String pageName : classloaders.keySet()) {
+            remove(pageName);
+        }
+    }
+
+    /**
+     * Discard the compiled classes of a classloader, close it and release its parent if it is a {@link VersionedClassloader}. Classloaders
+     * built outside of the registry are closed with this method too.
+     */
+    public void close(final GroovyClassLoader classloader) {
+        releaseListener.onRelease(classloader);
+        classloader.clearCache();
+        try {
+            classloader.close();
+        } catch (final IOException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Page classloader could not be closed", e);
+            }
+        }
+        if (classloader.getParent() instanceof VersionedClassloader) {
+            ((VersionedClassloader) classloader.getParent()).release();
+        }
+    }
+
+    private GroovyClassLoader awaitClassloader(final String pageName, final PageClassloader pageClassloader) throws IOException {
+        try {
+            return pageClassloader.getClassloader();
+        } catch (final IOException | RuntimeException | Error e) {
+            // let the next call build it again
+            classloaders.remove(pageName, pageClassloader);
+            throw e;
+        }
+    }
+
+    private void evictLeastRecentlyUsed(final String builtPageName, final int maxClassloaders) {
+        if (maxClassloaders <= 0) {
+            return;
+        }
+        while (classloaders.size() > maxClassloaders) {
+            String leastRecentlyUsedPage = null;
+            PageClassloader leastRecentlyUsed = null;
+            for (final Map.Entry<String, PageClassloader> entry : classloaders.entrySet()) {
+                final PageClassloader pageClassloader = entry.getValue();
+                if (!entry.getKey().equals(builtPageName) && pageClassloader.isBuilt()
+                        && (leastRecentlyUsed == null || pageClassloader.lastAccess < leastRecentlyUsed.lastAccess)) {
+                    leastRecentlyUsedPage = entry.getKey();
+                    leastRecentlyUsed = pageClassloader;
+                }
+            }
+            if (leastRecentlyUsed == null) {
+                // only classloaders being built: they will be evicted by a next call
+                return;
+            }
+            if (classloaders.remove(leastRecentlyUsedPage, leastRecentlyUsed)) {
+                evictions.incrementAndGet();
+                retire(leastRecentlyUsed);
+            }
+        }
+    }
+
+    private void retire(final PageClassloader pageClassloader) {
+        pageClassloader.retired = true;
+        closeIfUnused(pageClassloader);
+    }
+
+    private void giveBack(final PageClassloader pageClassloader) {
+        pageClassloader.users.decrementAndGet();
+        closeIfUnused(pageClassloader);
+    }
+
+    private void closeIfUnused(final PageClassloader pageClassloader) {
+        // a classloader still being built is closed by the call that acquires it once built
+        if (pageClassloader.retired && pageClassloader.users.get() == 0 && pageClassloader.isBuilt()
+                && pageClassloader.closed.compareAndSet(false, true)) {
+            final GroovyClassLoader classloader;
+            try {
+                classloader = pageClassloader.getClassloader();
+            } catch (final IOException | RuntimeException e) {
+                // the build failed, there is nothing to close
+                return;
+            }
+            acquiredClassloaders.remove(classloader);
+            close(classloader);
+        }
+    }
+
+    @Override
+    public int getLiveClassloaders() {
+        return classloaders.size();
+    }
+
+    @Override
+    public Map<String, Integer> getLoadedClasses() {
+        final Map<String, Integer> loadedClasses = new HashMap<String, Integer>();
+        for (final Map.Entry<String, PageClassloader> entry : classloaders.entrySet()) {
+            if (entry.getValue().isBuilt()) {
+                try {
+                    loadedClasses.put(entry.getKey(), entry.getValue().getClassloader().getLoadedClasses().length);
+                } catch (final IOException | RuntimeException e) {
+                    // the build failed, the page has no classes
+                }
+            }
+        }
+        return loadedClasses;
+    }
+
+    @Override
+    public Map<String, Long> getLibrariesSize() {
+        final Map<String, Long> librariesSize = new HashMap<String, Long>();
+        for (final Map.Entry<String, PageClassloader> entry : classloaders.entrySet()) {
+            if (entry.getValue().isBuilt()) {
+                try {
+                    final ClassLoader parent = entry.getValue().getClassloader().getParent();
+                    if (parent instanceof CustomPageChildFirstClassLoader) {
+                        librariesSize.put(entry.getKey(), ((CustomPageChildFirstClassLoader) parent).getLibrariesSize());
+                    }
+                } catch (final IOException | RuntimeException e) {
+                    // the build failed, the page has no libraries
+                }
+            }
+        }
+        return librariesSize;
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public void registerMBean() {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+        } catch (final JMException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Page classloaders could not be exposed through JMX", e);
+            }
+        }
+    }
+
+    /**
+     * Unregister the registry from the MBean server (when the web application is stopped)
+     */
+    public void unregisterMBean() {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (final JMException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Page classloaders could not be unregistered from JMX", e);
+            }
+        }
+    }
+
+    private static class PageClassloader {
+
+        private final ClassloaderBuilder builtBy;
+
+        private final FutureTask<GroovyClassLoader> task;
+
+        private final AtomicInteger users = new AtomicInteger();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile boolean retired;
+
+        private volatile long lastAccess;
+
+        private PageClassloader(final ClassloaderBuilder builder) {
+            builtBy = builder;
+            task = new FutureTask<GroovyClassLoader>(new Callable<GroovyClassLoader>() {
+
+                @Override
+                public GroovyClassLoader call() throws IOException {
+                    return builder.build();
+                }
+            });
+        }
+
+        private void build() {
+            task.run();
+        }
+
+        private boolean isBuilt() {
+            return task.isDone();
+        }
+
+        private GroovyClassLoader getClassloader() throws IOException {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return task.get();
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link PageClassloaders} registry
+ */
+public interface PageClassloadersMXBean {
+
+    int getLiveClassloaders();
+
+    /**
+     * @return the number of classes loaded by the Groovy classloader of each page, indexed by page name
+     */
+    Map<String, Integer> getLoadedClasses();
+
+    /**
+     * @return the size in bytes of the libraries of each page, indexed by page name. They are served from the disk, not from heap
+     */
+    Map<String, Long> getLibrariesSize();
+
+    long getEvictions();
+}
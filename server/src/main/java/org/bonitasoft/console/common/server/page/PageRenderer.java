@@ -128,6 +128,7 @@ public class PageRenderer {
             }
         } finally {
             Thread.currentThread().setContextClassLoader(originalClassloader);
+            customPageService.releasePageClassloader(pageClassloader);
         }
     }
 
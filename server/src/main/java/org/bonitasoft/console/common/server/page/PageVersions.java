@@ -0,0 +1,186 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bonitasoft.engine.exception.NotFoundException;
+
+/**
+ * Versions of the custom pages of a tenant, so that checking that the folder of a page is up to date doesn't cost an engine call and a file
+ * read on each call.<br>
+ * For each page, the registry keeps the last update date known by the engine and the one of the folder deployed on this node. The engine
+ * version is verified again in the background once it is older than the check interval, the calls meanwhile using the known version: a page
+ * updated from another node sharing the engine is picked up within the interval. Pages added, updated or deleted from this node are removed
+ * from the registry right away so their next call reads the engine. A page the engine no longer knows, deleted from another node, is removed
+ * from the registry and from the API extension routes by its verification, so that its next call reads the engine and gets the not found.
+ */
+public class PageVersions {
+
+    private static final Logger LOGGER = Logger.getLogger(PageVersions.class.getName());
+
+    static final int MAX_PENDING_VERIFICATIONS = 100;
+
+    private static final ConcurrentMap<Long, PageVersions> INSTANCES = new ConcurrentHashMap<Long, PageVersions>();
+
+    private final ConcurrentMap<String, PageVersion> versions = new ConcurrentHashMap<String, PageVersion>();
+
+    private final long tenantId;
+
+    private final ThreadPoolExecutor verifier;
+
+    PageVersions(final long tenantId) {
+        this.tenantId = tenantId;
+        verifier = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_PENDING_VERIFICATIONS),
+                new PageVersionsThreadFactory(tenantId), new ThreadPoolExecutor.AbortPolicy());
+        verifier.allowCoreThreadTimeOut(true);
+    }
+
+    public static PageVersions getInstance(final long tenantId) {
+        PageVersions pageVersions = INSTANCES.get(tenantId);
+        if (pageVersions == null) {
+            final PageVersions newPageVersions = new PageVersions(tenantId);
+            pageVersions = INSTANCES.putIfAbsent(tenantId, newPageVersions);
+            if (pageVersions == null) {
+                pageVersions = newPageVersions;
+            } else {
+                newPageVersions.verifier.shutdown();
+            }
+        }
+        return pageVersions;
+    }
+
+    /**
+     * @return the last update date of the page known by the engine, or null if it is unknown
+     */
+    public Long getEngineVersion(final String fullPageName) {
+        final PageVersion version = versions.get(fullPageName);
+        return version != null ? version.engineVersion : null;
+    }
+
+    public void setEngineVersion(final String fullPageName, final long engineVersion) {
+        final PageVersion version = getOrCreate(fullPageName);
+        version.engineVersion = engineVersion;
+        version.verificationDate = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the last update date of the page deployed in the folder of this node, or null if it is unknown
+     */
+    public Long getDeployedVersion(final String fullPageName) {
+        final PageVersion version = versions.get(fullPageName);
+        return version != null ? version.deployedVersion : null;
+    }
+
+    public void setDeployedVersion(final String fullPageName, final long deployedVersion) {
+        getOrCreate(fullPageName).deployedVersion = deployedVersion;
+    }
+
+    public void remove(final String fullPageName) {
+        versions.remove(fullPageName);
+    }
+
+    /**
+     * Read the engine version of the page in the background if it was verified more than checkInterval milliseconds ago. Only one verification
+     * of a page runs at a time. If the reader throws a {@link NotFoundException}, the page is removed from the registry and from the API
+     * extension routes.
+     */
+    public void verifyIfOlderThan(final String fullPageName, final long checkInterval, final Callable<Long> engineVersionReader) {
+        final PageVersion version = versions.get(fullPageName);
+        if (version == null || System.currentTimeMillis() - version.verificationDate < checkInterval || !version.verifying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verifier.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        version.engineVersion = engineVersionReader.call();
+                        version.verificationDate = System.currentTimeMillis();
+                    } catch (final NotFoundException e) {
+                        if (LOGGER.isLoggable(Level.FINE)) {
+                            LOGGER.log(Level.FINE, "The page " + fullPageName + " no longer exists in the engine", e);
+                        }
+                        versions.remove(fullPageName, version);
+                        getApiExtensionRoutes().removePage(fullPageName);
+                    } catch (final Exception e) {
+                        if (LOGGER.isLoggable(Level.FINE)) {
+                            LOGGER.log(Level.FINE, "Unable to verify the version of the page " + fullPageName, e);
+                        }
+                    } finally {
+                        version.verifying.set(false);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // too many verifications pending, the page will be verified on a next call
+            version.verifying.set(false);
+        }
+    }
+
+    ApiExtensionRoutes getApiExtensionRoutes() {
+        return ApiExtensionRoutes.getInstance(tenantId);
+    }
+
+    private PageVersion getOrCreate(final String fullPageName) {
+        PageVersion version = versions.get(fullPageName);
+        if (version == null) {
+            final PageVersion newVersion = new PageVersion();
+            version = versions.putIfAbsent(fullPageName, newVersion);
+            if (version == null) {
+                version = newVersion;
+            }
+        }
+        return version;
+    }
+
+    private static class PageVersion {
+
+        private volatile Long engineVersion;
+
+        private volatile long verificationDate;
+
+        private volatile Long deployedVersion;
+
+        private final AtomicBoolean verifying = new AtomicBoolean(false);
+    }
+
+    private static class PageVersionsThreadFactory implements ThreadFactory {
+
+        private final long tenantId;
+
+        private PageVersionsThreadFactory(final long tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "bonita-page-versions-" + tenantId);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
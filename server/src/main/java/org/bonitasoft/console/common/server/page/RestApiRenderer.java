@@ -28,6 +28,7 @@ import org.bonitasoft.console.common.server.page.extension.RestApiUtilImpl;
 import org.bonitasoft.engine.api.APIClient;
 import org.bonitasoft.engine.exception.BonitaException;
 import org.bonitasoft.engine.page.Page;
+import org.bonitasoft.engine.page.PageNotFoundException;
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.server.api.extension.ResourceExtensionResolver;
 import org.codehaus.groovy.control.CompilationFailedException;
@@ -50,12 +51,34 @@ public class RestApiRenderer {
             throws CompilationFailedException, InstantiationException, IllegalAccessException, IOException, BonitaException {
         final PageContextHelper pageContextHelper = new PageContextHelper(request);
         final APISession apiSession = pageContextHelper.getApiSession();
-        final Long pageId = resourceExtensionResolver.resolvePageId(apiSession);
-        final Page page = customPageService.getPage(apiSession, pageId);
-        final PageResourceProviderImpl pageResourceProvider = new PageResourceProviderImpl(page, apiSession.getTenantId());
-        customPageService.ensurePageFolderIsUpToDate(apiSession, pageResourceProvider);
-        final File restApiControllerFile = resourceExtensionResolver.resolveRestApiControllerFile(pageResourceProvider);
         final String mappingKey = resourceExtensionResolver.generateMappingKey();
+        final ApiExtensionRoutes apiExtensionRoutes = getApiExtensionRoutes(apiSession.getTenantId());
+        final ApiExtensionRoute knownRoute = apiExtensionRoutes.getRoute(mappingKey);
+        PageResourceProviderImpl pageResourceProvider = null;
+        if (knownRoute != null) {
+            pageResourceProvider = knownRoute.createPageResourceProvider(apiSession.getTenantId());
+            try {
+                customPageService.ensurePageFolderIsUpToDate(apiSession, pageResourceProvider);
+            } catch (final PageNotFoundException e) {
+                // the page of the route was deleted, possibly from another node: the endpoint may now be declared by another page
+                apiExtensionRoutes.removePage(knownRoute.getFullPageName());
+                pageResourceProvider = null;
+            }
+        }
+        if (pageResourceProvider == null) {
+            final Long pageId = resourceExtensionResolver.resolvePageId(apiSession);
+            final Page page = customPageService.getPage(apiSession, pageId);
+            pageResourceProvider = new PageResourceProviderImpl(page, apiSession.getTenantId());
+            customPageService.ensurePageFolderIsUpToDate(apiSession, pageResourceProvider);
+        }
+        // the routes of the page are dropped when its folder is refreshed with a new version
+        ApiExtensionRoute route = apiExtensionRoutes.getRoute(mappingKey);
+        if (route == null) {
+            apiExtensionRoutes.addPage(pageResourceProvider);
+            route = apiExtensionRoutes.getRoute(mappingKey);
+        }
+        final File restApiControllerFile = route != null ? route.getControllerFile(pageResourceProvider.getPageDirectory())
+                : resourceExtensionResolver.resolveRestApiControllerFile(pageResourceProvider);
         if (restApiControllerFile.exists()) {
             return renderResponse(request, apiSession, pageContextHelper, pageResourceProvider, restApiControllerFile, mappingKey);
         }
@@ -80,6 +103,7 @@ public class RestApiRenderer {
             }
         } finally {
             Thread.currentThread().setContextClassLoader(originalClassloader);
+            customPageService.releasePageClassloader(pageClassloader);
         }
     }
 
@@ -102,6 +126,10 @@ public class RestApiRenderer {
         }
     }
 
+    protected ApiExtensionRoutes getApiExtensionRoutes(final long tenantId) {
+        return ApiExtensionRoutes.getInstance(tenantId);
+    }
+
     protected <T extends Object> T instantiate(Class<?> baseClass, Class<T> toClass) throws InstantiationException, IllegalAccessException {
         return (T) baseClass.newInstance();
     }
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Jars of the custom page libraries, copied once per content in a shared folder and reference counted by the page classloaders using them.<br>
+ * Pages shipping the same jar (a theme and the layouts using it, the same page before and after a BDM update...) use a single copy of it: the
+ * JVM opens and maps a jar file once for all the classloaders reading it, and no jar content is kept in heap. A copy is deleted once the
+ * last classloader using it is released.
+ */
+public class SharedPageJars {
+
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    private static final ConcurrentMap<File, SharedPageJars> INSTANCES = new ConcurrentHashMap<File, SharedPageJars>();
+
+    private final File folder;
+
+    /**
+     * Jars indexed by content digest, guarded by this
+     */
+    private final Map<String, SharedJar> jars = new HashMap<String, SharedJar>();
+
+    SharedPageJars(final File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * @return the shared jars copied in the given folder
+     */
+    public static SharedPageJars getInstance(final File folder) {
+        SharedPageJars sharedPageJars = INSTANCES.get(folder);
+        if (sharedPageJars == null) {
+            final SharedPageJars newSharedPageJars = new SharedPageJars(folder);
+            sharedPageJars = INSTANCES.putIfAbsent(folder, newSharedPageJars);
+            if (sharedPageJars == null) {
+                sharedPageJars = newSharedPageJars;
+            }
+        }
+        return sharedPageJars;
+    }
+
+    /**
+     * Get the shared copy of a jar, copying it if no classloader uses a jar with the same content yet. Each jar acquired must be
+     * {@link #release(SharedJar) released}.
+     */
+    public SharedJar acquire(final File jar) throws IOException {
+        final String digest = digest(jar);
+        synchronized (this) {
+            SharedJar sharedJar = jars.get(digest);
+            if (sharedJar == null) {
+                final File copy = new File(folder, digest + ".jar");
+                FileUtils.copyFile(jar, copy);
+                sharedJar = new SharedJar(digest, copy);
+                jars.put(digest, sharedJar);
+            }
+            sharedJar.references++;
+            return sharedJar;
+        }
+    }
+
+    public synchronized void release(final SharedJar sharedJar) {
+        sharedJar.references--;
+        if (sharedJar.references == 0) {
+            jars.remove(sharedJar.digest);
+            deleteQuietly(sharedJar.file);
+        }
+    }
+
+    public synchronized int getJarCount() {
+        return jars.size();
+    }
+
+    /**
+     * @return the size in bytes of the shared jars
+     */
+    public synchronized long getSize() {
+        long size = 0L;
+        for (final SharedJar sharedJar : jars.values()) {
+            size += sharedJar.getSize();
+        }
+        return size;
+    }
+
+    private String digest(final File jar) throws IOException {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+        final InputStream inputStream = new FileInputStream(jar);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+        final StringBuilder digest = new StringBuilder();
+        for (final byte digestByte : messageDigest.digest()) {
+            digest.append(String.format("%02x", digestByte));
+        }
+        return digest.toString();
+    }
+
+    public static class SharedJar {
+
+        private final String digest;
+
+        private final File file;
+
+        private int references = 0;
+
+        private SharedJar(final String digest, final File file) {
+            this.digest = digest;
+            this.file = file;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public URL getURL() throws MalformedURLException {
+            return file.toURI().toURL();
+        }
+
+        public long getSize() {
+            return file.length();
+        }
+    }
+}
@@ -22,4 +22,9 @@ public interface VersionedClassloader {
     String getVersion();
 
     boolean hasVersion(String version);
+
+    /**
+     * Release the resources held by the classloader once it is not used anymore
+     */
+    void release();
 }
@@ -119,6 +119,8 @@ public class PageResourceProviderImpl implements PageResourceProvider,org.bonita
 
     private final Long pageId;
 
+    private final Long processDefinitionId;
+
     public PageResourceProviderImpl(final String pageName, final long tenantId) {
         this(pageName, tenantId, null, null);
     }
@@ -127,10 +129,11 @@ public class PageResourceProviderImpl implements PageResourceProvider,org.bonita
         this(page.getName(), tenantId, page.getId(), page.getProcessDefinitionId());
     }
 
-    private PageResourceProviderImpl(final String pageName, final long tenantId, final Long pageId, final Long processDefinitionId) {
+    public PageResourceProviderImpl(final String pageName, final long tenantId, final Long pageId, final Long processDefinitionId) {
         this.tenantId = tenantId;
         this.pageName = pageName;
         this.pageId = pageId;
+        this.processDefinitionId = processDefinitionId;
         fullPageName = buildFullPageName(pageName, processDefinitionId);
         pageDirectory = buildPageDirectory(fullPageName, tenantId);
         pageTempDirectory = buildPageTempDirectory(fullPageName, tenantId);
@@ -212,6 +215,14 @@ public class PageResourceProviderImpl implements PageResourceProvider,org.bonita
         return pageAPI.getPageByName(getPageName());
     }
 
+    public Long getPageId() {
+        return pageId;
+    }
+
+    public Long getProcessDefinitionId() {
+        return processDefinitionId;
+    }
+
     @Override
     public String getFullPageName() {
         return fullPageName;
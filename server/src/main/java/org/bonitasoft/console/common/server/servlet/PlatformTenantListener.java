@@ -23,10 +23,14 @@ import java.util.logging.Logger;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 
+import org.bonitasoft.console.common.server.login.filter.FilterTimings;
+import org.bonitasoft.console.common.server.page.CustomPageService;
+import org.bonitasoft.console.common.server.preferences.properties.PropertiesFileWatcher;
 import org.bonitasoft.console.common.server.utils.TenantsManagementUtils;
 import org.bonitasoft.engine.api.TenantAPIAccessor;
 import org.bonitasoft.engine.exception.BonitaException;
 import org.bonitasoft.engine.session.APISession;
+import org.bonitasoft.web.rest.server.framework.utils.CounterBatch;
 
 /**
  * @author Zhiheng Yang, Anthony Birembaut
@@ -83,7 +87,10 @@ public class PlatformTenantListener implements ServletContextListener {
 
     @Override
     public void contextDestroyed(final ServletContextEvent sce) {
-
+        PropertiesFileWatcher.shutdown();
+        FilterTimings.getInstance().unregisterMBeans();
+        CustomPageService.getPageClassloaders().unregisterMBean();
+        CounterBatch.shutdown();
     }
 
 }
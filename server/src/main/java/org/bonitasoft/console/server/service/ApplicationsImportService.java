@@ -19,6 +19,7 @@ import static org.bonitasoft.web.toolkit.client.common.i18n.AbstractI18n._;
 import java.util.List;
 import java.util.logging.Logger;
 
+import org.bonitasoft.console.common.server.utils.ProfilePermissionsCache;
 import org.bonitasoft.engine.api.ApplicationAPI;
 import org.bonitasoft.engine.api.ImportStatus;
 import org.bonitasoft.engine.api.TenantAPIAccessor;
@@ -68,6 +69,7 @@ public class ApplicationsImportService extends BonitaImportService {
     public ImportStatusMessages importFileContent(final byte[] fileContent, final String importPolicyAsString) throws ExecutionException, ImportException, AlreadyExistsException, InvalidSessionException, BonitaHomeNotSetException, ServerAPIException, UnknownAPITypeException {
         final ApplicationImportPolicy importPolicy = ApplicationImportPolicy.valueOf(importPolicyAsString);
         final List<ImportStatus> ImportStatusList = getApplicationAPI().importApplications(fileContent, importPolicy);
+        ProfilePermissionsCache.invalidateAll(getTenantId());
         return new ImportStatusMessages(ImportStatusList);
     }
 
@@ -25,6 +25,7 @@ import java.io.InputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.bonitasoft.console.common.server.utils.BonitaHomeFolderAccessor;
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
 import org.bonitasoft.engine.api.IdentityAPI;
 import org.bonitasoft.engine.api.TenantAPIAccessor;
 import org.bonitasoft.web.toolkit.server.ServiceException;
@@ -58,6 +59,8 @@ public class OrganizationImportService extends ConsoleService {
             final byte[] organizationContent = IOUtils.toByteArray(xmlStream);
             final IdentityAPI identityAPI = TenantAPIAccessor.getIdentityAPI(getSession());
             identityAPI.importOrganization(new String(organizationContent));
+            // the memberships of the users may have changed
+            PermissionDecisionCache.invalidateAll(getTenantId());
         } catch (final Exception e) {
             throw new ServiceException(TOKEN, _("Can't import organization. Please check that your file is well-formed",
                     getLocale()), e);
@@ -34,7 +34,10 @@ import org.bonitasoft.web.rest.server.api.bpm.process.ProcessContractResource;
 import org.bonitasoft.web.rest.server.api.bpm.process.ProcessDefinitionDesignResource;
 import org.bonitasoft.web.rest.server.api.bpm.process.ProcessInstantiationResource;
 import org.bonitasoft.web.rest.server.api.form.FormMappingResource;
+import org.bonitasoft.web.rest.server.api.system.APIRegistryResource;
+import org.bonitasoft.web.rest.server.api.system.BulkDeleteJobResource;
 import org.bonitasoft.web.rest.server.api.system.I18nTanslationResource;
+import org.bonitasoft.web.rest.server.api.system.PermissionDecisionCacheResource;
 import org.restlet.Application;
 import org.restlet.Context;
 import org.restlet.Request;
@@ -168,6 +171,15 @@ public class BonitaRestletApplication extends Application {
         // GET all translations
         router.attach("/system/i18ntranslation", factory.create(I18nTanslationResource.class));
 
+        // GET the registered APIs
+        router.attach("/system/apiRegistry", factory.create(APIRegistryResource.class));
+
+        // GET the progress of an asynchronous bulk delete
+        router.attach("/system/bulkDeleteJob/{jobId}", factory.create(BulkDeleteJobResource.class));
+
+        // GET the statistics of the dynamic permissions decision cache
+        router.attach("/system/permissionDecisionCache", factory.create(PermissionDecisionCacheResource.class));
+
         return router;
     }
 
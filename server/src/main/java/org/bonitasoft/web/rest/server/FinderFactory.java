@@ -52,6 +52,12 @@ import org.bonitasoft.web.rest.server.api.bpm.process.ProcessInstantiationResour
 import org.bonitasoft.web.rest.server.api.bpm.process.ProcessInstantiationResourceFinder;
 import org.bonitasoft.web.rest.server.api.form.FormMappingResource;
 import org.bonitasoft.web.rest.server.api.form.FormMappingResourceFinder;
+import org.bonitasoft.web.rest.server.api.system.APIRegistryResource;
+import org.bonitasoft.web.rest.server.api.system.APIRegistryResourceFinder;
+import org.bonitasoft.web.rest.server.api.system.BulkDeleteJobResource;
+import org.bonitasoft.web.rest.server.api.system.BulkDeleteJobResourceFinder;
+import org.bonitasoft.web.rest.server.api.system.PermissionDecisionCacheResource;
+import org.bonitasoft.web.rest.server.api.system.PermissionDecisionCacheResourceFinder;
 import org.bonitasoft.web.rest.server.api.system.I18nTanslationResource;
 import org.bonitasoft.web.rest.server.api.system.I18nTanslationResourceFinder;
 import org.restlet.resource.Finder;
@@ -102,6 +108,9 @@ public class FinderFactory {
         finders.put(ProcessDefinitionDesignResource.class, new ProcessDefinitionDesignResourceFinder());
         finders.put(ProcessInstantiationResource.class, new ProcessInstantiationResourceFinder());
         finders.put(I18nTanslationResource.class, new I18nTanslationResourceFinder());
+        finders.put(APIRegistryResource.class, new APIRegistryResourceFinder());
+        finders.put(BulkDeleteJobResource.class, new BulkDeleteJobResourceFinder());
+        finders.put(PermissionDecisionCacheResource.class, new PermissionDecisionCacheResourceFinder());
 
         return finders;
     }
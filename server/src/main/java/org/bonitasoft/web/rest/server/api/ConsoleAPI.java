@@ -18,9 +18,12 @@ package org.bonitasoft.web.rest.server.api;
 
 import java.io.IOException;
 
+import org.bonitasoft.console.common.server.preferences.properties.PropertiesFactory;
 import org.bonitasoft.console.common.server.utils.BonitaHomeFolderAccessor;
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.server.framework.API;
+import org.bonitasoft.web.rest.server.framework.TotalCache;
+import org.bonitasoft.web.rest.server.framework.utils.BulkDeleteExecutor;
 import org.bonitasoft.web.toolkit.client.data.item.IItem;
 
 /**
@@ -40,6 +43,40 @@ public abstract class ConsoleAPI<T extends IItem> extends API<T> {
         return this.sessionSingleton;
     }
 
+    /**
+     * Get the maximum time in milliseconds to compute the counters of a page of search results.<br>
+     * This method is in visibility Public for testing purpose.
+     */
+    public long getCountersTimeBudget() {
+        return PropertiesFactory.getConsoleProperties(getEngineSession().getTenantId()).getRestApiCountersTimeBudget();
+    }
+
+    @Override
+    protected TotalCache getTotalCache() {
+        final long tenantId = getEngineSession().getTenantId();
+        final long timeToLive = PropertiesFactory.getConsoleProperties(tenantId).getRestApiTotalCacheTimeToLive();
+        if (timeToLive <= 0) {
+            return null;
+        }
+        return TotalCache.getInstance(tenantId, timeToLive);
+    }
+
+    @Override
+    protected Long getTotalCacheUserId() {
+        return getEngineSession().getUserId();
+    }
+
+    @Override
+    protected BulkDeleteExecutor getBulkDeleteExecutor() {
+        final long tenantId = getEngineSession().getTenantId();
+        return BulkDeleteExecutor.getInstance(tenantId, PropertiesFactory.getConsoleProperties(tenantId).getRestApiBulkDeleteThreads());
+    }
+
+    @Override
+    protected Long getBulkDeleteOwnerId() {
+        return getEngineSession().getUserId();
+    }
+
     /* this method is in visibility Public for testing purpose. */
     @Override
     public String getCompleteTempFilePath(final String path) throws IOException {
@@ -16,6 +16,7 @@ package org.bonitasoft.web.rest.server.api.application;
 import java.util.List;
 import java.util.Map;
 
+import org.bonitasoft.console.common.server.utils.ProfilePermissionsCache;
 import org.bonitasoft.web.rest.model.application.ApplicationDefinition;
 import org.bonitasoft.web.rest.model.application.ApplicationItem;
 import org.bonitasoft.web.rest.server.api.ConsoleAPI;
@@ -56,12 +57,16 @@ APIHasGet<ApplicationItem>, APIHasUpdate<ApplicationItem>, APIHasDelete {
 
     @Override
     public ApplicationItem add(final ApplicationItem item) {
-        return creator.create(getEngineSession()).add(item);
+        final ApplicationItem addedItem = creator.create(getEngineSession()).add(item);
+        ProfilePermissionsCache.invalidateAll(getEngineSession().getTenantId());
+        return addedItem;
     }
 
     @Override
     public ApplicationItem update(final APIID id, final Map<String, String> attributes) {
-        return creator.create(getEngineSession()).update(id, attributes);
+        final ApplicationItem updatedItem = creator.create(getEngineSession()).update(id, attributes);
+        ProfilePermissionsCache.invalidateAll(getEngineSession().getTenantId());
+        return updatedItem;
     }
 
     @Override
@@ -72,6 +77,7 @@ APIHasGet<ApplicationItem>, APIHasUpdate<ApplicationItem>, APIHasDelete {
     @Override
     public void delete(final List<APIID> ids) {
         creator.create(getEngineSession()).delete(ids);
+        ProfilePermissionsCache.invalidateAll(getEngineSession().getTenantId());
     }
 
     @Override
@@ -91,7 +97,7 @@ APIHasGet<ApplicationItem>, APIHasUpdate<ApplicationItem>, APIHasDelete {
     }
 
     @Override
-    protected void fillDeploys(final ApplicationItem item, final List<String> deploys) {
+    protected void defineDeployers() {
         addDeployer(new UserDeployer(
                 new UserDatastore(getEngineSession()), ApplicationItem.ATTRIBUTE_CREATED_BY));
         addDeployer(new UserDeployer(
@@ -101,8 +107,6 @@ APIHasGet<ApplicationItem>, APIHasUpdate<ApplicationItem>, APIHasDelete {
                 applicationDataStoreFactory.createPageDataStore(getEngineSession()), ApplicationItem.ATTRIBUTE_LAYOUT_ID));
         addDeployer(new PageDeployer(
                 applicationDataStoreFactory.createPageDataStore(getEngineSession()), ApplicationItem.ATTRIBUTE_THEME_ID));
-
-        super.fillDeploys(item, deploys);
     }
 
     protected DeployerFactory getDeployerFactory() {
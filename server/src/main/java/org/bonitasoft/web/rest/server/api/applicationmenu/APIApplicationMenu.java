@@ -78,11 +78,9 @@ APIHasGet<ApplicationMenuItem>, APIHasDelete {
     }
 
     @Override
-    protected void fillDeploys(final ApplicationMenuItem item, final List<String> deploys) {
+    protected void defineDeployers() {
         addDeployer(new ApplicationPageDeployer(
                 new ApplicationPageDataStoreCreator().create(getEngineSession()), ApplicationMenuItem.ATTRIBUTE_APPLICATION_PAGE_ID));
-
-        super.fillDeploys(item, deploys);
     }
 
 }
@@ -17,6 +17,7 @@ package org.bonitasoft.web.rest.server.api.bpm.cases;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.bonitasoft.engine.bpm.process.ProcessInstanceCriterion;
 import org.bonitasoft.web.rest.model.bpm.cases.CaseDefinition;
@@ -32,6 +33,8 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.utils.BulkGetUtil;
+import org.bonitasoft.web.rest.server.framework.utils.CounterBatch;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.bonitasoft.web.toolkit.client.data.item.Definitions;
@@ -61,13 +64,22 @@ public class APICase extends ConsoleAPI<CaseItem> implements APIHasGet<CaseItem>
     @Override
     public ItemSearchResult<CaseItem> search(final int page, final int resultsByPage, final String search, final String orders,
             final Map<String, String> filters) {
+        checkFilters(filters);
+        return getCaseDatastore().search(page, resultsByPage, search, orders, filters);
+    }
+
+    @Override
+    public long count(final String search, final String orders, final Map<String, String> filters) {
+        checkFilters(filters);
+        return getCaseDatastore().count(search, orders, filters);
+    }
+
+    private void checkFilters(final Map<String, String> filters) {
         // Check that team manager and supervisor filters are not used together
         if (filters.containsKey(CaseItem.FILTER_TEAM_MANAGER_ID) && filters.containsKey(CaseItem.FILTER_SUPERVISOR_ID)) {
             throw new APIException("Can't set those filters at the same time : " + CaseItem.FILTER_TEAM_MANAGER_ID + " and "
                     + CaseItem.FILTER_SUPERVISOR_ID);
         }
-
-        return getCaseDatastore().search(page, resultsByPage, search, orders, filters);
     }
 
     @Override
@@ -86,7 +98,7 @@ public class APICase extends ConsoleAPI<CaseItem> implements APIHasGet<CaseItem>
         if (isDeployable(CaseItem.ATTRIBUTE_STARTED_BY_USER_ID, deploys, item)) {
             item.setDeploy(
                     CaseItem.ATTRIBUTE_STARTED_BY_USER_ID,
-                    getUserDatastore().get(item.getStartedByUserId()));
+                    BulkGetUtil.get(getUserDatastore(), item.getStartedByUserId()));
         }
     }
 
@@ -94,7 +106,7 @@ public class APICase extends ConsoleAPI<CaseItem> implements APIHasGet<CaseItem>
         if (isDeployable(CaseItem.ATTRIBUTE_STARTED_BY_SUBSTITUTE_USER_ID, deploys, item)) {
             item.setDeploy(
                     CaseItem.ATTRIBUTE_STARTED_BY_SUBSTITUTE_USER_ID,
-                    getUserDatastore().get(item.getStartedBySubstituteUserId()));
+                    BulkGetUtil.get(getUserDatastore(), item.getStartedBySubstituteUserId()));
         }
     }
 
@@ -102,29 +114,45 @@ public class APICase extends ConsoleAPI<CaseItem> implements APIHasGet<CaseItem>
         if (isDeployable(CaseItem.ATTRIBUTE_PROCESS_ID, deploys, item)) {
             item.setDeploy(
                     CaseItem.ATTRIBUTE_PROCESS_ID,
-                    getProcessDatastore().get(item.getProcessId()));
+                    BulkGetUtil.get(getProcessDatastore(), item.getProcessId()));
         }
     }
 
     private void fillNumberOfFailedFlowNodesIfFailedCounterExists(final CaseItem item, final List<String> counters) {
         if (counters.contains(CaseItem.COUNTER_FAILED_FLOW_NODES)) {
-            final FlowNodeDatastore flowNodeDatastore = getFlowNodeDatastore();
-            final Map<String, String> filters = new HashMap<String, String>();
-            filters.put(FlowNodeItem.ATTRIBUTE_STATE, FlowNodeItem.VALUE_STATE_FAILED);
-            filters.put(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, String.valueOf(item.getId().toLong()));
-            item.setAttribute(CaseItem.COUNTER_FAILED_FLOW_NODES, flowNodeDatastore.count(null, null, filters));
+            item.setAttribute(CaseItem.COUNTER_FAILED_FLOW_NODES, getFlowNodeDatastore().count(null, null, getFailedFlowNodesFilters(item)));
         }
     }
 
     private void fillNumberOfPendingFlowNodesIfActiveCounterExists(final CaseItem item, final List<String> counters) {
         if (counters.contains(CaseItem.COUNTER_ACTIVE_FLOW_NODES)) {
-            final FlowNodeDatastore flowNodeDatastore = getFlowNodeDatastore();
-            final Map<String, String> filters = new HashMap<String, String>();
-            filters.put(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, String.valueOf(item.getId().toLong()));
-            item.setAttribute(CaseItem.COUNTER_ACTIVE_FLOW_NODES, flowNodeDatastore.count(null, null, filters));
+            item.setAttribute(CaseItem.COUNTER_ACTIVE_FLOW_NODES, getFlowNodeDatastore().count(null, null, getActiveFlowNodesFilters(item)));
         }
     }
 
+    private Map<String, String> getFailedFlowNodesFilters(final CaseItem item) {
+        final Map<String, String> filters = new HashMap<String, String>();
+        filters.put(FlowNodeItem.ATTRIBUTE_STATE, FlowNodeItem.VALUE_STATE_FAILED);
+        filters.put(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, String.valueOf(item.getId().toLong()));
+        return filters;
+    }
+
+    private Map<String, String> getActiveFlowNodesFilters(final CaseItem item) {
+        final Map<String, String> filters = new HashMap<String, String>();
+        filters.put(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, String.valueOf(item.getId().toLong()));
+        return filters;
+    }
+
+    private Callable<Long> countFlowNodes(final FlowNodeDatastore flowNodeDatastore, final Map<String, String> filters) {
+        return new Callable<Long>() {
+
+            @Override
+            public Long call() {
+                return flowNodeDatastore.count(null, null, filters);
+            }
+        };
+    }
+
     @Override
     public void delete(final List<APIID> ids) {
         getCaseDatastore().delete(ids);
@@ -136,6 +164,24 @@ public class APICase extends ConsoleAPI<CaseItem> implements APIHasGet<CaseItem>
         fillNumberOfPendingFlowNodesIfActiveCounterExists(item, counters);
     }
 
+    @Override
+    protected void fillCounters(final List<CaseItem> items, final List<String> counters) {
+        if (!counters.contains(CaseItem.COUNTER_FAILED_FLOW_NODES) && !counters.contains(CaseItem.COUNTER_ACTIVE_FLOW_NODES)) {
+            return;
+        }
+        final FlowNodeDatastore flowNodeDatastore = getFlowNodeDatastore();
+        final CounterBatch counterBatch = new CounterBatch(getCountersTimeBudget());
+        for (final CaseItem item : items) {
+            if (counters.contains(CaseItem.COUNTER_FAILED_FLOW_NODES)) {
+                counterBatch.add(item, CaseItem.COUNTER_FAILED_FLOW_NODES, countFlowNodes(flowNodeDatastore, getFailedFlowNodesFilters(item)));
+            }
+            if (counters.contains(CaseItem.COUNTER_ACTIVE_FLOW_NODES)) {
+                counterBatch.add(item, CaseItem.COUNTER_ACTIVE_FLOW_NODES, countFlowNodes(flowNodeDatastore, getActiveFlowNodesFilters(item)));
+            }
+        }
+        counterBatch.fill();
+    }
+
     UserDatastore getUserDatastore() {
         return new UserDatastore(getEngineSession());
     }
@@ -51,14 +51,14 @@ public class APICaseVariable extends ConsoleAPI<CaseVariableItem> implements API
 
     @Override
     public ItemSearchResult<CaseVariableItem> runSearch(int page, int resultsByPage, String search, String orders,
-            Map<String, String> filters, List<String> deploys, List<String> counters) {
+            Map<String, String> filters, List<String> deploys, List<String> counters, List<String> fields) {
         attributeChecker.checkSearchFilters(filters);
         long caseId = Long.valueOf(filters.get(CaseVariableItem.ATTRIBUTE_CASE_ID));
         return ((CaseVariableDatastore) getDefaultDatastore()).findByCaseId(caseId, page, resultsByPage);
     }
 
     @Override
-    public CaseVariableItem runGet(APIID id, List<String> deploys, List<String> counters) {
+    public CaseVariableItem runGet(APIID id, List<String> deploys, List<String> counters, List<String> fields) {
         id.setItemDefinition(CaseVariableDefinition.get());
         long caseId = id.getPartAsLong(CaseVariableItem.ATTRIBUTE_CASE_ID);
         String variableName = id.getPart(CaseVariableItem.ATTRIBUTE_NAME);
@@ -15,20 +15,20 @@
 package org.bonitasoft.web.rest.server.api.bpm.flownode;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.bonitasoft.engine.bpm.flownode.FlowNodeInstanceSearchDescriptor;
-import org.bonitasoft.web.rest.model.bpm.cases.ArchivedCaseItem;
 import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
-import org.bonitasoft.web.rest.model.bpm.flownode.ArchivedHumanTaskItem;
 import org.bonitasoft.web.rest.model.bpm.flownode.FlowNodeDefinition;
 import org.bonitasoft.web.rest.model.bpm.flownode.FlowNodeItem;
 import org.bonitasoft.web.rest.model.bpm.flownode.HumanTaskItem;
 import org.bonitasoft.web.rest.model.bpm.flownode.IFlowNodeItem;
+import org.bonitasoft.web.rest.model.bpm.process.ActorItem;
+import org.bonitasoft.web.rest.model.bpm.process.ProcessItem;
 import org.bonitasoft.web.rest.server.api.ConsoleAPI;
 import org.bonitasoft.web.rest.server.api.deployer.GenericDeployer;
+import org.bonitasoft.web.rest.server.api.deployer.UserDeployer;
 import org.bonitasoft.web.rest.server.datastore.bpm.cases.ArchivedCaseDatastore;
 import org.bonitasoft.web.rest.server.datastore.bpm.cases.CaseDatastore;
 import org.bonitasoft.web.rest.server.datastore.bpm.flownode.FlowNodeDatastore;
@@ -42,8 +42,11 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.APIHasUpdate;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasCount;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.search.ISearchDirection;
+import org.bonitasoft.web.rest.server.framework.search.ItemCursorSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchCursor;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
@@ -76,6 +79,28 @@ APIHasSearch<ITEM> {
 
     @Override
     public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search, final String orders, final Map<String, String> filters) {
+        checkFilters(filters);
+        return super.search(page, resultsByPage, search, orders, filters);
+    }
+
+    @Override
+    public ItemCursorSearchResult<ITEM> searchAfter(final ItemSearchCursor cursor, final int resultsByPage, final String search, final String orders,
+            final Map<String, String> filters) {
+        checkFilters(filters);
+        return super.searchAfter(cursor, resultsByPage, search, orders, filters);
+    }
+
+    @Override
+    public long count(final String search, final String orders, final Map<String, String> filters) {
+        final Datastore datastore = getDefaultDatastore();
+        if (!(datastore instanceof DatastoreHasCount)) {
+            return super.count(search, orders, filters);
+        }
+        checkFilters(filters);
+        return ((DatastoreHasCount) datastore).count(search, orders, filters);
+    }
+
+    private void checkFilters(final Map<String, String> filters) {
         // Check that team manager and supervisor filters are not used together
         if (filters.containsKey(HumanTaskItem.FILTER_TEAM_MANAGER_ID) && filters.containsKey(HumanTaskItem.FILTER_SUPERVISOR_ID)) {
             throw new APIException("Can't set those filters at the same time : "
@@ -83,8 +108,6 @@ APIHasSearch<ITEM> {
                     + " and "
                     + HumanTaskItem.FILTER_SUPERVISOR_ID);
         }
-
-        return super.search(page, resultsByPage, search, orders, filters);
     }
 
     @Override
@@ -109,55 +132,15 @@ APIHasSearch<ITEM> {
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     @Override
-    protected void fillDeploys(final ITEM item, final List<String> deploys) {
-        /** TODO Refactor to an oriented object (cf. WEB-1637 ) */
-        if (isDeployable(FlowNodeItem.ATTRIBUTE_PROCESS_ID, deploys, item)) {
-            item.setDeploy(FlowNodeItem.ATTRIBUTE_PROCESS_ID,
-                    new ProcessDatastore(getEngineSession()).get(item.getProcessId()));
-        }
-
-        if (isDeployable(FlowNodeItem.ATTRIBUTE_CASE_ID, deploys, item) || isDeployable(FlowNodeItem.ATTRIBUTE_ROOT_CASE_ID, deploys, item)) {
-            final CaseItem item2 = getCaseDatastore().get(item.getCaseId());
-            item.setDeploy(FlowNodeItem.ATTRIBUTE_CASE_ID, item2);
-            item.setDeploy(FlowNodeItem.ATTRIBUTE_ROOT_CASE_ID, item2);
-        }
-
-        if (isDeployable(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, deploys, item)) {
-            item.setDeploy(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID,
-                    getCaseDatastore().get(item.getParentCaseId()));
-        }
-
-        if (isDeployable(FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID, deploys, item)) {
-            CaseItem rootContainerCase = getCaseDatastore().get(item
-                    .getAttributeValueAsAPIID(HumanTaskItem.ATTRIBUTE_ROOT_CONTAINER_ID));
-            if (rootContainerCase == null) {
-                rootContainerCase = getArchivedCase(item.getAttributeValue(HumanTaskItem.ATTRIBUTE_ROOT_CONTAINER_ID));
-            }
-            if (rootContainerCase != null) {
-                item.setDeploy(FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID, new ProcessDatastore(getEngineSession()).get(rootContainerCase.getProcessId()));
-            }
-        }
-
-        if (isDeployable(FlowNodeItem.ATTRIBUTE_EXECUTED_BY_USER_ID, deploys, item)) {
-            item.setDeploy(FlowNodeItem.ATTRIBUTE_EXECUTED_BY_USER_ID,
-                    new UserDatastore(getEngineSession()).get(item.getExecutedByUserId()));
-        }
-
-        if (isDeployable(FlowNodeItem.ATTRIBUTE_EXECUTED_BY_SUBSTITUTE_USER_ID, deploys, item)) {
-            item.setDeploy(FlowNodeItem.ATTRIBUTE_EXECUTED_BY_SUBSTITUTE_USER_ID,
-                    new UserDatastore(getEngineSession()).get(item.getExecutedBySubstituteUserId()));
-        }
-
-        if (isDeployable(HumanTaskItem.ATTRIBUTE_ACTOR_ID, deploys, item)) {
-            item.setDeploy(HumanTaskItem.ATTRIBUTE_ACTOR_ID,
-                    new ActorDatastore(getEngineSession()).get(item.getAttributeValueAsAPIID(HumanTaskItem.ATTRIBUTE_ACTOR_ID)));
-        }
-
-        if (isDeployable(HumanTaskItem.ATTRIBUTE_ASSIGNED_USER_ID, deploys, item)) {
-            item.setDeploy(HumanTaskItem.ATTRIBUTE_ASSIGNED_USER_ID,
-                    new UserDatastore(getEngineSession()).get(item.getAttributeValueAsAPIID(HumanTaskItem.ATTRIBUTE_ASSIGNED_USER_ID)));
-        }
-
+    protected void defineDeployers() {
+        addDeployer(new GenericDeployer<ProcessItem>(getProcessDatastore(), FlowNodeItem.ATTRIBUTE_PROCESS_ID));
+        addDeployer(new CaseDeployer(getCaseDatastore()));
+        addDeployer(new GenericDeployer<CaseItem>(getCaseDatastore(), FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID));
+        addDeployer(new RootContainerProcessDeployer(getCaseDatastore(), getArchivedCaseDatastore(), getProcessDatastore()));
+        addDeployer(new UserDeployer(getUserDatastore(), FlowNodeItem.ATTRIBUTE_EXECUTED_BY_USER_ID));
+        addDeployer(new UserDeployer(getUserDatastore(), FlowNodeItem.ATTRIBUTE_EXECUTED_BY_SUBSTITUTE_USER_ID));
+        addDeployer(new GenericDeployer<ActorItem>(new ActorDatastore(getEngineSession()), HumanTaskItem.ATTRIBUTE_ACTOR_ID));
+        addDeployer(new UserDeployer(getUserDatastore(), HumanTaskItem.ATTRIBUTE_ASSIGNED_USER_ID));
         addDeployer(new GenericDeployer<IItem>(new DatastoreHasGet<IItem>() {
 
             @Override
@@ -167,31 +150,41 @@ APIHasSearch<ITEM> {
                         new ArchivedTaskDatastore(getEngineSession())).find(id);
             }
         }, HumanTaskItem.ATTRIBUTE_PARENT_TASK_ID));
-
-        super.fillDeploys(item, deploys);
     }
 
-    protected CaseDatastore getCaseDatastore() {
-        return new CaseDatastore(getEngineSession());
+    @Override
+    protected void fillDeploys(final ITEM item, final List<String> deploys) {
+        super.fillDeploys(item, getDeploysWithCase(deploys));
     }
 
-    private CaseItem getArchivedCase(final String id) {
-        final List<ArchivedCaseItem> result = getArchivedCaseDatastore
-                ().search(
-                0, 1,
-                null,
-                null,
-                Collections.singletonMap(ArchivedHumanTaskItem.ATTRIBUTE_SOURCE_OBJECT_ID, id)).getResults();
-        if (result.size() > 0) {
-            return result.get(0);
+    /**
+     * Case id and root case id are always deployed together as they reference the same case
+     */
+    private List<String> getDeploysWithCase(final List<String> deploys) {
+        if (deploys.contains(FlowNodeItem.ATTRIBUTE_ROOT_CASE_ID) && !deploys.contains(FlowNodeItem.ATTRIBUTE_CASE_ID)) {
+            final List<String> deploysWithCase = new ArrayList<String>(deploys);
+            deploysWithCase.add(FlowNodeItem.ATTRIBUTE_CASE_ID);
+            return deploysWithCase;
         }
-        return null;
+        return deploys;
+    }
+
+    protected CaseDatastore getCaseDatastore() {
+        return new CaseDatastore(getEngineSession());
     }
 
     protected ArchivedCaseDatastore getArchivedCaseDatastore() {
         return new ArchivedCaseDatastore(getEngineSession());
     }
 
+    protected ProcessDatastore getProcessDatastore() {
+        return new ProcessDatastore(getEngineSession());
+    }
+
+    protected UserDatastore getUserDatastore() {
+        return new UserDatastore(getEngineSession());
+    }
+
     @Override
     protected List<String> defineReadOnlyAttributes() {
         final List<String> attributes = new ArrayList<String>();
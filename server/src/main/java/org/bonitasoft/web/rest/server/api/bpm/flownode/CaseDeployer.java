@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.api.bpm.flownode;
+
+import java.util.List;
+
+import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
+import org.bonitasoft.web.rest.model.bpm.flownode.FlowNodeItem;
+import org.bonitasoft.web.rest.server.api.deployer.GenericDeployer;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * Deploy the case of a flow node in both the case id and the root case id attributes, as they always reference the same case.
+ */
+class CaseDeployer extends GenericDeployer<CaseItem> {
+
+    public CaseDeployer(final DatastoreHasGet<CaseItem> getter) {
+        super(getter, FlowNodeItem.ATTRIBUTE_CASE_ID);
+    }
+
+    @Override
+    public void deployIn(final IItem item) {
+        super.deployIn(item);
+        deployInRootCase(item);
+    }
+
+    @Override
+    public void deployIn(final List<? extends IItem> items) {
+        super.deployIn(items);
+        for (final IItem item : items) {
+            deployInRootCase(item);
+        }
+    }
+
+    private void deployInRootCase(final IItem item) {
+        if (item.getDeploys().containsKey(FlowNodeItem.ATTRIBUTE_CASE_ID)) {
+            item.setDeploy(FlowNodeItem.ATTRIBUTE_ROOT_CASE_ID, item.getDeploy(FlowNodeItem.ATTRIBUTE_CASE_ID));
+        }
+    }
+}
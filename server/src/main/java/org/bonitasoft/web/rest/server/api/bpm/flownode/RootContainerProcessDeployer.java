@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.api.bpm.flownode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.bonitasoft.web.rest.model.bpm.cases.ArchivedCaseItem;
+import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
+import org.bonitasoft.web.rest.model.bpm.flownode.ArchivedHumanTaskItem;
+import org.bonitasoft.web.rest.model.bpm.flownode.FlowNodeItem;
+import org.bonitasoft.web.rest.model.bpm.process.ProcessItem;
+import org.bonitasoft.web.rest.server.datastore.bpm.cases.ArchivedCaseDatastore;
+import org.bonitasoft.web.rest.server.framework.BulkDeployer;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
+import org.bonitasoft.web.rest.server.framework.utils.BulkGetUtil;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * Deploy the process of the root container of a flow node. The root container is looked up in open cases first, then in archived cases.
+ */
+class RootContainerProcessDeployer implements BulkDeployer {
+
+    private final DatastoreHasGet<CaseItem> caseGetter;
+
+    private final ArchivedCaseDatastore archivedCaseDatastore;
+
+    private final DatastoreHasGet<ProcessItem> processGetter;
+
+    public RootContainerProcessDeployer(final DatastoreHasGet<CaseItem> caseGetter, final ArchivedCaseDatastore archivedCaseDatastore,
+            final DatastoreHasGet<ProcessItem> processGetter) {
+        this.caseGetter = caseGetter;
+        this.archivedCaseDatastore = archivedCaseDatastore;
+        this.processGetter = processGetter;
+    }
+
+    @Override
+    public String getDeployedAttribute() {
+        return FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID;
+    }
+
+    @Override
+    public void deployIn(final IItem item) {
+        deployIn(Collections.singletonList(item));
+    }
+
+    @Override
+    public void deployIn(final List<? extends IItem> items) {
+        final Map<APIID, CaseItem> rootContainerCases = BulkGetUtil.getAll(caseGetter,
+                BulkGetUtil.collectIds(items, FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID));
+        for (final Entry<APIID, CaseItem> rootContainerCase : rootContainerCases.entrySet()) {
+            if (rootContainerCase.getValue() == null) {
+                rootContainerCase.setValue(getArchivedCase(rootContainerCase.getKey().toString()));
+            }
+        }
+
+        final Map<APIID, ProcessItem> processes = BulkGetUtil.getAll(processGetter, collectProcessIds(rootContainerCases.values()));
+        for (final IItem item : items) {
+            final CaseItem rootContainerCase = rootContainerCases.get(item.getAttributeValueAsAPIID(FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID));
+            if (rootContainerCase != null) {
+                item.setDeploy(FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID, processes.get(rootContainerCase.getProcessId()));
+            }
+        }
+    }
+
+    private List<APIID> collectProcessIds(final Iterable<CaseItem> cases) {
+        final Set<APIID> processIds = new LinkedHashSet<APIID>();
+        for (final CaseItem caseItem : cases) {
+            if (caseItem != null && caseItem.getProcessId() != null) {
+                processIds.add(caseItem.getProcessId());
+            }
+        }
+        return new ArrayList<APIID>(processIds);
+    }
+
+    private CaseItem getArchivedCase(final String id) {
+        final List<ArchivedCaseItem> result = archivedCaseDatastore.search(
+                0, 1,
+                null,
+                null,
+                Collections.singletonMap(ArchivedHumanTaskItem.ATTRIBUTE_SOURCE_OBJECT_ID, id)).getResults();
+        if (result.size() > 0) {
+            return result.get(0);
+        }
+        return null;
+    }
+}
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.bonitasoft.console.common.server.preferences.constants.WebBonitaConstantsUtils;
 import org.bonitasoft.console.common.server.utils.UnauthorizedFolderException;
@@ -31,6 +32,7 @@ import org.bonitasoft.web.rest.server.api.deployer.UserDeployer;
 import org.bonitasoft.web.rest.server.datastore.bpm.cases.CaseDatastore;
 import org.bonitasoft.web.rest.server.datastore.bpm.process.ProcessDatastore;
 import org.bonitasoft.web.rest.server.datastore.organization.UserDatastore;
+import org.bonitasoft.web.rest.server.framework.CachePolicy;
 import org.bonitasoft.web.rest.server.framework.api.APIHasAdd;
 import org.bonitasoft.web.rest.server.framework.api.APIHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
@@ -38,6 +40,7 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.APIHasUpdate;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.utils.CounterBatch;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIForbiddenException;
 import org.bonitasoft.web.toolkit.client.common.util.MapUtil;
@@ -65,6 +68,11 @@ APIHasDelete
         return ProcessDefinition.get();
     }
 
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.REVALIDATE;
+    }
+
     @Override
     public String defineDefaultSearchOrder() {
         return ProcessItem.ATTRIBUTE_NAME + " ASC";
@@ -141,10 +149,9 @@ APIHasDelete
     }
 
     @Override
-    protected void fillDeploys(final ProcessItem item, final List<String> deploys) {
+    protected void defineDeployers() {
         addDeployer(new UserDeployer(
                 new UserDatastore(getEngineSession()), ProcessItem.ATTRIBUTE_DEPLOYED_BY_USER_ID));
-        super.fillDeploys(item, deploys);
     }
 
     @Override
@@ -153,26 +160,62 @@ APIHasDelete
         fillNumberOfOpenCasesIfOpenCounterExists(item, counters);
     }
 
+    @Override
+    protected void fillCounters(final List<ProcessItem> items, final List<String> counters) {
+        if (!counters.contains(ProcessItem.COUNTER_FAILED_CASES) && !counters.contains(ProcessItem.COUNTER_OPEN_CASES)) {
+            return;
+        }
+        final CaseDatastore caseDatastore = getCaseDatastore();
+        final CounterBatch counterBatch = new CounterBatch(getCountersTimeBudget());
+        for (final ProcessItem item : items) {
+            if (counters.contains(ProcessItem.COUNTER_FAILED_CASES)) {
+                counterBatch.add(item, ProcessItem.COUNTER_FAILED_CASES, countCases(caseDatastore, getFailedCasesFilters(item)));
+            }
+            if (counters.contains(ProcessItem.COUNTER_OPEN_CASES)) {
+                counterBatch.add(item, ProcessItem.COUNTER_OPEN_CASES, countCases(caseDatastore, getOpenCasesFilters(item)));
+            }
+        }
+        counterBatch.fill();
+    }
+
+    private Callable<Long> countCases(final CaseDatastore caseDatastore, final Map<String, String> filters) {
+        return new Callable<Long>() {
+
+            @Override
+            public Long call() {
+                return caseDatastore.count(null, null, filters);
+            }
+        };
+    }
+
     private void fillNumberOfFailedCasesIfFailedCounterExists(final ProcessItem item, final List<String> counters) {
         if (counters.contains(ProcessItem.COUNTER_FAILED_CASES)) {
-            final Map<String, String> filters = new HashMap<String, String>();
-            filters.put(CaseItem.FILTER_CALLER, "any");
-            filters.put(CaseItem.ATTRIBUTE_PROCESS_ID, item.getId().toString());
-            filters.put(CaseItem.FILTER_STATE, ProcessInstanceState.ERROR.name());
-            item.setAttribute(ProcessItem.COUNTER_FAILED_CASES, getCaseDatastore().count(null, null, filters));
+            item.setAttribute(ProcessItem.COUNTER_FAILED_CASES, getCaseDatastore().count(null, null, getFailedCasesFilters(item)));
         }
     }
 
     private void fillNumberOfOpenCasesIfOpenCounterExists(final ProcessItem item, final List<String> counters) {
         if (counters.contains(ProcessItem.COUNTER_OPEN_CASES)) {
-            // Open is all states without the terminal states
-            final Map<String, String> filters = new HashMap<String, String>();
-            filters.put(CaseItem.FILTER_CALLER, "any");
-            filters.put(CaseItem.ATTRIBUTE_PROCESS_ID, item.getId().toString());
-            item.setAttribute(ProcessItem.COUNTER_OPEN_CASES, getCaseDatastore().count(null, null, filters));
+            item.setAttribute(ProcessItem.COUNTER_OPEN_CASES, getCaseDatastore().count(null, null, getOpenCasesFilters(item)));
         }
     }
 
+    private Map<String, String> getFailedCasesFilters(final ProcessItem item) {
+        final Map<String, String> filters = new HashMap<String, String>();
+        filters.put(CaseItem.FILTER_CALLER, "any");
+        filters.put(CaseItem.ATTRIBUTE_PROCESS_ID, item.getId().toString());
+        filters.put(CaseItem.FILTER_STATE, ProcessInstanceState.ERROR.name());
+        return filters;
+    }
+
+    private Map<String, String> getOpenCasesFilters(final ProcessItem item) {
+        // Open is all states without the terminal states
+        final Map<String, String> filters = new HashMap<String, String>();
+        filters.put(CaseItem.FILTER_CALLER, "any");
+        filters.put(CaseItem.ATTRIBUTE_PROCESS_ID, item.getId().toString());
+        return filters;
+    }
+
     String uploadIcon(final String iconTempPath) {
         String completeIconTempPath;
         try {
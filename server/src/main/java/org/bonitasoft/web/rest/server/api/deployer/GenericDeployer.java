@@ -16,8 +16,12 @@
  */
 package org.bonitasoft.web.rest.server.api.deployer;
 
-import org.bonitasoft.web.rest.server.framework.Deployer;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.web.rest.server.framework.BulkDeployer;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
+import org.bonitasoft.web.rest.server.framework.utils.BulkGetUtil;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.bonitasoft.web.toolkit.client.data.item.IItem;
 
@@ -25,7 +29,7 @@ import org.bonitasoft.web.toolkit.client.data.item.IItem;
  * @author Vincent Elcrin
  * 
  */
-public class GenericDeployer<I extends IItem> implements Deployer {
+public class GenericDeployer<I extends IItem> implements BulkDeployer {
 
     private final DatastoreHasGet<I> getter;
 
@@ -48,6 +52,16 @@ public class GenericDeployer<I extends IItem> implements Deployer {
         }
     }
 
+    @Override
+    public void deployIn(final List<? extends IItem> items) {
+        final Map<APIID, I> deployedItems = BulkGetUtil.getAll(getter, BulkGetUtil.collectIds(items, attribute));
+        for (final IItem item : items) {
+            if (isDeployable(attribute, item)) {
+                item.setDeploy(attribute, deployedItems.get(getItemId(item)));
+            }
+        }
+    }
+
     protected final boolean isDeployable(final String attribute, final IItem item) {
         return item.getAttributeValueAsAPIID(attribute) != null;
     }
@@ -57,6 +71,6 @@ public class GenericDeployer<I extends IItem> implements Deployer {
     }
 
     private I getItem(APIID profileId) {
-        return getter.get(profileId);
+        return BulkGetUtil.get(getter, profileId);
     }
 }
@@ -3,14 +3,12 @@ package org.bonitasoft.web.rest.server.api.extension;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Arrays;
 import java.util.Properties;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
+import org.bonitasoft.console.common.server.page.ApiExtensionRoute;
 import org.bonitasoft.console.common.server.page.PageMappingService;
 import org.bonitasoft.console.common.server.page.PageReference;
 import org.bonitasoft.console.common.server.page.extension.PageResourceProviderImpl;
@@ -91,12 +89,7 @@ public class ResourceExtensionResolver {
     }
 
     private File toFile(PageResourceProviderImpl pageResourceProvider, String classFileName) {
-        if (classFileName.startsWith("/")) {
-            classFileName = classFileName.substring(1);
-        }
-        final String[] paths = classFileName.split("/");
-        final Path restApiControllerPath = paths.length == 1 ? Paths.get(paths[0]) : Paths.get(paths[0], Arrays.copyOfRange(paths, 1, paths.length));
-        return pageResourceProvider.getPageDirectory().toPath().resolve(restApiControllerPath).toFile();
+        return ApiExtensionRoute.resolveControllerFile(pageResourceProvider.getPageDirectory(), classFileName);
     }
 
     private boolean extensionMatches(String method, String pathTemplate) {
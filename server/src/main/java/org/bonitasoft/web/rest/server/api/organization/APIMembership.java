@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
 import org.bonitasoft.engine.identity.UserMembershipCriterion;
 import org.bonitasoft.web.rest.model.identity.MembershipDefinition;
 import org.bonitasoft.web.rest.model.identity.MembershipItem;
@@ -35,6 +36,7 @@ import org.bonitasoft.web.rest.server.framework.api.Datastore;
 import org.bonitasoft.web.rest.server.framework.exception.APIFilterException;
 import org.bonitasoft.web.rest.server.framework.exception.APIFilterMandatoryException;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.bonitasoft.web.toolkit.client.data.item.Definitions;
 import org.bonitasoft.web.toolkit.client.data.item.ItemDefinition;
 
@@ -98,6 +100,19 @@ public class APIMembership extends ConsoleAPI<MembershipItem> implements
     // CRUDS
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    public MembershipItem add(final MembershipItem item) {
+        final MembershipItem addedItem = super.add(item);
+        PermissionDecisionCache.invalidateAll(getEngineSession().getTenantId());
+        return addedItem;
+    }
+
+    @Override
+    public void delete(final List<APIID> ids) {
+        super.delete(ids);
+        PermissionDecisionCache.invalidateAll(getEngineSession().getTenantId());
+    }
+
     @Override
     public ItemSearchResult<MembershipItem> search(final int page, final int resultsByPage, final String search, final String orders,
             final Map<String, String> filters) {
@@ -34,12 +34,14 @@ import org.bonitasoft.web.rest.server.datastore.bpm.flownode.HumanTaskDatastore;
 import org.bonitasoft.web.rest.server.datastore.organization.PersonalContactDataDatastore;
 import org.bonitasoft.web.rest.server.datastore.organization.ProfessionalContactDataDatastore;
 import org.bonitasoft.web.rest.server.datastore.organization.UserDatastore;
+import org.bonitasoft.web.rest.server.framework.CachePolicy;
 import org.bonitasoft.web.rest.server.framework.api.APIHasAdd;
 import org.bonitasoft.web.rest.server.framework.api.APIHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.APIHasUpdate;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.utils.BulkGetUtil;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIForbiddenException;
 import org.bonitasoft.web.toolkit.client.common.util.MapUtil;
@@ -68,6 +70,11 @@ APIHasGet<UserItem>, APIHasSearch<UserItem> {
         return UserDefinition.get();
     }
 
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.REVALIDATE;
+    }
+
     @Override
     public String defineDefaultSearchOrder() {
         return UserItem.ATTRIBUTE_LASTNAME;
@@ -219,12 +226,12 @@ APIHasGet<UserItem>, APIHasSearch<UserItem> {
     protected void fillDeploys(final UserItem item, final List<String> deploys) {
         if (isDeployable(UserItem.ATTRIBUTE_MANAGER_ID, deploys, item)) {
             item.setDeploy(UserItem.ATTRIBUTE_MANAGER_ID,
-                    new UserDatastore(getEngineSession()).get(item.getManagerId()));
+                    BulkGetUtil.get(new UserDatastore(getEngineSession()), item.getManagerId()));
         }
 
         if (isDeployable(UserItem.ATTRIBUTE_CREATED_BY_USER_ID, deploys, item)) {
             item.setDeploy(UserItem.ATTRIBUTE_CREATED_BY_USER_ID,
-                    new UserDatastore(getEngineSession()).get(item.getCreatedByUserId()));
+                    BulkGetUtil.get(new UserDatastore(getEngineSession()), item.getCreatedByUserId()));
         }
 
         if (deploys.contains(UserItem.DEPLOY_PERSONNAL_DATA)) {
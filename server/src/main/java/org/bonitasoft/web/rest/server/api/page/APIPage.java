@@ -34,6 +34,7 @@ import org.bonitasoft.web.rest.server.datastore.profile.entry.ProfileEntryItemCo
 import org.bonitasoft.web.rest.server.engineclient.EngineAPIAccessor;
 import org.bonitasoft.web.rest.server.engineclient.EngineClientFactory;
 import org.bonitasoft.web.rest.server.engineclient.ProfileEntryEngineClient;
+import org.bonitasoft.web.rest.server.framework.CachePolicy;
 import org.bonitasoft.web.rest.server.framework.api.APIHasAdd;
 import org.bonitasoft.web.rest.server.framework.api.APIHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
@@ -152,21 +153,20 @@ APIHasDelete {
     }
 
     @Override
-    protected void fillDeploys(final PageItem item, final List<String> deploys) {
-        /*
-         * Need to be done there and not in constructor
-         * because need the engine session which is set
-         * by setter instead of being injected in API constructor...
-         */
+    protected void defineDeployers() {
         addDeployer(getDeployerFactory().createUserDeployer(PageItem.ATTRIBUTE_CREATED_BY_USER_ID));
         addDeployer(getDeployerFactory().createUserDeployer(PageItem.ATTRIBUTE_UPDATED_BY_USER_ID));
-        super.fillDeploys(item, deploys);
     }
 
     protected DeployerFactory getDeployerFactory() {
         return new DeployerFactory(getEngineSession());
     }
 
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.REVALIDATE;
+    }
+
     @Override
     public String defineDefaultSearchOrder() {
         return PageItem.ATTRIBUTE_URL_TOKEN;
@@ -14,7 +14,6 @@
  */
 package org.bonitasoft.web.rest.server.api.profile;
 
-import java.util.List;
 
 import org.bonitasoft.web.rest.model.portal.page.PageItem;
 import org.bonitasoft.web.rest.model.portal.profile.ProfileDefinition;
@@ -27,6 +26,7 @@ import org.bonitasoft.web.rest.server.datastore.profile.SearchProfilesHelper;
 import org.bonitasoft.web.rest.server.engineclient.EngineAPIAccessor;
 import org.bonitasoft.web.rest.server.engineclient.EngineClientFactory;
 import org.bonitasoft.web.rest.server.engineclient.ProfileEngineClient;
+import org.bonitasoft.web.rest.server.framework.CachePolicy;
 import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.toolkit.client.data.item.ItemDefinition;
@@ -38,11 +38,9 @@ import org.bonitasoft.web.toolkit.client.data.item.ItemDefinition;
 public class APIProfile extends ConsoleAPI<ProfileItem> implements APIHasGet<ProfileItem>, APIHasSearch<ProfileItem> {
 
     @Override
-    protected void fillDeploys(ProfileItem item, List<String> deploys) {
+    protected void defineDeployers() {
         addDeployer(getDeployerFactory().createUserDeployer(PageItem.ATTRIBUTE_CREATED_BY_USER_ID));
         addDeployer(getDeployerFactory().createUserDeployer(PageItem.ATTRIBUTE_UPDATED_BY_USER_ID));
-        
-        super.fillDeploys(item, deploys);
     }
 
     protected DeployerFactory getDeployerFactory() {
@@ -69,6 +67,11 @@ public class APIProfile extends ConsoleAPI<ProfileItem> implements APIHasGet<Pro
         return ProfileDefinition.get();
     }
 
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.REVALIDATE;
+    }
+
     @Override
     public String defineDefaultSearchOrder() {
         // FIXME Use an engine descriptor
@@ -30,6 +30,7 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.bonitasoft.web.rest.model.portal.profile.ProfileEntryItem.ATTRIBUTE_INDEX;
@@ -56,20 +57,23 @@ public class APIProfileEntry extends ConsoleAPI<ProfileEntryItem> implements
     }
 
     @Override
-    protected void fillDeploys(final ProfileEntryItem item, final List<String> deploys) {
-        /*
-         * Need to be done there and not in constructor
-         * because need the engine session which is set
-         * by setter instead of being injected in API constructor...
-         */
+    protected void defineDeployers() {
         factory = getDeployerFactory();
         addDeployer(factory.createProfileDeployer(ProfileEntryItem.ATTRIBUTE_PROFILE_ID));
         addDeployer(factory.createProfileEntryDeployer(ProfileEntryItem.ATTRIBUTE_PARENT_ID));
-        if(!item.isCustom()) {
-            addDeployer(factory.createBonitaPageDeployer(ProfileEntryItem.ATTRIBUTE_PAGE));
-        }
-        super.fillDeploys(item, deploys);
+        addDeployer(factory.createBonitaPageDeployer(ProfileEntryItem.ATTRIBUTE_PAGE));
+    }
 
+    @Override
+    protected void fillDeploys(final ProfileEntryItem item, final List<String> deploys) {
+        // the page of a custom entry is a custom page, not a bonita page
+        if (item.isCustom() && deploys.contains(ProfileEntryItem.ATTRIBUTE_PAGE)) {
+            final List<String> deploysWithoutPage = new ArrayList<String>(deploys);
+            deploysWithoutPage.remove(ProfileEntryItem.ATTRIBUTE_PAGE);
+            super.fillDeploys(item, deploysWithoutPage);
+        } else {
+            super.fillDeploys(item, deploys);
+        }
     }
 
     protected DeployerFactory getDeployerFactory() {
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
 import org.bonitasoft.web.rest.model.portal.profile.AbstractMemberItem;
 import org.bonitasoft.web.rest.server.api.ConsoleAPI;
 import org.bonitasoft.web.rest.server.datastore.organization.GroupDatastore;
@@ -76,7 +77,9 @@ public abstract class AbstractAPIMember<T extends AbstractMemberItem> extends Co
 
         checkAttributes(item.getUserId(), item.getRoleId(), item.getGroupId());
 
-        return super.add(item);
+        final T addedItem = super.add(item);
+        PermissionDecisionCache.invalidateAll(getEngineSession().getTenantId());
+        return addedItem;
     }
 
     @Override
@@ -86,6 +89,7 @@ public abstract class AbstractAPIMember<T extends AbstractMemberItem> extends Co
         // checkAttributes(apiid.getPartAsAPIID(ATTRIBUTE_USER_ID), apiid.getPartAsAPIID(ATTRIBUTE_ROLE_ID), apiid.getPartAsAPIID(ATTRIBUTE_GROUP_ID));
         // }
         super.delete(ids);
+        PermissionDecisionCache.invalidateAll(getEngineSession().getTenantId());
     }
 
     @Override
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.api.system;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.bonitasoft.web.rest.server.api.resource.CommonResource;
+import org.bonitasoft.web.rest.server.framework.APIRegistration;
+import org.bonitasoft.web.rest.server.framework.APIRegistry;
+import org.restlet.resource.Get;
+
+/**
+ * List the APIs registered in the REST API factory with the metadata known about them.
+ */
+public class APIRegistryResource extends CommonResource {
+
+    private final APIRegistry registry;
+
+    public APIRegistryResource(final APIRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Get("json")
+    public List<APIRegistration> getRegistrations() {
+        if (registry == null) {
+            return Collections.emptyList();
+        }
+        return registry.getRegistrations();
+    }
+
+}
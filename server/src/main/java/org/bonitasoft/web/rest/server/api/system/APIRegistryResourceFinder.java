@@ -0,0 +1,30 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.api.system;
+
+import org.bonitasoft.web.rest.server.ResourceFinder;
+import org.bonitasoft.web.rest.server.framework.RestAPIFactory;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.resource.ServerResource;
+
+public class APIRegistryResourceFinder extends ResourceFinder {
+
+    @Override
+    public ServerResource create(final Request request, final Response response) {
+        final RestAPIFactory factory = RestAPIFactory.getDefaultFactory();
+        return new APIRegistryResource(factory != null ? factory.getRegistry() : null);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.api.system;
+
+import java.util.Map;
+
+import org.bonitasoft.engine.exception.NotFoundException;
+import org.bonitasoft.engine.session.APISession;
+import org.bonitasoft.web.rest.server.api.resource.CommonResource;
+import org.bonitasoft.web.rest.server.framework.utils.BulkDeleteExecutor;
+import org.bonitasoft.web.rest.server.framework.utils.BulkDeleteJob;
+import org.restlet.resource.Get;
+
+/**
+ * Progress and results of an asynchronous bulk delete. A job is only visible to the user who started it.
+ */
+public class BulkDeleteJobResource extends CommonResource {
+
+    static final String JOB_ID = "jobId";
+
+    @Get("json")
+    public Map<String, Object> getJob() throws NotFoundException {
+        final String jobId = getAttribute(JOB_ID);
+        final APISession apiSession = getEngineSession();
+        final BulkDeleteExecutor executor = BulkDeleteExecutor.get(apiSession.getTenantId());
+        final BulkDeleteJob job = executor != null ? executor.getJob(jobId) : null;
+        if (job == null || job.getOwnerId() == null || job.getOwnerId() != apiSession.getUserId()) {
+            throw new NotFoundException("Unable to find the bulk delete job " + jobId);
+        }
+        return job.toMap();
+    }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.api.system;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
+import org.bonitasoft.web.rest.server.api.resource.CommonResource;
+import org.restlet.resource.Get;
+
+/**
+ * Statistics of the cache of the dynamic permissions scripts decisions of the current tenant (size, hits, misses and hit ratio).
+ */
+public class PermissionDecisionCacheResource extends CommonResource {
+
+    @Get("json")
+    public Map<String, Object> getStatistics() {
+        final PermissionDecisionCache decisionCache = PermissionDecisionCache.get(getEngineSession().getTenantId());
+        if (decisionCache == null) {
+            return Collections.emptyMap();
+        }
+        return decisionCache.getStatistics();
+    }
+
+}
@@ -30,8 +30,9 @@ import org.bonitasoft.web.rest.server.datastore.CommonDatastore;
 import org.bonitasoft.web.rest.server.engineclient.EngineAPIAccessor;
 import org.bonitasoft.web.rest.server.engineclient.EngineClientFactory;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasAdd;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasBulkGet;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasCount;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
-import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.rest.server.framework.utils.SearchOptionsBuilderUtil;
@@ -39,6 +40,7 @@ import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.util.MapUtil;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,8 +48,8 @@ import java.util.Map;
  * @author Séverin Moussel
  * @author Celine Souchet
  */
-public class CaseDatastore extends CommonDatastore<CaseItem, ProcessInstance> implements DatastoreHasGet<CaseItem>, DatastoreHasSearch<CaseItem>,
-DatastoreHasDelete, DatastoreHasAdd<CaseItem> {
+public class CaseDatastore extends CommonDatastore<CaseItem, ProcessInstance> implements DatastoreHasBulkGet<CaseItem>, DatastoreHasSearch<CaseItem>,
+DatastoreHasDelete, DatastoreHasAdd<CaseItem>, DatastoreHasCount {
 
     public CaseDatastore(final APISession engineSession) {
         super(engineSession);
@@ -58,8 +60,14 @@ DatastoreHasDelete, DatastoreHasAdd<CaseItem> {
         return new CaseItemConverter().convert(item);
     }
 
+    @Override
     public long count(final String search, final String orders, final Map<String, String> filters) {
-        return search(0, 0, search, orders, filters).getTotal();
+        try {
+            final SearchOptionsBuilder builder = buildSearchOptions(0, 0, search, orders, filters);
+            return searchProcessInstances(filters, builder.done()).getCount();
+        } catch (final Exception e) {
+            throw new APIException(e);
+        }
     }
 
     /**
@@ -147,6 +155,28 @@ DatastoreHasDelete, DatastoreHasAdd<CaseItem> {
         }
     }
 
+    @Override
+    public Map<APIID, CaseItem> getAll(final List<APIID> ids) {
+        final SearchOptionsBuilder builder = new SearchOptionsBuilder(0, ids.size());
+        builder.leftParenthesis();
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                builder.or();
+            }
+            builder.filter(ProcessInstanceSearchDescriptor.ID, ids.get(i).toLong());
+        }
+        builder.rightParenthesis();
+        try {
+            final Map<APIID, CaseItem> cases = new HashMap<APIID, CaseItem>();
+            for (final ProcessInstance processInstance : getProcessAPI().searchProcessInstances(builder.done()).getResult()) {
+                cases.put(APIID.makeAPIID(processInstance.getId()), convertEngineToConsoleItem(processInstance));
+            }
+            return cases;
+        } catch (final Exception e) {
+            throw new APIException(e);
+        }
+    }
+
     @Override
     public void delete(final List<APIID> ids) {
         try {
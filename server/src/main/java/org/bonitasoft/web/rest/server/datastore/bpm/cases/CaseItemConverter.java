@@ -17,6 +17,7 @@ package org.bonitasoft.web.rest.server.datastore.bpm.cases;
 import org.bonitasoft.engine.bpm.process.ProcessInstance;
 import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
 import org.bonitasoft.web.rest.server.datastore.converter.ItemConverter;
+import org.bonitasoft.web.rest.server.framework.FieldSelection;
 
 public class CaseItemConverter extends ItemConverter<CaseItem, ProcessInstance> {
 
@@ -24,14 +25,30 @@ public class CaseItemConverter extends ItemConverter<CaseItem, ProcessInstance>
     public CaseItem convert(final ProcessInstance process) {
         final CaseItem item = new CaseItem();
         item.setId(process.getId());
-        item.setLastUpdateDate(process.getLastUpdate());
-        item.setState(process.getState());
-        item.setStartDate(process.getStartDate());
-        item.setEndDate(process.getEndDate());
-        item.setProcessId(process.getProcessDefinitionId());
-        item.setRootCaseId(process.getRootProcessInstanceId());
-        item.setStartedByUserId(process.getStartedBy());
-        item.setStartedBySubstituteUserId(process.getStartedBySubstitute());
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_LAST_UPDATE_DATE)) {
+            item.setLastUpdateDate(process.getLastUpdate());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_STATE)) {
+            item.setState(process.getState());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_START_DATE)) {
+            item.setStartDate(process.getStartDate());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_END_DATE)) {
+            item.setEndDate(process.getEndDate());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_PROCESS_ID)) {
+            item.setProcessId(process.getProcessDefinitionId());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_ROOT_CASE_ID)) {
+            item.setRootCaseId(process.getRootProcessInstanceId());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_STARTED_BY_USER_ID)) {
+            item.setStartedByUserId(process.getStartedBy());
+        }
+        if (FieldSelection.isRequested(CaseItem.ATTRIBUTE_STARTED_BY_SUBSTITUTE_USER_ID)) {
+            item.setStartedBySubstituteUserId(process.getStartedBySubstitute());
+        }
         return item;
     }
 
@@ -43,6 +43,7 @@ import org.bonitasoft.web.rest.server.datastore.utils.VariablesMapper;
 import org.bonitasoft.web.rest.server.engineclient.ActivityEngineClient;
 import org.bonitasoft.web.rest.server.engineclient.EngineAPIAccessor;
 import org.bonitasoft.web.rest.server.engineclient.EngineClientFactory;
+import org.bonitasoft.web.rest.server.framework.FieldSelection;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasUpdate;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
@@ -73,8 +74,12 @@ public class AbstractActivityDatastore<CONSOLE_ITEM extends ActivityItem, ENGINE
     protected static ActivityItem fillConsoleItem(final ActivityItem result, final ActivityInstance item) {
         FlowNodeDatastore.fillConsoleItem(result, item);
 
-        result.setReachStateDate(item.getReachedStateDate());
-        result.setLastUpdateDate(item.getLastUpdateDate());
+        if (FieldSelection.isRequested(ActivityItem.ATTRIBUTE_REACHED_STATE_DATE)) {
+            result.setReachStateDate(item.getReachedStateDate());
+        }
+        if (FieldSelection.isRequested(ActivityItem.ATTRIBUTE_LAST_UPDATE_DATE)) {
+            result.setLastUpdateDate(item.getLastUpdateDate());
+        }
 
         return result;
     }
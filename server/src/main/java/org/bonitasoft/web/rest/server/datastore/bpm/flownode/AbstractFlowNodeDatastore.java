@@ -28,6 +28,8 @@ import org.bonitasoft.web.rest.model.bpm.flownode.FlowNodeDefinition;
 import org.bonitasoft.web.rest.model.bpm.flownode.FlowNodeItem;
 import org.bonitasoft.web.rest.model.bpm.flownode.TaskItem;
 import org.bonitasoft.web.rest.server.datastore.CommonDatastore;
+import org.bonitasoft.web.rest.server.framework.FieldSelection;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasCount;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasUpdate;
@@ -45,7 +47,8 @@ public class AbstractFlowNodeDatastore<CONSOLE_ITEM extends FlowNodeItem, ENGINE
         extends CommonDatastore<CONSOLE_ITEM, ENGINE_ITEM>
         implements DatastoreHasSearch<CONSOLE_ITEM>,
         DatastoreHasGet<CONSOLE_ITEM>,
-        DatastoreHasUpdate<CONSOLE_ITEM> {
+        DatastoreHasUpdate<CONSOLE_ITEM>,
+        DatastoreHasCount {
 
     private DatastoreHasUpdate<FlowNodeItem> updateHelper;
 
@@ -64,18 +67,42 @@ public class AbstractFlowNodeDatastore<CONSOLE_ITEM extends FlowNodeItem, ENGINE
      */
     protected static FlowNodeItem fillConsoleItem(final FlowNodeItem result, final FlowNodeInstance item) {
         result.setId(item.getId());
-        result.setName(item.getName());
-        result.setDisplayName(item.getDisplayName());
-        result.setDescription(item.getDescription());
-        result.setDisplayDescription(item.getDisplayDescription());
-        result.setExecutedByUserId(item.getExecutedBy());
-        result.setRootCaseId(item.getRootContainerId());
-        result.setParentCaseId(item.getParentProcessInstanceId());
-        result.setProcessId(item.getProcessDefinitionId());
-        result.setState(item.getState());
-        result.setType(item.getType().name());
-        result.setRootContainerId(item.getRootContainerId());
-        result.setExecutedBySubstituteUserId(item.getExecutedBySubstitute());
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_NAME)) {
+            result.setName(item.getName());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_DISPLAY_NAME)) {
+            result.setDisplayName(item.getDisplayName());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_DESCRIPTION)) {
+            result.setDescription(item.getDescription());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_DISPLAY_DESCRIPTION)) {
+            result.setDisplayDescription(item.getDisplayDescription());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_EXECUTED_BY_USER_ID)) {
+            result.setExecutedByUserId(item.getExecutedBy());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_ROOT_CASE_ID) || FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_CASE_ID)) {
+            result.setRootCaseId(item.getRootContainerId());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID)) {
+            result.setParentCaseId(item.getParentProcessInstanceId());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_PROCESS_ID)) {
+            result.setProcessId(item.getProcessDefinitionId());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_STATE)) {
+            result.setState(item.getState());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_TYPE)) {
+            result.setType(item.getType().name());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID)) {
+            result.setRootContainerId(item.getRootContainerId());
+        }
+        if (FieldSelection.isRequested(FlowNodeItem.ATTRIBUTE_EXECUTED_BY_SUBSTITUTE_USER_ID)) {
+            result.setExecutedBySubstituteUserId(item.getExecutedBySubstitute());
+        }
         return result;
     }
 
@@ -93,8 +120,9 @@ public class AbstractFlowNodeDatastore<CONSOLE_ITEM extends FlowNodeItem, ENGINE
         return (CONSOLE_ITEM) FlowNodeConverter.convertEngineToConsoleItem(item);
     }
 
+    @Override
     public long count(final String search, final String orders, final Map<String, String> filters) {
-        return search(0, 0, search, orders, filters).getTotal();
+        return runSearch(makeSearchOptionBuilder(0, 0, search, orders, filters), filters).getCount();
     }
 
     @Override
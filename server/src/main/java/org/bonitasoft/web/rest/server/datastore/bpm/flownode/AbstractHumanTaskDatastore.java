@@ -29,6 +29,7 @@ import org.bonitasoft.engine.search.SearchResult;
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.model.bpm.flownode.HumanTaskDefinition;
 import org.bonitasoft.web.rest.model.bpm.flownode.HumanTaskItem;
+import org.bonitasoft.web.rest.server.framework.FieldSelection;
 import org.bonitasoft.web.rest.server.framework.utils.SearchOptionsBuilderUtil;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
@@ -58,11 +59,21 @@ public class AbstractHumanTaskDatastore<CONSOLE_ITEM extends HumanTaskItem, ENGI
     protected static final HumanTaskItem fillConsoleItem(final HumanTaskItem result, final HumanTaskInstance item) {
         TaskDatastore.fillConsoleItem(result, item);
 
-        result.setActorId(APIID.makeAPIID(item.getActorId()));
-        result.setAssignedId(APIID.makeAPIID(item.getAssigneeId()));
-        result.setAssignedDate(item.getClaimedDate());
-        result.setPriority(item.getPriority() != null ? item.getPriority().toString().toLowerCase() : null);
-        result.setDueDate(item.getExpectedEndDate());
+        if (FieldSelection.isRequested(HumanTaskItem.ATTRIBUTE_ACTOR_ID)) {
+            result.setActorId(APIID.makeAPIID(item.getActorId()));
+        }
+        if (FieldSelection.isRequested(HumanTaskItem.ATTRIBUTE_ASSIGNED_USER_ID)) {
+            result.setAssignedId(APIID.makeAPIID(item.getAssigneeId()));
+        }
+        if (FieldSelection.isRequested(HumanTaskItem.ATTRIBUTE_ASSIGNED_DATE)) {
+            result.setAssignedDate(item.getClaimedDate());
+        }
+        if (FieldSelection.isRequested(HumanTaskItem.ATTRIBUTE_PRIORITY)) {
+            result.setPriority(item.getPriority() != null ? item.getPriority().toString().toLowerCase() : null);
+        }
+        if (FieldSelection.isRequested(HumanTaskItem.ATTRIBUTE_DUE_DATE)) {
+            result.setDueDate(item.getExpectedEndDate());
+        }
         return result;
     }
 
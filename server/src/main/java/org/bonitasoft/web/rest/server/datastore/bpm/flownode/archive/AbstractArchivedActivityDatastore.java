@@ -60,6 +60,17 @@ public class AbstractArchivedActivityDatastore<CONSOLE_ITEM extends ArchivedActi
         return new ArchivedActivitySearchDescriptorConverter();
     }
 
+    /**
+     * The case id of the archived activities is searched on their parent process instance
+     */
+    @Override
+    protected long getCursorKey(final String attribute, final ENGINE_ITEM item) {
+        if (ArchivedActivityItem.ATTRIBUTE_CASE_ID.equals(attribute)) {
+            return item.getProcessInstanceId();
+        }
+        return super.getCursorKey(attribute, item);
+    }
+
     @Override
     protected SearchResult<ENGINE_ITEM> runSearch(final SearchOptionsCreator creator, final Map<String, String> filters) {
         try {
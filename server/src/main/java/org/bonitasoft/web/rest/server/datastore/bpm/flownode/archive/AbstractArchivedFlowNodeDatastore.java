@@ -14,11 +14,16 @@
  */
 package org.bonitasoft.web.rest.server.datastore.bpm.flownode.archive;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.bonitasoft.engine.api.ProcessAPI;
 import org.bonitasoft.engine.api.TenantAPIAccessor;
 import org.bonitasoft.engine.bpm.flownode.ArchivedFlowNodeInstance;
+import org.bonitasoft.engine.search.Order;
+import org.bonitasoft.engine.search.SearchOptionsBuilder;
 import org.bonitasoft.engine.search.SearchResult;
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.model.bpm.flownode.ArchivedFlowNodeItem;
@@ -29,11 +34,17 @@ import org.bonitasoft.web.rest.server.datastore.converter.AttributeConverter;
 import org.bonitasoft.web.rest.server.datastore.converter.EmptyAttributeConverter;
 import org.bonitasoft.web.rest.server.datastore.filter.Filters;
 import org.bonitasoft.web.rest.server.datastore.utils.SearchOptionsCreator;
+import org.bonitasoft.web.rest.server.datastore.utils.Sort;
 import org.bonitasoft.web.rest.server.datastore.utils.Sorts;
+import org.bonitasoft.web.rest.server.framework.FieldSelection;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasCursorSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
+import org.bonitasoft.web.rest.server.framework.search.ItemCursorSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchCursor;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIMethodNotAllowedException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 
 /**
@@ -42,9 +53,27 @@ import org.bonitasoft.web.toolkit.client.data.APIID;
 public class AbstractArchivedFlowNodeDatastore<CONSOLE_ITEM extends ArchivedFlowNodeItem, ENGINE_ITEM extends ArchivedFlowNodeInstance>
         extends CommonDatastore<CONSOLE_ITEM, ENGINE_ITEM> implements
         DatastoreHasGet<CONSOLE_ITEM>,
-        DatastoreHasSearch<CONSOLE_ITEM>
+        DatastoreHasSearch<CONSOLE_ITEM>,
+        DatastoreHasCursorSearch<CONSOLE_ITEM>
 {
 
+    /**
+     * Attributes a cursor search can be sorted on: their values are numbers the engine can filter by range
+     */
+    static final List<String> CURSOR_ATTRIBUTES = Arrays.asList(
+            ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE,
+            ArchivedFlowNodeItem.ATTRIBUTE_SOURCE_OBJECT_ID,
+            ArchivedFlowNodeItem.ATTRIBUTE_CASE_ID,
+            ArchivedFlowNodeItem.ATTRIBUTE_PROCESS_ID);
+
+    /**
+     * Attributes breaking the ties of the sorted attribute of a cursor search, in this order. The engine has no search key for the id of an
+     * archived flow node: an archived flow node is identified by the flow node it archives and its archive date.
+     */
+    static final List<String> CURSOR_TIE_BREAKERS = Arrays.asList(
+            ArchivedFlowNodeItem.ATTRIBUTE_SOURCE_OBJECT_ID,
+            ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE);
+
     public AbstractArchivedFlowNodeDatastore(final APISession engineSession) {
         super(engineSession);
     }
@@ -60,20 +89,48 @@ public class AbstractArchivedFlowNodeDatastore<CONSOLE_ITEM extends ArchivedFlow
      */
     public static final ArchivedFlowNodeItem fillConsoleItem(final ArchivedFlowNodeItem result, final ArchivedFlowNodeInstance item) {
         result.setId(item.getId());
-        result.setName(item.getName());
-        result.setDisplayName(item.getDisplayName());
-        result.setDescription(item.getDescription());
-        result.setDisplayDescription(item.getDisplayDescription());
-        result.setExecutedByUserId(item.getExecutedBy());
-        result.setRootCaseId(item.getRootContainerId());
-        result.setParentCaseId(item.getProcessInstanceId());
-        result.setProcessId(item.getProcessDefinitionId());
-        result.setState(item.getState());
-        result.setType(item.getType().name());
-        result.setArchivedDate(item.getArchiveDate());
-        result.setSourceObjectId(item.getSourceObjectId());
-        result.setRootContainerId(item.getRootContainerId());
-        result.setExecutedBySubstituteUserId(item.getExecutedBySubstitute());
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_NAME)) {
+            result.setName(item.getName());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_DISPLAY_NAME)) {
+            result.setDisplayName(item.getDisplayName());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_DESCRIPTION)) {
+            result.setDescription(item.getDescription());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_DISPLAY_DESCRIPTION)) {
+            result.setDisplayDescription(item.getDisplayDescription());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_EXECUTED_BY_USER_ID)) {
+            result.setExecutedByUserId(item.getExecutedBy());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_ROOT_CASE_ID) || FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_CASE_ID)) {
+            result.setRootCaseId(item.getRootContainerId());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_PARENT_CASE_ID)) {
+            result.setParentCaseId(item.getProcessInstanceId());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_PROCESS_ID)) {
+            result.setProcessId(item.getProcessDefinitionId());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_STATE)) {
+            result.setState(item.getState());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_TYPE)) {
+            result.setType(item.getType().name());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE)) {
+            result.setArchivedDate(item.getArchiveDate());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_SOURCE_OBJECT_ID)) {
+            result.setSourceObjectId(item.getSourceObjectId());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_ROOT_CONTAINER_ID)) {
+            result.setRootContainerId(item.getRootContainerId());
+        }
+        if (FieldSelection.isRequested(ArchivedFlowNodeItem.ATTRIBUTE_EXECUTED_BY_SUBSTITUTE_USER_ID)) {
+            result.setExecutedBySubstituteUserId(item.getExecutedBySubstitute());
+        }
         return result;
     }
 
@@ -154,6 +211,123 @@ public class AbstractArchivedFlowNodeDatastore<CONSOLE_ITEM extends ArchivedFlow
         }
     }
 
+    // CURSOR SEARCH
+
+    @Override
+    public ItemCursorSearchResult<CONSOLE_ITEM> searchAfter(final ItemSearchCursor cursor, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters) {
+        final ItemSearchCursor start = cursor != null ? cursor : makeFirstCursor(orders);
+        if (!CURSOR_ATTRIBUTES.contains(start.getAttribute())) {
+            throw new APIMethodNotAllowedException("Cursor pagination can only be sorted on one of " + CURSOR_ATTRIBUTES);
+        }
+        final List<String> sortAttributes = getCursorSortAttributes(start.getAttribute());
+        if (cursor != null && cursor.getLastValues().length != sortAttributes.size()) {
+            throw new APIException("Invalid search cursor : " + cursor.toToken());
+        }
+        final List<ENGINE_ITEM> items = runSearch(makeCursorSearchOptionCreator(start, sortAttributes, cursor != null, resultsByPage, search, filters),
+                filters).getResult();
+
+        ItemSearchCursor nextCursor = null;
+        if (!items.isEmpty() && items.size() == resultsByPage) {
+            final ENGINE_ITEM last = items.get(items.size() - 1);
+            final long[] lastValues = new long[sortAttributes.size()];
+            for (int i = 0; i < lastValues.length; i++) {
+                lastValues[i] = getCursorKey(sortAttributes.get(i), last);
+            }
+            nextCursor = new ItemSearchCursor(start.getAttribute(), start.isDescending(), lastValues);
+        }
+        return new ItemCursorSearchResult<CONSOLE_ITEM>(convertEngineToConsoleItemsList(items), nextCursor);
+    }
+
+    /**
+     * Get the cursor of the first page: a cursor search can only be sorted on one of the {@link #CURSOR_ATTRIBUTES}, by archived date by
+     * default.
+     */
+    private ItemSearchCursor makeFirstCursor(final String orders) {
+        if (orders == null || orders.length() == 0) {
+            return new ItemSearchCursor(ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE, false);
+        }
+        final String attribute = orders.trim().split(" ")[0];
+        if (orders.contains(",") || !CURSOR_ATTRIBUTES.contains(attribute)) {
+            throw new APIMethodNotAllowedException("Cursor pagination can only be sorted on one of " + CURSOR_ATTRIBUTES);
+        }
+        return new ItemSearchCursor(attribute, Order.DESC.equals(new Sort(orders).getOrder()));
+    }
+
+    /**
+     * @return the attribute of the cursor followed by the {@link #CURSOR_TIE_BREAKERS} it is not one of
+     */
+    private List<String> getCursorSortAttributes(final String attribute) {
+        final List<String> sortAttributes = new ArrayList<String>();
+        sortAttributes.add(attribute);
+        for (final String tieBreaker : CURSOR_TIE_BREAKERS) {
+            if (!tieBreaker.equals(attribute)) {
+                sortAttributes.add(tieBreaker);
+            }
+        }
+        return sortAttributes;
+    }
+
+    /**
+     * Items are sorted by the cursor attribute then by the attributes breaking its ties, so that the items sharing a sort key always come in
+     * the same order. The page following a cursor is then the first page of the items whose sort keys come after the ones of the last item:
+     * (key1 after last1) or (key1 = last1 and key2 after last2) or (key1 = last1 and key2 = last2 and key3 after last3).
+     */
+    private SearchOptionsCreator makeCursorSearchOptionCreator(final ItemSearchCursor cursor, final List<String> sortAttributes,
+            final boolean afterCursor, final int resultsByPage, final String search, final Map<String, String> filters) {
+        final SearchOptionsCreator creator = makeSearchOptionCreator(0, resultsByPage, search,
+                cursor.getAttribute() + (cursor.isDescending() ? " DESC" : " ASC"), filters);
+        final SearchOptionsBuilder builder = creator.getBuilder();
+        final ArchivedFlowNodeSearchDescriptorConverter converter = getSearchDescriptorConverter();
+        final List<String> fields = new ArrayList<String>();
+        for (final String sortAttribute : sortAttributes) {
+            fields.add(converter.convert(sortAttribute));
+        }
+        for (final String tieBreakerField : fields.subList(1, fields.size())) {
+            builder.sort(tieBreakerField, cursor.isDescending() ? Order.DESC : Order.ASC);
+        }
+        if (afterCursor) {
+            final long[] lastValues = cursor.getLastValues();
+            builder.leftParenthesis();
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    builder.or();
+                }
+                builder.leftParenthesis();
+                for (int j = 0; j < i; j++) {
+                    builder.filter(fields.get(j), lastValues[j]);
+                }
+                addAfter(builder, fields.get(i), lastValues[i], cursor.isDescending());
+                builder.rightParenthesis();
+            }
+            builder.rightParenthesis();
+        }
+        return creator;
+    }
+
+    private void addAfter(final SearchOptionsBuilder builder, final String field, final long value, final boolean descending) {
+        if (descending) {
+            builder.lessThan(field, value);
+        } else {
+            builder.greaterThan(field, value);
+        }
+    }
+
+    /**
+     * @return the value of one of the {@link #CURSOR_ATTRIBUTES} of an item, as the engine filters it
+     */
+    protected long getCursorKey(final String attribute, final ENGINE_ITEM item) {
+        if (ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE.equals(attribute)) {
+            return item.getArchiveDate().getTime();
+        } else if (ArchivedFlowNodeItem.ATTRIBUTE_CASE_ID.equals(attribute)) {
+            return item.getRootContainerId();
+        } else if (ArchivedFlowNodeItem.ATTRIBUTE_PROCESS_ID.equals(attribute)) {
+            return item.getProcessDefinitionId();
+        }
+        // ArchivedFlowNodeItem.ATTRIBUTE_SOURCE_OBJECT_ID
+        return item.getSourceObjectId();
+    }
+
     protected SearchOptionsCreator makeSearchOptionCreator(final int page, final int resultsByPage, final String search, final String orders,
             final Map<String, String> filters) {
         return new SearchOptionsCreator(page,
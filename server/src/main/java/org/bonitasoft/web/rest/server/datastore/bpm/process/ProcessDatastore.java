@@ -18,6 +18,7 @@ package org.bonitasoft.web.rest.server.datastore.bpm.process;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -51,8 +52,8 @@ import org.bonitasoft.web.rest.server.engineclient.EngineAPIAccessor;
 import org.bonitasoft.web.rest.server.engineclient.EngineClientFactory;
 import org.bonitasoft.web.rest.server.engineclient.ProcessEngineClient;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasAdd;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasBulkGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
-import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasUpdate;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
@@ -69,7 +70,7 @@ import org.bonitasoft.web.toolkit.client.data.APIID;
 public class ProcessDatastore extends CommonDatastore<ProcessItem, ProcessDeploymentInfo> implements
 DatastoreHasAdd<ProcessItem>,
 DatastoreHasUpdate<ProcessItem>,
-DatastoreHasGet<ProcessItem>,
+DatastoreHasBulkGet<ProcessItem>,
 DatastoreHasSearch<ProcessItem>,
 DatastoreHasDelete
 {
@@ -181,6 +182,15 @@ DatastoreHasDelete
         return convertEngineToConsoleItem(processDeploymentInfo);
     }
 
+    @Override
+    public Map<APIID, ProcessItem> getAll(final List<APIID> ids) {
+        final Map<APIID, ProcessItem> processes = new HashMap<APIID, ProcessItem>();
+        for (final ProcessDeploymentInfo processDeploymentInfo : getProcessEngineClient().getProcessDeploymentInfos(APIID.toLongList(ids)).values()) {
+            processes.put(APIID.makeAPIID(processDeploymentInfo.getProcessId()), convertEngineToConsoleItem(processDeploymentInfo));
+        }
+        return processes;
+    }
+
     @Override
     public void delete(final List<APIID> ids) {
         for (final APIID id : ids) {
@@ -17,6 +17,7 @@ package org.bonitasoft.web.rest.server.datastore.organization;
 import org.bonitasoft.engine.identity.User;
 import org.bonitasoft.web.rest.model.identity.UserItem;
 import org.bonitasoft.web.rest.server.datastore.converter.ItemConverter;
+import org.bonitasoft.web.rest.server.framework.FieldSelection;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 
 public class UserItemConverter extends ItemConverter<UserItem, User> {
@@ -29,24 +30,49 @@ public class UserItemConverter extends ItemConverter<UserItem, User> {
 
         final UserItem result = new UserItem();
         result.setId(APIID.makeAPIID(user.getId()));
-        result.setFirstName(user.getFirstName());
-        result.setLastName(user.getLastName());
-        result.setPassword(user.getPassword());
-        result.setUserName(user.getUserName());
-        result.setManagerId(user.getManagerUserId());
-        result.setEnabled(user.isEnabled());
-
-        // Add default icon if icon if empty
-        final String iconPath = user.getIconPath();
-        result.setIcon(iconPath == null || iconPath.isEmpty() ? UserItem.DEFAULT_USER_ICON : iconPath);
-
-        result.setCreationDate(user.getCreationDate());
-        result.setCreatedByUserId(user.getCreatedBy());
-        result.setLastUpdateDate(user.getLastUpdate());
-        result.setLastConnectionDate(user.getLastConnection());
-        result.setTitle(user.getTitle());
-        result.setJobTitle(user.getJobTitle());
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_FIRSTNAME)) {
+            result.setFirstName(user.getFirstName());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_LASTNAME)) {
+            result.setLastName(user.getLastName());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_PASSWORD)) {
+            result.setPassword(user.getPassword());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_USERNAME)) {
+            result.setUserName(user.getUserName());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_MANAGER_ID)) {
+            result.setManagerId(user.getManagerUserId());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_ENABLED)) {
+            result.setEnabled(user.isEnabled());
+        }
+
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_ICON)) {
+            // Add default icon if icon if empty
+            final String iconPath = user.getIconPath();
+            result.setIcon(iconPath == null || iconPath.isEmpty() ? UserItem.DEFAULT_USER_ICON : iconPath);
+        }
 
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_CREATION_DATE)) {
+            result.setCreationDate(user.getCreationDate());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_CREATED_BY_USER_ID)) {
+            result.setCreatedByUserId(user.getCreatedBy());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_LAST_UPDATE_DATE)) {
+            result.setLastUpdateDate(user.getLastUpdate());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_LAST_CONNECTION_DATE)) {
+            result.setLastConnectionDate(user.getLastConnection());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_TITLE)) {
+            result.setTitle(user.getTitle());
+        }
+        if (FieldSelection.isRequested(UserItem.ATTRIBUTE_JOB_TITLE)) {
+            result.setJobTitle(user.getJobTitle());
+        }
 
         return result;
     }
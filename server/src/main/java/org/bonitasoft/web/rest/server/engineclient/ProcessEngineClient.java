@@ -15,6 +15,7 @@
 package org.bonitasoft.web.rest.server.engineclient;
 
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -69,6 +70,14 @@ public class ProcessEngineClient {
         }
     }
 
+    public Map<Long, ProcessDeploymentInfo> getProcessDeploymentInfos(final List<Long> processIds) {
+        try {
+            return getProcessApi().getProcessDeploymentInfosFromIds(processIds);
+        } catch (final Exception e) {
+            throw new APIException("Error when getting process deployment information", e);
+        }
+    }
+
     public ProcessAPI getProcessApi() {
         return processAPI;
     }
@@ -26,6 +26,7 @@ import org.bonitasoft.web.toolkit.client.common.i18n._;
 import org.bonitasoft.web.toolkit.client.common.texttemplate.Arg;
 
 import java.util.List;
+import java.util.Map;
 
 public class UserEngineClient {
 
@@ -64,6 +65,10 @@ public class UserEngineClient {
         }
     }
     
+    public Map<Long, User> getUsers(List<Long> userIds) {
+        return identityAPI.getUsers(userIds);
+    }
+    
     public void delete(List<Long> userIds) {
         try {
             identityAPI.deleteUsers(userIds);
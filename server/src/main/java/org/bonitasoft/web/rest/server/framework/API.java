@@ -18,9 +18,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.http.HttpSession;
 
@@ -28,6 +32,7 @@ import org.bonitasoft.console.common.server.utils.UnauthorizedFolderException;
 import org.bonitasoft.web.rest.server.framework.api.APIHasFiles;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasAdd;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasCursorSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
@@ -35,7 +40,11 @@ import org.bonitasoft.web.rest.server.framework.api.DatastoreHasUpdate;
 import org.bonitasoft.web.rest.server.framework.exception.APIAttributeException;
 import org.bonitasoft.web.rest.server.framework.exception.APIFileUploadNotFoundException;
 import org.bonitasoft.web.rest.server.framework.exception.ForbiddenAttributesException;
+import org.bonitasoft.web.rest.server.framework.search.ItemCursorSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchCursor;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.utils.BulkDeleteExecutor;
+import org.bonitasoft.web.rest.server.framework.utils.BulkDeleteJob;
 import org.bonitasoft.web.rest.server.framework.utils.FilePathBuilder;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIForbiddenException;
@@ -61,6 +70,18 @@ public abstract class API<ITEM extends IItem> {
 
     private final Map<String, Deployer> deployers = new HashMap<String, Deployer>();
 
+    private boolean deployersDefined = false;
+
+    /**
+     * Attributes of type file or image of each item definition, indexed by item definition token. Item definitions never change once defined.
+     */
+    private static final ConcurrentMap<String, List<String>> FILE_ATTRIBUTES = new ConcurrentHashMap<String, List<String>>();
+
+    /**
+     * Items waiting for a {@link BulkDeployer} to deploy an attribute, indexed by attribute. Only set while filling the deploys of a whole page.
+     */
+    private Map<String, List<ITEM>> pendingBulkDeploys = null;
+
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // CONSTRUCTORS
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -153,7 +174,9 @@ public abstract class API<ITEM extends IItem> {
         }
 
         // Run specific implementation
-        return add((ITEM) item);
+        final ITEM addedItem = add((ITEM) item);
+        invalidateTotals();
+        return addedItem;
     }
 
     @SuppressWarnings("unchecked")
@@ -188,7 +211,9 @@ public abstract class API<ITEM extends IItem> {
         }
 
         // Run specific implementation
-        return this.update(id, attributes);
+        final ITEM updatedItem = this.update(id, attributes);
+        invalidateTotals();
+        return updatedItem;
     }
 
     @SuppressWarnings("unchecked")
@@ -204,6 +229,14 @@ public abstract class API<ITEM extends IItem> {
     }
 
     public ITEM runGet(final APIID id, final List<String> deploys, final List<String> counters) {
+        return runGet(id, deploys, counters, null);
+    }
+
+    /**
+     * @param fields
+     *            the attributes to return, all of them if null or empty
+     */
+    public ITEM runGet(final APIID id, final List<String> deploys, final List<String> counters, final List<String> fields) {
         // FIXME Activate at end of APIs refactoring
         // if (!(this instanceof APIHasGet)) {
         // throw new APIMethodNotAllowedException("GET method not allowed.");
@@ -211,13 +244,22 @@ public abstract class API<ITEM extends IItem> {
 
         id.setItemDefinition(getItemDefinition());
 
-        final ITEM item = get(id);
+        final FieldSelection selection = makeFieldSelection(fields);
+        final ITEM item;
+        selection.bind();
+        try {
+            item = get(id);
+        } finally {
+            selection.unbind();
+        }
         if (item == null) {
             throw new APIItemNotFoundException(getItemDefinition().getToken(), id);
         }
 
-        fillDeploys(item, deploys != null ? deploys : new ArrayList<String>());
-        fillCounters(item, counters != null ? counters : new ArrayList<String>());
+        final List<String> requestedCounters = counters != null ? counters : new ArrayList<String>();
+        fillDeploys(item, selection.filterDeploys(deploys != null ? deploys : new ArrayList<String>()));
+        fillCounters(item, requestedCounters);
+        selection.applyTo(Collections.singletonList(item), requestedCounters);
 
         return item;
     }
@@ -235,33 +277,192 @@ public abstract class API<ITEM extends IItem> {
 
     public ItemSearchResult<ITEM> runSearch(final int page, final int resultsByPage, final String search, final String orders,
             final Map<String, String> filters, final List<String> deploys, final List<String> counters) {
+        return runSearch(page, resultsByPage, search, orders, filters, deploys, counters, null);
+    }
+
+    /**
+     * @param fields
+     *            the attributes to return, all of them if null or empty
+     */
+    public ItemSearchResult<ITEM> runSearch(final int page, final int resultsByPage, final String search, final String orders,
+            final Map<String, String> filters, final List<String> deploys, final List<String> counters, final List<String> fields) {
 
         // FIXME Activate at end of APIs refactoring
         // if (!(this instanceof APIHasSearch)) {
         // throw new APIMethodNotAllowedException("SEARCH method not allowed.");
         // }
 
-        String realOrders = orders;
-        if (orders == null || orders.length() == 0) {
-            realOrders = defineDefaultSearchOrder();
-
-            // TODO remove this test and exception while the automated unit test over all APis
-            if (realOrders == null) {
-                throw new APIException("No default search order defined. Please, override the defineDefaultSearchOrder method in " + this.getClass().toString()
-                        + ".");
-            }
+        final String searchOrders = getSearchOrders(orders);
+        final FieldSelection selection = makeFieldSelection(fields);
+        final ItemSearchResult<ITEM> searchResult;
+        selection.bind();
+        try {
+            searchResult = search(page, resultsByPage, search, searchOrders, filters != null ? filters : new HashMap<String, String>());
+        } finally {
+            selection.unbind();
         }
 
-        final ItemSearchResult<ITEM> searchResult = search(page, resultsByPage, search, realOrders, filters != null ? filters : new HashMap<String, String>());
+        final List<String> requestedCounters = counters != null ? counters : new ArrayList<String>();
+        fillDeploys(searchResult.getResults(), selection.filterDeploys(deploys != null ? deploys : new ArrayList<String>()));
+        fillCounters(searchResult.getResults(), requestedCounters);
+        selection.applyTo(searchResult.getResults(), requestedCounters);
+
+        return searchResult;
+    }
 
-        for (final ITEM item : searchResult.getResults()) {
-            fillDeploys(item, deploys != null ? deploys : new ArrayList<String>());
-            fillCounters(item, counters != null ? counters : new ArrayList<String>());
+    /**
+     * Make the selection of the attributes to return. Without fields, all attributes are selected.
+     */
+    private FieldSelection makeFieldSelection(final List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return FieldSelection.ALL;
         }
+        return new FieldSelection(fields);
+    }
+
+    /**
+     * Search items page after page with a cursor instead of a page index.
+     *
+     * @param cursor
+     *            the token of the cursor returned with the previous page or an empty string to get the first page
+     * @param orders
+     *            the sort of the first page, ignored afterwards as the cursor keeps it. Datastores choose it when null.
+     * @param fields
+     *            the attributes to return, all of them if null or empty
+     */
+    public ItemCursorSearchResult<ITEM> runCursorSearch(final String cursor, final int resultsByPage, final String search, final String orders,
+            final Map<String, String> filters, final List<String> deploys, final List<String> counters, final List<String> fields) {
+        final ItemSearchCursor searchCursor = cursor.length() > 0 ? ItemSearchCursor.fromToken(cursor) : null;
+        final FieldSelection selection = makeFieldSelection(fields);
+        final ItemCursorSearchResult<ITEM> searchResult;
+        selection.bind();
+        try {
+            searchResult = searchAfter(searchCursor, resultsByPage, search, orders, filters != null ? filters : new HashMap<String, String>());
+        } finally {
+            selection.unbind();
+        }
+
+        final List<String> requestedCounters = counters != null ? counters : new ArrayList<String>();
+        fillDeploys(searchResult.getResults(), selection.filterDeploys(deploys != null ? deploys : new ArrayList<String>()));
+        fillCounters(searchResult.getResults(), requestedCounters);
+        selection.applyTo(searchResult.getResults(), requestedCounters);
 
         return searchResult;
     }
 
+    /**
+     * Search the page following a cursor. Only APIs whose default datastore supports it can be searched with a cursor.
+     *
+     * @param cursor
+     *            the cursor returned with the previous page, null to get the first page
+     */
+    @SuppressWarnings("unchecked")
+    public ItemCursorSearchResult<ITEM> searchAfter(final ItemSearchCursor cursor, final int resultsByPage, final String search, final String orders,
+            final Map<String, String> filters) {
+        final Datastore datastore = getDefaultDatastore();
+
+        if (!(datastore instanceof DatastoreHasCursorSearch<?>)) {
+            throw new APIMethodNotAllowedException("Cursor pagination is not supported by " + getItemDefinition().getToken()
+                    + ". Use page (p) and count (c) parameters instead.");
+        }
+
+        return ((DatastoreHasCursorSearch<ITEM>) datastore).searchAfter(cursor, resultsByPage, search, orders, filters);
+    }
+
+    /**
+     * Count the items matching a search without retrieving them.<br>
+     * The total is read from the {@link TotalCache} of the API if it has one.
+     */
+    public long runCount(final String search, final Map<String, String> filters) {
+        final Map<String, String> realFilters = filters != null ? filters : new HashMap<String, String>();
+        final TotalCache totalCache = getTotalCache();
+        if (totalCache == null) {
+            return count(search, getSearchOrders(null), realFilters);
+        }
+
+        final String resource = getItemDefinition().getToken();
+        final Long userId = getTotalCacheUserId();
+        Long total = totalCache.get(resource, userId, search, realFilters);
+        if (total == null) {
+            total = count(search, getSearchOrders(null), realFilters);
+            totalCache.put(resource, userId, search, realFilters, total);
+        }
+        return total;
+    }
+
+    /**
+     * Count the items matching a search.<br>
+     * By default, a search of an empty page is run. Override it when a datastore can count without searching (see {@link org.bonitasoft.web.rest.server.framework.api.DatastoreHasCount}).
+     */
+    public long count(final String search, final String orders, final Map<String, String> filters) {
+        return search(0, 0, search, orders, filters).getTotal();
+    }
+
+    private String getSearchOrders(final String orders) {
+        if (orders != null && orders.length() > 0) {
+            return orders;
+        }
+        final String defaultOrders = defineDefaultSearchOrder();
+
+        // TODO remove this test and exception while the automated unit test over all APis
+        if (defaultOrders == null) {
+            throw new APIException("No default search order defined. Please, override the defineDefaultSearchOrder method in " + this.getClass().toString()
+                    + ".");
+        }
+        return defaultOrders;
+    }
+
+    /**
+     * Define how the browser may cache the responses to GET calls.
+     *
+     * @return {@link CachePolicy#NO_CACHE} by default
+     */
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.NO_CACHE;
+    }
+
+    /**
+     * Get the last update date of an item, sent as Last-Modified with the item if the API is cacheable.
+     *
+     * @return the last update date of items having one, null otherwise
+     */
+    public Date getLastModified(final IItem item) {
+        if (!(item instanceof ItemHasLastUpdateDate)) {
+            return null;
+        }
+        try {
+            return ((ItemHasLastUpdateDate) item).getLastUpdateDate();
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the cache of the totals returned by {@link #runCount(String, Map)}.
+     *
+     * @return the cache to use or null (default) to always count
+     */
+    protected TotalCache getTotalCache() {
+        return null;
+    }
+
+    /**
+     * @return the id of the user whose totals are cached, as the items a search returns may depend on the user, or null (default) if unknown
+     */
+    protected Long getTotalCacheUserId() {
+        return null;
+    }
+
+    private void invalidateTotals() {
+        if (!TotalCache.isInUse()) {
+            return;
+        }
+        final TotalCache totalCache = getTotalCache();
+        if (totalCache != null) {
+            totalCache.invalidate(getItemDefinition().getToken());
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search, final String orders, final Map<String, String> filters) {
 
@@ -291,6 +492,68 @@ public abstract class API<ITEM extends IItem> {
             id.setItemDefinition(getItemDefinition());
         }
 
+        deleteFiles(ids);
+        delete(ids);
+        invalidateTotals();
+    }
+
+    /**
+     * Delete items one by one, reporting the outcome of each deletion instead of stopping at the first failure.<br>
+     * The deletions are spread over the {@link BulkDeleteExecutor} of the API if any, otherwise they are run in the calling thread.
+     *
+     * @param async
+     *            true to return as soon as the deletions are started. The returned job can then be followed through the executor.
+     *            Ignored if the API has no executor.
+     */
+    public BulkDeleteJob runBulkDelete(final List<APIID> ids, final boolean async) {
+        for (final APIID id : ids) {
+            id.setItemDefinition(getItemDefinition());
+        }
+
+        // resolved here as the deletions may run once the call is over
+        final BulkDeleteExecutor executor = getBulkDeleteExecutor();
+        final BulkDeleteJob job = new BulkDeleteJob(ids, getBulkDeleteOwnerId(), new BulkDeleteJob.Deleter() {
+
+            @Override
+            public void delete(final APIID id) {
+                final List<APIID> singleId = Collections.singletonList(id);
+                deleteFiles(singleId);
+                API.this.delete(singleId);
+            }
+
+            @Override
+            public void done() {
+                invalidateTotals();
+            }
+        });
+
+        if (executor == null) {
+            job.run();
+        } else if (async) {
+            executor.submit(job);
+        } else {
+            executor.run(job);
+        }
+        return job;
+    }
+
+    /**
+     * Get the executor running the bulk deletes of this API.
+     *
+     * @return the executor to use or null (default) to delete in the calling thread
+     */
+    protected BulkDeleteExecutor getBulkDeleteExecutor() {
+        return null;
+    }
+
+    /**
+     * @return the id of the user running a bulk delete or null (default) if unknown
+     */
+    protected Long getBulkDeleteOwnerId() {
+        return null;
+    }
+
+    private void deleteFiles(final List<APIID> ids) {
         if (this instanceof APIHasFiles) {
             final APIHasFiles apiHasFiles = (APIHasFiles) this;
 
@@ -305,8 +568,6 @@ public abstract class API<ITEM extends IItem> {
             }
 
         }
-
-        delete(ids);
     }
 
     public void delete(final List<APIID> ids) {
@@ -520,22 +781,79 @@ public abstract class API<ITEM extends IItem> {
         return Collections.unmodifiableMap(deployers);
     }
 
+    /**
+     * Define the deployers of this API with {@link #addDeployer(Deployer)}.<br>
+     * Called once, before the first deploy, as deployers usually need the engine session which is only known once the caller is set.
+     */
+    protected void defineDeployers() {
+        // No deployer if not override
+    }
+
+    private void defineDeployersOnce() {
+        if (!deployersDefined) {
+            deployersDefined = true;
+            defineDeployers();
+        }
+    }
+
     protected void fillDeploys(final ITEM item, final List<String> deploys) {
+        defineDeployersOnce();
         for (final String attribute : deploys) {
             deployAttribute(attribute, item);
         }
     }
 
+    /**
+     * Fill the deploys of a whole page of items.<br>
+     * Attributes handled by a {@link BulkDeployer} are deployed once for all the items, other ones are deployed item by item.
+     */
+    protected void fillDeploys(final List<ITEM> items, final List<String> deploys) {
+        defineDeployersOnce();
+        pendingBulkDeploys = new HashMap<String, List<ITEM>>();
+        try {
+            for (final ITEM item : items) {
+                fillDeploys(item, deploys);
+            }
+            for (final Entry<String, List<ITEM>> pendingBulkDeploy : pendingBulkDeploys.entrySet()) {
+                ((BulkDeployer) deployers.get(pendingBulkDeploy.getKey())).deployIn(pendingBulkDeploy.getValue());
+            }
+        } finally {
+            pendingBulkDeploys = null;
+        }
+    }
+
     private void deployAttribute(final String attribute, final ITEM item) {
         if (deployers.containsKey(attribute)) {
-            deployers.get(attribute).deployIn(item);
+            final Deployer deployer = deployers.get(attribute);
+            if (pendingBulkDeploys != null && deployer instanceof BulkDeployer) {
+                addPendingBulkDeploy(attribute, item);
+            } else {
+                deployer.deployIn(item);
+            }
+        }
+    }
+
+    private void addPendingBulkDeploy(final String attribute, final ITEM item) {
+        if (!pendingBulkDeploys.containsKey(attribute)) {
+            pendingBulkDeploys.put(attribute, new ArrayList<ITEM>());
         }
+        pendingBulkDeploys.get(attribute).add(item);
     }
 
     protected void fillCounters(final ITEM item, final List<String> counters) {
         // Do Nothing if not override
     }
 
+    /**
+     * Fill the counters of a page of search results.<br>
+     * By default, counters are filled item by item. Override it to compute the counters of the whole page at once.
+     */
+    protected void fillCounters(final List<ITEM> items, final List<String> counters) {
+        for (final ITEM item : items) {
+            fillCounters(item, counters);
+        }
+    }
+
     /**
      * @param attributeName
      * @param deploys
@@ -551,16 +869,18 @@ public abstract class API<ITEM extends IItem> {
     // UPLOADS
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private List<String> getFileAttributes() {
-        final List<String> results = new ArrayList<String>();
-
-        for (final ItemAttribute attribute : getItemDefinition().getAttributes()) {
-            if (attribute.getType().equals(ItemAttribute.TYPE.IMAGE) || attribute.getType().equals(ItemAttribute.TYPE.FILE)) {
-                results.add(attribute.getName());
+    List<String> getFileAttributes() {
+        final String token = getItemDefinition().getToken();
+        if (!FILE_ATTRIBUTES.containsKey(token)) {
+            final List<String> results = new ArrayList<String>();
+            for (final ItemAttribute attribute : getItemDefinition().getAttributes()) {
+                if (attribute.getType().equals(ItemAttribute.TYPE.IMAGE) || attribute.getType().equals(ItemAttribute.TYPE.FILE)) {
+                    results.add(attribute.getName());
+                }
             }
+            FILE_ATTRIBUTES.putIfAbsent(token, Collections.unmodifiableList(results));
         }
-
-        return results;
+        return FILE_ATTRIBUTES.get(token);
     }
 
     /**
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import java.lang.reflect.Constructor;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * Create the instances of an API registered in an {@link APIRegistry}.<br>
+ * APIs are stateful (caller, engine session, deployers...) so a new instance is created for each call.
+ */
+public abstract class APICreator {
+
+    /**
+     * Create a new instance of the API
+     */
+    public abstract API<? extends IItem> create();
+
+    /**
+     * Creator of an API having a public no argument constructor. The constructor is looked up once.
+     */
+    public static APICreator of(final Class<? extends API<? extends IItem>> apiClass) {
+        final Constructor<? extends API<? extends IItem>> constructor;
+        try {
+            constructor = apiClass.getConstructor();
+        } catch (final NoSuchMethodException e) {
+            throw new APIException("No public constructor without argument in " + apiClass.getName(), e);
+        }
+        return new APICreator() {
+
+            @Override
+            public API<? extends IItem> create() {
+                try {
+                    return constructor.newInstance();
+                } catch (final Exception e) {
+                    throw new APIException("Unable to create an instance of " + apiClass.getName(), e);
+                }
+            }
+        };
+    }
+
+}
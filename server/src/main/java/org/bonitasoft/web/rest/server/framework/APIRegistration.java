@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * An API registered in an {@link APIRegistry}: its tokens, how to create it and the metadata of its instances.<br>
+ * The metadata (item definition, default search order, file attributes) is the same for all the instances of an API. It is read from the first
+ * instance created and then kept for the life of the registry.
+ */
+public class APIRegistration {
+
+    private final String apiToken;
+
+    private final String resourceToken;
+
+    private final APICreator creator;
+
+    private final AtomicLong creationCount = new AtomicLong();
+
+    private volatile boolean described = false;
+
+    private String apiClass;
+
+    private String itemDefinition;
+
+    private String defaultSearchOrder;
+
+    private List<String> fileAttributes = Collections.emptyList();
+
+    public APIRegistration(final String apiToken, final String resourceToken, final APICreator creator) {
+        this.apiToken = apiToken;
+        this.resourceToken = resourceToken;
+        this.creator = creator;
+    }
+
+    /**
+     * Create a new instance of the registered API
+     */
+    public API<? extends IItem> createAPI() {
+        final API<? extends IItem> api = creator.create();
+        creationCount.incrementAndGet();
+        if (!described) {
+            describe(api);
+        }
+        return api;
+    }
+
+    private synchronized void describe(final API<? extends IItem> api) {
+        if (described) {
+            return;
+        }
+        apiClass = api.getClass().getName();
+        if (api.getItemDefinition() != null) {
+            itemDefinition = api.getItemDefinition().getToken();
+            fileAttributes = api.getFileAttributes();
+        }
+        defaultSearchOrder = api.defineDefaultSearchOrder();
+        described = true;
+    }
+
+    public String getApiToken() {
+        return apiToken;
+    }
+
+    public String getResourceToken() {
+        return resourceToken;
+    }
+
+    public long getCreationCount() {
+        return creationCount.get();
+    }
+
+    /**
+     * @return the class name of the API or null if no instance has been created yet
+     */
+    public String getApiClass() {
+        return apiClass;
+    }
+
+    /**
+     * @return the token of the item definition of the API or null if no instance has been created yet
+     */
+    public String getItemDefinition() {
+        return itemDefinition;
+    }
+
+    public String getDefaultSearchOrder() {
+        return defaultSearchOrder;
+    }
+
+    public List<String> getFileAttributes() {
+        return fileAttributes;
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APINotFoundException;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * Registry of the APIs served by a {@link RestAPIFactory}, indexed by API token and resource token.<br>
+ * It is filled once when the factory is built and then only read, so finding the API of a call is a single map lookup.
+ */
+public class APIRegistry {
+
+    private final Map<String, APIRegistration> registrations = new HashMap<String, APIRegistration>();
+
+    private final List<APIRegistration> orderedRegistrations = new ArrayList<APIRegistration>();
+
+    public APIRegistry register(final String apiToken, final String resourceToken, final Class<? extends API<? extends IItem>> apiClass) {
+        return register(apiToken, resourceToken, APICreator.of(apiClass));
+    }
+
+    /**
+     * Register an API. Registering the same tokens twice replaces the previous registration.
+     */
+    public APIRegistry register(final String apiToken, final String resourceToken, final APICreator creator) {
+        final APIRegistration registration = new APIRegistration(apiToken, resourceToken, creator);
+        final APIRegistration previous = registrations.put(makeKey(apiToken, resourceToken), registration);
+        if (previous != null) {
+            orderedRegistrations.remove(previous);
+        }
+        orderedRegistrations.add(registration);
+        return this;
+    }
+
+    public boolean contains(final String apiToken, final String resourceToken) {
+        return registrations.containsKey(makeKey(apiToken, resourceToken));
+    }
+
+    /**
+     * Create a new instance of a registered API
+     *
+     * @throws APINotFoundException
+     *             if no API is registered for these tokens
+     */
+    public API<? extends IItem> create(final String apiToken, final String resourceToken) {
+        final APIRegistration registration = registrations.get(makeKey(apiToken, resourceToken));
+        if (registration == null) {
+            throw new APINotFoundException(apiToken, resourceToken);
+        }
+        return registration.createAPI();
+    }
+
+    /**
+     * @return the registrations in the order they have been made
+     */
+    public List<APIRegistration> getRegistrations() {
+        return new ArrayList<APIRegistration>(orderedRegistrations);
+    }
+
+    private String makeKey(final String apiToken, final String resourceToken) {
+        return apiToken + "/" + resourceToken;
+    }
+
+}
@@ -14,14 +14,15 @@
  */
 package org.bonitasoft.web.rest.server.framework;
 
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TimeZone;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.servlet.http.HttpServletRequest;
@@ -30,19 +31,22 @@ import javax.servlet.http.HttpServletResponse;
 import org.bonitasoft.console.common.server.i18n.I18n;
 import org.bonitasoft.web.rest.server.framework.exception.APIMissingIdException;
 import org.bonitasoft.web.rest.server.framework.json.JSonSimpleDeserializer;
+import org.bonitasoft.web.rest.server.framework.search.ItemCursorSearchResult;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.utils.BulkDeleteJob;
+import org.bonitasoft.web.rest.server.framework.utils.EntityTag;
 import org.bonitasoft.web.rest.server.framework.utils.RestRequestParser;
 import org.bonitasoft.web.toolkit.client.common.AbstractTreeNode;
 import org.bonitasoft.web.toolkit.client.common.Tree;
 import org.bonitasoft.web.toolkit.client.common.TreeLeaf;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.json.JSonItemReader;
-import org.bonitasoft.web.toolkit.client.common.json.JSonItemWriter;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.bonitasoft.web.toolkit.client.data.item.IItem;
 import org.bonitasoft.web.toolkit.client.data.item.Item;
 import org.bonitasoft.web.toolkit.client.data.item.attribute.ValidatorEngine;
 import org.bonitasoft.web.toolkit.server.ServletCall;
+import org.bonitasoft.web.toolkit.server.utils.JSonStreamWriter;
 
 /**
  * @author Séverin Moussel
@@ -67,6 +71,34 @@ public class APIServletCall extends ServletCall {
 
     public static final String PARAMETER_QUERY = "q";
 
+    /**
+     * Attributes to return, all of them when absent
+     */
+    public static final String PARAMETER_FIELDS = "fields";
+
+    /**
+     * Search with a cursor instead of a page index. Empty to get the first page.
+     */
+    public static final String PARAMETER_CURSOR = "cursor";
+
+    /**
+     * Header holding the cursor of the next page of a cursor search. Absent on the last page.
+     */
+    public static final String HEADER_NEXT_CURSOR = "X-Bonita-API-Next-Cursor";
+
+    /**
+     * DELETE items one by one and concurrently, answering the outcome of each deletion instead of failing on the first error.
+     */
+    public static final String PARAMETER_BULK = "bulk";
+
+    /**
+     * Same as {@link #PARAMETER_BULK} but answer as soon as the deletions are started. Their progress is then available at
+     * {@link #BULK_DELETE_JOB_PATH}/{job id}.
+     */
+    public static final String PARAMETER_ASYNC = "async";
+
+    public static final String BULK_DELETE_JOB_PATH = "/API/system/bulkDeleteJob";
+
 
 
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -83,17 +115,26 @@ public class APIServletCall extends ServletCall {
 
     private static Logger LOGGER = Logger.getLogger(APIServletCall.class.getName());
 
+    /**
+     * Expires header value of the responses not to cache, a date in the past
+     */
+    private static final String EXPIRED = "Thu, 01 Jan 1970 00:00:00 GMT";
+
+    /**
+     * Items retrieved during this call, only used for GET as other methods modify items
+     */
+    private final RequestItemCache itemCache = new RequestItemCache();
+
     public APIServletCall(final HttpServletRequest request, final HttpServletResponse response) {
         super(request, response);
-        final Date expdate = new Date();
-        expdate.setTime(expdate.getTime() - 3600000 * 24);
-        final SimpleDateFormat df = new SimpleDateFormat("dd MMM yyyy kk:mm:ss z");
-        df.setTimeZone(TimeZone.getTimeZone("GMT"));
-
-        head("Pragma", "No-cache");
-        head("Cache-Control", "no-cache,no-store,no-transform,max-age=0");
-        head("Expires", df.format(expdate));
+        final boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        final CachePolicy cachePolicy = read && api.getCachePolicy() != null ? api.getCachePolicy() : CachePolicy.NO_CACHE;
 
+        head("Cache-Control", cachePolicy.getCacheControl());
+        if (!cachePolicy.isCacheable()) {
+            head("Pragma", "No-cache");
+            head("Expires", EXPIRED);
+        }
     }
 
     /**
@@ -169,28 +210,152 @@ public class APIServletCall extends ServletCall {
      */
     @Override
     public final void doGet() {
+        itemCache.bind();
         try {
             // GET one
             if (id != null) {
-                output(api.runGet(id, getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER)));
+                final List<String> deploys = getParameterAsList(PARAMETER_DEPLOY);
+                final List<String> counters = getParameterAsList(PARAMETER_COUNTER);
+                final IItem item = api.runGet(id, deploys, counters, getFields());
+                // the last update date of the item doesn't cover its deployed items and counters
+                final boolean itemOnly = (deploys == null || deploys.isEmpty()) && (counters == null || counters.isEmpty());
+                outputCacheable(item, "", itemOnly ? api.getLastModified(item) : null);
             } else if (countParameters() == 0) {
                 throw new APIMissingIdException(getRequestURL());
             }
-            // Search
-            else {
-                final ItemSearchResult<?> result = api.runSearch(Integer.parseInt(getParameter(PARAMETER_PAGE, "0")),
+            // Search with a cursor
+            else if (getParameter(PARAMETER_CURSOR) != null) {
+                final ItemCursorSearchResult<?> result = api.runCursorSearch(getParameter(PARAMETER_CURSOR),
                         Integer.parseInt(getParameter(PARAMETER_LIMIT, "10")), getParameter(PARAMETER_SEARCH),
                         getParameter(PARAMETER_ORDER), parseFilters(getParameterAsList(PARAMETER_FILTER)),
-                        getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER));
-                head("Content-Range", result.getPage() + "-" + result.getLength() + "/" + result.getTotal());
+                        getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER), getFields());
+                String nextCursor = "";
+                if (result.getNextCursor() != null) {
+                    nextCursor = result.getNextCursor().toToken();
+                    head(HEADER_NEXT_CURSOR, nextCursor);
+                }
+
+                outputCacheable(result.getResults(), nextCursor, null);
+            }
+            // Search
+            else {
+                final ItemSearchResult<?> result = runSearchOrCount();
+                final String contentRange = result.getPage() + "-" + result.getLength() + "/" + result.getTotal();
+                head("Content-Range", contentRange);
 
-                output(result.getResults());
+                outputCacheable(result.getResults(), contentRange, null);
             }
         } catch (final APIException e) {
+            if (isCacheable()) {
+                // errors must not be reused
+                getResponse().setHeader("Cache-Control", CachePolicy.NO_CACHE.getCacheControl());
+            }
             e.setApi(apiName);
             e.setResource(resourceName);
             throw e;
+        } finally {
+            itemCache.unbind();
+            logItemCacheStatistics();
+        }
+    }
+
+    private boolean isCacheable() {
+        return api.getCachePolicy() != null && api.getCachePolicy().isCacheable();
+    }
+
+    /**
+     * Output the result of a GET. If the API is cacheable, the response is tagged and a 304 Not Modified is sent instead when the browser
+     * already has it.
+     *
+     * @param headers
+     *            the values of the headers describing the result, part of the entity tag
+     * @param lastModified
+     *            the last update date of the result or null if unknown
+     */
+    private void outputCacheable(final Object result, final String headers, final Date lastModified) {
+        if (!isCacheable()) {
+            output(result);
+            return;
+        }
+        final StringWriter json = new StringWriter();
+        try {
+            new JSonStreamWriter(json).write(result);
+        } catch (final IOException e) {
+            throw new APIException(e);
         }
+        final String entityTag = EntityTag.of(headers + json.toString());
+        head("ETag", entityTag);
+        if (lastModified != null) {
+            getResponse().setDateHeader("Last-Modified", lastModified.getTime());
+        }
+        if (isNotModified(entityTag, lastModified)) {
+            getResponse().setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        output(json.toString());
+    }
+
+    private boolean isNotModified(final String entityTag, final Date lastModified) {
+        final String ifNoneMatch = getRequest().getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-Modified-Since must be ignored when If-None-Match is present
+            return EntityTag.matches(ifNoneMatch, entityTag);
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        final long ifModifiedSince;
+        try {
+            ifModifiedSince = getRequest().getDateHeader("If-Modified-Since");
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have a precision of a second
+        return ifModifiedSince >= 0 && lastModified.getTime() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Run the search, or only count the results when no result is requested (c=0)
+     */
+    private ItemSearchResult<?> runSearchOrCount() {
+        final int page = Integer.parseInt(getParameter(PARAMETER_PAGE, "0"));
+        final int resultsByPage = Integer.parseInt(getParameter(PARAMETER_LIMIT, "10"));
+        if (resultsByPage == 0) {
+            final long total = api.runCount(getParameter(PARAMETER_SEARCH), parseFilters(getParameterAsList(PARAMETER_FILTER)));
+            return new ItemSearchResult<IItem>(page, 0, total, new ArrayList<IItem>());
+        }
+        return api.runSearch(page, resultsByPage, getParameter(PARAMETER_SEARCH),
+                getParameter(PARAMETER_ORDER), parseFilters(getParameterAsList(PARAMETER_FILTER)),
+                getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER), getFields());
+    }
+
+    /**
+     * Read the fields parameter, either repeated or comma separated: fields=name,dueDate or fields=name&amp;fields=dueDate
+     */
+    private List<String> getFields() {
+        final List<String> fields = new ArrayList<String>();
+        if (getParameterAsList(PARAMETER_FIELDS) == null) {
+            return fields;
+        }
+        for (final String value : getParameterAsList(PARAMETER_FIELDS)) {
+            for (final String field : value.split(",")) {
+                if (field.trim().length() > 0) {
+                    fields.add(field.trim());
+                }
+            }
+        }
+        return fields;
+    }
+
+    private void logItemCacheStatistics() {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Request item cache for API " + apiName + "/" + resourceName + ": " + itemCache.getHits() + " hit(s), "
+                    + itemCache.getMisses() + " miss(es)");
+        }
+    }
+
+    public RequestItemCache getItemCache() {
+        return itemCache;
     }
 
     @Override
@@ -198,6 +363,11 @@ public class APIServletCall extends ServletCall {
         super.output(object);
     }
 
+    @Override
+    protected void output(final String string) {
+        super.output(string);
+    }
+
     @Override
     protected void head(final String name, final String value) {
         super.head(name, value);
@@ -212,7 +382,7 @@ public class APIServletCall extends ServletCall {
             final IItem jSonStreamAsItem = getJSonStreamAsItem();
             final IItem outputItem = api.runAdd(jSonStreamAsItem);
 
-            output(JSonItemWriter.itemToJSON(outputItem));
+            output(outputItem);
         } catch (final APIException e) {
             e.setApi(apiName);
             e.setResource(resourceName);
@@ -302,7 +472,17 @@ public class APIServletCall extends ServletCall {
                 ids.add(id);
             }
 
-            api.runDelete(ids);
+            final boolean async = Boolean.parseBoolean(getParameter(PARAMETER_ASYNC));
+            if (async || Boolean.parseBoolean(getParameter(PARAMETER_BULK))) {
+                final BulkDeleteJob job = api.runBulkDelete(ids, async);
+                if (!job.isDone()) {
+                    getResponse().setStatus(HttpServletResponse.SC_ACCEPTED);
+                    head("Location", getRequest().getContextPath() + BULK_DELETE_JOB_PATH + "/" + job.getId());
+                }
+                output(job);
+            } else {
+                api.runDelete(ids);
+            }
         } catch (final APIException e) {
             e.setApi(apiName);
             e.setResource(resourceName);
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+/**
+ * How the browser may cache the responses to the GET calls of an API.<br>
+ * Responses of a cacheable API carry a strong ETag computed from their content, and a Last-Modified date when the item knows when it was last
+ * updated, so that the browser can revalidate them and get a 304 Not Modified instead of the whole response.
+ * They are always private as they depend on the rights of the logged in user.
+ */
+public class CachePolicy {
+
+    /**
+     * Never cache (default)
+     */
+    public static final CachePolicy NO_CACHE = new CachePolicy(false, 0);
+
+    /**
+     * Cache but revalidate on each use
+     */
+    public static final CachePolicy REVALIDATE = new CachePolicy(true, 0);
+
+    private final boolean cacheable;
+
+    private final int maxAge;
+
+    private CachePolicy(final boolean cacheable, final int maxAge) {
+        this.cacheable = cacheable;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Cache and use without revalidating during a given time
+     *
+     * @param seconds
+     *            the time during which the response is used without asking the server
+     */
+    public static CachePolicy maxAge(final int seconds) {
+        return new CachePolicy(true, seconds);
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public String getCacheControl() {
+        if (!cacheable) {
+            return "no-cache,no-store,no-transform,max-age=0";
+        }
+        if (maxAge > 0) {
+            return "private,max-age=" + maxAge;
+        }
+        return "private,no-cache";
+    }
+}
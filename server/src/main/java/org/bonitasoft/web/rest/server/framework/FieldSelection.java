@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+import org.bonitasoft.web.toolkit.client.data.item.template.ItemHasUniqueId;
+
+/**
+ * Attributes a client asked for with the fields parameter of a GET call, so that the others are neither converted nor serialized.<br>
+ * The selection is bound to the current thread by the {@link API} while the datastore retrieves the items: converters can then skip the
+ * attributes that were not asked for with {@link #isRequested(String)}. Deployed items are retrieved once the selection is unbound, so
+ * they are always complete.
+ */
+public class FieldSelection {
+
+    /**
+     * Selection of all the attributes, used when the client doesn't ask for specific fields
+     */
+    public static final FieldSelection ALL = new FieldSelection();
+
+    private static final ThreadLocal<FieldSelection> CURRENT = new ThreadLocal<FieldSelection>();
+
+    /**
+     * Selected attributes, null if all are selected
+     */
+    private final Set<String> fields;
+
+    private FieldSelection() {
+        fields = null;
+    }
+
+    /**
+     * @param fields
+     *            the selected attributes. The id of the items is always selected so that the client can identify them.
+     */
+    public FieldSelection(final Collection<String> fields) {
+        this.fields = new HashSet<String>(fields);
+        this.fields.add(ItemHasUniqueId.ATTRIBUTE_ID);
+    }
+
+    /**
+     * Tell if an attribute must be converted: always true when no selection is bound.
+     */
+    public static boolean isRequested(final String attribute) {
+        final FieldSelection current = CURRENT.get();
+        return current == null || current.contains(attribute);
+    }
+
+    public boolean contains(final String attribute) {
+        return fields == null || fields.contains(attribute);
+    }
+
+    public void bind() {
+        if (fields != null) {
+            CURRENT.set(this);
+        }
+    }
+
+    public void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Keep the deploys of the selected attributes only, as the others won't be serialized
+     */
+    public List<String> filterDeploys(final List<String> deploys) {
+        if (fields == null) {
+            return deploys;
+        }
+        final List<String> selectedDeploys = new ArrayList<String>();
+        for (final String deploy : deploys) {
+            if (contains(deploy)) {
+                selectedDeploys.add(deploy);
+            }
+        }
+        return selectedDeploys;
+    }
+
+    /**
+     * Remove the attributes that were not asked for from items. The counters, explicitly asked for, are kept.
+     */
+    public void applyTo(final List<? extends IItem> items, final List<String> counters) {
+        if (fields == null) {
+            return;
+        }
+        for (final IItem item : items) {
+            for (final String attribute : item.getAttributeNames()) {
+                if (!contains(attribute) && !counters.contains(attribute)) {
+                    item.removeAttribute(attribute);
+                }
+            }
+        }
+    }
+}
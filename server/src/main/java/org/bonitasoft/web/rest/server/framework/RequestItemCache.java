@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bonitasoft.web.rest.server.framework.api.Datastore;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * Identity map of the items retrieved by datastores during a single REST call, so that an item referenced by several results (the case of twenty
+ * tasks, the user assigned to all of them...) is only retrieved once from the engine.<br>
+ * The cache is bound to the current thread by the {@link APIServletCall} for the duration of the call and discarded afterwards.<br>
+ * Each cached item read is counted as a hit, each item put after being retrieved from the engine as a miss.
+ */
+public class RequestItemCache {
+
+    private static final ThreadLocal<RequestItemCache> CURRENT = new ThreadLocal<RequestItemCache>();
+
+    /**
+     * Cached items indexed by datastore class then by id. Null values are cached too: the item doesn't exist.
+     */
+    private final Map<Class<?>, Map<APIID, IItem>> items = new HashMap<Class<?>, Map<APIID, IItem>>();
+
+    private int hits = 0;
+
+    private int misses = 0;
+
+    /**
+     * @return the cache bound to the current call or null if there is none
+     */
+    public static RequestItemCache getCurrent() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Tell if the items returned by a getter can be cached. Only datastores are cached as other getters may not be simple lookups by id.
+     */
+    public static boolean isCacheable(final DatastoreHasGet<?> getter) {
+        return getter instanceof Datastore;
+    }
+
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    public void unbind() {
+        CURRENT.remove();
+        items.clear();
+    }
+
+    public boolean contains(final DatastoreHasGet<?> getter, final APIID id) {
+        return getItems(getter).containsKey(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends IItem> T get(final DatastoreHasGet<T> getter, final APIID id) {
+        hits++;
+        return (T) getItems(getter).get(id);
+    }
+
+    public void put(final DatastoreHasGet<?> getter, final APIID id, final IItem item) {
+        misses++;
+        getItems(getter).put(id, item);
+    }
+
+    private Map<APIID, IItem> getItems(final DatastoreHasGet<?> getter) {
+        if (!items.containsKey(getter.getClass())) {
+            items.put(getter.getClass(), new HashMap<APIID, IItem>());
+        }
+        return items.get(getter.getClass());
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+}
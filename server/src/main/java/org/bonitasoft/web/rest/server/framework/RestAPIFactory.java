@@ -36,4 +36,11 @@ public abstract class RestAPIFactory {
 
     public abstract API<? extends IItem> defineApis(final String apiToken, final String resourceToken);
 
+    /**
+     * @return the registry of the APIs served by this factory or null if the factory doesn't use one
+     */
+    public APIRegistry getRegistry() {
+        return null;
+    }
+
 }
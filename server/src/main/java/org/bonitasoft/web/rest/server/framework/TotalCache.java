@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived cache of the totals of count only searches of a tenant, indexed by resource then by user, search and filters: the items a search
+ * returns may depend on the permissions of the user running it.<br>
+ * Totals expire after the time to live of the cache, and all the totals of a resource are dropped when an item of this resource is added,
+ * updated or deleted through its API.
+ */
+public class TotalCache {
+
+    /**
+     * Maximum number of cached totals per resource. Expired totals are purged when it is reached, and all totals of the resource if it is still
+     * reached afterwards.
+     */
+    static final int MAX_TOTALS_PER_RESOURCE = 1000;
+
+    private static final ConcurrentMap<Long, TotalCache> INSTANCES = new ConcurrentHashMap<Long, TotalCache>();
+
+    private volatile long timeToLive;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Total>> totals = new ConcurrentHashMap<String, ConcurrentMap<String, Total>>();
+
+    TotalCache(final long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param timeToLive
+     *            the time to live in milliseconds of the totals cached from now on, so that a change of the configuration is taken into account
+     */
+    public static TotalCache getInstance(final long tenantId, final long timeToLive) {
+        TotalCache totalCache = INSTANCES.get(tenantId);
+        if (totalCache == null) {
+            final TotalCache newTotalCache = new TotalCache(timeToLive);
+            totalCache = INSTANCES.putIfAbsent(tenantId, newTotalCache);
+            if (totalCache == null) {
+                return newTotalCache;
+            }
+        }
+        totalCache.timeToLive = timeToLive;
+        return totalCache;
+    }
+
+    /**
+     * Tell if a total may have been cached for any tenant. Nothing needs to be invalidated otherwise.
+     */
+    public static boolean isInUse() {
+        return !INSTANCES.isEmpty();
+    }
+
+    /**
+     * @param userId
+     *            the id of the user running the search, null if the result does not depend on the user
+     * @return the cached total or null if there is none or if it expired
+     */
+    public Long get(final String resource, final Long userId, final String search, final Map<String, String> filters) {
+        final Map<String, Total> resourceTotals = totals.get(resource);
+        if (resourceTotals == null) {
+            return null;
+        }
+        final Total total = resourceTotals.get(buildKey(userId, search, filters));
+        if (total == null || total.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return total.value;
+    }
+
+    public void put(final String resource, final Long userId, final String search, final Map<String, String> filters, final long total) {
+        ConcurrentMap<String, Total> resourceTotals = totals.get(resource);
+        if (resourceTotals == null) {
+            totals.putIfAbsent(resource, new ConcurrentHashMap<String, Total>());
+            resourceTotals = totals.get(resource);
+        }
+        final long now = System.currentTimeMillis();
+        if (resourceTotals.size() >= MAX_TOTALS_PER_RESOURCE) {
+            purge(resourceTotals, now);
+        }
+        resourceTotals.put(buildKey(userId, search, filters), new Total(total, now + timeToLive));
+    }
+
+    /**
+     * Drop all the totals of a resource
+     */
+    public void invalidate(final String resource) {
+        totals.remove(resource);
+    }
+
+    private void purge(final Map<String, Total> resourceTotals, final long now) {
+        for (final Map.Entry<String, Total> total : resourceTotals.entrySet()) {
+            if (total.getValue().isExpired(now)) {
+                resourceTotals.remove(total.getKey());
+            }
+        }
+        if (resourceTotals.size() >= MAX_TOTALS_PER_RESOURCE) {
+            resourceTotals.clear();
+        }
+    }
+
+    private String buildKey(final Long userId, final String search, final Map<String, String> filters) {
+        // filters are sorted so that the key doesn't depend on the order of the filters in the request
+        return userId + "|" + search + "|" + new TreeMap<String, String>(filters);
+    }
+
+    private static class Total {
+
+        private final long value;
+
+        private final long expirationTime;
+
+        private Total(final long value, final long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired(final long now) {
+            return now >= expirationTime;
+        }
+    }
+}
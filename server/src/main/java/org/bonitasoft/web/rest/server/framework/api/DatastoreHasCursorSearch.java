@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.api;
+
+import java.util.Map;
+
+import org.bonitasoft.web.rest.server.framework.search.ItemCursorSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchCursor;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * A datastore able to search page after page with a cursor (keyset pagination) instead of a page index
+ */
+public interface DatastoreHasCursorSearch<C extends IItem> {
+
+    /**
+     * @param cursor
+     *            the cursor returned with the previous page, null to get the first page sorted by orders
+     */
+    public abstract ItemCursorSearchResult<C> searchAfter(final ItemSearchCursor cursor, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters);
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.search;
+
+import java.util.List;
+
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * A page of a cursor search and the cursor to get the next one
+ */
+public class ItemCursorSearchResult<T extends IItem> {
+
+    private final List<T> results;
+
+    private final ItemSearchCursor nextCursor;
+
+    /**
+     * @param nextCursor
+     *            the cursor of the next page or null if there are no more results
+     */
+    public ItemCursorSearchResult(final List<T> results, final ItemSearchCursor nextCursor) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    public ItemSearchCursor getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.search;
+
+import java.nio.charset.Charset;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+
+/**
+ * Position of a cursor (keyset) search: the sort of the search and the sort keys of the last item returned, the key of the sorted attribute
+ * first, then the keys breaking its ties.<br>
+ * The next page is made of the items following this one in the sort, so that walking through a large result does not require the engine to
+ * skip all the items of the previous pages.<br>
+ * It is sent to clients as an opaque token.
+ */
+public class ItemSearchCursor {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String SEPARATOR = " ";
+
+    private static final String KEYS_SEPARATOR = ",";
+
+    private final String attribute;
+
+    private final boolean descending;
+
+    private final long[] lastValues;
+
+    public ItemSearchCursor(final String attribute, final boolean descending, final long... lastValues) {
+        this.attribute = attribute;
+        this.descending = descending;
+        this.lastValues = lastValues.clone();
+    }
+
+    /**
+     * @return the attribute the search is sorted on
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return the sort keys of the last item returned, the key of the sorted attribute first. Empty for the cursor of the first page.
+     */
+    public long[] getLastValues() {
+        return lastValues.clone();
+    }
+
+    /**
+     * @return the token to send to the client
+     */
+    public String toToken() {
+        final StringBuilder keys = new StringBuilder();
+        for (final long lastValue : lastValues) {
+            if (keys.length() > 0) {
+                keys.append(KEYS_SEPARATOR);
+            }
+            keys.append(lastValue);
+        }
+        final String cursor = (descending ? "DESC" : "ASC") + SEPARATOR + keys + SEPARATOR + attribute;
+        return DatatypeConverter.printHexBinary(cursor.getBytes(UTF_8));
+    }
+
+    /**
+     * Read a token sent by a client
+     *
+     * @throws APIException
+     *             if the token is not a valid cursor
+     */
+    public static ItemSearchCursor fromToken(final String token) {
+        try {
+            final String[] cursor = new String(DatatypeConverter.parseHexBinary(token), UTF_8).split(SEPARATOR, 3);
+            if (cursor.length != 3 || !"ASC".equals(cursor[0]) && !"DESC".equals(cursor[0])) {
+                throw new IllegalArgumentException(token);
+            }
+            final String[] keys = cursor[1].split(KEYS_SEPARATOR);
+            final long[] lastValues = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lastValues[i] = Long.parseLong(keys[i]);
+            }
+            return new ItemSearchCursor(cursor[2], "DESC".equals(cursor[0]), lastValues);
+        } catch (final IllegalArgumentException e) {
+            throw new APIException("Invalid search cursor : " + token, e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+
+/**
+ * Run the {@link BulkDeleteJob}s of a tenant.<br>
+ * Each tenant has its own executor, bounded in threads and pending workers, so that a large purge on a tenant doesn't delay the deletions
+ * of the others. The executor also keeps the asynchronous jobs of the tenant so that their progress can be followed.
+ */
+public class BulkDeleteExecutor {
+
+    static final int MAX_PENDING_WORKERS = 100;
+
+    /**
+     * Maximum number of asynchronous jobs kept per tenant. The oldest jobs are forgotten first.
+     */
+    static final int MAX_KEPT_JOBS = 100;
+
+    private static final ConcurrentMap<Long, BulkDeleteExecutor> INSTANCES = new ConcurrentHashMap<Long, BulkDeleteExecutor>();
+
+    private volatile int threads;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, BulkDeleteJob> jobs = new LinkedHashMap<String, BulkDeleteJob>() {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, BulkDeleteJob> eldest) {
+            return size() > MAX_KEPT_JOBS;
+        }
+    };
+
+    BulkDeleteExecutor(final long tenantId, final int threads) {
+        this.threads = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(this.threads, this.threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_PENDING_WORKERS),
+                new BulkDeleteThreadFactory(tenantId), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param threads
+     *            the number of threads of the executor, applied to the existing executor of the tenant when it changed
+     */
+    public static BulkDeleteExecutor getInstance(final long tenantId, final int threads) {
+        BulkDeleteExecutor bulkDeleteExecutor = INSTANCES.get(tenantId);
+        if (bulkDeleteExecutor == null) {
+            final BulkDeleteExecutor newExecutor = new BulkDeleteExecutor(tenantId, threads);
+            bulkDeleteExecutor = INSTANCES.putIfAbsent(tenantId, newExecutor);
+            if (bulkDeleteExecutor == null) {
+                bulkDeleteExecutor = newExecutor;
+            } else {
+                newExecutor.executor.shutdown();
+            }
+        }
+        bulkDeleteExecutor.setThreads(threads);
+        return bulkDeleteExecutor;
+    }
+
+    /**
+     * Resize the executor. Running workers are not interrupted: extra threads end once idle.
+     */
+    synchronized void setThreads(final int threads) {
+        final int newThreads = Math.max(1, threads);
+        if (newThreads == this.threads) {
+            return;
+        }
+        // the maximum pool size can't be lower than the core pool size
+        if (newThreads > this.threads) {
+            executor.setMaximumPoolSize(newThreads);
+            executor.setCorePoolSize(newThreads);
+        } else {
+            executor.setCorePoolSize(newThreads);
+            executor.setMaximumPoolSize(newThreads);
+        }
+        this.threads = newThreads;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the executor of the tenant or null if no bulk delete has been run on this tenant yet
+     */
+    public static BulkDeleteExecutor get(final long tenantId) {
+        return INSTANCES.get(tenantId);
+    }
+
+    /**
+     * Run a job and wait for its end. The calling thread takes part in the deletions, so the job completes even if the executor is full.
+     */
+    public void run(final BulkDeleteJob job) {
+        startWorkers(job, Math.min(threads, job.getTotal()) - 1);
+        job.run();
+        job.await();
+    }
+
+    /**
+     * Start a job and return without waiting for its end. The job can then be retrieved with {@link #getJob(String)}.
+     *
+     * @throws APIException
+     *             if the executor is too busy to start the job
+     */
+    public void submit(final BulkDeleteJob job) {
+        if (!job.isDone() && startWorkers(job, Math.min(threads, job.getTotal())) == 0) {
+            throw new APIException("Too many bulk deletes in progress, retry later");
+        }
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private int startWorkers(final BulkDeleteJob job, final int count) {
+        int started = 0;
+        try {
+            for (; started < count; started++) {
+                executor.execute(job.newWorker());
+            }
+        } catch (final RejectedExecutionException e) {
+            // executor full, the workers already started will process the whole job
+        }
+        return started;
+    }
+
+    /**
+     * @return the asynchronous job or null if it is unknown or has been forgotten
+     */
+    public BulkDeleteJob getJob(final String jobId) {
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    private static class BulkDeleteThreadFactory implements ThreadFactory {
+
+        private final long tenantId;
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private BulkDeleteThreadFactory(final long tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "bonita-rest-bulk-delete-" + tenantId + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
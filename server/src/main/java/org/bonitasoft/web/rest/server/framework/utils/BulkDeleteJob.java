@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bonitasoft.engine.exception.NotFoundException;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
+import org.bonitasoft.web.toolkit.client.common.json.JSonSerializer;
+import org.bonitasoft.web.toolkit.client.common.json.JsonSerializable;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+
+/**
+ * Delete a list of items one by one, reporting the outcome of each deletion instead of stopping at the first failure.<br>
+ * The items are deleted by workers that take the next id to delete until none is left, so a job can be run by a single thread or by several
+ * threads of a {@link BulkDeleteExecutor} at once.
+ */
+public class BulkDeleteJob implements JsonSerializable {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkDeleteJob.class.getName());
+
+    public static final String RUNNING = "running";
+
+    public static final String DONE = "done";
+
+    /**
+     * Delete the items of a job
+     */
+    public interface Deleter {
+
+        /**
+         * Delete an item. Called concurrently when the job has several workers.
+         */
+        void delete(APIID id);
+
+        /**
+         * Called once all the items have been processed
+         */
+        void done();
+    }
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final Long ownerId;
+
+    private final List<APIID> ids;
+
+    private final Deleter deleter;
+
+    private final AtomicReferenceArray<BulkDeleteResult> results;
+
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    private final AtomicInteger processed = new AtomicInteger();
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * @param ownerId
+     *            the id of the user who started the job, null if unknown
+     */
+    public BulkDeleteJob(final List<APIID> ids, final Long ownerId, final Deleter deleter) {
+        this.ids = new ArrayList<APIID>(ids);
+        this.ownerId = ownerId;
+        this.deleter = deleter;
+        results = new AtomicReferenceArray<BulkDeleteResult>(this.ids.size());
+        if (this.ids.isEmpty()) {
+            finish();
+        }
+    }
+
+    /**
+     * Create a worker deleting items of this job until none is left
+     */
+    public Runnable newWorker() {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < ids.size()) {
+                    results.set(index, deleteItem(ids.get(index)));
+                    if (processed.incrementAndGet() == ids.size()) {
+                        finish();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Delete all the remaining items in the calling thread
+     */
+    public void run() {
+        newWorker().run();
+    }
+
+    /**
+     * Wait until all the items have been processed
+     */
+    public void await() {
+        try {
+            done.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIException(e);
+        }
+    }
+
+    private BulkDeleteResult deleteItem(final APIID itemId) {
+        try {
+            deleter.delete(itemId);
+            return new BulkDeleteResult(itemId, BulkDeleteResult.DELETED, null);
+        } catch (final RuntimeException e) {
+            if (isNotFound(e)) {
+                return new BulkDeleteResult(itemId, BulkDeleteResult.NOT_FOUND, e.getMessage());
+            }
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Unable to delete item " + itemId, e);
+            }
+            return new BulkDeleteResult(itemId, BulkDeleteResult.ERROR, e.getMessage());
+        }
+    }
+
+    private boolean isNotFound(final Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof APIItemNotFoundException || cause instanceof NotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finish() {
+        try {
+            deleter.done();
+        } finally {
+            done.countDown();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    public int getTotal() {
+        return ids.size();
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * @return the results of the items processed so far, in the order of the ids of the job
+     */
+    public List<BulkDeleteResult> getResults() {
+        final List<BulkDeleteResult> processedResults = new ArrayList<BulkDeleteResult>();
+        for (int i = 0; i < results.length(); i++) {
+            if (results.get(i) != null) {
+                processedResults.add(results.get(i));
+            }
+        }
+        return processedResults;
+    }
+
+    public Map<String, Object> toMap() {
+        final List<BulkDeleteResult> processedResults = getResults();
+        final Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+        counts.put(BulkDeleteResult.DELETED, 0);
+        counts.put(BulkDeleteResult.NOT_FOUND, 0);
+        counts.put(BulkDeleteResult.ERROR, 0);
+        final List<Map<String, Object>> resultMaps = new ArrayList<Map<String, Object>>();
+        for (final BulkDeleteResult result : processedResults) {
+            counts.put(result.getStatus(), counts.get(result.getStatus()) + 1);
+            resultMaps.add(result.toMap());
+        }
+
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("id", id);
+        map.put("status", isDone() ? DONE : RUNNING);
+        map.put("total", ids.size());
+        map.put("processed", processedResults.size());
+        map.putAll(counts);
+        map.put("results", resultMaps);
+        return map;
+    }
+
+    @Override
+    public String toJson() {
+        return JSonSerializer.serializeMap(toMap());
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bonitasoft.web.toolkit.client.common.json.JSonSerializer;
+import org.bonitasoft.web.toolkit.client.common.json.JsonSerializable;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+
+/**
+ * Outcome of the deletion of one item of a {@link BulkDeleteJob}
+ */
+public class BulkDeleteResult implements JsonSerializable {
+
+    public static final String DELETED = "deleted";
+
+    public static final String NOT_FOUND = "notFound";
+
+    public static final String ERROR = "error";
+
+    private final APIID id;
+
+    private final String status;
+
+    private final String message;
+
+    BulkDeleteResult(final APIID id, final String status, final String message) {
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public APIID getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the error message or null if the item has been deleted
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public Map<String, Object> toMap() {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("id", id.toString());
+        map.put("status", status);
+        if (message != null) {
+            map.put("message", message);
+        }
+        return map;
+    }
+
+    @Override
+    public String toJson() {
+        return JSonSerializer.serializeMap(toMap());
+    }
+}
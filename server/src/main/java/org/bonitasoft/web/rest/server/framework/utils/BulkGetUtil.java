@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bonitasoft.web.rest.server.framework.RequestItemCache;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasBulkGet;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+public class BulkGetUtil {
+
+    /**
+     * List the distinct non null ids referenced by an attribute in a list of items
+     */
+    public static List<APIID> collectIds(final List<? extends IItem> items, final String attribute) {
+        final Set<APIID> ids = new LinkedHashSet<APIID>();
+        for (final IItem item : items) {
+            final APIID id = item.getAttributeValueAsAPIID(attribute);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return new ArrayList<APIID>(ids);
+    }
+
+    /**
+     * Get an item, going through the {@link RequestItemCache} of the current call if any.
+     */
+    public static <T extends IItem> T get(final DatastoreHasGet<T> getter, final APIID id) {
+        final RequestItemCache cache = getRequestItemCache(getter);
+        if (cache == null) {
+            return getter.get(id);
+        }
+        if (cache.contains(getter, id)) {
+            return cache.get(getter, id);
+        }
+        final T item = getter.get(id);
+        cache.put(getter, id, item);
+        return item;
+    }
+
+    /**
+     * Get all items matching the ids using a single call when the getter supports it.
+     * Ids the bulk call didn't return (or all ids if the getter has no bulk get) are fetched one by one, so that
+     * the result is the same as calling {@link DatastoreHasGet#get(APIID)} for each distinct id.<br>
+     * Items already in the {@link RequestItemCache} of the current call are not retrieved again.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IItem> Map<APIID, T> getAll(final DatastoreHasGet<T> getter, final List<APIID> ids) {
+        final Map<APIID, T> items = new HashMap<APIID, T>();
+        final RequestItemCache cache = getRequestItemCache(getter);
+        final List<APIID> idsToGet = new ArrayList<APIID>();
+        for (final APIID id : ids) {
+            if (cache != null && cache.contains(getter, id)) {
+                items.put(id, cache.get(getter, id));
+            } else {
+                idsToGet.add(id);
+            }
+        }
+        if (idsToGet.isEmpty()) {
+            return items;
+        }
+        if (getter instanceof DatastoreHasBulkGet<?>) {
+            items.putAll(((DatastoreHasBulkGet<T>) getter).getAll(idsToGet));
+        }
+        for (final APIID id : idsToGet) {
+            if (!items.containsKey(id)) {
+                items.put(id, getter.get(id));
+            }
+            if (cache != null) {
+                cache.put(getter, id, items.get(id));
+            }
+        }
+        return items;
+    }
+
+    private static RequestItemCache getRequestItemCache(final DatastoreHasGet<?> getter) {
+        if (RequestItemCache.isCacheable(getter)) {
+            return RequestItemCache.getCurrent();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+
+/**
+ * Compute the counters of a whole page of items at once.<br>
+ * Counts are run concurrently on an executor shared by all the calls and bounded in threads and pending counts (when it is full, counts run
+ * in the calling thread). The counters are set on their item once all counts are done or when the time budget of the batch is exhausted:
+ * counts that didn't finish in time are cancelled and their counter is left unset.
+ */
+public class CounterBatch {
+
+    private static final Logger LOGGER = Logger.getLogger(CounterBatch.class.getName());
+
+    static final int THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    static final int MAX_PENDING_COUNTS = 500;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private final long timeBudget;
+
+    private final List<Counter> counters = new ArrayList<Counter>();
+
+    /**
+     * @param timeBudget
+     *            the maximum time in milliseconds to wait for all the counts of the batch
+     */
+    public CounterBatch(final long timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(MAX_PENDING_COUNTS), new CounterThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Stop the threads of the executor shared by the batches (when the web application is stopped). Batches filled afterwards run their counts
+     * in the calling thread.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    /**
+     * Add a counter to compute
+     *
+     * @param item
+     *            the item to set the counter on
+     * @param counter
+     *            the name of the counter attribute
+     * @param count
+     *            the count to run. It must not rely on the calling thread state (http session, thread locals...)
+     */
+    public void add(final IItem item, final String counter, final Callable<Long> count) {
+        counters.add(new Counter(item, counter, count));
+    }
+
+    /**
+     * Run all the counts and set the counters on their items
+     */
+    public void fill() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudget);
+        for (final Counter counter : counters) {
+            final FutureTask<Long> future = new FutureTask<Long>(counter.count);
+            counter.future = future;
+            if (EXECUTOR.isShutdown()) {
+                future.run();
+            } else {
+                EXECUTOR.execute(future);
+            }
+        }
+        int timedOut = 0;
+        try {
+            for (final Counter counter : counters) {
+                try {
+                    counter.item.setAttribute(counter.name, counter.future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (final TimeoutException e) {
+                    counter.future.cancel(true);
+                    timedOut++;
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.log(Level.FINE, "Counter " + counter.name + " of item " + counter.item.getId() + " timed out after " + timeBudget
+                                + " ms.");
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof APIException) {
+                throw (APIException) e.getCause();
+            }
+            throw new APIException(e.getCause());
+        } finally {
+            cancelAll();
+        }
+        if (timedOut > 0 && LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.log(Level.WARNING, timedOut + " of " + counters.size() + " counter(s) could not be computed within " + timeBudget + " ms and were left unset.");
+        }
+    }
+
+    private void cancelAll() {
+        for (final Counter counter : counters) {
+            if (counter.future != null) {
+                counter.future.cancel(true);
+            }
+        }
+    }
+
+    private static class Counter {
+
+        private final IItem item;
+
+        private final String name;
+
+        private final Callable<Long> count;
+
+        private Future<Long> future;
+
+        private Counter(final IItem item, final String name, final Callable<Long> count) {
+            this.item = item;
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    private static class CounterThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "bonita-rest-counters-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
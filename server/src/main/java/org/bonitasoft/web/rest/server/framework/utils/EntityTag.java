@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+
+/**
+ * Build and compare the HTTP entity tags (ETag) of responses
+ */
+public class EntityTag {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Build a strong entity tag from the content of a response
+     */
+    public static String of(final String content) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(content.getBytes(UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new APIException(e);
+        }
+        final StringBuilder tag = new StringBuilder(digest.length * 2 + 2).append('"');
+        for (final byte b : digest) {
+            tag.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Tell if an If-None-Match header matches an entity tag. As specified for If-None-Match, weak tags match their strong counterpart.
+     *
+     * @param ifNoneMatch
+     *            the value of the header, a list of comma separated tags or *. May be null.
+     */
+    public static boolean matches(final String ifNoneMatch, final String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
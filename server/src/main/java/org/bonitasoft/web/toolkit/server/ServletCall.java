@@ -37,7 +37,7 @@ import javax.servlet.http.HttpSession;
 
 import org.apache.commons.io.IOUtils;
 import org.bonitasoft.web.toolkit.client.common.exception.http.ServerException;
-import org.bonitasoft.web.toolkit.client.common.json.JSonSerializer;
+import org.bonitasoft.web.toolkit.server.utils.JSonStreamWriter;
 import org.bonitasoft.web.toolkit.server.utils.LocaleUtils;
 
 /**
@@ -322,9 +322,11 @@ public abstract class ServletCall {
      *            An object that will be transform into JSon
      */
     protected void output(final Object object) {
-        final PrintWriter outputWriter = getOutputWriter();
-        outputWriter.print(JSonSerializer.serialize(object));
-        outputWriter.flush();
+        try {
+            new JSonStreamWriter(getOutputWriter()).write(object);
+        } catch (final IOException e) {
+            throw new ServerException(e);
+        }
     }
 
     /**
@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.toolkit.server.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+import org.bonitasoft.web.toolkit.client.common.json.JSonSerializer;
+import org.bonitasoft.web.toolkit.client.common.json.JSonUtil;
+import org.bonitasoft.web.toolkit.client.common.json.JsonSerializable;
+import org.bonitasoft.web.toolkit.client.data.item.IItem;
+import org.bonitasoft.web.toolkit.client.data.item.Item;
+
+import com.google.gwt.i18n.shared.DateTimeFormat;
+
+/**
+ * Write the JSon of an object directly to a {@link Writer} instead of building the whole document in memory.<br>
+ * The output is exactly the same as the one of {@link JSonSerializer#serialize(Object)}: items, their deploys, collections, maps and exceptions
+ * are written piece by piece into a buffer that is reused and flushed to the writer each time it grows over {@link #FLUSH_THRESHOLD}
+ * characters.
+ */
+public class JSonStreamWriter {
+
+    static final int FLUSH_THRESHOLD = 8192;
+
+    private final Writer writer;
+
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+
+    public JSonStreamWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write the JSon of an object and flush it to the underlying writer
+     */
+    public void write(final Object object) throws IOException {
+        writeValue(object);
+        flush();
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        writer.flush();
+    }
+
+    private void writeValue(final Object object) throws IOException {
+        if (object == null) {
+            buffer.append("null");
+        } else if (object instanceof Item) {
+            writeItem((Item) object);
+        } else if (object instanceof JsonSerializable) {
+            buffer.append(((JsonSerializable) object).toJson());
+        } else if (object instanceof Collection<?>) {
+            writeCollection((Collection<?>) object);
+        } else if (object instanceof Map<?, ?>) {
+            writeMap((Map<?, ?>) object);
+        } else if (object instanceof Number) {
+            buffer.append(object.toString());
+        } else if (object instanceof Boolean) {
+            buffer.append((Boolean) object ? "true" : "false");
+        } else if (object instanceof Date) {
+            final DateTimeFormat sdf = DateTimeFormat.getFormat("yyyy-MM-dd HH:mm:ss.SSS");
+            buffer.append(JSonUtil.quote(sdf.format((Date) object)));
+        } else if (object instanceof Throwable) {
+            writeException((Throwable) object);
+        } else {
+            buffer.append(JSonUtil.quote(object.toString()));
+        }
+        flushBufferIfFull();
+    }
+
+    /**
+     * Same output as {@link Item#toJson()}, deploys being written in place
+     */
+    private void writeItem(final Item item) throws IOException {
+        final Map<String, IItem> deploys = item.getDeploys();
+        buffer.append("{");
+        boolean first = true;
+        for (final String attribute : item.getAttributeNames()) {
+            writeKey(attribute, first);
+            if (deploys.containsKey(attribute)) {
+                writeValue(deploys.get(attribute));
+            } else {
+                buffer.append(JSonUtil.quote(item.getAttributeValue(attribute)));
+            }
+            first = false;
+        }
+        buffer.append("}");
+    }
+
+    private void writeCollection(final Collection<?> collection) throws IOException {
+        buffer.append("[");
+        boolean first = true;
+        for (final Object value : collection) {
+            if (!first) {
+                buffer.append(",");
+            }
+            writeValue(value);
+            first = false;
+        }
+        buffer.append("]");
+    }
+
+    private void writeMap(final Map<?, ?> map) throws IOException {
+        buffer.append("{");
+        boolean first = true;
+        for (final Object key : map.keySet()) {
+            writeKey(key.toString(), first);
+            writeValue(map.get(key));
+            first = false;
+        }
+        buffer.append("}");
+    }
+
+    private void writeException(final Throwable e) throws IOException {
+        buffer.append("{");
+        writeKey("exception", true);
+        buffer.append(JSonUtil.quote(e.getClass().toString()));
+        writeKey("message", false);
+        buffer.append(JSonUtil.quote(e.getMessage()));
+        if (e.getStackTrace() != null) {
+            writeKey("stacktrace", false);
+            writeValue(Arrays.asList(e.getStackTrace()));
+        }
+        if (e.getCause() != null && e.getCause() != e) {
+            writeKey("cause", false);
+            writeValue(e.getCause());
+        }
+        buffer.append("}");
+    }
+
+    private void writeKey(final String key, final boolean first) {
+        if (!first) {
+            buffer.append(",");
+        }
+        buffer.append(JSonUtil.quote(key)).append(":");
+    }
+
+    private void flushBufferIfFull() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.length() > 0) {
+            writer.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class BufferedRequestBodiesTest {
+
+    private final BufferedRequestBodies bufferedRequestBodies = new BufferedRequestBodies();
+
+    @Test
+    public void should_count_buffered_bodies_and_bytes() throws Exception {
+        bufferedRequestBodies.record(10L, false);
+        bufferedRequestBodies.record(2000L, true);
+
+        assertThat(bufferedRequestBodies.getBodies()).isEqualTo(2L);
+        assertThat(bufferedRequestBodies.getBytes()).isEqualTo(2010L);
+        assertThat(bufferedRequestBodies.getSpilledBodies()).isEqualTo(1L);
+    }
+
+    @Test
+    public void should_reset_the_counts() throws Exception {
+        bufferedRequestBodies.record(10L, true);
+
+        bufferedRequestBodies.reset();
+
+        assertThat(bufferedRequestBodies.getBodies()).isEqualTo(0L);
+        assertThat(bufferedRequestBodies.getBytes()).isEqualTo(0L);
+        assertThat(bufferedRequestBodies.getSpilledBodies()).isEqualTo(0L);
+    }
+
+    @Test
+    public void should_be_exposed_through_jmx_until_unregistered() throws Exception {
+        final ObjectName objectName = new ObjectName("org.bonitasoft.web:type=BufferedRequestBodies,filter=" + ObjectName.quote("testFilter"));
+
+        bufferedRequestBodies.registerMBean("testFilter");
+        final boolean registered = ManagementFactory.getPlatformMBeanServer().isRegistered(objectName);
+        bufferedRequestBodies.unregisterMBean("testFilter");
+
+        assertThat(registered).isTrue();
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)).isFalse();
+    }
+}
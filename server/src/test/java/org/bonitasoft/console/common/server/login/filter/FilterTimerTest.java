@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FilterTimerTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain chain;
+
+    @Test
+    public void should_record_the_time_spent_before_the_chain_with_the_decision_path_of_the_request() throws Exception {
+        doReturn("static_allow").when(request).getAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE);
+        final FilterTimer filterTimer = new FilterTimer("timedFilter", request, response, false);
+
+        filterTimer.wrap(chain).doFilter(request, response);
+        filterTimer.stop();
+
+        verify(chain).doFilter(request, response);
+        verify(request).removeAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE);
+        assertThat(FilterTimings.getInstance().getHistogram("timedFilter", "static_allow").getCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void should_record_an_unknown_decision_path_when_the_filter_does_not_set_it() throws Exception {
+        new FilterTimer("filterWithoutDecisionPath", request, response, false).stop();
+
+        assertThat(FilterTimings.getInstance().getHistogram("filterWithoutDecisionPath", FilterTimings.UNKNOWN_DECISION_PATH).getCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void should_add_a_server_timing_header_when_enabled() throws Exception {
+        doReturn("deny").when(request).getAttribute(FilterTimings.DECISION_PATH_ATTRIBUTE);
+
+        new FilterTimer("serverTimedFilter", request, response, true).stop();
+
+        verify(response).addHeader(eq(FilterTimer.SERVER_TIMING_HEADER), Matchers.startsWith("serverTimedFilter;dur="));
+    }
+
+    @Test
+    public void should_not_add_a_server_timing_header_when_disabled() throws Exception {
+        new FilterTimer("notServerTimedFilter", request, response, false).stop();
+
+        verify(response, never()).addHeader(eq(FilterTimer.SERVER_TIMING_HEADER), anyString());
+    }
+
+    @Test
+    public void should_not_add_a_server_timing_header_when_the_response_is_committed() throws Exception {
+        doReturn(true).when(response).isCommitted();
+
+        new FilterTimer("committedFilter", request, response, true).stop();
+
+        verify(response, never()).addHeader(eq(FilterTimer.SERVER_TIMING_HEADER), anyString());
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void should_count_recorded_durations() throws Exception {
+        histogram.record(1000L);
+        histogram.record(3000L);
+
+        assertThat(histogram.getCount()).isEqualTo(2L);
+        assertThat(histogram.getMeanMicros()).isEqualTo(2d);
+        assertThat(histogram.getMaxMicros()).isEqualTo(3L);
+    }
+
+    @Test
+    public void should_return_the_upper_bound_of_the_bucket_of_a_percentile() throws Exception {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100000L);
+        }
+        histogram.record(50000000L);
+
+        assertThat(histogram.getP50Micros()).isEqualTo(128L);
+        assertThat(histogram.getP99Micros()).isEqualTo(128L);
+        assertThat(histogram.getPercentileMicros(1d)).isEqualTo(50000L);
+    }
+
+    @Test
+    public void should_return_zero_when_nothing_is_recorded() throws Exception {
+        assertThat(histogram.getCount()).isEqualTo(0L);
+        assertThat(histogram.getMeanMicros()).isEqualTo(0d);
+        assertThat(histogram.getP90Micros()).isEqualTo(0L);
+    }
+
+    @Test
+    public void should_forget_recorded_durations_when_reset() throws Exception {
+        histogram.record(1000L);
+
+        histogram.reset();
+
+        assertThat(histogram.getCount()).isEqualTo(0L);
+        assertThat(histogram.getMaxMicros()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.login.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.bonitasoft.engine.api.APIAccessor;
+import org.bonitasoft.engine.api.Logger;
+import org.bonitasoft.engine.api.ProcessAPI;
+import org.bonitasoft.engine.api.permission.APICallContext;
+import org.bonitasoft.engine.api.permission.PermissionRule;
+import org.bonitasoft.engine.exception.ExecutionException;
+import org.bonitasoft.engine.session.APISession;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LocalPermissionRulesTest {
+
+    @Mock
+    private ProcessAPI processAPI;
+
+    @Mock
+    private APISession apiSession;
+
+    private final LocalPermissionRules localPermissionRules = new LocalPermissionRules(LocalPermissionRulesTest.class.getClassLoader());
+
+    public static class AllowAllRule implements PermissionRule {
+
+        @Override
+        public boolean isAllowed(final APISession apiSession, final APICallContext apiCallContext, final APIAccessor apiAccessor, final Logger logger) {
+            return true;
+        }
+    }
+
+    public static class FailingRule implements PermissionRule {
+
+        @Override
+        public boolean isAllowed(final APISession apiSession, final APICallContext apiCallContext, final APIAccessor apiAccessor, final Logger logger) {
+            throw new IllegalStateException("failure");
+        }
+    }
+
+    @Test
+    public void should_instantiate_a_rule_once() throws Exception {
+        final PermissionRule rule = localPermissionRules.getRule(AllowAllRule.class.getName());
+
+        assertThat(rule).isInstanceOf(AllowAllRule.class);
+        assertThat(localPermissionRules.getRule(AllowAllRule.class.getName())).isSameAs(rule);
+    }
+
+    @Test
+    public void should_not_return_a_rule_that_cannot_be_loaded() throws Exception {
+        assertThat(localPermissionRules.getRule("UnknownPermissionRule")).isNull();
+        assertThat(localPermissionRules.getRule(String.class.getName())).isNull();
+    }
+
+    @Test
+    public void should_execute_a_rule() throws Exception {
+        final boolean isAllowed = localPermissionRules.isAllowed(new AllowAllRule(), apiSession, new APICallContext("GET", "bpm", "case", null));
+
+        assertThat(isAllowed).isTrue();
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void should_wrap_the_failure_of_a_rule_in_an_ExecutionException() throws Exception {
+        localPermissionRules.isAllowed(new FailingRule(), apiSession, new APICallContext("GET", "bpm", "case", null));
+    }
+
+    @Test
+    public void should_ask_the_engine_once_the_same_question() throws Exception {
+        doReturn(true).when(processAPI).isInvolvedInProcessInstance(1L, 2L);
+        final ProcessAPI memoizedProcessAPI = LocalPermissionRules.memoize(ProcessAPI.class, processAPI);
+
+        assertThat(memoizedProcessAPI.isInvolvedInProcessInstance(1L, 2L)).isTrue();
+        assertThat(memoizedProcessAPI.isInvolvedInProcessInstance(1L, 2L)).isTrue();
+        assertThat(memoizedProcessAPI.isInvolvedInProcessInstance(1L, 3L)).isFalse();
+
+        verify(processAPI, times(1)).isInvolvedInProcessInstance(1L, 2L);
+        verify(processAPI, times(1)).isInvolvedInProcessInstance(1L, 3L);
+    }
+
+    @Test
+    public void should_not_memoize_the_engine_calls_other_than_questions() throws Exception {
+        final ProcessAPI memoizedProcessAPI = LocalPermissionRules.memoize(ProcessAPI.class, processAPI);
+
+        memoizedProcessAPI.getProcessInstance(2L);
+        memoizedProcessAPI.getProcessInstance(2L);
+
+        verify(processAPI, times(2)).getProcessInstance(2L);
+    }
+}
@@ -65,6 +65,45 @@ public class MultiReadHttpServletRequestTest {
         }
     }
 
+    @Test
+    public void should_not_capture_the_body_when_built_with_a_memory_threshold() throws Exception {
+        final ServletInputStream fakeInputStream = new FakeServletInputStream();
+        doReturn(fakeInputStream).when(request).getInputStream();
+        final MultiReadHttpServletRequest multiReadHttpServletRequest = new MultiReadHttpServletRequest(request, 1024);
+
+        final InputStream inputStream = multiReadHttpServletRequest.getInputStream();
+
+        Assert.assertSame(fakeInputStream, inputStream);
+        Assert.assertFalse(multiReadHttpServletRequest.isBodyCaptured());
+        Assert.assertEquals(0, multiReadHttpServletRequest.getBufferedBytes());
+    }
+
+    @Test
+    public void should_replay_the_captured_body() throws Exception {
+        doReturn(new FakeServletInputStream()).when(request).getInputStream();
+        final MultiReadHttpServletRequest multiReadHttpServletRequest = new MultiReadHttpServletRequest(request, 1024);
+
+        multiReadHttpServletRequest.captureBody();
+
+        Assert.assertEquals("body content", IOUtils.toString(multiReadHttpServletRequest.getInputStream()));
+        Assert.assertEquals("body content", IOUtils.toString(multiReadHttpServletRequest.getInputStream()));
+        Assert.assertEquals("body content".length(), multiReadHttpServletRequest.getBufferedBytes());
+        Assert.assertFalse(multiReadHttpServletRequest.isBodySpilledToFile());
+    }
+
+    @Test
+    public void should_spill_the_captured_body_to_a_file_above_the_memory_threshold() throws Exception {
+        doReturn(new FakeServletInputStream()).when(request).getInputStream();
+        final MultiReadHttpServletRequest multiReadHttpServletRequest = new MultiReadHttpServletRequest(request, 4);
+
+        multiReadHttpServletRequest.captureBody();
+
+        Assert.assertTrue(multiReadHttpServletRequest.isBodySpilledToFile());
+        Assert.assertEquals("body content", IOUtils.toString(multiReadHttpServletRequest.getInputStream()));
+        Assert.assertEquals("body content", IOUtils.toString(multiReadHttpServletRequest.getReader()));
+        multiReadHttpServletRequest.release();
+    }
+
     class FakeServletInputStream extends ServletInputStream {
 
         private final StringInputStream inputStream = new StringInputStream("body content");
@@ -17,6 +17,8 @@ package org.bonitasoft.console.common.server.login.filter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -24,6 +26,7 @@ import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -40,8 +43,14 @@ import javax.servlet.http.HttpSession;
 
 import org.bonitasoft.console.common.server.preferences.properties.DynamicPermissionsChecks;
 import org.bonitasoft.console.common.server.preferences.properties.ResourcesPermissionsMapping;
+import org.bonitasoft.console.common.server.utils.AuthorizationContext;
+import org.bonitasoft.console.common.server.utils.PermissionDecisionCache;
+import org.bonitasoft.console.common.server.utils.PermissionSet;
 import org.bonitasoft.console.common.server.utils.SessionUtil;
+import org.bonitasoft.engine.api.APIAccessor;
+import org.bonitasoft.engine.api.Logger;
 import org.bonitasoft.engine.api.permission.APICallContext;
+import org.bonitasoft.engine.api.permission.PermissionRule;
 import org.bonitasoft.engine.exception.ExecutionException;
 import org.bonitasoft.engine.exception.NotFoundException;
 import org.bonitasoft.engine.session.APISession;
@@ -77,7 +86,7 @@ public class RestAPIAuthorizationFilterTest {
     public void before() {
         doReturn(httpSession).when(request).getSession();
         doReturn("").when(request).getQueryString();
-        doReturn(apiSession).when(httpSession).getAttribute(SessionUtil.API_SESSION_PARAM_KEY);
+        doReturn(new AuthorizationContext(apiSession, null)).when(httpSession).getAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
         doReturn(1l).when(apiSession).getTenantId();
         doReturn(false).when(apiSession).isTechnicalUser();
         doReturn("john").when(apiSession).getUserName();
@@ -90,7 +99,7 @@ public class RestAPIAuthorizationFilterTest {
 
     private Set<String> initSpy(final RestAPIAuthorizationFilter restAPIAuthorizationFilterSpy, final Set<String> permissions) throws ServletException {
         doReturn("GET").when(request).getMethod();
-        doReturn(permissions).when(httpSession).getAttribute(SessionUtil.PERMISSIONS_SESSION_PARAM_KEY);
+        doReturn(new AuthorizationContext(apiSession, permissions)).when(httpSession).getAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
         doReturn(resourcesPermissionsMapping).when(restAPIAuthorizationFilterSpy).getResourcesPermissionsMapping(1);
         doReturn(dynamicPermissionsChecks).when(restAPIAuthorizationFilterSpy).getDynamicPermissionsChecks(1);
         doReturn("").when(restAPIAuthorizationFilterSpy).getRequestBody(request);
@@ -299,6 +308,20 @@ public class RestAPIAuthorizationFilterTest {
         assertThat(isAuthorized).isTrue();
     }
 
+    @Test
+    public void should_execute_a_local_rule_instead_of_the_engine_script() throws Exception {
+        final RestAPIAuthorizationFilter restAPIAuthorizationFilterSpy = spy(restAPIAuthorizationFilter);
+        final APICallContext apiCallContext = new APICallContext("GET", "bpm", "case", null, "", "");
+        final PermissionRule rule = mock(PermissionRule.class);
+        doReturn(rule).when(restAPIAuthorizationFilterSpy).getLocalPermissionRule(1L, "CasePermissionRule");
+        doReturn(true).when(rule).isAllowed(eq(apiSession), eq(apiCallContext), any(APIAccessor.class), any(Logger.class));
+
+        final boolean isAuthorized = restAPIAuthorizationFilterSpy.executeScript(apiSession, "CasePermissionRule", apiCallContext);
+
+        assertThat(isAuthorized).isTrue();
+        verify(rule).isAllowed(eq(apiSession), eq(apiCallContext), any(APIAccessor.class), any(Logger.class));
+    }
+
     @Test
     public void test_dynamicCheck_authorized_with_profile() throws Exception {
         final Set<String> dynamicAuthorizations = new HashSet<String>(Arrays.asList("profile|admin", "check|className"));
@@ -379,6 +402,55 @@ public class RestAPIAuthorizationFilterTest {
         assertThat(isAuthorized).isFalse();
     }
 
+    @Test
+    public void should_dynamicCheck_use_the_cached_decision_of_the_script() throws Exception {
+        final Set<String> dynamicAuthorizations = new HashSet<String>(Arrays.asList("check|className"));
+        final RestAPIAuthorizationFilter restAPIAuthorizationFilterSpy = spy(restAPIAuthorizationFilter);
+        final APICallContext apiCallContext = new APICallContext("GET", "bpm", "case", "1", "", "");
+        final PermissionDecisionCache decisionCache = mock(PermissionDecisionCache.class);
+        doReturn(decisionCache).when(restAPIAuthorizationFilterSpy).getPermissionDecisionCache(apiSession);
+        doReturn(true).when(decisionCache).isCacheable("GET");
+        doReturn(12L).when(apiSession).getUserId();
+        doReturn(true).when(decisionCache).get(12L, "className|GET|bpm/case/1");
+
+        final boolean isAuthorized = restAPIAuthorizationFilterSpy.dynamicCheck(apiCallContext, new HashSet<String>(), dynamicAuthorizations, apiSession);
+
+        assertThat(isAuthorized).isTrue();
+        verify(restAPIAuthorizationFilterSpy, times(0)).executeScript(apiSession, "className", apiCallContext);
+    }
+
+    @Test
+    public void should_dynamicCheck_cache_the_decision_of_the_script() throws Exception {
+        final Set<String> dynamicAuthorizations = new HashSet<String>(Arrays.asList("check|className"));
+        final RestAPIAuthorizationFilter restAPIAuthorizationFilterSpy = spy(restAPIAuthorizationFilter);
+        final APICallContext apiCallContext = new APICallContext("GET", "bpm", "case", "1", "", "");
+        final PermissionDecisionCache decisionCache = mock(PermissionDecisionCache.class);
+        doReturn(decisionCache).when(restAPIAuthorizationFilterSpy).getPermissionDecisionCache(apiSession);
+        doReturn(true).when(decisionCache).isCacheable("GET");
+        doReturn(12L).when(apiSession).getUserId();
+        doReturn(false).when(restAPIAuthorizationFilterSpy).executeScript(apiSession, "className", apiCallContext);
+
+        final boolean isAuthorized = restAPIAuthorizationFilterSpy.dynamicCheck(apiCallContext, new HashSet<String>(), dynamicAuthorizations, apiSession);
+
+        assertThat(isAuthorized).isFalse();
+        verify(decisionCache).put(12L, "className|GET|bpm/case/1", false);
+    }
+
+    @Test
+    public void should_dynamicCheck_not_cache_the_decision_of_the_script_for_other_methods() throws Exception {
+        final Set<String> dynamicAuthorizations = new HashSet<String>(Arrays.asList("check|className"));
+        final RestAPIAuthorizationFilter restAPIAuthorizationFilterSpy = spy(restAPIAuthorizationFilter);
+        final APICallContext apiCallContext = new APICallContext("PUT", "bpm", "case", "1", "", "{}");
+        final PermissionDecisionCache decisionCache = mock(PermissionDecisionCache.class);
+        doReturn(decisionCache).when(restAPIAuthorizationFilterSpy).getPermissionDecisionCache(apiSession);
+        doReturn(true).when(restAPIAuthorizationFilterSpy).executeScript(apiSession, "className", apiCallContext);
+
+        final boolean isAuthorized = restAPIAuthorizationFilterSpy.dynamicCheck(apiCallContext, new HashSet<String>(), dynamicAuthorizations, apiSession);
+
+        assertThat(isAuthorized).isTrue();
+        verify(decisionCache, times(0)).put(anyLong(), anyString(), anyBoolean());
+    }
+
     @Test
     public void should_dynamicCheck_return_false_on_resource_with_no_script() throws Exception {
         final boolean isAuthorized = restAPIAuthorizationFilter.dynamicCheck(new APICallContext("GET", "bpm", "case", null, "", ""), new HashSet<String>(),
@@ -498,7 +570,7 @@ public class RestAPIAuthorizationFilterTest {
 
     @Test
     public void should_checkValidCondition_check_unauthorized_if_no_tenant_session() throws ServletException {
-        doReturn(null).when(httpSession).getAttribute(SessionUtil.API_SESSION_PARAM_KEY);
+        doReturn(null).when(httpSession).getAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
         doReturn("API/bpm/case/15").when(request).getRequestURI();
         //when
         final boolean isValid = restAPIAuthorizationFilter.checkValidCondition(request, response);
@@ -563,4 +635,26 @@ public class RestAPIAuthorizationFilterTest {
 
         assertThat(isValid).isTrue();
     }
+
+    @Test
+    public void should_checkPermissions_use_the_authorization_context_of_the_session() throws Exception {
+        final RestAPIAuthorizationFilter restAPIAuthorizationFilterSpy = spy(restAPIAuthorizationFilter);
+        initSpy(restAPIAuthorizationFilterSpy);
+        final Set<String> contextPermissions = new PermissionSet(Arrays.asList("CaseVisualization"));
+        doReturn(new AuthorizationContext(apiSession, contextPermissions)).when(httpSession).getAttribute(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY);
+        doReturn(true).when(restAPIAuthorizationFilterSpy).isApiAuthorizationsCheckEnabled(1l);
+        doReturn(new HashSet<String>(Arrays.asList("CaseVisualization"))).when(restAPIAuthorizationFilterSpy).getDeclaredPermissions(anyString(),
+                anyString(), anyString(), any(APIID.class), isA(ResourcesPermissionsMapping.class));
+        doReturn(new HashSet<String>()).when(restAPIAuthorizationFilterSpy).getDeclaredPermissions(anyString(), anyString(),
+                anyString(), any(APIID.class), isA(DynamicPermissionsChecks.class));
+
+        //when
+        final boolean isAuthorized = restAPIAuthorizationFilterSpy.checkPermissions(request, "bpm", "case", null);
+
+        //then
+        assertThat(isAuthorized).isTrue();
+        verify(httpSession, never()).getAttribute(SessionUtil.API_SESSION_PARAM_KEY);
+        verify(httpSession, never()).getAttribute(SessionUtil.PERMISSIONS_SESSION_PARAM_KEY);
+        verify(httpSession, never()).setAttribute(eq(SessionUtil.AUTHORIZATION_CONTEXT_SESSION_PARAM_KEY), any());
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+import java.io.File;
+
+import org.bonitasoft.console.common.server.page.extension.PageResourceProviderImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApiExtensionRoutesTest {
+
+    @Mock
+    private PageResourceProviderImpl pageResourceProvider;
+
+    private final ApiExtensionRoutes apiExtensionRoutes = new ApiExtensionRoutes();
+
+    @Before
+    public void before() throws Exception {
+        doReturn(12L).when(pageResourceProvider).getPageId();
+        doReturn("custompage_restApi").when(pageResourceProvider).getPageName();
+        doReturn("custompage_restApi").when(pageResourceProvider).getFullPageName();
+        doReturn(new File(ApiExtensionRoutesTest.class.getResource("page.properties").toURI())).when(pageResourceProvider)
+                .getResourceAsFile("page.properties");
+    }
+
+    @Test
+    public void should_route_the_endpoints_declared_by_a_page() throws Exception {
+        apiExtensionRoutes.addPage(pageResourceProvider);
+
+        final ApiExtensionRoute route = apiExtensionRoutes.getRoute("apiExtension|POST|restApiPost");
+        assertThat(route.getPageId()).isEqualTo(12L);
+        assertThat(route.getPermissions()).containsOnly("permission2", "permission3");
+        assertThat(route.getControllerFile(new File("pageDirectory"))).isEqualTo(new File("pageDirectory", "restResource1.groovy"));
+        assertThat(apiExtensionRoutes.getRoute("apiExtension|GET|restApiGet").getPermissions()).containsOnly("permission1");
+    }
+
+    @Test
+    public void should_not_route_unknown_endpoints() throws Exception {
+        apiExtensionRoutes.addPage(pageResourceProvider);
+
+        assertThat(apiExtensionRoutes.getRoute("apiExtension|GET|restApiPost")).isNull();
+    }
+
+    @Test
+    public void should_remove_the_routes_of_a_page() throws Exception {
+        apiExtensionRoutes.addPage(pageResourceProvider);
+
+        apiExtensionRoutes.removePage("custompage_restApi");
+
+        assertThat(apiExtensionRoutes.getRoute("apiExtension|GET|restApiGet")).isNull();
+        assertThat(apiExtensionRoutes.getRoute("apiExtension|POST|restApiPost")).isNull();
+    }
+
+    @Test
+    public void should_not_route_a_page_without_id() throws Exception {
+        doReturn(null).when(pageResourceProvider).getPageId();
+
+        apiExtensionRoutes.addPage(pageResourceProvider);
+
+        assertThat(apiExtensionRoutes.getRoute("apiExtension|GET|restApiGet")).isNull();
+    }
+}
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -27,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -50,9 +52,13 @@ public class CustomPageChildFirstClassLoaderTest {
     @Rule
     public TemporaryFolder tmpRule = new TemporaryFolder();
 
+    private SharedPageJars sharedPageJars;
+
     @Before
     public void setUp() throws Exception {
         when(customPageDependenciesResolver.getTempFolder()).thenReturn(tmpRule.newFolder());
+        sharedPageJars = new SharedPageJars(tmpRule.newFolder());
+        when(customPageDependenciesResolver.getSharedJars()).thenReturn(sharedPageJars);
     }
 
     @After
@@ -125,10 +131,38 @@ public class CustomPageChildFirstClassLoaderTest {
         assertThat(classLoader.getResourceAsStream("util.properties")).isNotNull();
     }
 
-    private Map<String, byte[]> loadedResources(String... resourceNames) {
-        final Map<String, byte[]> resources = new HashMap<>();
+    @Test
+    public void should_not_find_a_resource_missing_from_the_lib_folder() throws Exception {
+        classLoader = newClassloader();
+        when(customPageDependenciesResolver.resolveCustomPageDependencies()).thenReturn(loadedResources("util.properties"));
+
+        classLoader.addCustomPageResources();
+
+        assertThat(classLoader.getResourceAsStream("missing.properties")).isNull();
+    }
+
+    @Test
+    public void should_release_the_shared_jars_of_the_page() throws Exception {
+        classLoader = newClassloader();
+        when(customPageDependenciesResolver.resolveCustomPageDependencies()).thenReturn(loadedResources("util.jar", "util.properties"));
+        when(customPageDependenciesResolver.hasTempFolder()).thenReturn(true);
+        classLoader.addCustomPageResources();
+        assertThat(sharedPageJars.getJarCount()).isEqualTo(1);
+        assertThat(classLoader.getLibrariesSize()).isEqualTo(2 * "util.jar".length());
+
+        classLoader.release();
+
+        assertThat(sharedPageJars.getJarCount()).isEqualTo(0);
+        assertThat(customPageDependenciesResolver.getTempFolder()).doesNotExist();
+    }
+
+    private Map<String, File> loadedResources(String... resourceNames) throws IOException {
+        final Map<String, File> resources = new HashMap<>();
+        final File libFolder = tmpRule.newFolder();
         for (final String resource : resourceNames) {
-            resources.put(resource, new byte[0]);
+            final File file = new File(libFolder, resource);
+            FileUtils.writeStringToFile(file, resource);
+            resources.put(resource, file);
         }
         return resources;
     }
@@ -54,7 +54,7 @@ public class CustomPageDependenciesResolverTest {
     public void should_resolve_dependencies_content() throws Exception {
         final CustomPageDependenciesResolver resolver = newCustomPageDependenciesResolver(testPageFolder());
 
-        final Map<String, byte[]> dependenciesContent = resolver.resolveCustomPageDependencies();
+        final Map<String, File> dependenciesContent = resolver.resolveCustomPageDependencies();
 
         assertThat(dependenciesContent).containsKeys("resource.properties",
                 "bdm-client.jar",
@@ -85,7 +85,7 @@ public class CustomPageDependenciesResolverTest {
     public void should_resolve_dependencies_return_an_empty_map_if_no_lib_folder_is_found_in_custom_page() throws Exception {
         final CustomPageDependenciesResolver resolver = newCustomPageDependenciesResolver(null);
 
-        final Map<String, byte[]> dependenciesContent = resolver.resolveCustomPageDependencies();
+        final Map<String, File> dependenciesContent = resolver.resolveCustomPageDependencies();
 
         assertThat(dependenciesContent).isEmpty();
     }
@@ -26,6 +26,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,6 +45,7 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.bonitasoft.console.common.server.page.extension.PageContextImpl;
 import org.bonitasoft.console.common.server.page.extension.PageResourceProviderImpl;
@@ -61,6 +63,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -84,6 +87,9 @@ public class CustomPageServiceTest {
     @Rule
     public ExpectedException expectedEx = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Mock
     APISession apiSession;
 
@@ -170,6 +176,64 @@ public class CustomPageServiceTest {
         assertNotNull(restApiController);
     }
 
+    @Test
+    public void should_compile_rest_api_controller_once_per_page_classloader() throws Exception {
+        final File controllerFile = new File(getClass().getResource("/IndexRestApi.groovy").toURI());
+        final GroovyClassLoader pageClassloader = new GroovyClassLoader();
+
+        final Class<?> restApiControllerClass = customPageService.registerRestApiPage(pageClassloader, controllerFile);
+
+        assertThat(customPageService.registerRestApiPage(pageClassloader, controllerFile)).isSameAs(restApiControllerClass);
+        assertThat(customPageService.registerRestApiPage(new GroovyClassLoader(), controllerFile)).isNotSameAs(restApiControllerClass);
+    }
+
+    @Test
+    public void should_compile_rest_api_controller_again_when_its_file_is_modified() throws Exception {
+        final File controllerFile = temporaryFolder.newFile("IndexRestApi.groovy");
+        FileUtils.copyURLToFile(getClass().getResource("/IndexRestApi.groovy"), controllerFile);
+        controllerFile.setLastModified(1000L);
+        final GroovyClassLoader pageClassloader = new GroovyClassLoader();
+        final Class<?> restApiControllerClass = customPageService.registerRestApiPage(pageClassloader, controllerFile);
+
+        controllerFile.setLastModified(2000L);
+
+        assertThat(customPageService.registerRestApiPage(pageClassloader, controllerFile)).isNotSameAs(restApiControllerClass);
+    }
+
+    @Test
+    public void should_not_ask_the_engine_the_page_version_again_within_the_check_interval() throws Exception {
+        final File pageDirectory = temporaryFolder.newFolder("custompage_page");
+        FileUtils.writeStringToFile(new File(pageDirectory, ".lastupdate"), "5");
+        when(pageResourceProvider.getPageDirectory()).thenReturn(pageDirectory);
+        when(pageResourceProvider.getFullPageName()).thenReturn("custompage_page");
+        when(consoleProperties.getCustomPageVersionCheckInterval()).thenReturn(60000L);
+        doReturn(new PageVersions(1L)).when(customPageService).getPageVersions(apiSession);
+        doReturn(5L).when(customPageService).getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
+
+        customPageService.ensurePageFolderIsUpToDate(apiSession, pageResourceProvider);
+        customPageService.ensurePageFolderIsUpToDate(apiSession, pageResourceProvider);
+
+        verify(customPageService, times(1)).getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
+        verify(customPageService, never()).removePage(any(APISession.class), anyString());
+    }
+
+    @Test
+    public void should_remove_the_folder_of_a_page_deleted_from_the_engine() throws Exception {
+        final File pageDirectory = temporaryFolder.newFolder("custompage_page");
+        FileUtils.writeStringToFile(new File(pageDirectory, ".lastupdate"), "0");
+        when(pageResourceProvider.getPageDirectory()).thenReturn(pageDirectory);
+        when(pageResourceProvider.getPageName()).thenReturn("custompage_page");
+        doThrow(new PageNotFoundException("page not found")).when(customPageService).getPageLastUpdateDateFromEngine(apiSession, pageResourceProvider);
+        doNothing().when(customPageService).removePage(apiSession, "custompage_page");
+
+        try {
+            customPageService.ensurePageFolderIsUpToDate(apiSession, pageResourceProvider);
+            fail("the page should not be found");
+        } catch (final PageNotFoundException e) {
+            verify(customPageService).removePage(apiSession, "custompage_page");
+        }
+    }
+
     @Test
     public void should_retrievePageZipContent_save_it_in_bonita_home() throws Exception {
         // Given
@@ -497,4 +561,12 @@ public class CustomPageServiceTest {
         assertThat(classloader.getResource("org/company/test/config.properties")).isNotNull();
     }
 
+    @Test
+    public void should_verify_the_class_of_a_page_without_lib_folder() throws Exception {
+        final File pageDir = temporaryFolder.newFolder("pageWithoutLib");
+        FileUtils.copyFile(new File(getClass().getResource("/Index.groovy").toURI()), new File(pageDir, CustomPageService.PAGE_CONTROLLER_FILENAME));
+
+        customPageService.verifyPageClass(pageDir, apiSession);
+    }
+
 }
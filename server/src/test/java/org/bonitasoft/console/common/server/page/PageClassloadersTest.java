@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import groovy.lang.GroovyClassLoader;
+
+public class PageClassloadersTest {
+
+    private PageClassloaders pageClassloaders;
+
+    private final List<GroovyClassLoader> releasedClassloaders = new ArrayList<GroovyClassLoader>();
+
+    @Before
+    public void setUp() {
+        pageClassloaders = new PageClassloaders(new PageClassloaders.ReleaseListener() {
+
+            @Override
+            public void onRelease(final GroovyClassLoader classloader) {
+                releasedClassloaders.add(classloader);
+            }
+        });
+    }
+
+    @Test
+    public void should_build_the_classloader_of_a_page_once() throws Exception {
+        final CountingBuilder builder = new CountingBuilder();
+
+        final GroovyClassLoader classloader = pageClassloaders.acquire("page", builder, 0);
+
+        assertThat(pageClassloaders.acquire("page", new CountingBuilder(), 0)).isSameAs(classloader);
+        assertThat(builder.builds.get()).isEqualTo(1);
+        assertThat(pageClassloaders.getLiveClassloaders()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_let_concurrent_calls_wait_for_the_classloader_being_built() throws Exception {
+        final CountDownLatch buildStarted = new CountDownLatch(1);
+        final CountDownLatch buildAllowed = new CountDownLatch(1);
+        final CountingBuilder builder = new CountingBuilder() {
+
+            @Override
+            public GroovyClassLoader build() throws IOException {
+                buildStarted.countDown();
+                try {
+                    buildAllowed.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.build();
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<GroovyClassLoader>> calls = new ArrayList<Future<GroovyClassLoader>>();
+            for (int i = 0; i < 4; i++) {
+                calls.add(executor.submit(new Callable<GroovyClassLoader>() {
+
+                    @Override
+                    public GroovyClassLoader call() throws Exception {
+                        return pageClassloaders.acquire("page", builder, 0);
+                    }
+                }));
+            }
+            buildStarted.await();
+            buildAllowed.countDown();
+
+            for (final Future<GroovyClassLoader> call : calls) {
+                assertThat(call.get()).isSameAs(calls.get(0).get());
+            }
+            assertThat(builder.builds.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_release_the_least_recently_used_classloader_above_the_maximum() throws Exception {
+        final GroovyClassLoader page1Classloader = acquireAndRelease("page1", new CountingBuilder(), 2);
+        acquireAndRelease("page2", new CountingBuilder(), 2);
+        acquireAndRelease("page1", new CountingBuilder(), 2);
+
+        acquireAndRelease("page3", new CountingBuilder(), 2);
+
+        assertThat(pageClassloaders.getLoadedClasses()).containsOnlyKeys("page1", "page3");
+        assertThat(releasedClassloaders).hasSize(1).doesNotContain(page1Classloader);
+        assertThat(pageClassloaders.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_close_an_evicted_classloader_until_it_is_released() throws Exception {
+        final GroovyClassLoader page1Classloader = pageClassloaders.acquire("page1", new CountingBuilder(), 1);
+
+        acquireAndRelease("page2", new CountingBuilder(), 1);
+
+        assertThat(pageClassloaders.getEvictions()).isEqualTo(1);
+        assertThat(releasedClassloaders).isEmpty();
+
+        pageClassloaders.release(page1Classloader);
+
+        assertThat(releasedClassloaders).containsExactly(page1Classloader);
+    }
+
+    @Test
+    public void should_release_the_versioned_parent_of_a_released_classloader() throws Exception {
+        final TestVersionedClassloader parent = new TestVersionedClassloader();
+        final GroovyClassLoader classloader = new GroovyClassLoader(parent);
+
+        pageClassloaders.close(classloader);
+
+        assertThat(parent.released).isTrue();
+        assertThat(releasedClassloaders).containsExactly(classloader);
+    }
+
+    @Test
+    public void should_replace_and_release_an_outdated_classloader() throws Exception {
+        final GroovyClassLoader classloader = acquireAndRelease("page", new CountingBuilder(), 0);
+        final CountingBuilder outdatingBuilder = new CountingBuilder();
+        outdatingBuilder.outdated = true;
+
+        final GroovyClassLoader newClassloader = pageClassloaders.acquire("page", outdatingBuilder, 0);
+
+        assertThat(newClassloader).isNotSameAs(classloader);
+        assertThat(releasedClassloaders).containsExactly(classloader);
+        assertThat(outdatingBuilder.builds.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_close_an_outdated_classloader_until_it_is_released() throws Exception {
+        final GroovyClassLoader classloader = pageClassloaders.acquire("page", new CountingBuilder(), 0);
+        final CountingBuilder outdatingBuilder = new CountingBuilder();
+        outdatingBuilder.outdated = true;
+
+        final GroovyClassLoader newClassloader = pageClassloaders.acquire("page", outdatingBuilder, 0);
+
+        assertThat(newClassloader).isNotSameAs(classloader);
+        assertThat(releasedClassloaders).isEmpty();
+
+        pageClassloaders.release(classloader);
+
+        assertThat(releasedClassloaders).containsExactly(classloader);
+    }
+
+    @Test
+    public void should_build_the_classloader_again_after_a_failed_build() throws Exception {
+        final CountingBuilder failingBuilder = new CountingBuilder() {
+
+            @Override
+            public GroovyClassLoader build() throws IOException {
+                throw new IOException("unable to read the page");
+            }
+        };
+        try {
+            pageClassloaders.acquire("page", failingBuilder, 0);
+            fail("the build should have failed");
+        } catch (final IOException e) {
+            assertThat(e).hasMessage("unable to read the page");
+        }
+
+        assertThat(pageClassloaders.acquire("page", new CountingBuilder(), 0)).isNotNull();
+    }
+
+    @Test
+    public void should_release_the_classloader_of_a_removed_page() throws Exception {
+        final GroovyClassLoader classloader = acquireAndRelease("page", new CountingBuilder(), 0);
+
+        pageClassloaders.remove("page");
+
+        assertThat(releasedClassloaders).containsExactly(classloader);
+        assertThat(pageClassloaders.getLiveClassloaders()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_close_the_classloader_of_a_removed_page_once_its_last_user_releases_it() throws Exception {
+        final GroovyClassLoader classloader = pageClassloaders.acquire("page", new CountingBuilder(), 0);
+        pageClassloaders.acquire("page", new CountingBuilder(), 0);
+
+        pageClassloaders.remove("page");
+        pageClassloaders.release(classloader);
+
+        assertThat(releasedClassloaders).isEmpty();
+
+        pageClassloaders.release(classloader);
+
+        assertThat(releasedClassloaders).containsExactly(classloader);
+    }
+
+    private GroovyClassLoader acquireAndRelease(final String pageName, final CountingBuilder builder, final int maxClassloaders) throws IOException {
+        final GroovyClassLoader classloader = pageClassloaders.acquire(pageName, builder, maxClassloaders);
+        pageClassloaders.release(classloader);
+        return classloader;
+    }
+
+    private static class CountingBuilder implements PageClassloaders.ClassloaderBuilder {
+
+        private final AtomicInteger builds = new AtomicInteger();
+
+        private boolean outdated = false;
+
+        @Override
+        public GroovyClassLoader build() throws IOException {
+            builds.incrementAndGet();
+            return new GroovyClassLoader();
+        }
+
+        @Override
+        public boolean isOutdated(final GroovyClassLoader classloader) {
+            return outdated;
+        }
+    }
+
+    private static class TestVersionedClassloader extends ClassLoader implements VersionedClassloader {
+
+        private boolean released = false;
+
+        @Override
+        public String getVersion() {
+            return null;
+        }
+
+        @Override
+        public boolean hasVersion(final String version) {
+            return version == null;
+        }
+
+        @Override
+        public void release() {
+            released = true;
+        }
+    }
+}
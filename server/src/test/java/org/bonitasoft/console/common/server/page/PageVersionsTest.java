@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bonitasoft.engine.page.PageNotFoundException;
+import org.junit.Test;
+
+public class PageVersionsTest {
+
+    private final PageVersions pageVersions = new PageVersions(1L);
+
+    @Test
+    public void should_not_know_the_versions_of_a_new_page() throws Exception {
+        assertThat(pageVersions.getEngineVersion("custompage_page")).isNull();
+        assertThat(pageVersions.getDeployedVersion("custompage_page")).isNull();
+    }
+
+    @Test
+    public void should_keep_the_versions_of_a_page_until_it_is_removed() throws Exception {
+        pageVersions.setEngineVersion("custompage_page", 12L);
+        pageVersions.setDeployedVersion("custompage_page", 10L);
+
+        assertThat(pageVersions.getEngineVersion("custompage_page")).isEqualTo(12L);
+        assertThat(pageVersions.getDeployedVersion("custompage_page")).isEqualTo(10L);
+
+        pageVersions.remove("custompage_page");
+
+        assertThat(pageVersions.getEngineVersion("custompage_page")).isNull();
+        assertThat(pageVersions.getDeployedVersion("custompage_page")).isNull();
+    }
+
+    @Test
+    public void should_not_verify_a_version_verified_within_the_interval() throws Exception {
+        final AtomicInteger engineCalls = new AtomicInteger();
+        pageVersions.setEngineVersion("custompage_page", 12L);
+
+        pageVersions.verifyIfOlderThan("custompage_page", 60000L, engineVersionReader(engineCalls, 13L));
+        Thread.sleep(100);
+
+        assertThat(engineCalls.get()).isEqualTo(0);
+        assertThat(pageVersions.getEngineVersion("custompage_page")).isEqualTo(12L);
+    }
+
+    @Test
+    public void should_verify_an_old_version_in_the_background() throws Exception {
+        final AtomicInteger engineCalls = new AtomicInteger();
+        pageVersions.setEngineVersion("custompage_page", 12L);
+
+        pageVersions.verifyIfOlderThan("custompage_page", 0L, engineVersionReader(engineCalls, 13L));
+
+        final long timeout = System.currentTimeMillis() + 5000;
+        while (pageVersions.getEngineVersion("custompage_page") != 13L && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(pageVersions.getEngineVersion("custompage_page")).isEqualTo(13L);
+        assertThat(engineCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_remove_a_page_deleted_from_the_engine() throws Exception {
+        final PageVersions spiedPageVersions = spy(pageVersions);
+        final ApiExtensionRoutes apiExtensionRoutes = mock(ApiExtensionRoutes.class);
+        doReturn(apiExtensionRoutes).when(spiedPageVersions).getApiExtensionRoutes();
+        spiedPageVersions.setEngineVersion("custompage_page", 12L);
+        spiedPageVersions.setDeployedVersion("custompage_page", 12L);
+
+        spiedPageVersions.verifyIfOlderThan("custompage_page", 0L, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                throw new PageNotFoundException("custompage_page");
+            }
+        });
+
+        verify(apiExtensionRoutes, timeout(5000)).removePage("custompage_page");
+        assertThat(spiedPageVersions.getEngineVersion("custompage_page")).isNull();
+        assertThat(spiedPageVersions.getDeployedVersion("custompage_page")).isNull();
+    }
+
+    private Callable<Long> engineVersionReader(final AtomicInteger engineCalls, final long engineVersion) {
+        return new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                engineCalls.incrementAndGet();
+                return engineVersion;
+            }
+        };
+    }
+}
@@ -18,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -100,13 +101,22 @@ public class ResourceRendererTest {
         verify(servletContext).getMimeType("file.css");
         verify(res).setContentType("text/css");
         verify(res).setContentLength((int) contentLength);
-        verify(res).setBufferSize((int) contentLength);
         verify(res).setHeader("Cache-Control", "no-cache");
         verify(outputStream).write(any(byte[].class), eq(0), eq((int) contentLength));
         verify(res).flushBuffer();
         verify(outputStream).close();
     }
 
+    @Test
+    public void renderFile_should_not_send_a_file_the_browser_already_has() throws Exception {
+        when(req.getHeader("If-None-Match")).thenReturn("*");
+
+        resourceRenderer.renderFile(req, res, getResourceFile(), apiSession);
+
+        verify(res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(res, never()).getOutputStream();
+    }
+
     private File getResourceFile() throws URISyntaxException {
         return new File(ResourceRendererTest.class.getResource("file.css").toURI());
     }
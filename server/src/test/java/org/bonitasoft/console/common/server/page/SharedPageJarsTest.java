@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.console.common.server.page;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.bonitasoft.console.common.server.page.SharedPageJars.SharedJar;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SharedPageJarsTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private SharedPageJars sharedPageJars;
+
+    @Before
+    public void setUp() throws Exception {
+        sharedPageJars = new SharedPageJars(tmpFolder.newFolder());
+    }
+
+    @Test
+    public void should_share_a_single_copy_of_jars_with_the_same_content() throws Exception {
+        final SharedJar jarOfPage1 = sharedPageJars.acquire(aJar("page1", "util.jar", "content"));
+        final SharedJar jarOfPage2 = sharedPageJars.acquire(aJar("page2", "util-1.0.jar", "content"));
+
+        assertThat(jarOfPage2).isSameAs(jarOfPage1);
+        assertThat(jarOfPage1.getFile()).hasContent("content");
+        assertThat(sharedPageJars.getJarCount()).isEqualTo(1);
+        assertThat(sharedPageJars.getSize()).isEqualTo("content".length());
+    }
+
+    @Test
+    public void should_not_share_jars_with_different_contents() throws Exception {
+        final SharedJar jarOfPage1 = sharedPageJars.acquire(aJar("page1", "util.jar", "content"));
+        final SharedJar jarOfPage2 = sharedPageJars.acquire(aJar("page2", "util.jar", "other content"));
+
+        assertThat(jarOfPage2.getFile()).isNotEqualTo(jarOfPage1.getFile());
+        assertThat(sharedPageJars.getJarCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_delete_the_copy_of_a_jar_once_released_by_all_pages() throws Exception {
+        final SharedJar jarOfPage1 = sharedPageJars.acquire(aJar("page1", "util.jar", "content"));
+        final SharedJar jarOfPage2 = sharedPageJars.acquire(aJar("page2", "util.jar", "content"));
+
+        sharedPageJars.release(jarOfPage1);
+        assertThat(jarOfPage2.getFile()).exists();
+
+        sharedPageJars.release(jarOfPage2);
+        assertThat(jarOfPage2.getFile()).doesNotExist();
+        assertThat(sharedPageJars.getJarCount()).isEqualTo(0);
+    }
+
+    private File aJar(final String pageName, final String jarName, final String content) throws Exception {
+        final File jar = new File(tmpFolder.newFolder(pageName), jarName);
+        FileUtils.writeStringToFile(jar, content);
+        return jar;
+    }
+}
@@ -3,9 +3,15 @@ package org.bonitasoft.web.rest.server;
 import org.bonitasoft.web.rest.server.api.organization.APICustomUserInfoDefinition;
 import org.bonitasoft.web.rest.server.api.organization.APICustomUserInfoUser;
 import org.bonitasoft.web.rest.server.api.organization.APICustomUserInfoValue;
+import org.bonitasoft.web.rest.server.api.bpm.process.APIActorMember;
+import org.bonitasoft.web.rest.server.framework.APIRegistration;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APINotFoundException;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -34,4 +40,36 @@ public class BonitaRestAPIFactoryTest extends APITestWithMock {
     public void should_provide_an_APICustomUserInfoValue_when_requesting_custom_user_info_value() throws Exception {
         assertTrue(factory.defineApis("customuserinfo", "value") instanceof APICustomUserInfoValue);
     }
+
+    @Test
+    public void should_provide_a_new_api_instance_for_each_call() throws Exception {
+        assertNotSame(factory.defineApis("bpm", "delegation"), factory.defineApis("bpm", "delegation"));
+        assertTrue(factory.defineApis("bpm", "delegation") instanceof APIActorMember);
+    }
+
+    @Test(expected = APINotFoundException.class)
+    public void should_throw_an_api_not_found_exception_when_requesting_an_unknown_api() throws Exception {
+        factory.defineApis("bpm", "unknown");
+    }
+
+    @Test
+    public void should_describe_a_registered_api_once_an_instance_has_been_created() throws Exception {
+        final APIRegistration before = findRegistration("customuserinfo", "value");
+        assertNull(before.getApiClass());
+
+        factory.defineApis("customuserinfo", "value");
+
+        final APIRegistration after = findRegistration("customuserinfo", "value");
+        assertEquals(APICustomUserInfoValue.class.getName(), after.getApiClass());
+        assertEquals(1, after.getCreationCount());
+    }
+
+    private APIRegistration findRegistration(final String apiToken, final String resourceToken) {
+        for (final APIRegistration registration : factory.getRegistry().getRegistrations()) {
+            if (registration.getApiToken().equals(apiToken) && registration.getResourceToken().equals(resourceToken)) {
+                return registration;
+            }
+        }
+        return null;
+    }
 }
@@ -411,4 +411,41 @@ public class APICaseTest {
         // Then
         verify(item).setAttribute(CaseItem.COUNTER_ACTIVE_FLOW_NODES, numberOfFailedFlowNodes);
     }
+
+    @Test
+    public void fillCounters_should_fill_counters_of_all_items_of_a_page() {
+        // Given
+        final CaseItem item1 = mock(CaseItem.class);
+        doReturn(APIID.makeAPIID(1L)).when(item1).getId();
+        final CaseItem item2 = mock(CaseItem.class);
+        doReturn(APIID.makeAPIID(2L)).when(item2).getId();
+        doReturn(10000L).when(apiCase).getCountersTimeBudget();
+
+        final Map<String, String> filters1 = new HashMap<String, String>();
+        filters1.put(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, "1");
+        doReturn(3L).when(flowNodeDatastore).count(null, null, filters1);
+        final Map<String, String> filters2 = new HashMap<String, String>();
+        filters2.put(FlowNodeItem.ATTRIBUTE_PARENT_CASE_ID, "2");
+        doReturn(5L).when(flowNodeDatastore).count(null, null, filters2);
+
+        // When
+        apiCase.fillCounters(Arrays.asList(item1, item2), Arrays.asList(CaseItem.COUNTER_ACTIVE_FLOW_NODES));
+
+        // Then
+        verify(item1).setAttribute(CaseItem.COUNTER_ACTIVE_FLOW_NODES, (Object) 3L);
+        verify(item2).setAttribute(CaseItem.COUNTER_ACTIVE_FLOW_NODES, (Object) 5L);
+    }
+
+    @Test
+    public void fillCounters_should_not_compute_anything_for_a_page_when_no_counter_is_requested() {
+        // Given
+        final CaseItem item = mock(CaseItem.class);
+
+        // When
+        apiCase.fillCounters(Arrays.asList(item), new ArrayList<String>());
+
+        // Then
+        verify(item, never()).setAttribute(anyString(), anyLong());
+        verify(apiCase, never()).getCountersTimeBudget();
+    }
 }
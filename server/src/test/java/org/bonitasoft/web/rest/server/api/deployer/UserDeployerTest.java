@@ -20,8 +20,12 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.util.Arrays;
+
 import org.bonitasoft.web.rest.model.ModelFactory;
 import org.bonitasoft.web.rest.model.identity.UserItem;
 import org.bonitasoft.web.rest.model.monitoring.report.ReportItem;
@@ -70,6 +74,31 @@ public class UserDeployerTest extends APITestWithMock {
         assertNull(report.getInstalledBy());
     }
 
+    @Test
+    public void testDeployableAttributeIsDeployedInAllItems() throws Exception {
+        UserItem user = prepareGetterToReturnAUser();
+        ReportItem report1 = aReportInstalledBy(APIID.makeAPIID(6L));
+        ReportItem report2 = aReportInstalledBy(APIID.makeAPIID(6L));
+        ReportItem report3 = aReportInstalledBy(null);
+
+        UserDeployer installedByDeployer = new UserDeployer(getter, ReportItem.ATTRIBUTE_INSTALLED_BY);
+        installedByDeployer.deployIn(Arrays.asList(report1, report2, report3));
+
+        assertEquals(user, report1.getInstalledBy());
+        assertEquals(user, report2.getInstalledBy());
+        assertNull(report3.getInstalledBy());
+    }
+
+    @Test
+    public void testSameUserIsRetrievedOnceWhenDeployedInAllItems() throws Exception {
+        prepareGetterToReturnAUser();
+
+        UserDeployer installedByDeployer = new UserDeployer(getter, ReportItem.ATTRIBUTE_INSTALLED_BY);
+        installedByDeployer.deployIn(Arrays.asList(aReportInstalledBy(APIID.makeAPIID(6L)), aReportInstalledBy(APIID.makeAPIID(6L))));
+
+        verify(getter, times(1)).get(APIID.makeAPIID(6L));
+    }
+
     private UserItem prepareGetterToReturnAUser() {
         UserItem user = new UserItem();
         doReturn(user).when(getter).get(any(APIID.class));
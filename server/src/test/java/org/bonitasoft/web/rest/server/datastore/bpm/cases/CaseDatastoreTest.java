@@ -40,7 +40,6 @@ import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
-import org.bonitasoft.web.toolkit.client.data.item.IItem;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -390,20 +389,21 @@ public class CaseDatastoreTest {
      * Test method for {@link org.bonitasoft.web.rest.server.datastore.bpm.cases.CaseDatastore#count(String, String, Map).
      */
     @Test
-    public final void count_should_return_total_of_search() {
+    public final void count_should_return_total_of_search() throws Exception {
         // Given
         final String search = "plop";
         final String orders = CaseItem.ATTRIBUTE_ID;
         final Map<String, String> filters = Collections.emptyMap();
         final long total = 7L;
-        final ItemSearchResult<IItem> itemSearchResult = new ItemSearchResult<IItem>(0, 0, total, null);
-        doReturn(itemSearchResult).when(caseDatastore).search(0, 0, search, orders, filters);
+        doReturn(new SearchResultImpl<ProcessInstance>(total, Collections.<ProcessInstance> emptyList())).when(processAPI).searchProcessInstances(
+                any(SearchOptions.class));
 
         // When
         final long result = caseDatastore.count(search, orders, filters);
 
         // Then
         assertEquals(total, result);
+        verify(caseDatastore, never()).search(anyInt(), anyInt(), anyString(), anyString(), anyMap());
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.datastore.bpm.flownode.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bonitasoft.engine.bpm.flownode.ArchivedFlowNodeInstance;
+import org.bonitasoft.engine.bpm.flownode.ArchivedFlowNodeInstanceSearchDescriptor;
+import org.bonitasoft.engine.search.Order;
+import org.bonitasoft.engine.search.SearchFilterOperation;
+import org.bonitasoft.engine.search.SearchOptions;
+import org.bonitasoft.engine.search.impl.SearchResultImpl;
+import org.bonitasoft.engine.session.APISession;
+import org.bonitasoft.web.rest.model.bpm.flownode.ArchivedFlowNodeItem;
+import org.bonitasoft.web.rest.server.datastore.bpm.flownode.FlowNodeConverter;
+import org.bonitasoft.web.rest.server.datastore.utils.SearchOptionsCreator;
+import org.bonitasoft.web.rest.server.framework.search.ItemCursorSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.ItemSearchCursor;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIMethodNotAllowedException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AbstractArchivedFlowNodeDatastoreTest {
+
+    @Mock
+    private APISession engineSession;
+
+    @Mock
+    private FlowNodeConverter converter;
+
+    private AbstractArchivedFlowNodeDatastore<ArchivedFlowNodeItem, ArchivedFlowNodeInstance> datastore;
+
+    private final Map<String, String> filters = new HashMap<String, String>();
+
+    @Before
+    public void setUp() throws Exception {
+        FlowNodeConverter.setFlowNodeConverter(converter);
+        datastore = spy(new AbstractArchivedFlowNodeDatastore<ArchivedFlowNodeItem, ArchivedFlowNodeInstance>(engineSession));
+    }
+
+    @Test
+    public void should_sort_the_first_page_by_the_cursor_attribute_then_by_the_archived_flow_node_keys() throws Exception {
+        final ArgumentCaptor<SearchOptionsCreator> creator = mockSearch(archivedFlowNode(11L, 100L), archivedFlowNode(12L, 100L));
+
+        final ItemCursorSearchResult<ArchivedFlowNodeItem> result = datastore.searchAfter(null, 2, null, null, filters);
+
+        final SearchOptions searchOptions = creator.getValue().create();
+        assertThat(searchOptions.getSorts()).extracting("field", "order").containsExactly(
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ARCHIVE_DATE, Order.ASC),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ORIGINAL_FLOW_NODE_ID, Order.ASC));
+        assertThat(searchOptions.getFilters()).isEmpty();
+        assertThat(result.getResults()).hasSize(2);
+        assertThat(result.getNextCursor().getLastValues()).containsExactly(100L, 12L);
+    }
+
+    @Test
+    public void should_search_the_items_after_the_last_key_or_sharing_it_with_a_greater_flow_node() throws Exception {
+        final ArgumentCaptor<SearchOptionsCreator> creator = mockSearch(archivedFlowNode(13L, 100L));
+
+        final ItemCursorSearchResult<ArchivedFlowNodeItem> result = datastore.searchAfter(
+                new ItemSearchCursor(ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE, false, 100L, 12L), 2, null, null, filters);
+
+        final SearchOptions searchOptions = creator.getValue().create();
+        assertThat(searchOptions.getSorts()).extracting("field", "order").containsExactly(
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ARCHIVE_DATE, Order.ASC),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ORIGINAL_FLOW_NODE_ID, Order.ASC));
+        assertThat(searchOptions.getFilters()).extracting("field", "operation", "value").containsExactly(
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ARCHIVE_DATE, SearchFilterOperation.GREATER_THAN, 100L),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.OR, null),
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ARCHIVE_DATE, SearchFilterOperation.EQUALS, 100L),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ORIGINAL_FLOW_NODE_ID, SearchFilterOperation.GREATER_THAN, 12L),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null));
+        assertThat(searchOptions.getStartIndex()).isEqualTo(0);
+        assertThat(result.getResults()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void should_break_the_ties_on_the_flow_node_then_on_the_archived_date_when_descending() throws Exception {
+        final ArchivedFlowNodeInstance last = archivedFlowNode(9L, 90L);
+        when(last.getProcessDefinitionId()).thenReturn(5L);
+        final ArgumentCaptor<SearchOptionsCreator> creator = mockSearch(archivedFlowNode(11L, 100L), last);
+
+        final ItemCursorSearchResult<ArchivedFlowNodeItem> result = datastore.searchAfter(
+                new ItemSearchCursor(ArchivedFlowNodeItem.ATTRIBUTE_PROCESS_ID, true, 5L, 11L, 100L), 2, null, null, filters);
+
+        final SearchOptions searchOptions = creator.getValue().create();
+        assertThat(searchOptions.getSorts()).extracting("field", "order").containsExactly(
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.PROCESS_DEFINITION_ID, Order.DESC),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ORIGINAL_FLOW_NODE_ID, Order.DESC),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ARCHIVE_DATE, Order.DESC));
+        assertThat(searchOptions.getFilters()).extracting("field", "operation", "value").containsExactly(
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.PROCESS_DEFINITION_ID, SearchFilterOperation.LESS_THAN, 5L),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.OR, null),
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.PROCESS_DEFINITION_ID, SearchFilterOperation.EQUALS, 5L),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ORIGINAL_FLOW_NODE_ID, SearchFilterOperation.LESS_THAN, 11L),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.OR, null),
+                tuple(null, SearchFilterOperation.L_PARENTHESIS, null),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.PROCESS_DEFINITION_ID, SearchFilterOperation.EQUALS, 5L),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ORIGINAL_FLOW_NODE_ID, SearchFilterOperation.EQUALS, 11L),
+                tuple(ArchivedFlowNodeInstanceSearchDescriptor.ARCHIVE_DATE, SearchFilterOperation.LESS_THAN, 100L),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null),
+                tuple(null, SearchFilterOperation.R_PARENTHESIS, null));
+        assertThat(result.getNextCursor().getLastValues()).containsExactly(5L, 9L, 90L);
+    }
+
+    @Test(expected = APIException.class)
+    public void should_refuse_a_cursor_without_the_keys_of_its_sort() throws Exception {
+        datastore.searchAfter(new ItemSearchCursor(ArchivedFlowNodeItem.ATTRIBUTE_ARCHIVED_DATE, false, 100L), 2, null, null, filters);
+    }
+
+    @Test(expected = APIMethodNotAllowedException.class)
+    public void should_refuse_a_cursor_on_an_attribute_which_cannot_be_filtered_by_range() throws Exception {
+        datastore.searchAfter(new ItemSearchCursor(ArchivedFlowNodeItem.ATTRIBUTE_NAME, false, 0L, 0L, 0L), 2, null, null, filters);
+    }
+
+    @Test(expected = APIMethodNotAllowedException.class)
+    public void should_refuse_to_sort_the_first_page_on_an_attribute_which_cannot_be_filtered_by_range() throws Exception {
+        datastore.searchAfter(null, 2, null, ArchivedFlowNodeItem.ATTRIBUTE_NAME + " ASC", filters);
+    }
+
+    private ArgumentCaptor<SearchOptionsCreator> mockSearch(final ArchivedFlowNodeInstance... items) {
+        final ArgumentCaptor<SearchOptionsCreator> creator = ArgumentCaptor.forClass(SearchOptionsCreator.class);
+        doReturn(new SearchResultImpl<ArchivedFlowNodeInstance>(items.length, Arrays.asList(items))).when(datastore).runSearch(creator.capture(),
+                eq(filters));
+        return creator;
+    }
+
+    private ArchivedFlowNodeInstance archivedFlowNode(final long sourceObjectId, final long archiveDate) {
+        final ArchivedFlowNodeInstance archivedFlowNode = mock(ArchivedFlowNodeInstance.class);
+        when(archivedFlowNode.getSourceObjectId()).thenReturn(sourceObjectId);
+        when(archivedFlowNode.getArchiveDate()).thenReturn(new Date(archiveDate));
+        return archivedFlowNode;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.datastore.bpm.flownode.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bonitasoft.engine.bpm.flownode.ArchivedHumanTaskInstance;
+import org.bonitasoft.engine.bpm.flownode.ArchivedHumanTaskInstanceSearchDescriptor;
+import org.bonitasoft.engine.search.Order;
+import org.bonitasoft.engine.search.SearchOptions;
+import org.bonitasoft.engine.search.impl.SearchResultImpl;
+import org.bonitasoft.engine.session.APISession;
+import org.bonitasoft.web.rest.model.bpm.flownode.ArchivedHumanTaskItem;
+import org.bonitasoft.web.rest.model.bpm.flownode.HumanTaskItem;
+import org.bonitasoft.web.rest.server.datastore.utils.SearchOptionsCreator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AbstractArchivedHumanTaskDatastoreTest {
+
+    @Mock
+    private APISession engineSession;
+
+    private AbstractArchivedHumanTaskDatastore<ArchivedHumanTaskItem, ArchivedHumanTaskInstance> datastore;
+
+    private final Map<String, String> filters = new HashMap<String, String>();
+
+    private final ArgumentCaptor<SearchOptionsCreator> creator = ArgumentCaptor.forClass(SearchOptionsCreator.class);
+
+    @Before
+    public void setUp() throws Exception {
+        datastore = spy(new AbstractArchivedHumanTaskDatastore<ArchivedHumanTaskItem, ArchivedHumanTaskInstance>(engineSession));
+        filters.put(HumanTaskItem.FILTER_SUPERVISOR_ID, "4");
+        doReturn(new SearchResultImpl<ArchivedHumanTaskInstance>(0, Collections.<ArchivedHumanTaskInstance> emptyList())).when(datastore)
+                .runSearch(creator.capture(), any(Map.class));
+    }
+
+    @Test
+    public void should_not_send_the_supervisor_filter_to_the_engine_filters_of_a_search() throws Exception {
+        datastore.search(0, 10, null, null, filters);
+
+        assertThat(creator.getValue().create().getFilters()).isEmpty();
+        assertThat(filters).containsEntry(HumanTaskItem.FILTER_SUPERVISOR_ID, "4");
+    }
+
+    @Test
+    public void should_not_send_the_supervisor_filter_to_the_engine_filters_of_a_cursor_search() throws Exception {
+        datastore.searchAfter(null, 10, null, null, filters);
+
+        final SearchOptions searchOptions = creator.getValue().create();
+        assertThat(searchOptions.getFilters()).isEmpty();
+        assertThat(searchOptions.getSorts()).extracting("field", "order").containsExactly(
+                tuple(ArchivedHumanTaskInstanceSearchDescriptor.ARCHIVE_DATE, Order.ASC),
+                tuple(ArchivedHumanTaskInstanceSearchDescriptor.ORIGINAL_HUMAN_TASK_ID, Order.ASC));
+        // the supervisor filter still selects the engine search method
+        verify(datastore).runSearch(any(SearchOptionsCreator.class), eq(filters));
+    }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,10 +37,13 @@ import javax.servlet.http.HttpSession;
 import org.bonitasoft.console.common.server.preferences.properties.ResourcesPermissionsMapping;
 import org.bonitasoft.console.common.server.utils.SessionUtil;
 import org.bonitasoft.engine.session.APISession;
+import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -105,10 +109,62 @@ public class APIServletCallTest {
         when(itemSearchResult.getPage()).thenReturn(4);
         when(itemSearchResult.getLength()).thenReturn(8);
         when(itemSearchResult.getTotal()).thenReturn(789L);
-        when(api.runSearch(anyInt(), anyInt(), anyString(), anyString(), any(Map.class), any(List.class), any(List.class))).thenReturn(itemSearchResult);
+        when(api.runSearch(anyInt(), anyInt(), anyString(), anyString(), any(Map.class), any(List.class), any(List.class), any(List.class)))
+                .thenReturn(itemSearchResult);
 
         apiServletCall.doGet();
         verify(apiServletCall).head(anyString(), anyString());
     }
 
+    @Test
+    public void doGet_should_tag_the_item_of_a_cacheable_api() throws Exception {
+        givenAGetOfACacheableItem();
+
+        apiServletCall.doGet();
+
+        verify(apiServletCall).head(anyString(), anyString());
+        verify(apiServletCall).output(anyString());
+    }
+
+    @Test
+    public void doGet_should_answer_not_modified_when_the_browser_already_has_the_item() throws Exception {
+        givenAGetOfACacheableItem();
+        apiServletCall.doGet();
+        final ArgumentCaptor<String> entityTag = ArgumentCaptor.forClass(String.class);
+        verify(apiServletCall).head(anyString(), entityTag.capture());
+
+        doReturn(entityTag.getValue()).when(request).getHeader("If-None-Match");
+        apiServletCall.doGet();
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(apiServletCall).output(anyString());
+    }
+
+    @Test
+    public void doGet_should_not_tag_the_item_of_an_api_not_cacheable() throws Exception {
+        givenAGetOfACacheableItem();
+        doReturn(CachePolicy.NO_CACHE).when(api).getCachePolicy();
+
+        apiServletCall.doGet();
+
+        verify(apiServletCall, never()).head(anyString(), anyString());
+        verify(apiServletCall).output(any(Object.class));
+    }
+
+    private void givenAGetOfACacheableItem() {
+        final HttpServletRequest pathRequest = mock(HttpServletRequest.class);
+        doReturn("API/bpm/case/15").when(pathRequest).getPathInfo();
+        apiServletCall.parsePath(pathRequest);
+        doReturn(request).when(apiServletCall).getRequest();
+        doReturn(response).when(apiServletCall).getResponse();
+        doReturn(null).when(apiServletCall).getParameterAsList(anyString());
+        doNothing().when(apiServletCall).head(anyString(), anyString());
+        doNothing().when(apiServletCall).output(anyString());
+        doNothing().when(apiServletCall).output(any(Object.class));
+        doReturn(CachePolicy.REVALIDATE).when(api).getCachePolicy();
+        final CaseItem item = new CaseItem();
+        item.setId(15L);
+        when(api.runGet(any(APIID.class), any(List.class), any(List.class), any(List.class))).thenReturn(item);
+    }
+
 }
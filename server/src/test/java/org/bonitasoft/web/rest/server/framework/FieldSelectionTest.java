@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.bonitasoft.engine.bpm.process.ProcessInstance;
+import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
+import org.bonitasoft.web.rest.server.APITestWithMock;
+import org.bonitasoft.web.rest.server.datastore.bpm.cases.CaseItemConverter;
+import org.junit.After;
+import org.junit.Test;
+
+public class FieldSelectionTest extends APITestWithMock {
+
+    private final FieldSelection selection = new FieldSelection(Arrays.asList(CaseItem.ATTRIBUTE_ID, CaseItem.ATTRIBUTE_STATE));
+
+    @After
+    public void unbindSelection() {
+        selection.unbind();
+    }
+
+    @Test
+    public void should_request_all_attributes_when_no_selection_is_bound() throws Exception {
+        assertThat(FieldSelection.isRequested(CaseItem.ATTRIBUTE_START_DATE)).isTrue();
+    }
+
+    @Test
+    public void should_only_request_selected_attributes_when_a_selection_is_bound() throws Exception {
+        selection.bind();
+
+        assertThat(FieldSelection.isRequested(CaseItem.ATTRIBUTE_STATE)).isTrue();
+        assertThat(FieldSelection.isRequested(CaseItem.ATTRIBUTE_START_DATE)).isFalse();
+    }
+
+    @Test
+    public void should_not_convert_attributes_that_were_not_selected() throws Exception {
+        final ProcessInstance processInstance = mock(ProcessInstance.class);
+        when(processInstance.getId()).thenReturn(1L);
+        when(processInstance.getState()).thenReturn("started");
+        when(processInstance.getStartDate()).thenReturn(new Date());
+        selection.bind();
+
+        final CaseItem caseItem = new CaseItemConverter().convert(processInstance);
+
+        assertThat(caseItem.getAttributeNames()).containsOnly(CaseItem.ATTRIBUTE_ID, CaseItem.ATTRIBUTE_STATE);
+    }
+
+    @Test
+    public void should_only_keep_deploys_of_selected_attributes() throws Exception {
+        assertThat(selection.filterDeploys(Arrays.asList(CaseItem.ATTRIBUTE_STATE, CaseItem.ATTRIBUTE_PROCESS_ID)))
+                .containsExactly(CaseItem.ATTRIBUTE_STATE);
+    }
+
+    @Test
+    public void should_remove_attributes_that_were_not_selected_but_keep_counters() throws Exception {
+        final CaseItem caseItem = new CaseItem();
+        caseItem.setId(1L);
+        caseItem.setState("started");
+        caseItem.setProcessId(2L);
+        caseItem.setAttribute(CaseItem.COUNTER_FAILED_FLOW_NODES, 3L);
+
+        selection.applyTo(Collections.singletonList(caseItem), Arrays.asList(CaseItem.COUNTER_FAILED_FLOW_NODES));
+
+        assertThat(caseItem.getAttributeNames()).containsOnly(CaseItem.ATTRIBUTE_ID, CaseItem.ATTRIBUTE_STATE, CaseItem.COUNTER_FAILED_FLOW_NODES);
+    }
+
+    @Test
+    public void should_keep_everything_when_all_attributes_are_selected() throws Exception {
+        final CaseItem caseItem = new CaseItem();
+        caseItem.setId(1L);
+        caseItem.setProcessId(2L);
+
+        FieldSelection.ALL.applyTo(Collections.singletonList(caseItem), Collections.<String> emptyList());
+
+        assertThat(caseItem.getAttributeNames()).containsOnly(CaseItem.ATTRIBUTE_ID, CaseItem.ATTRIBUTE_PROCESS_ID);
+        assertThat(FieldSelection.ALL.filterDeploys(Arrays.asList(CaseItem.ATTRIBUTE_PROCESS_ID))).containsExactly(CaseItem.ATTRIBUTE_PROCESS_ID);
+    }
+
+    @Test
+    public void should_always_keep_the_id_of_the_items() throws Exception {
+        final CaseItem caseItem = new CaseItem();
+        caseItem.setId(1L);
+        caseItem.setState("started");
+
+        new FieldSelection(Arrays.asList(CaseItem.ATTRIBUTE_STATE)).applyTo(Collections.singletonList(caseItem), Collections.<String> emptyList());
+
+        assertThat(caseItem.getAttributeNames()).containsOnly(CaseItem.ATTRIBUTE_ID, CaseItem.ATTRIBUTE_STATE);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TotalCacheTest {
+
+    private final TotalCache totalCache = new TotalCache(60000L);
+
+    @Test
+    public void should_return_cached_total_of_a_search() throws Exception {
+        totalCache.put("case", 1L, "search", Collections.singletonMap("state", "failed"), 3L);
+
+        assertThat(totalCache.get("case", 1L, "search", Collections.singletonMap("state", "failed"))).isEqualTo(3L);
+    }
+
+    @Test
+    public void should_not_return_total_of_another_search() throws Exception {
+        totalCache.put("case", 1L, "search", Collections.singletonMap("state", "failed"), 3L);
+
+        assertThat(totalCache.get("case", 1L, "search", Collections.singletonMap("state", "started"))).isNull();
+        assertThat(totalCache.get("case", 1L, "another search", Collections.singletonMap("state", "failed"))).isNull();
+        assertThat(totalCache.get("process", 1L, "search", Collections.singletonMap("state", "failed"))).isNull();
+    }
+
+    @Test
+    public void should_return_cached_total_whatever_the_order_of_the_filters() throws Exception {
+        final Map<String, String> filters = new LinkedHashMap<String, String>();
+        filters.put("state", "failed");
+        filters.put("processId", "1");
+        final Map<String, String> sameFilters = new LinkedHashMap<String, String>();
+        sameFilters.put("processId", "1");
+        sameFilters.put("state", "failed");
+        totalCache.put("case", 1L, null, filters, 3L);
+
+        assertThat(totalCache.get("case", 1L, null, sameFilters)).isEqualTo(3L);
+    }
+
+    @Test
+    public void should_not_return_expired_total() throws Exception {
+        final TotalCache expiringCache = new TotalCache(0L);
+        expiringCache.put("case", 1L, null, Collections.<String, String> emptyMap(), 3L);
+
+        assertThat(expiringCache.get("case", 1L, null, Collections.<String, String> emptyMap())).isNull();
+    }
+
+    @Test
+    public void should_drop_all_totals_of_an_invalidated_resource() throws Exception {
+        totalCache.put("case", 1L, null, Collections.<String, String> emptyMap(), 3L);
+        totalCache.put("process", 1L, null, Collections.<String, String> emptyMap(), 2L);
+
+        totalCache.invalidate("case");
+
+        assertThat(totalCache.get("case", 1L, null, Collections.<String, String> emptyMap())).isNull();
+        assertThat(totalCache.get("process", 1L, null, Collections.<String, String> emptyMap())).isEqualTo(2L);
+    }
+
+    @Test
+    public void should_not_return_total_of_another_user() throws Exception {
+        totalCache.put("case", 1L, "search", Collections.singletonMap("state", "failed"), 3L);
+
+        assertThat(totalCache.get("case", 2L, "search", Collections.singletonMap("state", "failed"))).isNull();
+    }
+
+    @Test
+    public void should_use_the_time_to_live_of_the_last_call_to_get_the_cache_of_a_tenant() throws Exception {
+        final TotalCache tenantCache = TotalCache.getInstance(42L, 60000L);
+        assertThat(TotalCache.getInstance(42L, 0L)).isSameAs(tenantCache);
+
+        tenantCache.put("case", 1L, null, Collections.<String, String> emptyMap(), 3L);
+
+        assertThat(tenantCache.get("case", 1L, null, Collections.<String, String> emptyMap())).isNull();
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.junit.Test;
+
+public class ItemSearchCursorTest {
+
+    @Test
+    public void should_read_the_cursor_of_its_token() throws Exception {
+        final ItemSearchCursor cursor = new ItemSearchCursor("archivedDate", true, 1420070400000L, 42L);
+
+        final ItemSearchCursor read = ItemSearchCursor.fromToken(cursor.toToken());
+
+        assertThat(read.getAttribute()).isEqualTo("archivedDate");
+        assertThat(read.isDescending()).isTrue();
+        assertThat(read.getLastValues()).containsExactly(1420070400000L, 42L);
+    }
+
+    @Test(expected = APIException.class)
+    public void should_refuse_a_token_which_is_not_hexadecimal() throws Exception {
+        ItemSearchCursor.fromToken("not a cursor");
+    }
+
+    @Test(expected = APIException.class)
+    public void should_refuse_a_token_which_is_not_a_cursor() throws Exception {
+        ItemSearchCursor.fromToken("41534331");
+    }
+}
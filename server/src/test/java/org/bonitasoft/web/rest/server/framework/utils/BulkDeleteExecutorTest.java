@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+import org.junit.Test;
+
+public class BulkDeleteExecutorTest {
+
+    private final BulkDeleteExecutor executor = new BulkDeleteExecutor(1L, 4);
+
+    @Test
+    public void should_delete_all_items_before_returning_when_run() throws Exception {
+        final BulkDeleteJob job = new BulkDeleteJob(ids(20), 1L, deleter(new CountDownLatch(0)));
+
+        executor.run(job);
+
+        assertThat(job.isDone()).isTrue();
+        assertThat(job.getResults()).hasSize(20);
+        assertThat(job.getResults().get(0).getId()).isEqualTo(APIID.makeAPIID(0L));
+        assertThat(job.getResults().get(19).getId()).isEqualTo(APIID.makeAPIID(19L));
+    }
+
+    @Test
+    public void should_return_before_the_end_of_a_submitted_job_and_keep_it() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final BulkDeleteJob job = new BulkDeleteJob(ids(3), 1L, deleter(latch));
+
+        executor.submit(job);
+
+        assertThat(job.isDone()).isFalse();
+        assertThat(executor.getJob(job.getId())).isSameAs(job);
+        latch.countDown();
+        job.await();
+        assertThat(job.getResults()).hasSize(3);
+    }
+
+    @Test
+    public void should_return_null_for_an_unknown_job() throws Exception {
+        assertThat(executor.getJob("unknown")).isNull();
+    }
+
+    @Test
+    public void should_forget_the_oldest_jobs() throws Exception {
+        final BulkDeleteJob firstJob = new BulkDeleteJob(ids(0), 1L, deleter(new CountDownLatch(0)));
+        executor.submit(firstJob);
+
+        for (int i = 0; i < BulkDeleteExecutor.MAX_KEPT_JOBS; i++) {
+            executor.submit(new BulkDeleteJob(ids(0), 1L, deleter(new CountDownLatch(0))));
+        }
+
+        assertThat(executor.getJob(firstJob.getId())).isNull();
+    }
+
+    @Test
+    public void should_resize_the_executor_when_the_number_of_threads_changes() throws Exception {
+        executor.setThreads(8);
+        assertThat(executor.getThreads()).isEqualTo(8);
+
+        executor.setThreads(2);
+        assertThat(executor.getThreads()).isEqualTo(2);
+
+        final BulkDeleteJob job = new BulkDeleteJob(ids(20), 1L, deleter(new CountDownLatch(0)));
+        executor.run(job);
+        assertThat(job.getResults()).hasSize(20);
+    }
+
+    private List<APIID> ids(final int count) {
+        final List<APIID> ids = new ArrayList<APIID>();
+        for (long i = 0; i < count; i++) {
+            ids.add(APIID.makeAPIID(i));
+        }
+        return ids;
+    }
+
+    private BulkDeleteJob.Deleter deleter(final CountDownLatch latch) {
+        return new BulkDeleteJob.Deleter() {
+
+            @Override
+            public void delete(final APIID id) {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    throw new APIException(e);
+                }
+            }
+
+            @Override
+            public void done() {
+                // nothing to do
+            }
+        };
+    }
+}
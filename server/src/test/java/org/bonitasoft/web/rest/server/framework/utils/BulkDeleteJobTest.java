@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+import org.junit.Test;
+
+public class BulkDeleteJobTest {
+
+    private final List<APIID> deletedIds = new CopyOnWriteArrayList<APIID>();
+
+    private final AtomicInteger doneCalls = new AtomicInteger();
+
+    @Test
+    public void should_report_the_outcome_of_each_deletion_without_stopping_at_the_first_failure() throws Exception {
+        final BulkDeleteJob job = new BulkDeleteJob(ids(1L, 2L, 3L), 1L, deleter(APIID.makeAPIID(1L), APIID.makeAPIID(2L)));
+
+        job.run();
+
+        assertThat(job.isDone()).isTrue();
+        assertThat(deletedIds).containsOnly(APIID.makeAPIID(3L));
+        final List<BulkDeleteResult> results = job.getResults();
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getStatus()).isEqualTo(BulkDeleteResult.NOT_FOUND);
+        assertThat(results.get(1).getStatus()).isEqualTo(BulkDeleteResult.ERROR);
+        assertThat(results.get(1).getMessage()).isEqualTo("deletion failed");
+        assertThat(results.get(2).getStatus()).isEqualTo(BulkDeleteResult.DELETED);
+        assertThat(doneCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_the_outcomes_in_the_job_document() throws Exception {
+        final BulkDeleteJob job = new BulkDeleteJob(ids(1L, 2L, 3L), 1L, deleter(APIID.makeAPIID(1L), APIID.makeAPIID(2L)));
+        job.run();
+
+        final Map<String, Object> document = job.toMap();
+
+        assertThat(document.get("status")).isEqualTo(BulkDeleteJob.DONE);
+        assertThat(document.get("total")).isEqualTo(3);
+        assertThat(document.get(BulkDeleteResult.DELETED)).isEqualTo(1);
+        assertThat(document.get(BulkDeleteResult.NOT_FOUND)).isEqualTo(1);
+        assertThat(document.get(BulkDeleteResult.ERROR)).isEqualTo(1);
+    }
+
+    @Test
+    public void should_be_done_at_once_when_there_is_nothing_to_delete() throws Exception {
+        final BulkDeleteJob job = new BulkDeleteJob(Collections.<APIID> emptyList(), 1L, deleter());
+
+        assertThat(job.isDone()).isTrue();
+        assertThat(doneCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_delete_each_item_once_when_run_by_several_workers() throws Exception {
+        final BulkDeleteJob job = new BulkDeleteJob(ids(1L, 2L, 3L, 4L, 5L, 6L), 1L, deleter());
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[3];
+        for (int i = 0; i < workers.length; i++) {
+            final Runnable worker = job.newWorker();
+            workers[i] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                    worker.run();
+                }
+            });
+            workers[i].start();
+        }
+
+        start.countDown();
+        job.await();
+
+        assertThat(deletedIds).hasSize(6);
+        assertThat(job.getProcessed()).isEqualTo(6);
+        assertThat(doneCalls.get()).isEqualTo(1);
+    }
+
+    private List<APIID> ids(final Long... ids) {
+        final List<APIID> apiIds = new ArrayList<APIID>();
+        for (final Long id : ids) {
+            apiIds.add(APIID.makeAPIID(id));
+        }
+        return apiIds;
+    }
+
+    private BulkDeleteJob.Deleter deleter(final APIID notFoundId, final APIID failingId) {
+        return new BulkDeleteJob.Deleter() {
+
+            @Override
+            public void delete(final APIID id) {
+                if (id.equals(notFoundId)) {
+                    throw new APIException(new APIItemNotFoundException("case", id));
+                }
+                if (id.equals(failingId)) {
+                    throw new APIException("deletion failed");
+                }
+                deletedIds.add(id);
+            }
+
+            @Override
+            public void done() {
+                doneCalls.incrementAndGet();
+            }
+        };
+    }
+
+    private BulkDeleteJob.Deleter deleter() {
+        return deleter(null, null);
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.web.rest.model.identity.UserItem;
+import org.bonitasoft.web.rest.server.APITestWithMock;
+import org.bonitasoft.web.rest.server.datastore.organization.UserDatastore;
+import org.bonitasoft.web.rest.server.framework.RequestItemCache;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasBulkGet;
+import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
+import org.bonitasoft.web.toolkit.client.data.APIID;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkGetUtilTest extends APITestWithMock {
+
+    @Mock
+    private DatastoreHasBulkGet<UserItem> bulkGetter;
+
+    @Mock
+    private DatastoreHasGet<UserItem> getter;
+
+    @Mock
+    private UserDatastore userDatastore;
+
+    private final RequestItemCache requestItemCache = new RequestItemCache();
+
+    @After
+    public void unbindRequestItemCache() {
+        requestItemCache.unbind();
+    }
+
+    @Test
+    public void should_collect_distinct_ids_of_an_attribute() throws Exception {
+        final List<APIID> ids = BulkGetUtil.collectIds(Arrays.asList(aUserManagedBy(1L), aUserManagedBy(2L), aUserManagedBy(1L), aUserManagedBy(null)),
+                UserItem.ATTRIBUTE_MANAGER_ID);
+
+        assertThat(ids).containsExactly(APIID.makeAPIID(1L), APIID.makeAPIID(2L));
+    }
+
+    @Test
+    public void should_get_all_items_with_a_single_call_when_getter_has_bulk_get() throws Exception {
+        final List<APIID> ids = Arrays.asList(APIID.makeAPIID(1L), APIID.makeAPIID(2L));
+        final UserItem user1 = new UserItem();
+        final UserItem user2 = new UserItem();
+        doReturn(map(APIID.makeAPIID(1L), user1, APIID.makeAPIID(2L), user2)).when(bulkGetter).getAll(ids);
+
+        final Map<APIID, UserItem> users = BulkGetUtil.getAll(bulkGetter, ids);
+
+        assertThat(users.get(APIID.makeAPIID(1L))).isSameAs(user1);
+        assertThat(users.get(APIID.makeAPIID(2L))).isSameAs(user2);
+        verify(bulkGetter, never()).get(any(APIID.class));
+    }
+
+    @Test
+    public void should_get_items_missing_from_bulk_get_one_by_one() throws Exception {
+        final List<APIID> ids = Arrays.asList(APIID.makeAPIID(1L), APIID.makeAPIID(2L));
+        final UserItem user1 = new UserItem();
+        doReturn(Collections.singletonMap(APIID.makeAPIID(1L), user1)).when(bulkGetter).getAll(ids);
+
+        final Map<APIID, UserItem> users = BulkGetUtil.getAll(bulkGetter, ids);
+
+        assertThat(users.get(APIID.makeAPIID(1L))).isSameAs(user1);
+        assertThat(users).containsKey(APIID.makeAPIID(2L));
+        verify(bulkGetter).get(APIID.makeAPIID(2L));
+    }
+
+    @Test
+    public void should_get_items_one_by_one_when_getter_has_no_bulk_get() throws Exception {
+        final UserItem user1 = new UserItem();
+        doReturn(user1).when(getter).get(APIID.makeAPIID(1L));
+
+        final Map<APIID, UserItem> users = BulkGetUtil.getAll(getter, Arrays.asList(APIID.makeAPIID(1L)));
+
+        assertThat(users.get(APIID.makeAPIID(1L))).isSameAs(user1);
+    }
+
+    @Test
+    public void should_get_datastore_item_once_when_a_request_item_cache_is_bound() throws Exception {
+        final UserItem user = new UserItem();
+        doReturn(user).when(userDatastore).get(APIID.makeAPIID(1L));
+        requestItemCache.bind();
+
+        assertThat(BulkGetUtil.get(userDatastore, APIID.makeAPIID(1L))).isSameAs(user);
+        assertThat(BulkGetUtil.get(userDatastore, APIID.makeAPIID(1L))).isSameAs(user);
+
+        verify(userDatastore, times(1)).get(APIID.makeAPIID(1L));
+        assertThat(requestItemCache.getHits()).isEqualTo(1);
+        assertThat(requestItemCache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_only_bulk_get_items_missing_from_the_request_item_cache() throws Exception {
+        final UserItem user1 = new UserItem();
+        final UserItem user2 = new UserItem();
+        doReturn(user1).when(userDatastore).get(APIID.makeAPIID(1L));
+        doReturn(Collections.singletonMap(APIID.makeAPIID(2L), user2)).when(userDatastore).getAll(Arrays.asList(APIID.makeAPIID(2L)));
+        requestItemCache.bind();
+        BulkGetUtil.get(userDatastore, APIID.makeAPIID(1L));
+
+        final Map<APIID, UserItem> users = BulkGetUtil.getAll(userDatastore, Arrays.asList(APIID.makeAPIID(1L), APIID.makeAPIID(2L)));
+
+        assertThat(users.get(APIID.makeAPIID(1L))).isSameAs(user1);
+        assertThat(users.get(APIID.makeAPIID(2L))).isSameAs(user2);
+        verify(userDatastore).getAll(Arrays.asList(APIID.makeAPIID(2L)));
+    }
+
+    @Test
+    public void should_not_cache_items_when_no_request_item_cache_is_bound() throws Exception {
+        BulkGetUtil.get(userDatastore, APIID.makeAPIID(1L));
+        BulkGetUtil.get(userDatastore, APIID.makeAPIID(1L));
+
+        verify(userDatastore, times(2)).get(APIID.makeAPIID(1L));
+    }
+
+    private UserItem aUserManagedBy(final Long managerId) {
+        final UserItem user = new UserItem();
+        if (managerId != null) {
+            user.setManagerId(managerId);
+        }
+        return user;
+    }
+
+    private Map<APIID, UserItem> map(final APIID id1, final UserItem user1, final APIID id2, final UserItem user2) {
+        final Map<APIID, UserItem> map = new HashMap<APIID, UserItem>();
+        map.put(id1, user1);
+        map.put(id2, user2);
+        return map;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CounterBatchTest {
+
+    @Mock
+    private CaseItem item1;
+
+    @Mock
+    private CaseItem item2;
+
+    @Test
+    public void should_set_the_counters_on_their_items() throws Exception {
+        final CounterBatch counterBatch = new CounterBatch(10000L);
+        counterBatch.add(item1, CaseItem.COUNTER_FAILED_FLOW_NODES, count(1L));
+        counterBatch.add(item1, CaseItem.COUNTER_ACTIVE_FLOW_NODES, count(2L));
+        counterBatch.add(item2, CaseItem.COUNTER_FAILED_FLOW_NODES, count(3L));
+
+        counterBatch.fill();
+
+        verify(item1).setAttribute(CaseItem.COUNTER_FAILED_FLOW_NODES, (Object) 1L);
+        verify(item1).setAttribute(CaseItem.COUNTER_ACTIVE_FLOW_NODES, (Object) 2L);
+        verify(item2).setAttribute(CaseItem.COUNTER_FAILED_FLOW_NODES, (Object) 3L);
+    }
+
+    @Test
+    public void should_leave_counters_not_computed_within_the_time_budget_unset() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CounterBatch counterBatch = new CounterBatch(50L);
+        counterBatch.add(item1, CaseItem.COUNTER_FAILED_FLOW_NODES, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                latch.await();
+                return 1L;
+            }
+        });
+
+        try {
+            counterBatch.fill();
+        } finally {
+            latch.countDown();
+        }
+
+        verifyZeroInteractions(item1);
+    }
+
+    @Test
+    public void should_rethrow_api_exceptions_thrown_by_a_count() throws Exception {
+        final APIException exception = new APIException("count failed");
+        final CounterBatch counterBatch = new CounterBatch(10000L);
+        counterBatch.add(item1, CaseItem.COUNTER_FAILED_FLOW_NODES, new Callable<Long>() {
+
+            @Override
+            public Long call() {
+                throw exception;
+            }
+        });
+
+        try {
+            counterBatch.fill();
+        } catch (final APIException e) {
+            assertThat(e).isSameAs(exception);
+            return;
+        }
+        throw new AssertionError("APIException expected");
+    }
+
+    private Callable<Long> count(final long count) {
+        return new Callable<Long>() {
+
+            @Override
+            public Long call() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.rest.server.framework.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class EntityTagTest {
+
+    @Test
+    public void should_build_the_same_quoted_tag_for_the_same_content() throws Exception {
+        assertThat(EntityTag.of("{\"id\":\"1\"}")).isEqualTo(EntityTag.of("{\"id\":\"1\"}")).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    public void should_build_different_tags_for_different_contents() throws Exception {
+        assertThat(EntityTag.of("{\"id\":\"1\"}")).isNotEqualTo(EntityTag.of("{\"id\":\"2\"}"));
+    }
+
+    @Test
+    public void should_match_a_tag_in_a_list_of_tags() throws Exception {
+        final String tag = EntityTag.of("content");
+
+        assertThat(EntityTag.matches("\"other\", " + tag, tag)).isTrue();
+        assertThat(EntityTag.matches("W/" + tag, tag)).isTrue();
+        assertThat(EntityTag.matches("*", tag)).isTrue();
+    }
+
+    @Test
+    public void should_not_match_other_tags() throws Exception {
+        final String tag = EntityTag.of("content");
+
+        assertThat(EntityTag.matches(EntityTag.of("other content"), tag)).isFalse();
+        assertThat(EntityTag.matches(null, tag)).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 BonitaSoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.toolkit.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.web.rest.model.identity.UserItem;
+import org.bonitasoft.web.rest.server.APITestWithMock;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
+import org.bonitasoft.web.toolkit.client.common.json.JSonSerializer;
+import org.junit.Test;
+
+public class JSonStreamWriterTest extends APITestWithMock {
+
+    @Test
+    public void should_write_the_same_json_as_the_serializer_for_items_with_deploys() throws Exception {
+        final List<UserItem> users = new ArrayList<UserItem>();
+        for (int i = 0; i < 500; i++) {
+            users.add(aUser(i));
+        }
+
+        assertThat(write(users)).isEqualTo(JSonSerializer.serialize(users));
+    }
+
+    @Test
+    public void should_write_the_same_json_as_the_serializer_for_maps_and_values() throws Exception {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("string", "a \"quoted\" </value>");
+        map.put("number", 12L);
+        map.put("boolean", true);
+        map.put("date", new Date(0));
+        map.put("null", null);
+        map.put("list", Arrays.asList("a", 1, aUser(1)));
+
+        assertThat(write(map)).isEqualTo(JSonSerializer.serialize(map));
+    }
+
+    @Test
+    public void should_write_the_same_json_as_the_serializer_for_exceptions() throws Exception {
+        final Exception exception = new IllegalStateException("message", new APIException("cause"));
+
+        assertThat(write(exception)).isEqualTo(JSonSerializer.serialize(exception));
+    }
+
+    @Test
+    public void should_write_null() throws Exception {
+        assertThat(write(null)).isEqualTo("null");
+    }
+
+    private String write(final Object object) throws Exception {
+        final StringWriter writer = new StringWriter();
+        new JSonStreamWriter(writer).write(object);
+        return writer.toString();
+    }
+
+    private UserItem aUser(final long id) {
+        final UserItem user = new UserItem();
+        user.setId(id);
+        user.setUserName("user" + id);
+        user.setFirstName("Fïrst\nname");
+        final UserItem manager = new UserItem();
+        manager.setId(id + 1);
+        manager.setUserName("manager" + id);
+        user.setManagerId(id + 1);
+        user.setDeploy(UserItem.ATTRIBUTE_MANAGER_ID, manager);
+        return user;
+    }
+}